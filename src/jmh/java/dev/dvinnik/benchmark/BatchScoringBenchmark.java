@@ -0,0 +1,67 @@
+package dev.dvinnik.benchmark;
+
+import dev.dvinnik.core.BatchScoringResult;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.ParallelDiceScorer;
+import dev.dvinnik.core.RollBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of batch and parallel scoring, reported per batch of {#NUMBER_OF_ROLLS} rolls
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchScoringBenchmark {
+
+    private static final int NUMBER_OF_ROLLS = 1 << 20;
+
+    @Param
+    private DiceApiImplementation implementation;
+    @Param
+    private RollDistribution distribution;
+
+    private DiceApi diceApi;
+    private ParallelDiceScorer parallelDiceScorer;
+    private RollBatch rollBatch;
+    private int[] scores;
+    private int[] topCategoryMasks;
+
+    @Setup
+    public void setUp() {
+        diceApi = implementation.create();
+        parallelDiceScorer = new ParallelDiceScorer(diceApi);
+        rollBatch = RollBatch.ofPackedRolls(IntBuffer.wrap(distribution.packedRolls(NUMBER_OF_ROLLS)));
+        scores = new int[NUMBER_OF_ROLLS * CategoryMask.NUMBER_OF_CATEGORIES];
+        topCategoryMasks = new int[NUMBER_OF_ROLLS];
+    }
+
+    @Benchmark
+    public int[] scoreAll() {
+        diceApi.scoreAll(rollBatch, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public int[] topCategories() {
+        diceApi.topCategories(rollBatch, topCategoryMasks);
+        return topCategoryMasks;
+    }
+
+    @Benchmark
+    public BatchScoringResult parallelScoreAll() {
+        return parallelDiceScorer.scoreAll(rollBatch);
+    }
+
+    @Benchmark
+    public BatchScoringResult parallelSummarize() {
+        return parallelDiceScorer.summarize(rollBatch);
+    }
+}
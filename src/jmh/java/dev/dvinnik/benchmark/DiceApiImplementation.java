@@ -0,0 +1,41 @@
+package dev.dvinnik.benchmark;
+
+import dev.dvinnik.cache.CachingDiceApi;
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PrecomputedDiceApi;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.core.VectorDiceApi;
+import dev.dvinnik.metrics.InstrumentedDiceApi;
+
+import java.util.function.Supplier;
+
+/**
+ * Every {DiceApi} implementation that benchmarks compare side by side
+ */
+public enum DiceApiImplementation {
+    SCHOONER(SchoonerDiceApi::new),
+    TABULATED(TabulatedDiceApi::new),
+    PRECOMPUTED(PrecomputedDiceApi::new),
+    BITMASK(BitmaskDiceApi::new),
+    COMPILED_RULE_SET(RuleSet.STANDARD::compile),
+    // Overhead of instrumentation on top of the fastest single-roll implementation
+    INSTRUMENTED_TABULATED(() -> new InstrumentedDiceApi(new TabulatedDiceApi())),
+    // Memoized results of the reference implementation, served from the cache once every roll was seen
+    CACHING(() -> new CachingDiceApi(new SchoonerDiceApi())),
+    // Batch methods on the Vector API, and the same class with its scalar fallback
+    VECTOR(() -> new VectorDiceApi(true)),
+    VECTOR_SCALAR_FALLBACK(() -> new VectorDiceApi(false));
+
+    private final Supplier<DiceApi> factory;
+
+    DiceApiImplementation(final Supplier<DiceApi> factory) {
+        this.factory = factory;
+    }
+
+    public DiceApi create() {
+        return factory.get();
+    }
+}
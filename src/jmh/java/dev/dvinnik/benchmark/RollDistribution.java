@@ -0,0 +1,69 @@
+package dev.dvinnik.benchmark;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.PackedRoll;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Distributions of rolls that benchmarks run against, since some categories take different branches
+ * depending on the roll
+ */
+public enum RollDistribution {
+    // Every die is independent, as in real traffic
+    UNIFORM {
+        @Override
+        int[] nextRoll(final SplittableRandom random) {
+            final int[] diceRoll = new int[Category.NUMBER_OF_DICE];
+            for (int i = 0; i < diceRoll.length; i++) {
+                diceRoll[i] = random.nextInt(1, Category.NUMBER_OF_FACES + 1);
+            }
+            return diceRoll;
+        }
+    },
+    // Every roll is a Schooner
+    ALL_SAME {
+        @Override
+        int[] nextRoll(final SplittableRandom random) {
+            final int[] diceRoll = new int[Category.NUMBER_OF_DICE];
+            Arrays.fill(diceRoll, random.nextInt(1, Category.NUMBER_OF_FACES + 1));
+            return diceRoll;
+        }
+    },
+    // Every roll is a large straight in a random order
+    STRAIGHTS {
+        @Override
+        int[] nextRoll(final SplittableRandom random) {
+            final int firstFace = random.nextInt(1, Category.NUMBER_OF_FACES - Category.NUMBER_OF_DICE + 2);
+            final int[] diceRoll = new int[Category.NUMBER_OF_DICE];
+            for (int i = 0; i < diceRoll.length; i++) {
+                diceRoll[i] = firstFace + i;
+            }
+            for (int i = diceRoll.length - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1);
+                final int swap = diceRoll[i];
+                diceRoll[i] = diceRoll[j];
+                diceRoll[j] = swap;
+            }
+            return diceRoll;
+        }
+    };
+
+    // Fixed seed, so every run and every implementation sees the same rolls
+    private static final long SEED = 42;
+
+    abstract int[] nextRoll(final SplittableRandom random);
+
+    /**
+     * @return Packed rolls drawn from the distribution
+     */
+    public int[] packedRolls(final int numberOfRolls) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final int[] packedRolls = new int[numberOfRolls];
+        for (int i = 0; i < numberOfRolls; i++) {
+            packedRolls[i] = PackedRoll.pack(nextRoll(random), 0);
+        }
+        return packedRolls;
+    }
+}
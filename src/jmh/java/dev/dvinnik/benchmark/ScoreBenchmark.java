@@ -0,0 +1,54 @@
+package dev.dvinnik.benchmark;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of scoring a single roll for every category branch, through both the list and the primitive API
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark {
+
+    // Power of two, so the next roll is picked with a mask
+    private static final int NUMBER_OF_ROLLS = 1 << 10;
+
+    @Param
+    private DiceApiImplementation implementation;
+    @Param
+    private RollDistribution distribution;
+    @Param
+    private Category category;
+
+    private DiceApi diceApi;
+    private int[] packedRolls;
+    private List<List<Integer>> diceRolls;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        diceApi = implementation.create();
+        packedRolls = distribution.packedRolls(NUMBER_OF_ROLLS);
+        diceRolls = Arrays.stream(packedRolls).mapToObj(PackedRoll::toList).toList();
+    }
+
+    @Benchmark
+    public int scoreList() {
+        return diceApi.score(category, diceRolls.get(next++ & (NUMBER_OF_ROLLS - 1)));
+    }
+
+    @Benchmark
+    public int scorePackedRoll() {
+        return diceApi.score(category, packedRolls[next++ & (NUMBER_OF_ROLLS - 1)]);
+    }
+}
@@ -0,0 +1,47 @@
+package dev.dvinnik.benchmark;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of finding the top categories of a single roll
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopCategoriesBenchmark {
+
+    // Power of two, so the next roll is picked with a mask
+    private static final int NUMBER_OF_ROLLS = 1 << 10;
+
+    @Param
+    private DiceApiImplementation implementation;
+    @Param
+    private RollDistribution distribution;
+
+    private DiceApi diceApi;
+    private List<List<Integer>> diceRolls;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        diceApi = implementation.create();
+        diceRolls = Arrays.stream(distribution.packedRolls(NUMBER_OF_ROLLS))
+                .mapToObj(PackedRoll::toList)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Category> topCategories() {
+        return diceApi.topCategories(diceRolls.get(next++ & (NUMBER_OF_ROLLS - 1)));
+    }
+}
@@ -0,0 +1,144 @@
+package dev.dvinnik.analytics;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryCounts;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Counters of the rolls recorded by a single thread
+ *
+ * Only the owning thread writes a cell, so an increment is a plain read and an opaque write instead of an atomic
+ * read-modify-write, and other threads read the counters with opaque reads while summing cells into a snapshot.
+ *
+ * A window slot holds the rolls and per-category hits of one time bucket, and belongs to the bucket in its epoch.
+ * The owner reuses a slot for a newer bucket by setting its epoch to {#RESETTING}, zeroing it, and publishing the new
+ * epoch, so a reader that sees the same epoch before and after reading a slot didn't read it halfway through a reset.
+ */
+final class AnalyticsCell {
+
+    static final long RESETTING = -1;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int numberOfCategories;
+    private final int numberOfScoreBuckets;
+    private final int numberOfWindowBuckets;
+    // Window counters per slot: the number of rolls, followed by the hit count of every category
+    private final int windowSlotSize;
+
+    // Number of recorded rolls, in an array so it's updated like every other counter
+    final long[] rollCount = new long[1];
+    final CategoryCounts categoryCounts = new CategoryCounts();
+    // Score histogram of every category, i.e. {scoreCounts[category.ordinal() * numberOfScoreBuckets + score]}
+    final long[] scoreCounts;
+    final long[] windowEpochs;
+    final long[] windowCounts;
+
+    AnalyticsCell(final int numberOfCategories,
+                  final int numberOfScoreBuckets,
+                  final int numberOfWindowBuckets) {
+        this.numberOfCategories = numberOfCategories;
+        this.numberOfScoreBuckets = numberOfScoreBuckets;
+        this.numberOfWindowBuckets = numberOfWindowBuckets;
+        this.windowSlotSize = numberOfCategories + 1;
+        scoreCounts = new long[numberOfCategories * numberOfScoreBuckets];
+        windowEpochs = new long[numberOfWindowBuckets];
+        Arrays.fill(windowEpochs, RESETTING);
+        windowCounts = new long[numberOfWindowBuckets * windowSlotSize];
+    }
+
+    /**
+     * Records a single roll, only called by the owning thread
+     *
+     * @param scores Scores of every category, indexed by ordinal from {offset}
+     * @param topCategoryMask {CategoryMask} of the top categories
+     * @param epoch Time bucket of the roll
+     */
+    void record(final int[] scores,
+                final int offset,
+                final int topCategoryMask,
+                final long epoch) {
+        final int slot = (int) Math.floorMod(epoch, (long) numberOfWindowBuckets);
+        final int slotStart = slot * windowSlotSize;
+        final long slotEpoch = (long) LONGS.getOpaque(windowEpochs, slot);
+        // A roll older than the bucket its slot already moved on to, i.e. after the clock went back, isn't windowed
+        final boolean windowed = slotEpoch <= epoch;
+        if (slotEpoch < epoch) {
+            reset(slot, slotStart, epoch);
+        }
+
+        increment(rollCount, 0);
+        if (windowed) {
+            increment(windowCounts, slotStart);
+        }
+        categoryCounts.add(scores, offset, topCategoryMask);
+        for (int categoryIndex = 0; categoryIndex < numberOfCategories; categoryIndex++) {
+            final int score = scores[offset + categoryIndex];
+            increment(scoreCounts, categoryIndex * numberOfScoreBuckets + scoreBucket(score));
+            if (windowed && score > Category.DEFAULT_SCORE) {
+                increment(windowCounts, slotStart + 1 + categoryIndex);
+            }
+        }
+    }
+
+    /**
+     * Adds the counters of the last {numberOfWindowBuckets} time buckets up to {lastEpoch} to {windowCounts}
+     *
+     * @param windowCounts Counters in the layout of {#windowCounts}, ordered from the oldest bucket
+     */
+    void addWindowTo(final long[] windowCounts,
+                     final long lastEpoch) {
+        final long[] slotCounts = new long[windowSlotSize];
+        for (int slot = 0; slot < numberOfWindowBuckets; slot++) {
+            final long epoch = (long) LONGS.getAcquire(windowEpochs, slot);
+            final long age = lastEpoch - epoch;
+            if (epoch == RESETTING || age < 0 || age >= numberOfWindowBuckets) {
+                continue;
+            }
+            for (int i = 0; i < windowSlotSize; i++) {
+                slotCounts[i] = (long) LONGS.getOpaque(this.windowCounts, slot * windowSlotSize + i);
+            }
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(windowEpochs, slot) != epoch) {
+                continue;
+            }
+            final int bucketStart = (int) (numberOfWindowBuckets - 1 - age) * windowSlotSize;
+            for (int i = 0; i < windowSlotSize; i++) {
+                windowCounts[bucketStart + i] += slotCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Adds opaque reads of the counters to the arrays, which have the layout of the counters of the cell
+     */
+    static void addTo(final long[] counters,
+                      final long[] sums) {
+        for (int i = 0; i < counters.length; i++) {
+            sums[i] += (long) LONGS.getOpaque(counters, i);
+        }
+    }
+
+    int scoreBucket(final int score) {
+        return Math.max(0, Math.min(score, numberOfScoreBuckets - 1));
+    }
+
+    private void reset(final int slot,
+                       final int slotStart,
+                       final long epoch) {
+        LONGS.setOpaque(windowEpochs, slot, RESETTING);
+        VarHandle.storeStoreFence();
+        for (int i = 0; i < windowSlotSize; i++) {
+            LONGS.setOpaque(windowCounts, slotStart + i, 0L);
+        }
+        LONGS.setRelease(windowEpochs, slot, epoch);
+    }
+
+    private static void increment(final long[] counters,
+                                  final int index) {
+        LONGS.setOpaque(counters, index, (long) LONGS.getOpaque(counters, index) + 1);
+    }
+}
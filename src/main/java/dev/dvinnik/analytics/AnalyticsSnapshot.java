@@ -0,0 +1,255 @@
+package dev.dvinnik.analytics;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+
+/**
+ * Counters of a {CategoryAnalytics} at the time of {CategoryAnalytics#snapshot}, or the merge of such counters
+ * from several nodes
+ *
+ * Snapshots are serialised with {#toBytes} as a little-endian header followed by every counter, and merging adds up
+ * the counters, so merging is associative and commutative, and a merged snapshot can be merged again.
+ *
+ * Decisions explained:
+ *  1) Windows are merged by time bucket, and the merged window ends at the later of the two, so buckets that fell
+ *  out of it are dropped rather than shifted.
+ *
+ *  2) Counters depend on the order of {Category}, so the header holds a fingerprint of that order, and snapshots
+ *  of another order are rejected instead of being silently misread.
+ */
+public final class AnalyticsSnapshot {
+
+    private static final String INVALID_SNAPSHOT_EXCEPTION = "Bytes aren't an analytics snapshot of this version";
+    private static final String INCOMPATIBLE_SNAPSHOT_EXCEPTION = "Snapshots have different windows";
+
+    private static final int MAGIC = 0x5343_4153;
+    private static final int VERSION = 1;
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+    private static final int NUMBER_OF_SCORE_BUCKETS = CategoryAnalytics.NUMBER_OF_SCORE_BUCKETS;
+    private static final int WINDOW_SLOT_SIZE = NUMBER_OF_CATEGORIES + 1;
+    // Magic, version, category fingerprint and number of window buckets, followed by the bucket width,
+    // the last window bucket and the number of rolls
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + 3 * Long.BYTES;
+
+    private final long numberOfRolls;
+    private final long[] topCategoryCounts;
+    private final long[] hitCounts;
+    private final long[] scoreCounts;
+    private final long windowBucketWidthMillis;
+    private final long lastWindowBucket;
+    // Rolls and hits of every category per window bucket, from the oldest bucket to {lastWindowBucket}
+    private final long[] windowCounts;
+
+    AnalyticsSnapshot(final long numberOfRolls,
+                      final long[] topCategoryCounts,
+                      final long[] hitCounts,
+                      final long[] scoreCounts,
+                      final long windowBucketWidthMillis,
+                      final long lastWindowBucket,
+                      final long[] windowCounts) {
+        this.numberOfRolls = numberOfRolls;
+        this.topCategoryCounts = topCategoryCounts;
+        this.hitCounts = hitCounts;
+        this.scoreCounts = scoreCounts;
+        this.windowBucketWidthMillis = windowBucketWidthMillis;
+        this.lastWindowBucket = lastWindowBucket;
+        this.windowCounts = windowCounts;
+    }
+
+    public long getNumberOfRolls() {
+        return numberOfRolls;
+    }
+
+    /**
+     * @return Number of rolls where the category is one of the top categories
+     */
+    public long getTopCategoryCount(final Category category) {
+        return topCategoryCounts[category.ordinal()];
+    }
+
+    /**
+     * @return Share of rolls where the category is one of the top categories, or zero if there were no rolls
+     */
+    public double getTopCategoryRate(final Category category) {
+        return numberOfRolls == 0 ? 0 : (double) getTopCategoryCount(category) / numberOfRolls;
+    }
+
+    /**
+     * @return Number of rolls that scored more than {Category#DEFAULT_SCORE} for the category
+     */
+    public long getHitCount(final Category category) {
+        return hitCounts[category.ordinal()];
+    }
+
+    /**
+     * @return Number of rolls with the score for the category, where the last bucket
+     * ({CategoryAnalytics#NUMBER_OF_SCORE_BUCKETS} - 1) also counts every higher score
+     */
+    public long getScoreCount(final Category category,
+                              final int score) {
+        if (score < 0 || score >= NUMBER_OF_SCORE_BUCKETS) {
+            return 0;
+        }
+        return scoreCounts[category.ordinal() * NUMBER_OF_SCORE_BUCKETS + score];
+    }
+
+    /**
+     * @return Mean score for the category, or zero if there were no rolls
+     */
+    public double getMeanScore(final Category category) {
+        long scoreSum = 0;
+        for (int score = 0; score < NUMBER_OF_SCORE_BUCKETS; score++) {
+            scoreSum += score * getScoreCount(category, score);
+        }
+        return numberOfRolls == 0 ? 0 : (double) scoreSum / numberOfRolls;
+    }
+
+    public Duration getWindowBucketWidth() {
+        return Duration.ofMillis(windowBucketWidthMillis);
+    }
+
+    public int getNumberOfWindowBuckets() {
+        return windowCounts.length / WINDOW_SLOT_SIZE;
+    }
+
+    /**
+     * @return Number of the last bucket of the window, counted in bucket widths from the epoch of the clock
+     */
+    public long getLastWindowBucket() {
+        return lastWindowBucket;
+    }
+
+    /**
+     * @param bucketIndex Bucket of the window, from 0 for the oldest to {#getNumberOfWindowBuckets()} - 1
+     *                    for {#getLastWindowBucket()}
+     */
+    public long getWindowNumberOfRolls(final int bucketIndex) {
+        return windowCounts[bucketIndex * WINDOW_SLOT_SIZE];
+    }
+
+    /**
+     * @param bucketIndex Bucket of the window, see {#getWindowNumberOfRolls(int)}
+     */
+    public long getWindowHitCount(final Category category,
+                                  final int bucketIndex) {
+        return windowCounts[bucketIndex * WINDOW_SLOT_SIZE + 1 + category.ordinal()];
+    }
+
+    /**
+     * @return Number of rolls in the whole window
+     */
+    public long getWindowNumberOfRolls() {
+        long windowNumberOfRolls = 0;
+        for (int bucketIndex = 0; bucketIndex < getNumberOfWindowBuckets(); bucketIndex++) {
+            windowNumberOfRolls += getWindowNumberOfRolls(bucketIndex);
+        }
+        return windowNumberOfRolls;
+    }
+
+    /**
+     * @return Share of the rolls in the whole window that scored for the category, or zero if there were no rolls
+     */
+    public double getWindowHitRate(final Category category) {
+        long windowHitCount = 0;
+        for (int bucketIndex = 0; bucketIndex < getNumberOfWindowBuckets(); bucketIndex++) {
+            windowHitCount += getWindowHitCount(category, bucketIndex);
+        }
+        final long windowNumberOfRolls = getWindowNumberOfRolls();
+        return windowNumberOfRolls == 0 ? 0 : (double) windowHitCount / windowNumberOfRolls;
+    }
+
+    /**
+     * @return New snapshot with the counters of both snapshots
+     * @throws IllegalArgumentException If the snapshots have windows of different bucket widths or lengths
+     */
+    public AnalyticsSnapshot merge(final AnalyticsSnapshot other) {
+        if (windowBucketWidthMillis != other.windowBucketWidthMillis
+                || windowCounts.length != other.windowCounts.length) {
+            throw new IllegalArgumentException(INCOMPATIBLE_SNAPSHOT_EXCEPTION);
+        }
+        final long mergedLastWindowBucket = Math.max(lastWindowBucket, other.lastWindowBucket);
+        final long[] mergedWindowCounts = new long[windowCounts.length];
+        addWindow(this, mergedLastWindowBucket, mergedWindowCounts);
+        addWindow(other, mergedLastWindowBucket, mergedWindowCounts);
+        return new AnalyticsSnapshot(numberOfRolls + other.numberOfRolls,
+                sum(topCategoryCounts, other.topCategoryCounts), sum(hitCounts, other.hitCounts),
+                sum(scoreCounts, other.scoreCounts), windowBucketWidthMillis, mergedLastWindowBucket,
+                mergedWindowCounts);
+    }
+
+    /**
+     * @return Serialised snapshot, which {#fromBytes} reads back
+     */
+    public byte[] toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(size(getNumberOfWindowBuckets())).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(CategoryMask.fingerprint()).putInt(getNumberOfWindowBuckets())
+                .putLong(windowBucketWidthMillis).putLong(lastWindowBucket).putLong(numberOfRolls);
+        buffer.asLongBuffer().put(topCategoryCounts).put(hitCounts).put(scoreCounts).put(windowCounts);
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException If the bytes aren't a snapshot, or were written for another order of categories
+     */
+    public static AnalyticsSnapshot fromBytes(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getInt() != CategoryMask.fingerprint()) {
+                throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+            }
+            final int numberOfWindowBuckets = buffer.getInt();
+            if (numberOfWindowBuckets <= 0 || bytes.length != size(numberOfWindowBuckets)) {
+                throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+            }
+            final long windowBucketWidthMillis = buffer.getLong();
+            final long lastWindowBucket = buffer.getLong();
+            final long numberOfRolls = buffer.getLong();
+            final long[] topCategoryCounts = new long[NUMBER_OF_CATEGORIES];
+            final long[] hitCounts = new long[NUMBER_OF_CATEGORIES];
+            final long[] scoreCounts = new long[NUMBER_OF_CATEGORIES * NUMBER_OF_SCORE_BUCKETS];
+            final long[] windowCounts = new long[numberOfWindowBuckets * WINDOW_SLOT_SIZE];
+            buffer.asLongBuffer().get(topCategoryCounts).get(hitCounts).get(scoreCounts).get(windowCounts);
+            return new AnalyticsSnapshot(numberOfRolls, topCategoryCounts, hitCounts, scoreCounts,
+                    windowBucketWidthMillis, lastWindowBucket, windowCounts);
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Adds the window buckets of the snapshot that are part of the window ending at {lastWindowBucket}
+     */
+    private static void addWindow(final AnalyticsSnapshot snapshot,
+                                  final long lastWindowBucket,
+                                  final long[] windowCounts) {
+        final int shift = (int) Math.min(lastWindowBucket - snapshot.lastWindowBucket,
+                snapshot.getNumberOfWindowBuckets());
+        for (int bucketIndex = shift; bucketIndex < snapshot.getNumberOfWindowBuckets(); bucketIndex++) {
+            for (int i = 0; i < WINDOW_SLOT_SIZE; i++) {
+                windowCounts[(bucketIndex - shift) * WINDOW_SLOT_SIZE + i] +=
+                        snapshot.windowCounts[bucketIndex * WINDOW_SLOT_SIZE + i];
+            }
+        }
+    }
+
+    private static long[] sum(final long[] counts,
+                              final long[] otherCounts) {
+        final long[] sum = counts.clone();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += otherCounts[i];
+        }
+        return sum;
+    }
+
+    private static int size(final int numberOfWindowBuckets) {
+        return HEADER_SIZE + (2 * NUMBER_OF_CATEGORIES + NUMBER_OF_CATEGORIES * NUMBER_OF_SCORE_BUCKETS
+                + numberOfWindowBuckets * WINDOW_SLOT_SIZE) * Long.BYTES;
+    }
+}
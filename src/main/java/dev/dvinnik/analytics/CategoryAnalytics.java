@@ -0,0 +1,146 @@
+package dev.dvinnik.analytics;
+
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.RollBatch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Live analytics of scored rolls: how often every category tops a roll, score histograms per category,
+ * and per-category hit counts over a sliding window of time buckets
+ *
+ * Every thread records into its own {AnalyticsCell}, so recording a roll is a fixed number of uncontended counter
+ * updates, without locks or atomic read-modify-writes. {#snapshot} sums the cells into an {AnalyticsSnapshot},
+ * which can be serialised, sent to other nodes and merged with their snapshots.
+ *
+ * Decisions explained:
+ *  1) Every accumulator has a fixed size: histograms have {#NUMBER_OF_SCORE_BUCKETS} buckets, where higher scores
+ *  go into the last one, and the window is a ring of {numberOfWindowBuckets} slots that are reused as time moves on.
+ *
+ *  2) Time buckets are numbered from the epoch of the {Clock}, i.e. {millis / bucketWidth}, so windows of snapshots
+ *  taken on different nodes line up when they are merged.
+ *
+ * Note: a cell lives as long as the analytics, even after its thread ended, since its counts are part of the totals.
+ * Snapshots are taken without stopping recording threads, so rolls recorded meanwhile may or may not be part of them.
+ */
+public class CategoryAnalytics {
+
+    private static final String INVALID_BUCKET_WIDTH_EXCEPTION = "Window bucket width should be positive";
+    private static final String INVALID_NUMBER_OF_BUCKETS_EXCEPTION = "Window should have at least one bucket";
+
+    public static final int NUMBER_OF_SCORE_BUCKETS = 64;
+    public static final Duration DEFAULT_WINDOW_BUCKET_WIDTH = Duration.ofSeconds(1);
+    public static final int DEFAULT_NUMBER_OF_WINDOW_BUCKETS = 60;
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private final Clock clock;
+    private final long bucketWidthMillis;
+    private final int numberOfWindowBuckets;
+    private final Queue<AnalyticsCell> cells = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<AnalyticsCell> threadCell = ThreadLocal.withInitial(this::newCell);
+
+    /**
+     * Default constructor with a window of {#DEFAULT_NUMBER_OF_WINDOW_BUCKETS} buckets of
+     * {#DEFAULT_WINDOW_BUCKET_WIDTH} on the UTC system clock
+     */
+    public CategoryAnalytics() {
+        this(Clock.systemUTC(), DEFAULT_WINDOW_BUCKET_WIDTH, DEFAULT_NUMBER_OF_WINDOW_BUCKETS);
+    }
+
+    /**
+     * @param clock Clock that rolls are bucketed by
+     * @param windowBucketWidth Time covered by a single bucket of the window, at least a millisecond
+     * @param numberOfWindowBuckets Number of buckets of the window, the last of which is the current one
+     */
+    public CategoryAnalytics(final Clock clock,
+                             final Duration windowBucketWidth,
+                             final int numberOfWindowBuckets) {
+        if (windowBucketWidth.toMillis() <= 0) {
+            throw new IllegalArgumentException(INVALID_BUCKET_WIDTH_EXCEPTION);
+        }
+        if (numberOfWindowBuckets <= 0) {
+            throw new IllegalArgumentException(INVALID_NUMBER_OF_BUCKETS_EXCEPTION);
+        }
+        this.clock = clock;
+        this.bucketWidthMillis = windowBucketWidth.toMillis();
+        this.numberOfWindowBuckets = numberOfWindowBuckets;
+    }
+
+    /**
+     * Records a single scored roll
+     *
+     * @param scores Scores of every category, indexed by {Enum#ordinal()} from {offset}
+     * @param offset Position of the score of the first category in the array
+     * @param topCategoryMask {CategoryMask} of the top categories of the roll
+     */
+    public void record(final int[] scores,
+                       final int offset,
+                       final int topCategoryMask) {
+        threadCell.get().record(scores, offset, topCategoryMask, currentEpoch());
+    }
+
+    /**
+     * Records rolls scored by the batch methods of a {DiceApi}
+     *
+     * @param scores Scores in the layout of {DiceApi#scoreAll}
+     * @param topCategoryMasks Top categories in the layout of {DiceApi#topCategories(RollBatch, int[])}
+     * @param numberOfRolls Number of rolls to record from the start of the arrays
+     */
+    public void record(final int[] scores,
+                       final int[] topCategoryMasks,
+                       final int numberOfRolls) {
+        final AnalyticsCell cell = threadCell.get();
+        final long epoch = currentEpoch();
+        for (int i = 0; i < numberOfRolls; i++) {
+            cell.record(scores, i * NUMBER_OF_CATEGORIES, topCategoryMasks[i], epoch);
+        }
+    }
+
+    /**
+     * Scores every roll of the batch with the {DiceApi} and records it
+     */
+    public void record(final DiceApi diceApi,
+                       final RollBatch rollBatch) {
+        final int[] scores = new int[rollBatch.size() * NUMBER_OF_CATEGORIES];
+        final int[] topCategoryMasks = new int[rollBatch.size()];
+        diceApi.scoreAll(rollBatch, scores);
+        diceApi.topCategories(rollBatch, topCategoryMasks);
+        record(scores, topCategoryMasks, rollBatch.size());
+    }
+
+    /**
+     * Sums the counters of every thread, with the window ending at the current time bucket
+     */
+    public AnalyticsSnapshot snapshot() {
+        final long lastEpoch = currentEpoch();
+        final long[] rollCount = new long[1];
+        final long[] topCategoryCounts = new long[NUMBER_OF_CATEGORIES];
+        final long[] hitCounts = new long[NUMBER_OF_CATEGORIES];
+        final long[] scoreCounts = new long[NUMBER_OF_CATEGORIES * NUMBER_OF_SCORE_BUCKETS];
+        final long[] windowCounts = new long[numberOfWindowBuckets * (NUMBER_OF_CATEGORIES + 1)];
+        for (AnalyticsCell cell : cells) {
+            AnalyticsCell.addTo(cell.rollCount, rollCount);
+            cell.categoryCounts.addTo(hitCounts, topCategoryCounts);
+            AnalyticsCell.addTo(cell.scoreCounts, scoreCounts);
+            cell.addWindowTo(windowCounts, lastEpoch);
+        }
+        return new AnalyticsSnapshot(rollCount[0], topCategoryCounts, hitCounts, scoreCounts, bucketWidthMillis,
+                lastEpoch, windowCounts);
+    }
+
+    private long currentEpoch() {
+        return clock.millis() / bucketWidthMillis;
+    }
+
+    private AnalyticsCell newCell() {
+        final AnalyticsCell cell = new AnalyticsCell(NUMBER_OF_CATEGORIES, NUMBER_OF_SCORE_BUCKETS,
+                numberOfWindowBuckets);
+        cells.add(cell);
+        return cell;
+    }
+}
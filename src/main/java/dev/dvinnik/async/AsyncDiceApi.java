@@ -0,0 +1,307 @@
+package dev.dvinnik.async;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RollBatch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous facade of a {DiceApi} that coalesces concurrent requests for the same roll, and scores the distinct
+ * rolls in micro-batches
+ *
+ * A request for a roll that is already waiting or being scored gets the pending result of that roll instead of
+ * scoring it again (single flight). Other rolls are collected into a {RollBatch} until it holds {maxBatchSize} rolls,
+ * or its first roll has waited {maxWait}, and the batch is then scored with the batch methods of the {DiceApi}.
+ * So a request waits for at most {maxWait} plus the time to score a single batch.
+ *
+ * Decisions explained:
+ *  1) Rolls are coalesced by multiset (see {Roll}), so {[3, 1, 2, 4, 5]} and {[1, 2, 3, 4, 5]} share a result.
+ *
+ *  2) A roll is scored for every category at once, since scoring and top categories of a roll are requested together,
+ *  so {#score} and {#topCategories} of the same roll share a result too.
+ *
+ *  3) The lock only guards swapping the pending batch, and batches are scored on the executor, so callers never wait
+ *  for scoring and the facade never creates threads of its own.
+ *
+ *  4) A roll leaves the in-flight map before its result is completed, so a later request for it starts a new flight
+ *  rather than racing with the completion.
+ *
+ * Note: invalid rolls are rejected right away with an {IllegalArgumentException}, while a failure of the {DiceApi}
+ * or a rejection of the executor completes every request of the batch exceptionally.
+ */
+public class AsyncDiceApi implements AutoCloseable {
+
+    private static final String INVALID_BATCH_SIZE_EXCEPTION = "Maximum batch size should be positive";
+    private static final String CLOSED_EXCEPTION = "Async Dice API is closed";
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(1);
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private final DiceApi diceApi;
+    private final Executor executor;
+    private final Executor delayedFlushExecutor;
+    private final int maxBatchSize;
+    private final ConcurrentHashMap<Roll, CompletableFuture<ScoredRoll>> inFlight = new ConcurrentHashMap<>();
+
+    // Guards the pending batch, since delayed flushes race with incoming requests
+    private final ReentrantLock lock = new ReentrantLock();
+    private PendingBatch pendingBatch;
+    private boolean closed;
+
+    private final LongAdder numberOfRequests = new LongAdder();
+    private final LongAdder numberOfCoalescedRequests = new LongAdder();
+    private final LongAdder numberOfBatches = new LongAdder();
+
+    /**
+     * Default constructor that scores batches of up to {#DEFAULT_MAX_BATCH_SIZE} rolls on the common {ForkJoinPool}
+     */
+    public AsyncDiceApi(final DiceApi diceApi) {
+        this(diceApi, ForkJoinPool.commonPool(), DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * @param diceApi Implementation used to score the batches. It has to be safe to call from several threads.
+     * @param executor Executor scoring the batches and completing the results. It is not shut down by the facade.
+     * @param maxBatchSize Number of distinct rolls from which a batch is scored right away
+     * @param maxWait Longest time a roll waits for its batch to fill up
+     */
+    public AsyncDiceApi(final DiceApi diceApi,
+                        final Executor executor,
+                        final int maxBatchSize,
+                        final Duration maxWait) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(INVALID_BATCH_SIZE_EXCEPTION);
+        }
+        this.diceApi = diceApi;
+        this.executor = executor;
+        // Delayed flushes run on the delayer thread itself, so a rejection of the executor is handled by {#flush}
+        // instead of being lost on the delayer thread
+        this.delayedFlushExecutor = CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS,
+                Runnable::run);
+        this.maxBatchSize = maxBatchSize;
+        this.pendingBatch = new PendingBatch(maxBatchSize);
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param diceRoll Collection of dice throws
+     * @return Future score for the specified category
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     * @throws IllegalStateException If the facade is closed
+     */
+    public CompletableFuture<Integer> score(final Category category,
+                                            final List<Integer> diceRoll) {
+        return score(category, Roll.ofPackedRoll(PackedRoll.pack(diceRoll)));
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param roll Validated roll, see {Roll}
+     * @return Future score for the specified category
+     * @throws IllegalStateException If the facade is closed
+     */
+    public CompletableFuture<Integer> score(final Category category,
+                                            final Roll roll) {
+        return request(roll).thenApply(scoredRoll -> scoredRoll.scores[category.ordinal()]);
+    }
+
+    /**
+     * @param diceRoll List of dice throws
+     * @return Future unmodifiable collection of categories that would produce the highest score for the dice throws
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     * @throws IllegalStateException If the facade is closed
+     */
+    public CompletableFuture<List<Category>> topCategories(final List<Integer> diceRoll) {
+        return topCategories(Roll.ofPackedRoll(PackedRoll.pack(diceRoll)));
+    }
+
+    /**
+     * @param roll Validated roll, see {Roll}
+     * @return Future unmodifiable collection of categories that would produce the highest score for the roll
+     * @throws IllegalStateException If the facade is closed
+     */
+    public CompletableFuture<List<Category>> topCategories(final Roll roll) {
+        return request(roll).thenApply(scoredRoll -> scoredRoll.topCategories);
+    }
+
+    /**
+     * @return Number of requests since the facade was created
+     */
+    public long getNumberOfRequests() {
+        return numberOfRequests.sum();
+    }
+
+    /**
+     * @return Number of requests that got the pending result of another request for the same roll
+     */
+    public long getNumberOfCoalescedRequests() {
+        return numberOfCoalescedRequests.sum();
+    }
+
+    /**
+     * @return Number of batches handed to the {DiceApi}
+     */
+    public long getNumberOfBatches() {
+        return numberOfBatches.sum();
+    }
+
+    /**
+     * Scores the pending batch right away, and rejects any further requests
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CompletableFuture<ScoredRoll> request(final Roll roll) {
+        numberOfRequests.increment();
+        final CompletableFuture<ScoredRoll> result = new CompletableFuture<>();
+        final CompletableFuture<ScoredRoll> pendingResult = inFlight.putIfAbsent(roll, result);
+        if (pendingResult != null) {
+            numberOfCoalescedRequests.increment();
+            return pendingResult;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                // Requests that were coalesced with this one in the meantime fail along with it
+                final IllegalStateException e = new IllegalStateException(CLOSED_EXCEPTION);
+                inFlight.remove(roll, result);
+                result.completeExceptionally(e);
+                throw e;
+            }
+            if (pendingBatch.rolls.isEmpty()) {
+                final PendingBatch firstRollBatch = pendingBatch;
+                delayedFlushExecutor.execute(() -> flushDelayed(firstRollBatch));
+            }
+            pendingBatch.add(roll, result);
+            if (pendingBatch.rolls.size() == maxBatchSize) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    private void flushDelayed(final PendingBatch batch) {
+        lock.lock();
+        try {
+            // The batch may have already been flushed because it filled up
+            if (batch == pendingBatch) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the pending batch to the executor and starts a new one
+     */
+    private void flush() {
+        final PendingBatch batch = pendingBatch;
+        if (batch.rolls.isEmpty()) {
+            return;
+        }
+        pendingBatch = new PendingBatch(maxBatchSize);
+        numberOfBatches.increment();
+        try {
+            executor.execute(() -> score(batch));
+        } catch (final RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void score(final PendingBatch batch) {
+        final int batchSize = batch.rolls.size();
+        final int[] scores = new int[batchSize * NUMBER_OF_CATEGORIES];
+        final int[] topCategoryMasks = new int[batchSize];
+        try {
+            diceApi.scoreAll(batch.rollBatch, scores);
+            diceApi.topCategories(batch.rollBatch, topCategoryMasks);
+        } catch (final RuntimeException e) {
+            fail(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < batchSize; i++) {
+            final int[] rollScores = new int[NUMBER_OF_CATEGORIES];
+            System.arraycopy(scores, i * NUMBER_OF_CATEGORIES, rollScores, 0, NUMBER_OF_CATEGORIES);
+            final ScoredRoll scoredRoll = new ScoredRoll(rollScores,
+                    Collections.unmodifiableList(CategoryMask.toList(topCategoryMasks[i])));
+            inFlight.remove(batch.rolls.get(i), batch.results.get(i));
+            batch.results.get(i).complete(scoredRoll);
+        }
+    }
+
+    private void fail(final PendingBatch batch,
+                      final RuntimeException e) {
+        for (int i = 0; i < batch.rolls.size(); i++) {
+            inFlight.remove(batch.rolls.get(i), batch.results.get(i));
+            batch.results.get(i).completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Distinct rolls waiting to be scored, along with their pending results
+     */
+    private static final class PendingBatch {
+        private final RollBatch rollBatch;
+        private final List<Roll> rolls;
+        private final List<CompletableFuture<ScoredRoll>> results;
+
+        private PendingBatch(final int maxBatchSize) {
+            rollBatch = new RollBatch(maxBatchSize);
+            rolls = new ArrayList<>(maxBatchSize);
+            results = new ArrayList<>(maxBatchSize);
+        }
+
+        private void add(final Roll roll,
+                         final CompletableFuture<ScoredRoll> result) {
+            rollBatch.addPackedRoll(roll.getPackedRoll());
+            rolls.add(roll);
+            results.add(result);
+        }
+    }
+
+    /**
+     * Scores of every category of a roll, indexed by ordinal, along with its top categories
+     */
+    private static final class ScoredRoll {
+        private final int[] scores;
+        private final List<Category> topCategories;
+
+        private ScoredRoll(final int[] scores,
+                           final List<Category> topCategories) {
+            this.scores = scores;
+            this.topCategories = topCategories;
+        }
+    }
+}
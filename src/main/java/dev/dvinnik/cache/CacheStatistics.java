@@ -0,0 +1,52 @@
+package dev.dvinnik.cache;
+
+/**
+ * Counters of a {CachingDiceApi} at the time of {CachingDiceApi#getStatistics}
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    CacheStatistics(final long hitCount,
+                    final long missCount,
+                    final long evictionCount,
+                    final int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Share of lookups served from the cache, or zero if there were no lookups
+     */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return Number of rolls that were dropped from the cache, or never admitted to it
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of cached rolls
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.dvinnik.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded part of a {CachingDiceApi} cache, guarded by its own lock, see {EvictionPolicy}
+ */
+final class CacheStripe<V> {
+
+    private static final int WINDOW_PERCENTAGE = 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int windowSize;
+    private final int mainSize;
+    // Both maps are in access order, so the first entry is the least recently used one
+    private final LinkedHashMap<Long, V> window;
+    private final LinkedHashMap<Long, V> main;
+    private final FrequencySketch frequencySketch;
+
+    CacheStripe(final int maximumSize,
+                final EvictionPolicy evictionPolicy) {
+        if (evictionPolicy == EvictionPolicy.TINY_LFU && maximumSize > 1) {
+            windowSize = Math.max(1, maximumSize * WINDOW_PERCENTAGE / 100);
+            frequencySketch = new FrequencySketch(maximumSize);
+        } else {
+            windowSize = 0;
+            frequencySketch = null;
+        }
+        mainSize = maximumSize - windowSize;
+        window = new LinkedHashMap<>(16, 0.75f, true);
+        main = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    V get(final long key) {
+        lock.lock();
+        try {
+            if (frequencySketch != null) {
+                frequencySketch.increment(key);
+            }
+            final V value = window.get(key);
+            return value != null ? value : main.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of evicted entries
+     */
+    int put(final long key,
+            final V value) {
+        lock.lock();
+        try {
+            if (window.containsKey(key)) {
+                window.put(key, value);
+                return 0;
+            }
+            if (frequencySketch == null || main.containsKey(key)) {
+                main.put(key, value);
+                if (main.size() <= mainSize) {
+                    return 0;
+                }
+                removeEldest(main);
+                return 1;
+            }
+
+            window.put(key, value);
+            if (window.size() <= windowSize) {
+                return 0;
+            }
+            final Map.Entry<Long, V> candidate = removeEldest(window);
+            if (main.size() < mainSize) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return 0;
+            }
+            // The candidate only replaces the victim if it's requested more often
+            final Long victim = main.keySet().iterator().next();
+            if (frequencySketch.frequency(candidate.getKey()) > frequencySketch.frequency(victim)) {
+                main.remove(victim);
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return window.size() + main.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <V> Map.Entry<Long, V> removeEldest(final LinkedHashMap<Long, V> map) {
+        final Iterator<Map.Entry<Long, V>> iterator = map.entrySet().iterator();
+        final Map.Entry<Long, V> eldest = iterator.next();
+        // The entry of the map isn't valid once it's removed
+        final Map.Entry<Long, V> removed = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return removed;
+    }
+}
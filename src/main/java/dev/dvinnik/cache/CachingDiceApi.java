@@ -0,0 +1,282 @@
+package dev.dvinnik.cache;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.FaceCounts;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.Roll;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dice API decorator that caches results of another implementation per multiset of dice
+ *
+ * A roll is canonicalised into its face counts, i.e. the number of dice showing each face packed into a {long},
+ * which is the same for every order of the dice, so {[3, 1, 2]} and {[1, 2, 3]} share an entry.
+ * An entry holds the scores of every category, and the top categories once they are requested.
+ *
+ * Decisions explained:
+ *  1) A miss scores the roll for every category at once, since the other categories of a roll are likely to be
+ *  requested next, i.e. by {#topCategories} or by a player comparing categories.
+ *
+ *  2) The cache is split into stripes, each bounded and guarded by its own lock, so concurrent lookups of different
+ *  rolls rarely wait for each other.
+ *
+ *  3) Rolls that can't be canonicalised, i.e. with more than 15 dice or faces outside of [1, 16], are passed to
+ *  the decorated implementation as they are, so it keeps validating them.
+ *
+ *  4) Array rolls are read with the number of dice of the decorated implementation (see {DiceApi#getNumberOfDice}),
+ *  so rolls of rule sets with more dice are keyed by all of their dice. Face counts also add up to the number of
+ *  dice, so rolls with different numbers of dice never share an entry.
+ *
+ * Note: caching by multiset assumes that the decorated implementation doesn't depend on the order of the dice.
+ */
+public class CachingDiceApi implements DiceApi {
+
+    private static final String INVALID_MAXIMUM_SIZE_EXCEPTION = "Maximum size of the cache should be positive";
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private static final int MAX_NUMBER_OF_STRIPES = 16;
+    // Small caches aren't striped, so their eviction order is exact
+    private static final int MIN_STRIPE_SIZE = 64;
+    private static final int MAX_FACE = Long.SIZE / FaceCounts.BITS_PER_FACE;
+    // Face counts are never all ones, since that would take 240 dice
+    private static final long NO_KEY = -1L;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final DiceApi delegate;
+    private final int numberOfDice;
+    private final CacheStripe<CachedRoll>[] stripes;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Default constructor that caches up to {#DEFAULT_MAXIMUM_SIZE} rolls with {EvictionPolicy#TINY_LFU}
+     */
+    public CachingDiceApi(final DiceApi delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE, EvictionPolicy.TINY_LFU);
+    }
+
+    /**
+     * @param delegate Implementation that is cached. It has to be safe to call from several threads.
+     * @param maximumSize Maximum number of cached rolls
+     * @param evictionPolicy Policy deciding which rolls are dropped once the cache is full
+     */
+    public CachingDiceApi(final DiceApi delegate,
+                          final int maximumSize,
+                          final EvictionPolicy evictionPolicy) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(INVALID_MAXIMUM_SIZE_EXCEPTION);
+        }
+        this.delegate = delegate;
+        this.numberOfDice = delegate.getNumberOfDice();
+        final int numberOfStripes =
+                Math.max(1, Math.min(MAX_NUMBER_OF_STRIPES, Integer.highestOneBit(maximumSize / MIN_STRIPE_SIZE)));
+        stripes = newStripes(numberOfStripes);
+        for (int i = 0; i < numberOfStripes; i++) {
+            // Stripes split the maximum size as evenly as possible
+            final int stripeSize = maximumSize / numberOfStripes + (i < maximumSize % numberOfStripes ? 1 : 0);
+            stripes[i] = new CacheStripe<>(stripeSize, evictionPolicy);
+        }
+    }
+
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        final long key = key(diceRoll);
+        if (key == NO_KEY) {
+            return delegate.score(category, diceRoll);
+        }
+        CachedRoll cachedRoll = lookup(key);
+        if (cachedRoll == null) {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category currentCategory : CATEGORIES) {
+                scores[currentCategory.ordinal()] = delegate.score(currentCategory, diceRoll);
+            }
+            cachedRoll = cache(key, scores);
+        }
+        return cachedRoll.scores[category.ordinal()];
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        long key = numberOfDice > FaceCounts.MAX_NUMBER_OF_DICE ? NO_KEY : 0;
+        for (int i = 0; i < numberOfDice && key != NO_KEY; i++) {
+            key = addFace(key, diceRoll[offset + i]);
+        }
+        if (key == NO_KEY) {
+            return delegate.score(category, diceRoll, offset);
+        }
+        CachedRoll cachedRoll = lookup(key);
+        if (cachedRoll == null) {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category currentCategory : CATEGORIES) {
+                scores[currentCategory.ordinal()] = delegate.score(currentCategory, diceRoll, offset);
+            }
+            cachedRoll = cache(key, scores);
+        }
+        return cachedRoll.scores[category.ordinal()];
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        final long key = FaceCounts.ofPackedRoll(PackedRoll.validate(packedRoll));
+        CachedRoll cachedRoll = lookup(key);
+        if (cachedRoll == null) {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category currentCategory : CATEGORIES) {
+                scores[currentCategory.ordinal()] = delegate.score(currentCategory, packedRoll);
+            }
+            cachedRoll = cache(key, scores);
+        }
+        return cachedRoll.scores[category.ordinal()];
+    }
+
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        final long key = roll.getFaceCounts();
+        CachedRoll cachedRoll = lookup(key);
+        if (cachedRoll == null) {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category currentCategory : CATEGORIES) {
+                scores[currentCategory.ordinal()] = delegate.score(currentCategory, roll);
+            }
+            cachedRoll = cache(key, scores);
+        }
+        return cachedRoll.scores[category.ordinal()];
+    }
+
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        final long key = key(diceRoll);
+        if (key == NO_KEY) {
+            return delegate.topCategories(diceRoll);
+        }
+        final CachedRoll cachedRoll = stripe(key).get(key);
+        if (cachedRoll != null && cachedRoll.topCategories != null) {
+            hitCount.increment();
+            return cachedRoll.topCategories;
+        }
+        missCount.increment();
+        final List<Category> topCategories = Collections.unmodifiableList(delegate.topCategories(diceRoll));
+        if (cachedRoll != null) {
+            cachedRoll.topCategories = topCategories;
+        } else {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category category : CATEGORIES) {
+                scores[category.ordinal()] = delegate.score(category, diceRoll);
+            }
+            cache(key, scores).topCategories = topCategories;
+        }
+        return topCategories;
+    }
+
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        final long key = roll.getFaceCounts();
+        final CachedRoll cachedRoll = stripe(key).get(key);
+        if (cachedRoll != null && cachedRoll.topCategories != null) {
+            hitCount.increment();
+            return cachedRoll.topCategories;
+        }
+        missCount.increment();
+        final List<Category> topCategories = Collections.unmodifiableList(delegate.topCategories(roll));
+        if (cachedRoll != null) {
+            cachedRoll.topCategories = topCategories;
+        } else {
+            final int[] scores = new int[CATEGORIES.length];
+            for (Category category : CATEGORIES) {
+                scores[category.ordinal()] = delegate.score(category, roll);
+            }
+            cache(key, scores).topCategories = topCategories;
+        }
+        return topCategories;
+    }
+
+    @Override
+    public int getNumberOfDice() {
+        return numberOfDice;
+    }
+
+    /**
+     * @return Hit and miss counts since the decorator was created, along with the current size of the cache
+     */
+    public CacheStatistics getStatistics() {
+        int size = 0;
+        for (CacheStripe<CachedRoll> stripe : stripes) {
+            size += stripe.size();
+        }
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), size);
+    }
+
+    private CachedRoll lookup(final long key) {
+        final CachedRoll cachedRoll = stripe(key).get(key);
+        if (cachedRoll != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return cachedRoll;
+    }
+
+    private CachedRoll cache(final long key,
+                             final int[] scores) {
+        final CachedRoll cachedRoll = new CachedRoll(scores);
+        final int evicted = stripe(key).put(key, cachedRoll);
+        if (evicted > 0) {
+            evictionCount.add(evicted);
+        }
+        return cachedRoll;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CacheStripe<CachedRoll>[] newStripes(final int numberOfStripes) {
+        return (CacheStripe<CachedRoll>[]) new CacheStripe<?>[numberOfStripes];
+    }
+
+    private CacheStripe<CachedRoll> stripe(final long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        hash ^= hash >>> 32;
+        return stripes[(int) hash & (stripes.length - 1)];
+    }
+
+    /**
+     * @return Face counts of the roll, or {#NO_KEY} if the roll can't be canonicalised
+     */
+    private static long key(final List<Integer> diceRoll) {
+        if (diceRoll.size() > FaceCounts.MAX_NUMBER_OF_DICE) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < diceRoll.size() && key != NO_KEY; i++) {
+            final Integer diceValue = diceRoll.get(i);
+            key = diceValue == null ? NO_KEY : addFace(key, diceValue);
+        }
+        return key;
+    }
+
+    private static long addFace(final long key,
+                                final int diceValue) {
+        return diceValue < 1 || diceValue > MAX_FACE
+                ? NO_KEY : key + (1L << (FaceCounts.BITS_PER_FACE * (diceValue - 1)));
+    }
+
+    private static final class CachedRoll {
+        private final int[] scores;
+        // Set once requested, racing threads set equal lists
+        private volatile List<Category> topCategories;
+
+        private CachedRoll(final int[] scores) {
+            this.scores = scores;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dvinnik.cache;
+
+/**
+ * Eviction policies of {CachingDiceApi}
+ */
+public enum EvictionPolicy {
+    /**
+     * Evicts the least recently used roll
+     */
+    LRU,
+    /**
+     * Simplified W-TinyLFU: new rolls enter a small LRU window, and a roll leaving the window only replaces the least
+     * recently used roll of the main area if it was requested more often, according to a frequency sketch.
+     * It keeps frequent rolls cached through bursts of rolls that are only seen once.
+     */
+    TINY_LFU
+}
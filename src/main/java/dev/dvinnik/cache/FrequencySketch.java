@@ -0,0 +1,61 @@
+package dev.dvinnik.cache;
+
+/**
+ * Count-min sketch of how often keys were requested, with counters that saturate at 15 and are halved periodically,
+ * so the sketch follows recent traffic rather than all-time counts
+ */
+final class FrequencySketch {
+
+    private static final int NUMBER_OF_HASHES = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final long[] SEEDS = new long[]{
+            0x9E37_79B9_7F4A_7C15L, 0xC2B2_AE3D_27D4_EB4FL, 0x1656_67B1_9E37_79F9L, 0x85EB_CA77_C2B2_AE63L};
+
+    private final int[] counters;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param maximumSize Number of keys of the cache the sketch is used for
+     */
+    FrequencySketch(final int maximumSize) {
+        counters = new int[Integer.highestOneBit(Math.max(16, maximumSize) * 4 - 1)];
+        sampleSize = 10 * Math.max(16, maximumSize);
+    }
+
+    void increment(final long key) {
+        boolean incremented = false;
+        for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+            final int index = index(key, i);
+            if (counters[index] < MAX_FREQUENCY) {
+                counters[index]++;
+                incremented = true;
+            }
+        }
+        if (incremented && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(final long key) {
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+            frequency = Math.min(frequency, counters[index(key, i)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int index(final long key,
+                      final int hash) {
+        long mixed = (key + SEEDS[hash]) * SEEDS[hash];
+        mixed ^= mixed >>> 32;
+        return (int) mixed & (counters.length - 1);
+    }
+}
@@ -0,0 +1,41 @@
+package dev.dvinnik.core;
+
+/**
+ * Scores runs of rolls straight from the lanes of a {RollBatch}, several rolls at a time, see {VectorDiceApi}
+ *
+ * A kernel only scores whole steps of {#rollsPerStep()} rolls and returns how many rolls it scored,
+ * so the caller scores the remaining rolls one by one.
+ */
+interface BatchScoringKernel {
+
+    int rollsPerStep();
+
+    /**
+     * @param scores Output array, where the score of the {i}-th roll is written to {scores[i]}
+     * @return Number of rolls scored from the start of the range
+     */
+    int score(Category category,
+              byte[][] lanes,
+              int offset,
+              int length,
+              int[] scores);
+
+    /**
+     * @param scores Output array, where the scores of the {i}-th roll start at {scores[i * NUMBER_OF_CATEGORIES]}
+     * @return Number of rolls scored from the start of the range
+     */
+    int scoreAll(byte[][] lanes,
+                 int offset,
+                 int length,
+                 int[] scores);
+
+    /**
+     * @param topCategoryMasks Output array, where the {CategoryMask} of the {i}-th roll is written to
+     *                         {topCategoryMasks[i]}
+     * @return Number of rolls scored from the start of the range
+     */
+    int topCategories(byte[][] lanes,
+                      int offset,
+                      int length,
+                      int[] topCategoryMasks);
+}
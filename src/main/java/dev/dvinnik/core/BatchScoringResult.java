@@ -0,0 +1,60 @@
+package dev.dvinnik.core;
+
+/**
+ * Merged result of scoring a batch of rolls with {ParallelDiceScorer}
+ *
+ * Per-roll arrays are laid out the same way as in {DiceApi#scoreAll} and {DiceApi#topCategories},
+ * and they are {null} when the batch was only summarised.
+ */
+public final class BatchScoringResult {
+
+    private final int numberOfRolls;
+    private final int[] scores;
+    private final int[] topCategoryMasks;
+    private final long[] hitCounts;
+    private final long[] topCategoryCounts;
+
+    BatchScoringResult(final int numberOfRolls,
+                       final int[] scores,
+                       final int[] topCategoryMasks,
+                       final long[] hitCounts,
+                       final long[] topCategoryCounts) {
+        this.numberOfRolls = numberOfRolls;
+        this.scores = scores;
+        this.topCategoryMasks = topCategoryMasks;
+        this.hitCounts = hitCounts;
+        this.topCategoryCounts = topCategoryCounts;
+    }
+
+    public int getNumberOfRolls() {
+        return numberOfRolls;
+    }
+
+    /**
+     * @return Scores of every roll for all categories, or {null} if the batch was only summarised
+     */
+    public int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * @return {CategoryMask} of the top categories of every roll, or {null} if the batch was only summarised
+     */
+    public int[] getTopCategoryMasks() {
+        return topCategoryMasks;
+    }
+
+    /**
+     * @return Number of rolls that scored more than {Category#DEFAULT_SCORE} for the category
+     */
+    public long getHitCount(final Category category) {
+        return hitCounts[category.ordinal()];
+    }
+
+    /**
+     * @return Number of rolls where the category is one of the top categories
+     */
+    public long getTopCategoryCount(final Category category) {
+        return topCategoryCounts[category.ordinal()];
+    }
+}
@@ -0,0 +1,221 @@
+package dev.dvinnik.core;
+
+import java.util.List;
+
+/**
+ * Dice API implementation that evaluates category rules with a handful of integer operations
+ *
+ * A roll is encoded as an 8-bit face-presence mask, where the bit {face - 1} is set if any die shows the face,
+ * plus its face counts packed into a {long} (see {FaceCounts}). Every rule then reduces to bit tests:
+ *  1) Straights AND the presence mask against precomputed masks of sequential faces.
+ *  2) N-of-a-kind adds {8 - n} to every 4-bit count at once, so the top bit of a count is set iff it's at least {n}.
+ *  Since a count is at most 5, no addition carries into the next count.
+ *  3) Full House, All Different and Schooner only look at the number of different faces and the counts.
+ *
+ * Scoring values are read from {Category} once, when the class is loaded, so evaluation never touches exceptions.
+ */
+public class BitmaskDiceApi implements DiceApi {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    // One in the lowest bit of every 4-bit count
+    private static final long COUNT_ONES = 0x1111_1111L;
+    // Top bit of every 4-bit count
+    private static final long COUNT_TOP_BITS = COUNT_ONES << (FaceCounts.BITS_PER_FACE - 1);
+    private static final long THREE_OF_A_KIND_ADDEND =
+            (8 - Category.THREE_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED) * COUNT_ONES;
+    private static final long FOUR_OF_A_KIND_ADDEND =
+            (8 - Category.FOUR_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED) * COUNT_ONES;
+
+    // Face counted by each of the single-type categories, indexed by ordinal
+    private static final int[] MATCHING_FACES = new int[CATEGORIES.length];
+
+    static {
+        for (Category category : List.of(Category.ONES, Category.TWOS, Category.THREES, Category.FOURS,
+                Category.FIVES, Category.SIXES, Category.SEVENS, Category.EIGHTS)) {
+            MATCHING_FACES[category.ordinal()] = category.getMatchingDiceScore();
+        }
+    }
+
+    private static final int[] SMALL_STRAIGHT_MASKS = runMasks(Category.SMALL_STRAIGHT.getMatchingDiceScore());
+    private static final int[] LARGE_STRAIGHT_MASKS = runMasks(Category.LARGE_STRAIGHT.getMatchingDiceScore());
+
+    private static final int FULL_HOUSE_SCORE = Category.FULL_HOUSE.getConstantDiceScore();
+    private static final int SMALL_STRAIGHT_SCORE = Category.SMALL_STRAIGHT.getConstantDiceScore();
+    private static final int ALL_DIFFERENT_SCORE = Category.ALL_DIFFERENT.getConstantDiceScore();
+    private static final int LARGE_STRAIGHT_SCORE = Category.LARGE_STRAIGHT.getConstantDiceScore();
+    private static final int SCHOONER_SCORE = Category.SCHOONER.getConstantDiceScore();
+
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        return score(category, PackedRoll.pack(diceRoll));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        return score(category, PackedRoll.pack(diceRoll, offset));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        PackedRoll.validate(packedRoll);
+        return score(category, presenceMask(packedRoll), FaceCounts.ofPackedRoll(packedRoll));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        return score(category, roll.getPresenceMask(), roll.getFaceCounts());
+    }
+
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        return CategoryMask.toList(topCategoryMask(PackedRoll.pack(diceRoll)));
+    }
+
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        return CategoryMask.toList(topCategoryMask(roll.getPackedRoll()));
+    }
+
+    @Override
+    public void scoreAll(final RollBatch rollBatch,
+                         final int[] scores) {
+        scoreAll(rollBatch, scores, 0);
+    }
+
+    @Override
+    public void topCategories(final RollBatch rollBatch,
+                              final int[] topCategoryMasks) {
+        topCategories(rollBatch, topCategoryMasks, 0);
+    }
+
+    /**
+     * Scores the rolls of the batch from {fromIndex} on into their positions in the layout of {DiceApi#scoreAll},
+     * so subclasses can score the rolls their batch methods leave over without a temporary array
+     */
+    void scoreAll(final RollBatch rollBatch,
+                  final int[] scores,
+                  final int fromIndex) {
+        for (int i = fromIndex; i < rollBatch.size(); i++) {
+            final int packedRoll = rollBatch.getPackedRoll(i);
+            final int presenceMask = presenceMask(packedRoll);
+            final long faceCounts = FaceCounts.ofPackedRoll(packedRoll);
+            for (int categoryIndex = 0; categoryIndex < CATEGORIES.length; categoryIndex++) {
+                scores[i * CATEGORIES.length + categoryIndex] =
+                        score(CATEGORIES[categoryIndex], presenceMask, faceCounts);
+            }
+        }
+    }
+
+    /**
+     * Finds top categories of the rolls of the batch from {fromIndex} on, see {#scoreAll(RollBatch, int[], int)}
+     */
+    void topCategories(final RollBatch rollBatch,
+                       final int[] topCategoryMasks,
+                       final int fromIndex) {
+        for (int i = fromIndex; i < rollBatch.size(); i++) {
+            topCategoryMasks[i] = topCategoryMask(rollBatch.getPackedRoll(i));
+        }
+    }
+
+    /**
+     * Produce a score for a particular category for an encoded roll
+     *
+     * @param category Expected category of the dice throw
+     * @param presenceMask Mask where the bit {face - 1} is set if any die shows the face
+     * @param faceCounts Face counts of the roll, see {FaceCounts}
+     * @return Either score for the specified category if it matches the roll, or {@code Category#DEFAULT_VALUE}
+     */
+    public static int score(final Category category,
+                            final int presenceMask,
+                            final long faceCounts) {
+        final int distinctCount = Integer.bitCount(presenceMask);
+        return switch (category) {
+            case ONES, TWOS, THREES, FOURS, FIVES, SIXES, SEVENS, EIGHTS -> {
+                final int face = MATCHING_FACES[category.ordinal()];
+                yield face * FaceCounts.count(faceCounts, face);
+            }
+            case THREE_OF_A_KIND -> hasCountOf(faceCounts, THREE_OF_A_KIND_ADDEND)
+                    ? sum(faceCounts) : Category.DEFAULT_SCORE;
+            case FOUR_OF_A_KIND -> hasCountOf(faceCounts, FOUR_OF_A_KIND_ADDEND)
+                    ? sum(faceCounts) : Category.DEFAULT_SCORE;
+            // Two different faces, one of them three times and none of them four times leaves exactly a pair
+            case FULL_HOUSE -> distinctCount == Category.NUMBER_OF_COMBINATIONS_FOR_FULL_HOUSE
+                    && hasCountOf(faceCounts, THREE_OF_A_KIND_ADDEND)
+                    && !hasCountOf(faceCounts, FOUR_OF_A_KIND_ADDEND) ? FULL_HOUSE_SCORE : Category.DEFAULT_SCORE;
+            case SMALL_STRAIGHT -> containsRun(presenceMask, SMALL_STRAIGHT_MASKS)
+                    ? SMALL_STRAIGHT_SCORE : Category.DEFAULT_SCORE;
+            case ALL_DIFFERENT -> distinctCount == Category.NUMBER_OF_DICE
+                    ? ALL_DIFFERENT_SCORE : Category.DEFAULT_SCORE;
+            case LARGE_STRAIGHT -> containsRun(presenceMask, LARGE_STRAIGHT_MASKS)
+                    ? LARGE_STRAIGHT_SCORE : Category.DEFAULT_SCORE;
+            case SCHOONER -> distinctCount == Category.NUMBER_OF_UNIQUE_SCORES_FOR_SCHOONER
+                    ? SCHOONER_SCORE : Category.DEFAULT_SCORE;
+            case CHANCE -> sum(faceCounts);
+        };
+    }
+
+    /**
+     * @return Mask where the bit {face - 1} is set if any die of the packed roll shows the face
+     */
+    public static int presenceMask(final int packedRoll) {
+        int presenceMask = 0;
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            presenceMask |= 1 << ((packedRoll >>> (PackedRoll.BITS_PER_DIE * i)) & 0x7);
+        }
+        return presenceMask;
+    }
+
+    private int topCategoryMask(final int packedRoll) {
+        final int presenceMask = presenceMask(packedRoll);
+        final long faceCounts = FaceCounts.ofPackedRoll(packedRoll);
+        int topScore = 0;
+        int topCategoryMask = CategoryMask.NONE;
+        for (Category category : CATEGORIES) {
+            final int currentScore = score(category, presenceMask, faceCounts);
+            if (currentScore > topScore) {
+                topScore = currentScore;
+                topCategoryMask = CategoryMask.of(category);
+            } else if (currentScore == topScore) {
+                topCategoryMask |= CategoryMask.of(category);
+            }
+        }
+        return topCategoryMask;
+    }
+
+    private static boolean hasCountOf(final long faceCounts, final long addend) {
+        return ((faceCounts + addend) & COUNT_TOP_BITS) != 0;
+    }
+
+    private static boolean containsRun(final int presenceMask, final int[] runMasks) {
+        boolean containsRun = false;
+        for (int runMask : runMasks) {
+            containsRun |= (presenceMask & runMask) == runMask;
+        }
+        return containsRun;
+    }
+
+    private static int sum(final long faceCounts) {
+        int sum = 0;
+        for (int face = 1; face <= Category.NUMBER_OF_FACES; face++) {
+            sum += face * FaceCounts.count(faceCounts, face);
+        }
+        return sum;
+    }
+
+    /**
+     * @return Masks of every run of sequential faces of the given length, i.e. 0b1111 for 1, 2, 3 and 4
+     */
+    private static int[] runMasks(final int runLength) {
+        final int[] runMasks = new int[Category.NUMBER_OF_FACES - runLength + 1];
+        for (int i = 0; i < runMasks.length; i++) {
+            runMasks[i] = ((1 << runLength) - 1) << i;
+        }
+        return runMasks;
+    }
+}
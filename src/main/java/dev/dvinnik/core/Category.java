@@ -57,6 +57,10 @@ public enum Category {
     // I would prefer to put it under {SchoonerDiceApi} class instead, but for simplicity and testing reasons, I put in here
     public static final int DEFAULT_SCORE = 0;
 
+    // Shape of a single roll in the Schooner Dice game: five dice with faces from ONES to EIGHTS
+    public static final int NUMBER_OF_DICE = 5;
+    public static final int NUMBER_OF_FACES = 8;
+
     private final Integer matchingDiceScore;
     private final Integer constantDiceScore;
 
@@ -76,22 +80,22 @@ public enum Category {
 
     /**
      * @return Value of dice that can be counted for a particular category or a number of sequential dice.
-     * @throws Exception If the value is null and should not be called on the category
+     * @throws IllegalStateException If the value is null and should not be called on the category
      */
-    public int getMatchingDiceScore() throws Exception {
+    public int getMatchingDiceScore() {
         if (matchingDiceScore == null) {
-            throw new Exception(MATCHING_VALUE_EXCEPTION);
+            throw new IllegalStateException(MATCHING_VALUE_EXCEPTION);
         }
         return matchingDiceScore;
     }
 
     /**
      * @return Value of a total score that a category should use
-     * @throws Exception If the value is null and should not be called on the category
+     * @throws IllegalStateException If the value is null and should not be called on the category
      */
-    public int getConstantDiceScore() throws Exception {
+    public int getConstantDiceScore() {
         if (constantDiceScore == null) {
-            throw new Exception(CONSTANT_VALUE_EXCEPTION);
+            throw new IllegalStateException(CONSTANT_VALUE_EXCEPTION);
         }
         return constantDiceScore;
     }
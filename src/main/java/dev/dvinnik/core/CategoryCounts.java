@@ -0,0 +1,73 @@
+package dev.dvinnik.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Number of rolls that hit every category, i.e. score more than {Category#DEFAULT_SCORE}, and number of rolls that
+ * have every category among their top categories
+ *
+ * Counts are written by one thread at a time, e.g. the owner of the counts or a thread holding a lock. An increment is
+ * a plain read and an opaque write, so other threads can read the counts with {#addTo} while they're updated, and the
+ * counts are exact once updates settle.
+ */
+public final class CategoryCounts {
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] hitCounts = new long[NUMBER_OF_CATEGORIES];
+    private final long[] topCategoryCounts = new long[NUMBER_OF_CATEGORIES];
+
+    /**
+     * Counts a single roll
+     *
+     * @param scores Scores of every category, indexed by {Enum#ordinal()} from {offset}
+     * @param offset Position of the score of the first category in the array
+     * @param topCategoryMask {CategoryMask} of the top categories of the roll
+     */
+    public void add(final int[] scores,
+                    final int offset,
+                    final int topCategoryMask) {
+        for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+            if (scores[offset + categoryIndex] > Category.DEFAULT_SCORE) {
+                increment(hitCounts, categoryIndex);
+            }
+            if ((topCategoryMask & (1 << categoryIndex)) != 0) {
+                increment(topCategoryCounts, categoryIndex);
+            }
+        }
+    }
+
+    /**
+     * Counts rolls scored by the batch methods of a {DiceApi}
+     *
+     * @param scores Scores in the layout of {DiceApi#scoreAll}
+     * @param topCategoryMasks Top categories in the layout of {DiceApi#topCategories(RollBatch, int[])}
+     * @param numberOfRolls Number of rolls to count from the start of the arrays
+     */
+    public void add(final int[] scores,
+                    final int[] topCategoryMasks,
+                    final int numberOfRolls) {
+        for (int i = 0; i < numberOfRolls; i++) {
+            add(scores, i * NUMBER_OF_CATEGORIES, topCategoryMasks[i]);
+        }
+    }
+
+    /**
+     * Adds the counts to the arrays, which are indexed by {Enum#ordinal()}
+     */
+    public void addTo(final long[] hitCounts,
+                      final long[] topCategoryCounts) {
+        for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+            hitCounts[categoryIndex] += (long) LONGS.getOpaque(this.hitCounts, categoryIndex);
+            topCategoryCounts[categoryIndex] += (long) LONGS.getOpaque(this.topCategoryCounts, categoryIndex);
+        }
+    }
+
+    private static void increment(final long[] counters,
+                                  final int index) {
+        LONGS.setOpaque(counters, index, (long) LONGS.getOpaque(counters, index) + 1);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.dvinnik.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utility for sets of categories encoded as an {int} bitmask, where the bit {Enum#ordinal()} stands for a category
+ *
+ * Note: the ordinal is only used as a position in the mask, so reordering categories changes the bits but not the
+ * meaning of a mask built at runtime. Binary files holding masks or per-category values store {#fingerprint()} in
+ * their header, and reject files written with a different order of categories.
+ */
+public final class CategoryMask {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    public static final int NUMBER_OF_CATEGORIES = CATEGORIES.length;
+    public static final int NONE = 0;
+    public static final int ALL = (1 << NUMBER_OF_CATEGORIES) - 1;
+
+    private CategoryMask() {
+    }
+
+    public static int of(final Category category) {
+        return 1 << category.ordinal();
+    }
+
+    public static int of(final Collection<Category> categories) {
+        int categoryMask = NONE;
+        for (Category category : categories) {
+            categoryMask |= of(category);
+        }
+        return categoryMask;
+    }
+
+    public static boolean contains(final int categoryMask, final Category category) {
+        return (categoryMask & of(category)) != 0;
+    }
+
+    /**
+     * @return Hash of the names of all categories in the order of {Category#values()}, which changes whenever the
+     * bits of masks do
+     */
+    public static int fingerprint() {
+        return Arrays.toString(CATEGORIES).hashCode();
+    }
+
+    /**
+     * @return Categories of the mask in the order of {Category#values()}
+     */
+    public static List<Category> toList(final int categoryMask) {
+        final List<Category> categories = new ArrayList<>(Integer.bitCount(categoryMask));
+        for (Category category : CATEGORIES) {
+            if (contains(categoryMask, category)) {
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+}
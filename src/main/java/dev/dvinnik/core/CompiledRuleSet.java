@@ -0,0 +1,241 @@
+package dev.dvinnik.core;
+
+import java.util.*;
+
+/**
+ * Dice API implementation of a {RuleSet}, where every possible roll is scored once when the rule set is compiled
+ *
+ * Scores only depend on how many dice show each face, so rolls are tabulated by multiset rather than by order,
+ * and a roll is looked up by its rank (see {MultisetRanking}), which costs one table read per face.
+ *
+ * Decisions explained:
+ *  1) Multisets are generated in the same order as they are ranked, so the rank of a multiset is its row in the table.
+ *
+ *  2) Top categories are shared unmodifiable lists, one per distinct set of top categories.
+ */
+public class CompiledRuleSet implements DiceApi {
+
+    private static final String INVALID_ROLL_EXCEPTION = "Dice roll doesn't match the rule set";
+    private static final String TOO_MANY_ROLLS_EXCEPTION = "Rule set has too many possible rolls to tabulate";
+
+    public static final int MAX_NUMBER_OF_MULTISETS = 1 << 20;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final RuleSet ruleSet;
+    private final int numberOfDice;
+    private final int numberOfFaces;
+    private final boolean standardShape;
+    private final MultisetRanking multisetRanking;
+    // Scores of every category for every multiset, i.e. {scores[rank * CATEGORIES.length + category.ordinal()]}
+    private final int[] scores;
+    private final int[] topCategoryMasks;
+    private final Map<Integer, List<Category>> topCategoriesByMask = new HashMap<>();
+
+    CompiledRuleSet(final RuleSet ruleSet) {
+        this.ruleSet = ruleSet;
+        this.numberOfDice = ruleSet.getNumberOfDice();
+        this.numberOfFaces = ruleSet.getNumberOfFaces();
+        this.standardShape = numberOfDice == Category.NUMBER_OF_DICE && numberOfFaces == Category.NUMBER_OF_FACES;
+
+        multisetRanking = new MultisetRanking(numberOfDice, numberOfFaces);
+        final long numberOfMultisets = multisetRanking.numberOfMultisets(numberOfDice);
+        if (numberOfMultisets > MAX_NUMBER_OF_MULTISETS) {
+            throw new IllegalArgumentException(TOO_MANY_ROLLS_EXCEPTION);
+        }
+
+        scores = new int[(int) numberOfMultisets * CATEGORIES.length];
+        topCategoryMasks = new int[(int) numberOfMultisets];
+        final int[] counts = new int[numberOfFaces];
+        final int[] nextRank = new int[]{0};
+        multisetRanking.forEach(numberOfDice, faceCounts -> {
+            for (int face = 1; face <= numberOfFaces; face++) {
+                counts[face - 1] = FaceCounts.count(faceCounts, face);
+            }
+            tabulate(counts, nextRank[0]++);
+        });
+    }
+
+    /**
+     * @return Rule set the table was compiled from
+     */
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * @return Number of dice of the rule set
+     */
+    @Override
+    public int getNumberOfDice() {
+        return numberOfDice;
+    }
+
+    /**
+     * @return Ranking of rolls of the rule set, where the rank of a roll is its row in the table
+     */
+    public MultisetRanking getMultisetRanking() {
+        return multisetRanking;
+    }
+
+    /**
+     * @return Number of different multisets of dice, i.e. rows in the table
+     */
+    public int getNumberOfMultisets() {
+        return topCategoryMasks.length;
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param diceRoll Collection of dice throws
+     * @throws IllegalArgumentException If the dice roll doesn't match the number of dice or faces of the rule set
+     */
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        return scoreOfRank(category, rank(faceCounts(diceRoll)));
+    }
+
+    /**
+     * @param diceRoll Array holding a die for every die of the rule set
+     */
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        return scoreOfRank(category, rank(faceCounts(diceRoll, offset)));
+    }
+
+    /**
+     * @throws IllegalArgumentException If the rule set doesn't have the standard number of dice and faces
+     */
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        if (!standardShape) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return scoreOfRank(category, rank(FaceCounts.ofPackedRoll(PackedRoll.validate(packedRoll))));
+    }
+
+    /**
+     * @throws IllegalArgumentException If the rule set doesn't have the standard number of dice and faces
+     */
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        return scoreOfRank(category, rank(standardFaceCounts(roll)));
+    }
+
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        return topCategoriesByMask.get(topCategoryMasks[rank(faceCounts(diceRoll))]);
+    }
+
+    /**
+     * @throws IllegalArgumentException If the rule set doesn't have the standard number of dice and faces
+     */
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        return topCategoriesByMask.get(topCategoryMasks[rank(standardFaceCounts(roll))]);
+    }
+
+    /**
+     * Named apart from {#score(Category, int)}, so an int holding a packed roll never widens into face counts
+     *
+     * @param faceCounts Face counts of a roll with every die of the rule set, see {FaceCounts}
+     * @return Score for the specified category
+     */
+    public int scoreFaceCounts(final Category category,
+                               final long faceCounts) {
+        return scoreOfRank(category, rank(faceCounts));
+    }
+
+    /**
+     * @param faceCounts Face counts of a roll with every die of the rule set, see {FaceCounts}
+     * @return {CategoryMask} of the top categories
+     */
+    public int topCategoryMask(final long faceCounts) {
+        return topCategoryMasks[rank(faceCounts)];
+    }
+
+    /**
+     * @return Row of the multiset in the table
+     */
+    public int rank(final long faceCounts) {
+        return multisetRanking.rank(faceCounts, numberOfDice);
+    }
+
+    /**
+     * @param rank Row of the multiset in the table, see {#rank}
+     * @return Score for the specified category
+     */
+    public int scoreOfRank(final Category category,
+                           final int rank) {
+        return scores[rank * CATEGORIES.length + category.ordinal()];
+    }
+
+    /**
+     * @param rank Row of the multiset in the table, see {#rank}
+     * @return {CategoryMask} of the top categories
+     */
+    public int topCategoryMaskOfRank(final int rank) {
+        return topCategoryMasks[rank];
+    }
+
+    private long standardFaceCounts(final Roll roll) {
+        if (!standardShape) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return roll.getFaceCounts();
+    }
+
+    private long faceCounts(final List<Integer> diceRoll) {
+        if (diceRoll.size() != numberOfDice) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        long faceCounts = 0;
+        for (int i = 0; i < numberOfDice; i++) {
+            faceCounts += faceBit(diceRoll.get(i));
+        }
+        return faceCounts;
+    }
+
+    private long faceCounts(final int[] diceRoll,
+                            final int offset) {
+        long faceCounts = 0;
+        for (int i = 0; i < numberOfDice; i++) {
+            faceCounts += faceBit(diceRoll[offset + i]);
+        }
+        return faceCounts;
+    }
+
+    private long faceBit(final int diceValue) {
+        if (diceValue < 1 || diceValue > numberOfFaces) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return 1L << (FaceCounts.BITS_PER_FACE * (diceValue - 1));
+    }
+
+    /**
+     * Scores a multiset with the rule set
+     */
+    private void tabulate(final int[] counts,
+                          final int rank) {
+        int topScore = 0;
+        int topCategoryMask = CategoryMask.NONE;
+        for (Category category : CATEGORIES) {
+            final int currentScore = ruleSet.score(category, counts);
+            scores[rank * CATEGORIES.length + category.ordinal()] = currentScore;
+            if (currentScore > topScore) {
+                topScore = currentScore;
+                topCategoryMask = CategoryMask.of(category);
+            } else if (currentScore == topScore) {
+                topCategoryMask |= CategoryMask.of(category);
+            }
+        }
+        topCategoryMasks[rank] = topCategoryMask;
+        topCategoriesByMask.computeIfAbsent(topCategoryMask,
+                categoryMask -> Collections.unmodifiableList(CategoryMask.toList(categoryMask)));
+    }
+}
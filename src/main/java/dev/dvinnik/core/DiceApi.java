@@ -4,10 +4,120 @@ import java.util.List;
 
 /**
  * Dice API abstraction so to leave room for different implementations of the Dice API game (not only a Schooner Dice)
+ *
+ * Primitive overloads of {#score} exist so callers on the hot path don't have to box every die into a list.
+ * Batch methods score a whole {RollBatch} into a primitive array, so replaying many rolls doesn't pay per-call setup.
+ * Default implementations of both fall back to the per-roll methods, so implementations should override them.
+ * {Roll} overloads take a roll that was validated once when it was built. Implementations override them so they never
+ * revalidate the dice, and decorators forward the roll to the decorated implementation as it is.
  */
 public interface DiceApi {
     int score(final Category category,
               final List<Integer> diceRoll);
 
     List<Category> topCategories(final List<Integer> diceRoll);
+
+    /**
+     * @return Number of dice of a roll, i.e. how many dice {#score(Category, int[], int)} reads from the array
+     */
+    default int getNumberOfDice() {
+        return Category.NUMBER_OF_DICE;
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param diceRoll Array holding {#getNumberOfDice()} dice throws
+     * @param offset Position of the first die in the array
+     */
+    default int score(final Category category,
+                      final int[] diceRoll,
+                      final int offset) {
+        return score(category, PackedRoll.pack(diceRoll, offset));
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param packedRoll Roll encoded with {PackedRoll}
+     */
+    default int score(final Category category,
+                      final int packedRoll) {
+        return score(category, PackedRoll.toList(packedRoll));
+    }
+
+    /**
+     * @param category Expected category of the dice throw
+     * @param roll Validated roll, see {Roll}
+     */
+    default int score(final Category category,
+                      final Roll roll) {
+        return score(category, roll.getPackedRoll());
+    }
+
+    /**
+     * @param roll Validated roll, see {Roll}
+     * @return Collection of categories that would produce the highest score for the roll
+     */
+    default List<Category> topCategories(final Roll roll) {
+        return topCategories(roll.getDice());
+    }
+
+    /**
+     * Scores every roll of the batch for a single category
+     *
+     * @param category Expected category of the dice throws
+     * @param rollBatch Rolls to score
+     * @param scores Output array, where the score of the {i}-th roll is written to {scores[i]}
+     */
+    default void score(final Category category,
+                       final RollBatch rollBatch,
+                       final int[] scores) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            scores[i] = score(category, rollBatch.getPackedRoll(i));
+        }
+    }
+
+    /**
+     * Scores every roll of the batch for all categories
+     *
+     * @param rollBatch Rolls to score
+     * @param scores Output array, where the score of the {i}-th roll for a category is written to
+     *               {scores[i * CategoryMask.NUMBER_OF_CATEGORIES + category.ordinal()]}
+     */
+    default void scoreAll(final RollBatch rollBatch,
+                          final int[] scores) {
+        final Category[] categories = Category.values();
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final int packedRoll = rollBatch.getPackedRoll(i);
+            for (Category category : categories) {
+                scores[i * categories.length + category.ordinal()] = score(category, packedRoll);
+            }
+        }
+    }
+
+    /**
+     * Finds top categories of every roll of the batch
+     *
+     * @param rollBatch Rolls to score
+     * @param topCategoryMasks Output array, where the top categories of the {i}-th roll are written to
+     *                         {topCategoryMasks[i]} as a {CategoryMask}
+     */
+    default void topCategories(final RollBatch rollBatch,
+                               final int[] topCategoryMasks) {
+        final Category[] categories = Category.values();
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final int packedRoll = rollBatch.getPackedRoll(i);
+            int topScore = 0;
+            int topCategoryMask = CategoryMask.NONE;
+            for (Category category : categories) {
+                final int currentScore = score(category, packedRoll);
+                if (currentScore > topScore) {
+                    topScore = currentScore;
+                    topCategoryMask = CategoryMask.of(category);
+                } else if (currentScore == topScore) {
+                    topCategoryMask |= CategoryMask.of(category);
+                }
+            }
+            topCategoryMasks[i] = topCategoryMask;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package dev.dvinnik.core;
+
+/**
+ * Utility for a fixed histogram of face counts packed into a single {long}
+ *
+ * The count of each face takes 4 bits, and the count of face {f} is stored at bits {4 * (f - 1)}.
+ * Working on a primitive histogram means scoring a roll needs no maps, streams or any other heap allocation.
+ */
+public final class FaceCounts {
+
+    public static final int BITS_PER_FACE = 4;
+    public static final int MAX_NUMBER_OF_DICE = (1 << BITS_PER_FACE) - 1;
+    private static final long FACE_MASK = MAX_NUMBER_OF_DICE;
+
+    private FaceCounts() {
+    }
+
+    /**
+     * @param packedRoll Roll encoded with {PackedRoll}
+     * @return Face counts of the dice throws
+     */
+    public static long ofPackedRoll(final int packedRoll) {
+        long faceCounts = 0;
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            faceCounts += 1L << (BITS_PER_FACE * ((packedRoll >>> (PackedRoll.BITS_PER_DIE * i)) & 0x7));
+        }
+        return faceCounts;
+    }
+
+    /**
+     * @return Number of dice showing the given face
+     */
+    public static int count(final long faceCounts, final int face) {
+        return (int) ((faceCounts >>> (BITS_PER_FACE * (face - 1))) & FACE_MASK);
+    }
+}
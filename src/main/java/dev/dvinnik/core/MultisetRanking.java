@@ -0,0 +1,105 @@
+package dev.dvinnik.core;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Ranking of multisets of dice, i.e. rolls where only the number of dice showing each face matters
+ *
+ * A multiset of {n} dice with {f} faces is ranked by its face counts {c1, c2, ..., cf}: for every face, the rank skips
+ * all multisets with fewer dice on that face, which are counted by the stars and bars formula
+ * {C(r + m - 1, m - 1)} for {r} dice left over {m} faces left. Those skips are precomputed per face, so ranking
+ * a multiset is one table read per face.
+ *
+ * Multisets are packed as face counts (see {FaceCounts}), and ranks of multisets of {n} dice are in
+ * [0, {#numberOfMultisets(n)}).
+ */
+public final class MultisetRanking {
+
+    private final int maxNumberOfDice;
+    private final int numberOfFaces;
+    // Rank skipped by {count} dice on {face} with {remaining} dice left, at {[face - 1][remaining][count]}
+    private final int[][][] rankSkips;
+
+    /**
+     * @param maxNumberOfDice Highest number of dice of the ranked multisets
+     * @param numberOfFaces Number of faces of every die
+     */
+    public MultisetRanking(final int maxNumberOfDice,
+                           final int numberOfFaces) {
+        this.maxNumberOfDice = maxNumberOfDice;
+        this.numberOfFaces = numberOfFaces;
+        rankSkips = new int[numberOfFaces][maxNumberOfDice + 1][maxNumberOfDice + 1];
+        for (int face = 1; face <= numberOfFaces; face++) {
+            for (int remaining = 0; remaining <= maxNumberOfDice; remaining++) {
+                // The last face takes whatever dice are left, so it never skips anything
+                for (int count = 1; face < numberOfFaces && count <= remaining; count++) {
+                    rankSkips[face - 1][remaining][count] = rankSkips[face - 1][remaining][count - 1]
+                            + (int) numberOfMultisets(remaining - count + 1, numberOfFaces - face);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param faceCounts Face counts of a multiset of {numberOfDice} dice, see {FaceCounts}
+     * @param numberOfDice Number of dice in the multiset
+     * @return Rank of the multiset among all multisets with the same number of dice
+     */
+    public int rank(final long faceCounts,
+                    final int numberOfDice) {
+        int rank = 0;
+        int remaining = numberOfDice;
+        for (int face = 1; face < numberOfFaces; face++) {
+            final int count = (int) ((faceCounts >>> (FaceCounts.BITS_PER_FACE * (face - 1))) & 0xF);
+            rank += rankSkips[face - 1][remaining][count];
+            remaining -= count;
+        }
+        return rank;
+    }
+
+    /**
+     * @return Number of different multisets of the given number of dice
+     */
+    public long numberOfMultisets(final int numberOfDice) {
+        return numberOfMultisets(numberOfDice, numberOfFaces);
+    }
+
+    /**
+     * Generates every multiset of the given number of dice in rank order
+     *
+     * @param consumer Called with face counts of every multiset, see {FaceCounts}
+     */
+    public void forEach(final int numberOfDice,
+                        final LongConsumer consumer) {
+        if (numberOfDice > maxNumberOfDice) {
+            throw new IllegalArgumentException("Multisets are only ranked up to " + maxNumberOfDice + " dice");
+        }
+        forEach(0L, 1, numberOfDice, consumer);
+    }
+
+    private void forEach(final long faceCounts,
+                         final int face,
+                         final int remaining,
+                         final LongConsumer consumer) {
+        if (face == numberOfFaces) {
+            consumer.accept(faceCounts + ((long) remaining << (FaceCounts.BITS_PER_FACE * (face - 1))));
+            return;
+        }
+        for (int count = 0; count <= remaining; count++) {
+            forEach(faceCounts + ((long) count << (FaceCounts.BITS_PER_FACE * (face - 1))), face + 1,
+                    remaining - count, consumer);
+        }
+    }
+
+    /**
+     * @return Number of multisets of {numberOfDice} dice over {numberOfFaces} faces, i.e. {C(n + f - 1, f - 1)}
+     */
+    public static long numberOfMultisets(final int numberOfDice,
+                                         final int numberOfFaces) {
+        long result = 1;
+        for (int i = 1; i < numberOfFaces; i++) {
+            result = result * (numberOfDice + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package dev.dvinnik.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility for a primitive encoding of a single roll, so callers don't have to box every die into a list
+ *
+ * Each die takes 3 bits holding {face - 1}, and the die at position {i} is stored at bits {3 * i}.
+ * A Schooner Dice roll therefore fits into the lowest 15 bits of an {int}, and every value in
+ * [0, {#NUMBER_OF_PACKED_ROLLS}) is a valid roll.
+ */
+public final class PackedRoll {
+
+    private static final String INVALID_ROLL_EXCEPTION =
+            "Packed rolls only exist for " + Category.NUMBER_OF_DICE + " dice with faces from 1 to "
+                    + Category.NUMBER_OF_FACES;
+
+    public static final int BITS_PER_DIE = 3;
+    public static final int NUMBER_OF_PACKED_ROLLS = 1 << (BITS_PER_DIE * Category.NUMBER_OF_DICE);
+    private static final int DIE_MASK = (1 << BITS_PER_DIE) - 1;
+
+    private PackedRoll() {
+    }
+
+    /**
+     * @param diceRoll Array holding {Category#NUMBER_OF_DICE} dice throws
+     * @param offset Position of the first die in the array
+     * @return Packed roll
+     * @throws IllegalArgumentException If any of the dice throws is not a valid face
+     */
+    public static int pack(final int[] diceRoll, final int offset) {
+        int packedRoll = 0;
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            packedRoll |= encode(diceRoll[offset + i]) << (BITS_PER_DIE * i);
+        }
+        return packedRoll;
+    }
+
+    /**
+     * @param diceRoll List of {Category#NUMBER_OF_DICE} dice throws
+     * @return Packed roll
+     * @throws IllegalArgumentException If the list is not a valid Schooner Dice roll
+     */
+    public static int pack(final List<Integer> diceRoll) {
+        if (diceRoll.size() != Category.NUMBER_OF_DICE) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        int packedRoll = 0;
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            packedRoll |= encode(diceRoll.get(i)) << (BITS_PER_DIE * i);
+        }
+        return packedRoll;
+    }
+
+    /**
+     * @return Face of the die at the given position of the packed roll
+     */
+    public static int face(final int packedRoll, final int index) {
+        return ((packedRoll >>> (BITS_PER_DIE * index)) & DIE_MASK) + 1;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the value has bits set outside the packed roll
+     */
+    public static int validate(final int packedRoll) {
+        if ((packedRoll & ~(NUMBER_OF_PACKED_ROLLS - 1)) != 0) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return packedRoll;
+    }
+
+    /**
+     * Unpacks a roll into a list of dice throws. Meant for compatibility with list-based code, not the hot path.
+     */
+    public static List<Integer> toList(final int packedRoll) {
+        validate(packedRoll);
+        final List<Integer> diceRoll = new ArrayList<>(Category.NUMBER_OF_DICE);
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            diceRoll.add(face(packedRoll, i));
+        }
+        return diceRoll;
+    }
+
+    private static int encode(final int diceValue) {
+        if (diceValue < 1 || diceValue > Category.NUMBER_OF_FACES) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return diceValue - 1;
+    }
+}
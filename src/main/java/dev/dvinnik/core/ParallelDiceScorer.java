@@ -0,0 +1,133 @@
+package dev.dvinnik.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scores large batches of rolls in parallel on top of the batch methods of a {DiceApi}
+ *
+ * The batch is split into chunks that are scored independently on an executor, and per-chunk results are merged
+ * once all chunks are done, so no state is shared between the chunks while they are scored.
+ *
+ * Note: per-roll scores are a single {int} array of {CategoryMask#NUMBER_OF_CATEGORIES} scores per roll, so
+ * {#scoreAll} takes up to {#MAX_ROLLS_WITH_PER_ROLL_RESULTS} rolls. Larger batches are only counted by {#summarize}.
+ */
+public class ParallelDiceScorer {
+
+    private static final String INVALID_CHUNK_SIZE_EXCEPTION = "Chunk size should be positive, "
+            + "and small enough to keep per-roll scores";
+    private static final String TOO_MANY_ROLLS_EXCEPTION = "Batch is too large to keep per-roll scores, "
+            + "summarize it instead";
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    // Arrays can't have quite {Integer#MAX_VALUE} elements on every VM
+    public static final int MAX_ROLLS_WITH_PER_ROLL_RESULTS = (Integer.MAX_VALUE - 8) / NUMBER_OF_CATEGORIES;
+
+    private final DiceApi diceApi;
+    private final ExecutorService executorService;
+    private final int chunkSize;
+
+    /**
+     * Default constructor that scores chunks of {#DEFAULT_CHUNK_SIZE} rolls on the common {ForkJoinPool}
+     */
+    public ParallelDiceScorer(final DiceApi diceApi) {
+        this(diceApi, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param diceApi Implementation used to score every chunk. It has to be safe to call from several threads.
+     * @param executorService Executor the chunks are scored on. It is not shut down by the scorer.
+     * @param chunkSize Number of rolls scored by a single task, up to {#MAX_ROLLS_WITH_PER_ROLL_RESULTS}
+     */
+    public ParallelDiceScorer(final DiceApi diceApi,
+                              final ExecutorService executorService,
+                              final int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > MAX_ROLLS_WITH_PER_ROLL_RESULTS) {
+            throw new IllegalArgumentException(INVALID_CHUNK_SIZE_EXCEPTION);
+        }
+        this.diceApi = diceApi;
+        this.executorService = executorService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scores every roll for all categories, and counts category hits and top categories
+     *
+     * @return Result holding per-roll scores and top categories, along with the merged counts
+     * @throws IllegalArgumentException If the batch has more than {#MAX_ROLLS_WITH_PER_ROLL_RESULTS} rolls
+     */
+    public BatchScoringResult scoreAll(final RollBatch rollBatch) {
+        if (rollBatch.size() > MAX_ROLLS_WITH_PER_ROLL_RESULTS) {
+            throw new IllegalArgumentException(TOO_MANY_ROLLS_EXCEPTION);
+        }
+        return score(rollBatch, true);
+    }
+
+    /**
+     * Counts category hits and top categories without keeping per-roll results,
+     * i.e. for archives too large to hold a score for every roll
+     *
+     * @return Result holding only the merged counts
+     */
+    public BatchScoringResult summarize(final RollBatch rollBatch) {
+        return score(rollBatch, false);
+    }
+
+    private BatchScoringResult score(final RollBatch rollBatch,
+                                     final boolean keepPerRollResults) {
+        final int numberOfRolls = rollBatch.size();
+        final int[] scores = keepPerRollResults ? new int[numberOfRolls * NUMBER_OF_CATEGORIES] : null;
+        final int[] topCategoryMasks = keepPerRollResults ? new int[numberOfRolls] : null;
+
+        final List<Callable<CategoryCounts>> chunks = new ArrayList<>();
+        for (int from = 0; from < numberOfRolls; from += chunkSize) {
+            final int chunkStart = from;
+            final RollBatch chunk = rollBatch.view(from, Math.min(chunkSize, numberOfRolls - from));
+            chunks.add(() -> scoreChunk(chunk, chunkStart, scores, topCategoryMasks));
+        }
+
+        final long[] hitCounts = new long[NUMBER_OF_CATEGORIES];
+        final long[] topCategoryCounts = new long[NUMBER_OF_CATEGORIES];
+        try {
+            for (Future<CategoryCounts> chunkResult : executorService.invokeAll(chunks)) {
+                chunkResult.get().addTo(hitCounts, topCategoryCounts);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return new BatchScoringResult(numberOfRolls, scores, topCategoryMasks, hitCounts, topCategoryCounts);
+    }
+
+    /**
+     * Scores a single chunk into chunk-local arrays, and copies them into the disjoint range of the merged arrays
+     */
+    private CategoryCounts scoreChunk(final RollBatch chunk,
+                                   final int chunkStart,
+                                   final int[] scores,
+                                   final int[] topCategoryMasks) {
+        final int[] chunkScores = new int[Math.multiplyExact(chunk.size(), NUMBER_OF_CATEGORIES)];
+        final int[] chunkTopCategoryMasks = new int[chunk.size()];
+        diceApi.scoreAll(chunk, chunkScores);
+        diceApi.topCategories(chunk, chunkTopCategoryMasks);
+
+        final CategoryCounts chunkCounts = new CategoryCounts();
+        chunkCounts.add(chunkScores, chunkTopCategoryMasks, chunk.size());
+
+        if (scores != null) {
+            System.arraycopy(chunkScores, 0, scores, Math.multiplyExact(chunkStart, NUMBER_OF_CATEGORIES),
+                    chunkScores.length);
+            System.arraycopy(chunkTopCategoryMasks, 0, topCategoryMasks, chunkStart, chunkTopCategoryMasks.length);
+        }
+        return chunkCounts;
+    }
+}
@@ -0,0 +1,236 @@
+package dev.dvinnik.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dice API implementation that answers every call from tables generated at build time
+ *
+ * The {generateScoreTables} Gradle task runs {#main} against {SchoonerDiceApi} and bundles the result as the
+ * {#SCORE_TABLES_RESOURCE} resource, so a fresh JVM only reads the tables instead of scoring every multiset, and
+ * every call is a couple of array reads from the first request on.
+ *
+ * The tables are a little-endian binary resource: a header, the row of every {PackedRoll}, the scores of every row
+ * and the {CategoryMask} of the top categories of every row, about 90 KiB in total.
+ *
+ * Decisions explained:
+ *  1) Rows are {Roll#getIndex()}, so a {Roll} is looked up without going through its packed roll.
+ *
+ *  2) The whole resource is read with a single bulk read and copied into arrays with bulk buffer reads, rather than
+ *  parsed value by value.
+ *
+ *  3) Scores and masks depend on the order of {Category}, so the header holds a fingerprint of that order, and tables
+ *  generated with another order are rejected instead of being silently misread.
+ */
+public class PrecomputedDiceApi implements DiceApi {
+
+    private static final String INVALID_TABLES_EXCEPTION = "Resource isn't a score table of this version of the game";
+    private static final String MISSING_TABLES_EXCEPTION = "Score tables are missing, run the generateScoreTables task";
+
+    public static final String SCORE_TABLES_RESOURCE = "score-tables.bin";
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private static final int MAGIC = 0x5343_5354;
+    private static final int VERSION = 1;
+    // Magic, version and category fingerprint
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int TABLES_SIZE = HEADER_SIZE
+            + PackedRoll.NUMBER_OF_PACKED_ROLLS * Short.BYTES
+            + Roll.NUMBER_OF_ROLLS * CATEGORIES.length * Short.BYTES
+            + Roll.NUMBER_OF_ROLLS * Short.BYTES;
+
+    // Row of the multiset for every ordered roll index
+    private final short[] rowByRoll = new short[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+    // Scores of every category for every multiset, i.e. {scores[row * CATEGORIES.length + category.ordinal()]}
+    private final short[] scores = new short[Roll.NUMBER_OF_ROLLS * CATEGORIES.length];
+    private final int[] topCategoryMaskByRow = new int[Roll.NUMBER_OF_ROLLS];
+    private final List<List<Category>> topCategoriesByRow = new ArrayList<>(Roll.NUMBER_OF_ROLLS);
+
+    /**
+     * Default constructor that reads the tables bundled with the library
+     *
+     * @throws IllegalStateException If the tables weren't generated by the build
+     */
+    public PrecomputedDiceApi() {
+        this(readBundledTables());
+    }
+
+    /**
+     * @param inputStream Stream of tables written with {#write}. It is read to the end, but not closed.
+     * @throws IllegalArgumentException If the stream doesn't hold tables, or they were written for another order of
+     * categories
+     */
+    public PrecomputedDiceApi(final InputStream inputStream) {
+        this(readAllBytes(inputStream));
+    }
+
+    private PrecomputedDiceApi(final byte[] tables) {
+        final ByteBuffer buffer = ByteBuffer.wrap(tables).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() != TABLES_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getInt() != CategoryMask.fingerprint()) {
+            throw new IllegalArgumentException(INVALID_TABLES_EXCEPTION);
+        }
+
+        buffer.asShortBuffer().get(rowByRoll);
+        buffer.position(buffer.position() + rowByRoll.length * Short.BYTES);
+        buffer.asShortBuffer().get(scores);
+        buffer.position(buffer.position() + scores.length * Short.BYTES);
+        final Map<Integer, List<Category>> topCategoriesByMask = new HashMap<>();
+        for (int row = 0; row < Roll.NUMBER_OF_ROLLS; row++) {
+            topCategoryMaskByRow[row] = Short.toUnsignedInt(buffer.getShort());
+            topCategoriesByRow.add(topCategoriesByMask.computeIfAbsent(topCategoryMaskByRow[row],
+                    categoryMask -> List.copyOf(CategoryMask.toList(categoryMask))));
+        }
+
+        for (short row : rowByRoll) {
+            if (row < 0 || row >= Roll.NUMBER_OF_ROLLS) {
+                throw new IllegalArgumentException(INVALID_TABLES_EXCEPTION);
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     */
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        return scoreOfRow(category, rowByRoll[PackedRoll.pack(diceRoll)]);
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        return scoreOfRow(category, rowByRoll[PackedRoll.pack(diceRoll, offset)]);
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        return scoreOfRow(category, rowByRoll[PackedRoll.validate(packedRoll)]);
+    }
+
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        return scoreOfRow(category, roll.getIndex());
+    }
+
+    /**
+     * @return Unmodifiable collection of categories that would produce the highest score for the given dice throws
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     */
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        return topCategoriesByRow.get(rowByRoll[PackedRoll.pack(diceRoll)]);
+    }
+
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        return topCategoriesByRow.get(roll.getIndex());
+    }
+
+    @Override
+    public void score(final Category category,
+                      final RollBatch rollBatch,
+                      final int[] scores) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            scores[i] = scoreOfRow(category, rowByRoll[rollBatch.getPackedRoll(i)]);
+        }
+    }
+
+    @Override
+    public void scoreAll(final RollBatch rollBatch,
+                         final int[] scores) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final int rowStart = rowByRoll[rollBatch.getPackedRoll(i)] * CATEGORIES.length;
+            for (int categoryIndex = 0; categoryIndex < CATEGORIES.length; categoryIndex++) {
+                scores[i * CATEGORIES.length + categoryIndex] = this.scores[rowStart + categoryIndex];
+            }
+        }
+    }
+
+    @Override
+    public void topCategories(final RollBatch rollBatch,
+                              final int[] topCategoryMasks) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            topCategoryMasks[i] = topCategoryMaskByRow[rowByRoll[rollBatch.getPackedRoll(i)]];
+        }
+    }
+
+    /**
+     * Scores every roll with a reference implementation and writes the tables into a file,
+     * replacing the file if it exists
+     *
+     * @param referenceDiceApi Implementation whose results are tabulated
+     */
+    public static void write(final DiceApi referenceDiceApi,
+                             final Path path) {
+        final ByteBuffer buffer = ByteBuffer.allocate(TABLES_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(CategoryMask.fingerprint());
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            buffer.putShort((short) Roll.ofPackedRoll(packedRoll).getIndex());
+        }
+        for (int row = 0; row < Roll.NUMBER_OF_ROLLS; row++) {
+            final List<Integer> diceRoll = Roll.ofIndex(row).getDice();
+            for (Category category : CATEGORIES) {
+                buffer.putShort((short) referenceDiceApi.score(category, diceRoll));
+            }
+        }
+        for (int row = 0; row < Roll.NUMBER_OF_ROLLS; row++) {
+            buffer.putShort((short) CategoryMask.of(referenceDiceApi.topCategories(Roll.ofIndex(row).getDice())));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generates the bundled tables from {SchoonerDiceApi}, i.e. {@code PrecomputedDiceApi
+     * build/generated/resources/scoreTables/dev/dvinnik/core/score-tables.bin} as run by the {generateScoreTables} task
+     */
+    public static void main(final String[] args) {
+        write(new SchoonerDiceApi(), Path.of(args[0]));
+    }
+
+    private int scoreOfRow(final Category category,
+                           final int row) {
+        return scores[row * CATEGORIES.length + category.ordinal()];
+    }
+
+    private static byte[] readBundledTables() {
+        try (InputStream inputStream = PrecomputedDiceApi.class.getResourceAsStream(SCORE_TABLES_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException(MISSING_TABLES_EXCEPTION);
+            }
+            return inputStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] readAllBytes(final InputStream inputStream) {
+        try {
+            return inputStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
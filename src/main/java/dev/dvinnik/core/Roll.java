@@ -0,0 +1,204 @@
+package dev.dvinnik.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, validated Schooner Dice roll, i.e. {Category#NUMBER_OF_DICE} dice with faces from 1 to
+ * {Category#NUMBER_OF_FACES}
+ *
+ * Scores only depend on how many dice show each face, so a roll is its multiset of dice, and there are only 792 of
+ * them. Every one of them is created once, when the class is loaded, and the factory methods return those shared
+ * instances, so two rolls of the same dice are the same instance, whatever the order of the dice.
+ *
+ * Decisions explained:
+ *  1) A roll is validated when it's looked up, so {DiceApi} implementations can score it without validating it again
+ *  or handling invalid input.
+ *
+ *  2) Facts category rules are scored from (see {RollAnalysis}), the face-presence mask and the dice themselves are
+ *  computed once per multiset, so passing a roll around, scoring it or reading its dice doesn't allocate.
+ *
+ *  3) Rolls are identified by {#getIndex()}, their rank among all multisets (see {MultisetRanking}), which is stable
+ *  across runs and makes for compact keys and table rows.
+ */
+public final class Roll {
+
+    private static final String INVALID_ROLL_EXCEPTION = "Roll should have " + Category.NUMBER_OF_DICE
+            + " dice with faces from 1 to " + Category.NUMBER_OF_FACES;
+
+    // Multisets of five eight-sided dice, i.e. {C(12, 7)}. It's a constant expression, so referring to it doesn't
+    // load the class and build the rolls.
+    public static final int NUMBER_OF_ROLLS = 792;
+
+    private static final MultisetRanking MULTISET_RANKING =
+            new MultisetRanking(Category.NUMBER_OF_DICE, Category.NUMBER_OF_FACES);
+    private static final Roll[] ROLLS = new Roll[NUMBER_OF_ROLLS];
+    private static final Roll[] ROLL_BY_PACKED_ROLL = new Roll[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+    // Counts of faces above {Category#NUMBER_OF_FACES}
+    private static final long EXTRA_FACES_MASK = -1L << (FaceCounts.BITS_PER_FACE * Category.NUMBER_OF_FACES);
+
+    static {
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            final long faceCounts = FaceCounts.ofPackedRoll(packedRoll);
+            final int index = MULTISET_RANKING.rank(faceCounts, Category.NUMBER_OF_DICE);
+            if (ROLLS[index] == null) {
+                ROLLS[index] = new Roll(index, RollAnalysis.ofPackedRoll(packedRoll));
+            }
+            ROLL_BY_PACKED_ROLL[packedRoll] = ROLLS[index];
+        }
+    }
+
+    private final int index;
+    private final RollAnalysis analysis;
+    private final int packedRoll;
+    private final int presenceMask;
+    private final List<Integer> dice;
+
+    private Roll(final int index,
+                 final RollAnalysis analysis) {
+        this.index = index;
+        this.analysis = analysis;
+
+        final List<Integer> dice = new ArrayList<>(Category.NUMBER_OF_DICE);
+        int presenceMask = 0;
+        for (int face = 1; face <= Category.NUMBER_OF_FACES; face++) {
+            for (int i = 0; i < analysis.getCount(face); i++) {
+                dice.add(face);
+                presenceMask |= 1 << (face - 1);
+            }
+        }
+        this.dice = Collections.unmodifiableList(dice);
+        this.packedRoll = PackedRoll.pack(dice);
+        this.presenceMask = presenceMask;
+    }
+
+    /**
+     * @param diceRoll List of {Category#NUMBER_OF_DICE} dice throws in any order
+     * @throws IllegalArgumentException If the list is not a valid Schooner Dice roll
+     */
+    public static Roll of(final List<Integer> diceRoll) {
+        return ROLL_BY_PACKED_ROLL[PackedRoll.pack(diceRoll)];
+    }
+
+    /**
+     * @param diceRoll {Category#NUMBER_OF_DICE} dice throws in any order
+     * @throws IllegalArgumentException If the dice are not a valid Schooner Dice roll
+     */
+    public static Roll of(final int... diceRoll) {
+        if (diceRoll.length != Category.NUMBER_OF_DICE) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return ROLL_BY_PACKED_ROLL[PackedRoll.pack(diceRoll, 0)];
+    }
+
+    /**
+     * @param packedRoll Roll encoded with {PackedRoll}
+     * @throws IllegalArgumentException If the value is not a packed roll
+     */
+    public static Roll ofPackedRoll(final int packedRoll) {
+        return ROLL_BY_PACKED_ROLL[PackedRoll.validate(packedRoll)];
+    }
+
+    /**
+     * @param faceCounts Face counts of the roll, see {FaceCounts}
+     * @throws IllegalArgumentException If the face counts don't hold a valid Schooner Dice roll
+     */
+    public static Roll ofFaceCounts(final long faceCounts) {
+        int numberOfDice = 0;
+        for (int face = 1; face <= Category.NUMBER_OF_FACES; face++) {
+            numberOfDice += FaceCounts.count(faceCounts, face);
+        }
+        if ((faceCounts & EXTRA_FACES_MASK) != 0 || numberOfDice != Category.NUMBER_OF_DICE) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        return ROLLS[MULTISET_RANKING.rank(faceCounts, Category.NUMBER_OF_DICE)];
+    }
+
+    /**
+     * @param index Index of the roll, see {#getIndex()}
+     * @throws IndexOutOfBoundsException If there is no roll with the index
+     */
+    public static Roll ofIndex(final int index) {
+        return ROLLS[index];
+    }
+
+    /**
+     * @return Rank of the roll among all {#NUMBER_OF_ROLLS} rolls, see {MultisetRanking}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return Shared analysis of the roll, see {RollAnalysis}
+     */
+    public RollAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * @return Unmodifiable list of the dice in ascending order
+     */
+    public List<Integer> getDice() {
+        return dice;
+    }
+
+    /**
+     * @return Dice in ascending order encoded with {PackedRoll}
+     */
+    public int getPackedRoll() {
+        return packedRoll;
+    }
+
+    /**
+     * @return Face counts of the roll, see {FaceCounts}
+     */
+    public long getFaceCounts() {
+        return analysis.getFaceCounts();
+    }
+
+    /**
+     * @return Mask where the bit {face - 1} is set if any die shows the face
+     */
+    public int getPresenceMask() {
+        return presenceMask;
+    }
+
+    /**
+     * @return Number of dice showing the given face
+     */
+    public int getCount(final int face) {
+        return analysis.getCount(face);
+    }
+
+    public int getSum() {
+        return analysis.getSum();
+    }
+
+    /**
+     * @return Highest number of dice showing the same face
+     */
+    public int getMaxCount() {
+        return analysis.getMaxCount();
+    }
+
+    /**
+     * @return Number of different faces
+     */
+    public int getDistinctCount() {
+        return analysis.getDistinctCount();
+    }
+
+    /**
+     * @return Length of the longest run of sequential faces, i.e. 4 for [1, 3, 4, 5, 6]
+     */
+    public int getLongestRun() {
+        return analysis.getLongestRun();
+    }
+
+    @Override
+    public String toString() {
+        return "Roll" + dice;
+    }
+}
@@ -0,0 +1,133 @@
+package dev.dvinnik.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facts about a roll that category rules are scored from, computed in a single pass over its face counts
+ *
+ * Decisions explained:
+ *  1) Analysing a roll once instead of once per category means {DiceApi#topCategories} does a single analysis
+ *  for all the categories.
+ *
+ *  2) A Schooner Dice roll has only 792 distinct face counts, so analyses of valid rolls are shared instances looked
+ *  up by {PackedRoll}. That keeps the primitive scoring paths free of heap allocation.
+ */
+public final class RollAnalysis {
+
+    private static final RollAnalysis[] ANALYSIS_BY_PACKED_ROLL = new RollAnalysis[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+
+    static {
+        final Map<Long, RollAnalysis> analysisByFaceCounts = new HashMap<>();
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            ANALYSIS_BY_PACKED_ROLL[packedRoll] = analysisByFaceCounts.computeIfAbsent(
+                    FaceCounts.ofPackedRoll(packedRoll), RollAnalysis::new);
+        }
+    }
+
+    private final long faceCounts;
+    private final int numberOfDice;
+    private final int sum;
+    private final int maxCount;
+    private final int distinctCount;
+    private final int longestRun;
+
+    private RollAnalysis(final long faceCounts) {
+        this.faceCounts = faceCounts;
+
+        int numberOfDice = 0;
+        int sum = 0;
+        int maxCount = 0;
+        int distinctCount = 0;
+        int longestRun = 0;
+        int currentRun = 0;
+        for (int face = 1; face <= Category.NUMBER_OF_FACES; face++) {
+            final int count = FaceCounts.count(faceCounts, face);
+            numberOfDice += count;
+            sum += face * count;
+            maxCount = Math.max(maxCount, count);
+            if (count > 0) {
+                distinctCount++;
+                currentRun++;
+                longestRun = Math.max(longestRun, currentRun);
+            } else {
+                currentRun = 0;
+            }
+        }
+        this.numberOfDice = numberOfDice;
+        this.sum = sum;
+        this.maxCount = maxCount;
+        this.distinctCount = distinctCount;
+        this.longestRun = longestRun;
+    }
+
+    /**
+     * @param diceRoll List of dice throws
+     * @throws IllegalArgumentException If the roll doesn't have {Category#NUMBER_OF_DICE} dice throws,
+     * or any of them is not a valid face
+     */
+    public static RollAnalysis of(final List<Integer> diceRoll) {
+        return ANALYSIS_BY_PACKED_ROLL[PackedRoll.pack(diceRoll)];
+    }
+
+    /**
+     * @param diceRoll Array holding {Category#NUMBER_OF_DICE} dice throws
+     * @param offset Position of the first die in the array
+     * @throws IllegalArgumentException If any of the dice throws is not a valid face
+     */
+    public static RollAnalysis of(final int[] diceRoll, final int offset) {
+        return ANALYSIS_BY_PACKED_ROLL[PackedRoll.pack(diceRoll, offset)];
+    }
+
+    /**
+     * @param packedRoll Roll encoded with {PackedRoll}
+     * @throws IllegalArgumentException If the value is not a packed roll
+     */
+    public static RollAnalysis ofPackedRoll(final int packedRoll) {
+        return ANALYSIS_BY_PACKED_ROLL[PackedRoll.validate(packedRoll)];
+    }
+
+    /**
+     * @return Face counts of the roll, see {FaceCounts}
+     */
+    public long getFaceCounts() {
+        return faceCounts;
+    }
+
+    /**
+     * @return Number of dice showing the given face
+     */
+    public int getCount(final int face) {
+        return FaceCounts.count(faceCounts, face);
+    }
+
+    public int getNumberOfDice() {
+        return numberOfDice;
+    }
+
+    public int getSum() {
+        return sum;
+    }
+
+    /**
+     * @return Highest number of dice showing the same face
+     */
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * @return Number of different faces
+     */
+    public int getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * @return Length of the longest run of sequential faces, i.e. 4 for [1, 3, 4, 5, 6]
+     */
+    public int getLongestRun() {
+        return longestRun;
+    }
+}
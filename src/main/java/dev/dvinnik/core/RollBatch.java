@@ -0,0 +1,157 @@
+package dev.dvinnik.core;
+
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.List;
+
+/**
+ * Columnar buffer of rolls for batch scoring
+ *
+ * Each die position has its own {byte[]} lane, so the {i}-th roll is made of the {i}-th face of every lane.
+ * Keeping the dice in primitive lanes lets batch implementations run tight loops without any per-roll objects.
+ */
+public final class RollBatch {
+
+    private static final String BATCH_IS_FULL_EXCEPTION = "Roll batch is full";
+    private static final String INVALID_VIEW_EXCEPTION = "View is out of the bounds of the roll batch";
+
+    private final byte[][] lanes;
+    private final int offset;
+    private final int capacity;
+    private int size;
+
+    /**
+     * @param capacity Maximum number of rolls the batch can hold
+     */
+    public RollBatch(final int capacity) {
+        this(new byte[Category.NUMBER_OF_DICE][capacity], 0, capacity, 0);
+    }
+
+    private RollBatch(final byte[][] lanes,
+                      final int offset,
+                      final int capacity,
+                      final int size) {
+        this.lanes = lanes;
+        this.offset = offset;
+        this.capacity = capacity;
+        this.size = size;
+    }
+
+    /**
+     * @param packedRolls Rolls encoded with {PackedRoll}, read from the current position to the limit of the buffer
+     * @return Batch holding all the rolls
+     */
+    public static RollBatch ofPackedRolls(final IntBuffer packedRolls) {
+        final RollBatch rollBatch = new RollBatch(packedRolls.remaining());
+        rollBatch.addPackedRolls(packedRolls);
+        return rollBatch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Empties the batch, so it can be refilled without allocating new lanes
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param diceRoll List of {Category#NUMBER_OF_DICE} dice throws
+     * @throws IllegalArgumentException If the list is not a valid Schooner Dice roll
+     */
+    public void add(final List<Integer> diceRoll) {
+        addPackedRoll(PackedRoll.pack(diceRoll));
+    }
+
+    /**
+     * @param diceRoll Array holding {Category#NUMBER_OF_DICE} dice throws
+     * @param diceOffset Position of the first die in the array
+     * @throws IllegalArgumentException If any of the dice throws is not a valid face
+     */
+    public void add(final int[] diceRoll, final int diceOffset) {
+        addPackedRoll(PackedRoll.pack(diceRoll, diceOffset));
+    }
+
+    /**
+     * @param packedRoll Roll encoded with {PackedRoll}
+     * @throws IllegalArgumentException If the value is not a packed roll
+     */
+    public void addPackedRoll(final int packedRoll) {
+        PackedRoll.validate(packedRoll);
+        if (size == capacity) {
+            throw new IllegalStateException(BATCH_IS_FULL_EXCEPTION);
+        }
+        for (int die = 0; die < Category.NUMBER_OF_DICE; die++) {
+            lanes[die][offset + size] = (byte) PackedRoll.face(packedRoll, die);
+        }
+        size++;
+    }
+
+    /**
+     * @param packedRolls Rolls encoded with {PackedRoll}, read from the current position to the limit of the buffer
+     */
+    public void addPackedRolls(final IntBuffer packedRolls) {
+        while (packedRolls.hasRemaining()) {
+            addPackedRoll(packedRolls.get());
+        }
+    }
+
+    /**
+     * @param packedRolls Rolls encoded with {PackedRoll} in 16 bits each, read from the current position to the limit
+     *                    of the buffer
+     * @throws IllegalArgumentException If any of the values is not a packed roll
+     */
+    public void addPackedRolls(final ShortBuffer packedRolls) {
+        while (packedRolls.hasRemaining()) {
+            addPackedRoll(packedRolls.get() & 0xFFFF);
+        }
+    }
+
+    /**
+     * @return Face of a die of a roll in the batch
+     */
+    public int getFace(final int rollIndex, final int dieIndex) {
+        return lanes[dieIndex][offset + rollIndex];
+    }
+
+    /**
+     * @return Roll in the batch encoded with {PackedRoll}
+     */
+    public int getPackedRoll(final int rollIndex) {
+        int packedRoll = 0;
+        for (int die = 0; die < Category.NUMBER_OF_DICE; die++) {
+            packedRoll |= (lanes[die][offset + rollIndex] - 1) << (PackedRoll.BITS_PER_DIE * die);
+        }
+        return packedRoll;
+    }
+
+    /**
+     * @return Lanes of every die position, where the {i}-th roll of the batch is at {#laneOffset()} + {i}
+     */
+    byte[][] lanes() {
+        return lanes;
+    }
+
+    int laneOffset() {
+        return offset;
+    }
+
+    /**
+     * @param from Index of the first roll of the view
+     * @param length Number of rolls in the view
+     * @return Batch sharing the lanes of this batch, i.e. to score a large batch in chunks
+     */
+    public RollBatch view(final int from, final int length) {
+        if (from < 0 || length < 0 || from + length > size) {
+            throw new IndexOutOfBoundsException(INVALID_VIEW_EXCEPTION);
+        }
+        return new RollBatch(lanes, offset + from, length, length);
+    }
+}
@@ -0,0 +1,343 @@
+package dev.dvinnik.core;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Definition of a variant of the Dice game: number of dice, number of faces, and values used by category rules
+ *
+ * A rule set is only a definition. {#compile()} turns it into a {CompiledRuleSet}, which scores every possible roll
+ * once and answers all calls from a table, so adding a variant needs no new code and costs nothing per call.
+ *
+ * Decisions explained:
+ *  1) {#STANDARD} takes all its values from {Category}, so the enum stays the single source of the default game.
+ *
+ *  2) Variants can be defined in code with {#builder()} or loaded from {Properties} with {#fromProperties}, i.e.
+ *  <pre>
+ *      dice=7
+ *      faces=8
+ *      score.SCHOONER=100
+ *      occurrences.THREE_OF_A_KIND=4
+ *      length.SMALL_STRAIGHT=5
+ *      fullHouse.triple=4
+ *      fullHouse.pair=3
+ *  </pre>
+ *
+ *  3) A Full House always covers every die, so a variant with other than 5 dice has to define its own shape. The
+ *  standard 3+2 shape isn't carried over silently, as it would never score on a different number of dice.
+ */
+public final class RuleSet {
+
+    private static final String INVALID_NUMBER_OF_DICE_EXCEPTION =
+            "Number of dice should be between 1 and " + FaceCounts.MAX_NUMBER_OF_DICE;
+    private static final String INVALID_NUMBER_OF_FACES_EXCEPTION = "Number of faces should be between 1 and 16";
+    private static final String INVALID_VALUE_EXCEPTION = "Invalid value of the rule for the category ";
+    private static final String INVALID_FULL_HOUSE_EXCEPTION =
+            "Full House should split every die into a triple and a pair";
+
+    public static final int MAX_NUMBER_OF_FACES = Long.SIZE / FaceCounts.BITS_PER_FACE;
+
+    private static final List<Category> SINGLE_TYPE_CATEGORIES = List.of(Category.ONES, Category.TWOS,
+            Category.THREES, Category.FOURS, Category.FIVES, Category.SIXES, Category.SEVENS, Category.EIGHTS);
+    private static final List<Category> N_OF_A_KIND_CATEGORIES =
+            List.of(Category.THREE_OF_A_KIND, Category.FOUR_OF_A_KIND);
+    private static final List<Category> STRAIGHT_CATEGORIES =
+            List.of(Category.SMALL_STRAIGHT, Category.LARGE_STRAIGHT);
+    private static final List<Category> CONSTANT_SCORE_CATEGORIES = List.of(Category.FULL_HOUSE,
+            Category.SMALL_STRAIGHT, Category.ALL_DIFFERENT, Category.LARGE_STRAIGHT, Category.SCHOONER);
+
+    public static final RuleSet STANDARD = standard();
+
+    private final int numberOfDice;
+    private final int numberOfFaces;
+    private final int fullHouseTriple;
+    private final int fullHousePair;
+    // Face of single-type categories, required occurrences for n-of-a-kind and length of straights
+    private final Map<Category, Integer> matchingValues;
+    private final Map<Category, Integer> constantScores;
+
+    private RuleSet(final Builder builder) {
+        this.numberOfDice = builder.numberOfDice;
+        this.numberOfFaces = builder.numberOfFaces;
+        this.fullHouseTriple = builder.fullHouseTriple;
+        this.fullHousePair = builder.fullHousePair;
+        this.matchingValues = new EnumMap<>(builder.matchingValues);
+        this.constantScores = new EnumMap<>(builder.constantScores);
+    }
+
+    /**
+     * @return Builder starting from the {#STANDARD} rules
+     */
+    public static Builder builder() {
+        return new Builder(STANDARD);
+    }
+
+    /**
+     * @param properties Rule definition, where any missing value is taken from the {#STANDARD} rules
+     * @throws IllegalArgumentException If any of the values is invalid
+     */
+    public static RuleSet fromProperties(final Properties properties) {
+        final Builder builder = builder();
+        try {
+            if (properties.containsKey("dice")) {
+                builder.numberOfDice(Integer.parseInt(properties.getProperty("dice")));
+            }
+            if (properties.containsKey("faces")) {
+                builder.numberOfFaces(Integer.parseInt(properties.getProperty("faces")));
+            }
+            for (Category category : CONSTANT_SCORE_CATEGORIES) {
+                final String value = properties.getProperty("score." + category.name());
+                if (value != null) {
+                    builder.constantScore(category, Integer.parseInt(value));
+                }
+            }
+            for (Category category : N_OF_A_KIND_CATEGORIES) {
+                final String value = properties.getProperty("occurrences." + category.name());
+                if (value != null) {
+                    builder.requiredOccurrences(category, Integer.parseInt(value));
+                }
+            }
+            for (Category category : STRAIGHT_CATEGORIES) {
+                final String value = properties.getProperty("length." + category.name());
+                if (value != null) {
+                    builder.straightLength(category, Integer.parseInt(value));
+                }
+            }
+            builder.fullHouse(
+                    Integer.parseInt(properties.getProperty("fullHouse.triple", String.valueOf(STANDARD.fullHouseTriple))),
+                    Integer.parseInt(properties.getProperty("fullHouse.pair", String.valueOf(STANDARD.fullHousePair))));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Scores every possible roll of the rule set and builds a table-driven {DiceApi} from it
+     *
+     * @throws IllegalArgumentException If the rule set has too many possible rolls to tabulate
+     */
+    public CompiledRuleSet compile() {
+        return new CompiledRuleSet(this);
+    }
+
+    public int getNumberOfDice() {
+        return numberOfDice;
+    }
+
+    public int getNumberOfFaces() {
+        return numberOfFaces;
+    }
+
+    /**
+     * @return Hash of every value of the rules, which is the same across runs, so it can be persisted along with
+     * anything computed from the rule set
+     */
+    public int fingerprint() {
+        int fingerprint = numberOfDice;
+        fingerprint = 31 * fingerprint + numberOfFaces;
+        fingerprint = 31 * fingerprint + fullHouseTriple;
+        fingerprint = 31 * fingerprint + fullHousePair;
+        for (Category category : Category.values()) {
+            fingerprint = 31 * fingerprint + matchingValues.getOrDefault(category, 0);
+            fingerprint = 31 * fingerprint + constantScores.getOrDefault(category, 0);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Interprets the rules for a single roll. It is meant for compiling the rule set, not for the hot path.
+     *
+     * @param category Expected category of the dice throw
+     * @param counts Number of dice showing each face, where {counts[face - 1]} holds the count of the face
+     * @return Either score for the specified category if it matches the roll, or {@code Category#DEFAULT_VALUE}
+     */
+    public int score(final Category category,
+                     final int[] counts) {
+        int sum = 0;
+        int maxCount = 0;
+        int distinctCount = 0;
+        int longestRun = 0;
+        int currentRun = 0;
+        for (int face = 1; face <= numberOfFaces; face++) {
+            final int count = counts[face - 1];
+            sum += face * count;
+            maxCount = Math.max(maxCount, count);
+            if (count > 0) {
+                distinctCount++;
+                currentRun++;
+                longestRun = Math.max(longestRun, currentRun);
+            } else {
+                currentRun = 0;
+            }
+        }
+
+        switch (category) {
+            case ONES, TWOS, THREES, FOURS, FIVES, SIXES, SEVENS, EIGHTS -> {
+                final int face = matchingValues.get(category);
+                return face <= numberOfFaces ? face * counts[face - 1] : Category.DEFAULT_SCORE;
+            }
+            case THREE_OF_A_KIND, FOUR_OF_A_KIND -> {
+                return maxCount >= matchingValues.get(category) ? sum : Category.DEFAULT_SCORE;
+            }
+            case FULL_HOUSE -> {
+                // Two different faces, one of them showing on the triple, and the other on the pair of dice. The shape
+                // covers every die (see {Builder#build()}), so the larger count settles the smaller one.
+                return distinctCount == Category.NUMBER_OF_COMBINATIONS_FOR_FULL_HOUSE
+                        && maxCount == Math.max(fullHouseTriple, fullHousePair)
+                        ? constantScores.get(category) : Category.DEFAULT_SCORE;
+            }
+            case SMALL_STRAIGHT, LARGE_STRAIGHT -> {
+                return longestRun >= matchingValues.get(category) ? constantScores.get(category) : Category.DEFAULT_SCORE;
+            }
+            case ALL_DIFFERENT -> {
+                return distinctCount == numberOfDice ? constantScores.get(category) : Category.DEFAULT_SCORE;
+            }
+            case SCHOONER -> {
+                return distinctCount == Category.NUMBER_OF_UNIQUE_SCORES_FOR_SCHOONER
+                        ? constantScores.get(category) : Category.DEFAULT_SCORE;
+            }
+            case CHANCE -> {
+                return sum;
+            }
+            default -> {
+                return Category.DEFAULT_SCORE;
+            }
+        }
+    }
+
+    private static RuleSet standard() {
+        final Builder builder = new Builder();
+        builder.numberOfDice = Category.NUMBER_OF_DICE;
+        builder.numberOfFaces = Category.NUMBER_OF_FACES;
+        builder.fullHouseTriple = Category.FULL_HOUSE_OCCURRENCES_REQUIRED.getKey();
+        builder.fullHousePair = Category.FULL_HOUSE_OCCURRENCES_REQUIRED.getValue();
+        for (Category category : SINGLE_TYPE_CATEGORIES) {
+            builder.matchingValues.put(category, category.getMatchingDiceScore());
+        }
+        builder.matchingValues.put(Category.THREE_OF_A_KIND, Category.THREE_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED);
+        builder.matchingValues.put(Category.FOUR_OF_A_KIND, Category.FOUR_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED);
+        for (Category category : STRAIGHT_CATEGORIES) {
+            builder.matchingValues.put(category, category.getMatchingDiceScore());
+        }
+        for (Category category : CONSTANT_SCORE_CATEGORIES) {
+            builder.constantScores.put(category, category.getConstantDiceScore());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder of a rule set variant
+     */
+    public static final class Builder {
+        private int numberOfDice;
+        private int numberOfFaces;
+        private int fullHouseTriple;
+        private int fullHousePair;
+        private final Map<Category, Integer> matchingValues = new EnumMap<>(Category.class);
+        private final Map<Category, Integer> constantScores = new EnumMap<>(Category.class);
+
+        private Builder() {
+        }
+
+        private Builder(final RuleSet ruleSet) {
+            this.numberOfDice = ruleSet.numberOfDice;
+            this.numberOfFaces = ruleSet.numberOfFaces;
+            this.fullHouseTriple = ruleSet.fullHouseTriple;
+            this.fullHousePair = ruleSet.fullHousePair;
+            this.matchingValues.putAll(ruleSet.matchingValues);
+            this.constantScores.putAll(ruleSet.constantScores);
+        }
+
+        public Builder numberOfDice(final int numberOfDice) {
+            this.numberOfDice = numberOfDice;
+            return this;
+        }
+
+        public Builder numberOfFaces(final int numberOfFaces) {
+            this.numberOfFaces = numberOfFaces;
+            return this;
+        }
+
+        /**
+         * @param category One of {FULL_HOUSE, SMALL_STRAIGHT, ALL_DIFFERENT, LARGE_STRAIGHT, SCHOONER}
+         */
+        public Builder constantScore(final Category category, final int score) {
+            requireCategory(category, CONSTANT_SCORE_CATEGORIES);
+            constantScores.put(category, score);
+            return this;
+        }
+
+        /**
+         * @param category Either {THREE_OF_A_KIND} or {FOUR_OF_A_KIND}
+         */
+        public Builder requiredOccurrences(final Category category, final int occurrences) {
+            requireCategory(category, N_OF_A_KIND_CATEGORIES);
+            matchingValues.put(category, occurrences);
+            return this;
+        }
+
+        /**
+         * @param category Either {SMALL_STRAIGHT} or {LARGE_STRAIGHT}
+         */
+        public Builder straightLength(final Category category, final int length) {
+            requireCategory(category, STRAIGHT_CATEGORIES);
+            matchingValues.put(category, length);
+            return this;
+        }
+
+        /**
+         * @param triple Number of dice showing the first face of a Full House
+         * @param pair Number of dice showing the second face of a Full House, where {triple + pair} is the number
+         *             of dice
+         */
+        public Builder fullHouse(final int triple, final int pair) {
+            this.fullHouseTriple = triple;
+            this.fullHousePair = pair;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException If any of the values is invalid, or the Full House doesn't cover every die
+         */
+        public RuleSet build() {
+            if (numberOfDice < 1 || numberOfDice > FaceCounts.MAX_NUMBER_OF_DICE) {
+                throw new IllegalArgumentException(INVALID_NUMBER_OF_DICE_EXCEPTION);
+            }
+            if (numberOfFaces < 1 || numberOfFaces > MAX_NUMBER_OF_FACES) {
+                throw new IllegalArgumentException(INVALID_NUMBER_OF_FACES_EXCEPTION);
+            }
+            for (Category category : N_OF_A_KIND_CATEGORIES) {
+                requirePositive(category, matchingValues.get(category));
+            }
+            for (Category category : STRAIGHT_CATEGORIES) {
+                requirePositive(category, matchingValues.get(category));
+            }
+            requirePositive(Category.FULL_HOUSE, fullHouseTriple);
+            requirePositive(Category.FULL_HOUSE, fullHousePair);
+            if (fullHouseTriple + fullHousePair != numberOfDice) {
+                throw new IllegalArgumentException(INVALID_FULL_HOUSE_EXCEPTION);
+            }
+            for (Category category : CONSTANT_SCORE_CATEGORIES) {
+                if (constantScores.get(category) < Category.DEFAULT_SCORE) {
+                    throw new IllegalArgumentException(INVALID_VALUE_EXCEPTION + category);
+                }
+            }
+            return new RuleSet(this);
+        }
+
+        private static void requireCategory(final Category category, final List<Category> categories) {
+            if (!categories.contains(category)) {
+                throw new IllegalArgumentException(INVALID_VALUE_EXCEPTION + category);
+            }
+        }
+
+        private static void requirePositive(final Category category, final int value) {
+            if (value < 1) {
+                throw new IllegalArgumentException(INVALID_VALUE_EXCEPTION + category);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dev.dvinnik.core;
+
+import java.util.*;
+
+/**
+ * Dice API implementation that answers every call from tables built once at construction
+ *
+ * With five eight-sided dice there are only 8^5 = 32,768 ordered rolls and 792 distinct multisets of dice,
+ * so instead of analysing a roll on every call, each multiset is scored once with a reference implementation.
+ *
+ * Decisions explained:
+ *  1) Every ordered roll is encoded as a {PackedRoll}, which maps straight to the row of its multiset,
+ *  so there is no sorting or grouping on the hot path.
+ *
+ *  2) Scores are kept in a single row-major array indexed by {Enum#ordinal()}. Unlike scoring values, the ordinal
+ *  is safe to use here because the table is built from {Category#values()} at runtime, so reordering categories
+ *  cannot break it.
+ *
+ *  3) Top categories are precomputed per multiset, both as shared unmodifiable lists and as {CategoryMask}s
+ *  for batch scoring.
+ */
+public class TabulatedDiceApi implements DiceApi {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    // Row of the multiset for every ordered roll index
+    private final short[] rowByRoll = new short[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+    // Scores of every category for every multiset, i.e. {scores[row * CATEGORIES.length + category.ordinal()]}
+    private final short[] scores;
+    private final List<List<Category>> topCategoriesByRow = new ArrayList<>();
+    private final int[] topCategoryMaskByRow;
+
+    /**
+     * Default constructor that tabulates the {SchoonerDiceApi} rules
+     */
+    public TabulatedDiceApi() {
+        this(new SchoonerDiceApi());
+    }
+
+    /**
+     * @param referenceDiceApi Implementation whose results are tabulated. It is only called while building the tables.
+     */
+    public TabulatedDiceApi(final DiceApi referenceDiceApi) {
+        final Map<List<Integer>, Short> rowByMultiset = new HashMap<>();
+        final List<Short> scoresByRow = new ArrayList<>();
+
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            final List<Integer> sortedDiceRoll = PackedRoll.toList(packedRoll).stream().sorted().toList();
+
+            Short row = rowByMultiset.get(sortedDiceRoll);
+            if (row == null) {
+                // First time we see this multiset, so we score it with the reference implementation
+                row = (short) rowByMultiset.size();
+                rowByMultiset.put(sortedDiceRoll, row);
+                for (Category category : CATEGORIES) {
+                    scoresByRow.add((short) referenceDiceApi.score(category, sortedDiceRoll));
+                }
+                topCategoriesByRow.add(List.copyOf(referenceDiceApi.topCategories(sortedDiceRoll)));
+            }
+            rowByRoll[packedRoll] = row;
+        }
+
+        scores = new short[scoresByRow.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = scoresByRow.get(i);
+        }
+        topCategoryMaskByRow = topCategoriesByRow.stream().mapToInt(CategoryMask::of).toArray();
+    }
+
+    /**
+     * Produce a score for a particular category for a list of dice throws
+     *
+     * @param category Expected category of the dice throw
+     * @param diceRoll Collection of dice throws
+     * @return Tabulated score for the specified category
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     */
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        return scoreOfPackedRoll(category, PackedRoll.pack(diceRoll));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        return scoreOfPackedRoll(category, PackedRoll.pack(diceRoll, offset));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        return scoreOfPackedRoll(category, PackedRoll.validate(packedRoll));
+    }
+
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        return scoreOfPackedRoll(category, roll.getPackedRoll());
+    }
+
+    /**
+     * Produces a list of categories that produce the top score for a list of dice throws
+     *
+     * @param diceRoll List of dice throws
+     * @return Unmodifiable collection of categories that would produce the highest score for the given dice throws
+     * @throws IllegalArgumentException If the dice roll is not a valid Schooner Dice roll
+     */
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        return topCategoriesByRow.get(rowByRoll[PackedRoll.pack(diceRoll)]);
+    }
+
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        return topCategoriesByRow.get(rowByRoll[roll.getPackedRoll()]);
+    }
+
+    @Override
+    public void score(final Category category,
+                      final RollBatch rollBatch,
+                      final int[] scores) {
+        final int categoryIndex = category.ordinal();
+        for (int i = 0; i < rollBatch.size(); i++) {
+            scores[i] = this.scores[rowByRoll[rollBatch.getPackedRoll(i)] * CATEGORIES.length + categoryIndex];
+        }
+    }
+
+    @Override
+    public void scoreAll(final RollBatch rollBatch,
+                         final int[] scores) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final int rowStart = rowByRoll[rollBatch.getPackedRoll(i)] * CATEGORIES.length;
+            for (int categoryIndex = 0; categoryIndex < CATEGORIES.length; categoryIndex++) {
+                scores[i * CATEGORIES.length + categoryIndex] = this.scores[rowStart + categoryIndex];
+            }
+        }
+    }
+
+    @Override
+    public void topCategories(final RollBatch rollBatch,
+                              final int[] topCategoryMasks) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            topCategoryMasks[i] = topCategoryMaskByRow[rowByRoll[rollBatch.getPackedRoll(i)]];
+        }
+    }
+
+    private int scoreOfPackedRoll(final Category category,
+                                  final int packedRoll) {
+        return scores[rowByRoll[packedRoll] * CATEGORIES.length + category.ordinal()];
+    }
+}
@@ -0,0 +1,100 @@
+package dev.dvinnik.core;
+
+/**
+ * Dice API implementation whose batch methods score many rolls per instruction with the Vector API,
+ * see {VectorScoringKernel}
+ *
+ * The Vector API is an incubator module, so it's only used if the runtime was started with
+ * {--add-modules jdk.incubator.vector}. Otherwise, or if the {#VECTOR_PROPERTY} system property is {false},
+ * batches are scored by the scalar loops of {BitmaskDiceApi}, which also score single rolls and the rolls left over
+ * after the last full vector of a batch.
+ */
+public class VectorDiceApi extends BitmaskDiceApi {
+
+    private static final String VECTOR_UNSUPPORTED_EXCEPTION = "Vector API module isn't available in the runtime";
+
+    public static final String VECTOR_PROPERTY = "dev.dvinnik.vector";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    // Loaded by name, so the incubator module is only needed when the vectorized kernel is used
+    private static final String VECTOR_KERNEL_CLASS = "dev.dvinnik.core.VectorScoringKernel";
+
+    private final BatchScoringKernel kernel;
+
+    /**
+     * Default constructor that scores batches with the Vector API if it's available and not disabled
+     */
+    public VectorDiceApi() {
+        this(isVectorSupported() && Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true")));
+    }
+
+    /**
+     * @param vectorized Whether to score batches with the Vector API rather than with scalar loops
+     * @throws IllegalStateException If the Vector API is requested but isn't available
+     */
+    public VectorDiceApi(final boolean vectorized) {
+        if (vectorized && !isVectorSupported()) {
+            throw new IllegalStateException(VECTOR_UNSUPPORTED_EXCEPTION);
+        }
+        this.kernel = vectorized ? loadVectorKernel() : null;
+    }
+
+    /**
+     * @return Whether the Vector API module is available in the runtime
+     */
+    public static boolean isVectorSupported() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * @return Whether batches are scored with the Vector API
+     */
+    public boolean isVectorized() {
+        return kernel != null;
+    }
+
+    @Override
+    public void score(final Category category,
+                      final RollBatch rollBatch,
+                      final int[] scores) {
+        if (kernel == null) {
+            super.score(category, rollBatch, scores);
+            return;
+        }
+        final int scored = kernel.score(category, rollBatch.lanes(), rollBatch.laneOffset(), rollBatch.size(), scores);
+        for (int i = scored; i < rollBatch.size(); i++) {
+            scores[i] = score(category, rollBatch.getPackedRoll(i));
+        }
+    }
+
+    @Override
+    public void scoreAll(final RollBatch rollBatch,
+                         final int[] scores) {
+        if (kernel == null) {
+            super.scoreAll(rollBatch, scores);
+            return;
+        }
+        final int scored = kernel.scoreAll(rollBatch.lanes(), rollBatch.laneOffset(), rollBatch.size(), scores);
+        scoreAll(rollBatch, scores, scored);
+    }
+
+    @Override
+    public void topCategories(final RollBatch rollBatch,
+                              final int[] topCategoryMasks) {
+        if (kernel == null) {
+            super.topCategories(rollBatch, topCategoryMasks);
+            return;
+        }
+        final int scored = kernel.topCategories(rollBatch.lanes(), rollBatch.laneOffset(), rollBatch.size(),
+                topCategoryMasks);
+        topCategories(rollBatch, topCategoryMasks, scored);
+    }
+
+    private static BatchScoringKernel loadVectorKernel() {
+        try {
+            return (BatchScoringKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package dev.dvinnik.core;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.List;
+
+/**
+ * Scoring kernel on the Vector API, where every lane of a {ByteVector} holds a die of a different roll,
+ * so a step scores as many rolls as the preferred vector has bytes, i.e. 32 with AVX2
+ *
+ * Every rule is evaluated lane-wise:
+ *  1) Single-type categories add the face wherever a die shows it, and Chance adds up the dice.
+ *  2) The count of every die is one plus the number of other dice equal to it. N-of-a-kind, Full House,
+ *  All Different and Schooner only look at the highest and the lowest of those counts.
+ *  3) Straights test a face-presence mask against the masks of sequential faces, like {BitmaskDiceApi}.
+ *
+ * Every score fits into a byte, so rolls are scored in bytes and only widened when they are written out.
+ * The class is only loaded by {VectorDiceApi} when the {jdk.incubator.vector} module is present.
+ */
+final class VectorScoringKernel implements BatchScoringKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int ROLLS_PER_STEP = SPECIES.length();
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private static final ByteVector ZERO = ByteVector.zero(SPECIES);
+    private static final ByteVector ONE = ByteVector.broadcast(SPECIES, (byte) 1);
+
+    private static final List<Category> SINGLE_TYPE_CATEGORIES = List.of(Category.ONES, Category.TWOS,
+            Category.THREES, Category.FOURS, Category.FIVES, Category.SIXES, Category.SEVENS, Category.EIGHTS);
+    // Face counted by each of the single-type categories, indexed by ordinal
+    private static final int[] MATCHING_FACES = new int[NUMBER_OF_CATEGORIES];
+
+    static {
+        for (Category category : SINGLE_TYPE_CATEGORIES) {
+            MATCHING_FACES[category.ordinal()] = category.getMatchingDiceScore();
+        }
+    }
+
+    private static final int[] SMALL_STRAIGHT_MASKS = runMasks(Category.SMALL_STRAIGHT.getMatchingDiceScore());
+    private static final int[] LARGE_STRAIGHT_MASKS = runMasks(Category.LARGE_STRAIGHT.getMatchingDiceScore());
+
+    private static final int FULL_HOUSE_SCORE = Category.FULL_HOUSE.getConstantDiceScore();
+    private static final int SMALL_STRAIGHT_SCORE = Category.SMALL_STRAIGHT.getConstantDiceScore();
+    private static final int ALL_DIFFERENT_SCORE = Category.ALL_DIFFERENT.getConstantDiceScore();
+    private static final int LARGE_STRAIGHT_SCORE = Category.LARGE_STRAIGHT.getConstantDiceScore();
+    private static final int SCHOONER_SCORE = Category.SCHOONER.getConstantDiceScore();
+
+    // Counts of a Full House, i.e. three of one face and two of another
+    private static final int FULL_HOUSE_HIGHEST_COUNT = Category.FULL_HOUSE_OCCURRENCES_REQUIRED.getKey();
+    private static final int FULL_HOUSE_LOWEST_COUNT = Category.FULL_HOUSE_OCCURRENCES_REQUIRED.getValue();
+
+    @Override
+    public int rollsPerStep() {
+        return ROLLS_PER_STEP;
+    }
+
+    @Override
+    public int score(final Category category,
+                     final byte[][] lanes,
+                     final int offset,
+                     final int length,
+                     final int[] scores) {
+        final int bound = SPECIES.loopBound(length);
+        final byte[] stepScores = new byte[ROLLS_PER_STEP];
+        for (int i = 0; i < bound; i += ROLLS_PER_STEP) {
+            final ByteVector d0 = ByteVector.fromArray(SPECIES, lanes[0], offset + i);
+            final ByteVector d1 = ByteVector.fromArray(SPECIES, lanes[1], offset + i);
+            final ByteVector d2 = ByteVector.fromArray(SPECIES, lanes[2], offset + i);
+            final ByteVector d3 = ByteVector.fromArray(SPECIES, lanes[3], offset + i);
+            final ByteVector d4 = ByteVector.fromArray(SPECIES, lanes[4], offset + i);
+            score(category, d0, d1, d2, d3, d4).intoArray(stepScores, 0);
+            for (int lane = 0; lane < ROLLS_PER_STEP; lane++) {
+                scores[i + lane] = stepScores[lane];
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public int scoreAll(final byte[][] lanes,
+                        final int offset,
+                        final int length,
+                        final int[] scores) {
+        final int bound = SPECIES.loopBound(length);
+        // Scores of a step, category after category
+        final byte[] stepScores = new byte[NUMBER_OF_CATEGORIES * ROLLS_PER_STEP];
+        for (int i = 0; i < bound; i += ROLLS_PER_STEP) {
+            scoreStep(lanes, offset + i, stepScores);
+            for (int lane = 0; lane < ROLLS_PER_STEP; lane++) {
+                for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                    scores[(i + lane) * NUMBER_OF_CATEGORIES + categoryIndex] =
+                            stepScores[categoryIndex * ROLLS_PER_STEP + lane];
+                }
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public int topCategories(final byte[][] lanes,
+                             final int offset,
+                             final int length,
+                             final int[] topCategoryMasks) {
+        final int bound = SPECIES.loopBound(length);
+        final byte[] stepScores = new byte[NUMBER_OF_CATEGORIES * ROLLS_PER_STEP];
+        final byte[] lowMasks = new byte[ROLLS_PER_STEP];
+        final byte[] highMasks = new byte[ROLLS_PER_STEP];
+        for (int i = 0; i < bound; i += ROLLS_PER_STEP) {
+            scoreStep(lanes, offset + i, stepScores);
+            ByteVector topScore = ByteVector.fromArray(SPECIES, stepScores, 0);
+            for (int categoryIndex = 1; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                topScore = topScore.max(ByteVector.fromArray(SPECIES, stepScores, categoryIndex * ROLLS_PER_STEP));
+            }
+            // A mask of 16 categories is built as two bytes, one for each half of the categories
+            ByteVector lowMask = ZERO;
+            ByteVector highMask = ZERO;
+            for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                final VectorMask<Byte> isTop = ByteVector.fromArray(SPECIES, stepScores,
+                        categoryIndex * ROLLS_PER_STEP).eq(topScore);
+                if (categoryIndex < Byte.SIZE) {
+                    lowMask = lowMask.or(ZERO.blend((byte) (1 << categoryIndex), isTop));
+                } else {
+                    highMask = highMask.or(ZERO.blend((byte) (1 << (categoryIndex - Byte.SIZE)), isTop));
+                }
+            }
+            lowMask.intoArray(lowMasks, 0);
+            highMask.intoArray(highMasks, 0);
+            for (int lane = 0; lane < ROLLS_PER_STEP; lane++) {
+                topCategoryMasks[i + lane] = (lowMasks[lane] & 0xFF) | (highMasks[lane] & 0xFF) << Byte.SIZE;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Scores a step of rolls for every category, where the scores of a category start at
+     * {stepScores[category.ordinal() * ROLLS_PER_STEP]}
+     */
+    private static void scoreStep(final byte[][] lanes,
+                                  final int from,
+                                  final byte[] stepScores) {
+        final ByteVector d0 = ByteVector.fromArray(SPECIES, lanes[0], from);
+        final ByteVector d1 = ByteVector.fromArray(SPECIES, lanes[1], from);
+        final ByteVector d2 = ByteVector.fromArray(SPECIES, lanes[2], from);
+        final ByteVector d3 = ByteVector.fromArray(SPECIES, lanes[3], from);
+        final ByteVector d4 = ByteVector.fromArray(SPECIES, lanes[4], from);
+
+        for (Category category : SINGLE_TYPE_CATEGORIES) {
+            singleTypeScore(MATCHING_FACES[category.ordinal()], d0, d1, d2, d3, d4)
+                    .intoArray(stepScores, category.ordinal() * ROLLS_PER_STEP);
+        }
+
+        final ByteVector sum = sum(d0, d1, d2, d3, d4);
+        final ByteVector highestCount = highestCount(d0, d1, d2, d3, d4);
+        final ByteVector lowestCount = lowestCount(d0, d1, d2, d3, d4);
+        final ByteVector presenceMask = presenceMask(d0, d1, d2, d3, d4);
+        ZERO.blend(sum, highestCount.compare(VectorOperators.GE,
+                        (byte) Category.THREE_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED))
+                .intoArray(stepScores, Category.THREE_OF_A_KIND.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(sum, highestCount.compare(VectorOperators.GE,
+                        (byte) Category.FOUR_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED))
+                .intoArray(stepScores, Category.FOUR_OF_A_KIND.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(FULL_HOUSE_SCORE, highestCount.eq((byte) FULL_HOUSE_HIGHEST_COUNT)
+                        .and(lowestCount.eq((byte) FULL_HOUSE_LOWEST_COUNT)))
+                .intoArray(stepScores, Category.FULL_HOUSE.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(SMALL_STRAIGHT_SCORE, containsRun(presenceMask, SMALL_STRAIGHT_MASKS))
+                .intoArray(stepScores, Category.SMALL_STRAIGHT.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(ALL_DIFFERENT_SCORE, highestCount.eq((byte) 1))
+                .intoArray(stepScores, Category.ALL_DIFFERENT.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(LARGE_STRAIGHT_SCORE, containsRun(presenceMask, LARGE_STRAIGHT_MASKS))
+                .intoArray(stepScores, Category.LARGE_STRAIGHT.ordinal() * ROLLS_PER_STEP);
+        ZERO.blend(SCHOONER_SCORE, highestCount.eq((byte) Category.NUMBER_OF_DICE))
+                .intoArray(stepScores, Category.SCHOONER.ordinal() * ROLLS_PER_STEP);
+        sum.intoArray(stepScores, Category.CHANCE.ordinal() * ROLLS_PER_STEP);
+    }
+
+    private static ByteVector score(final Category category,
+                                    final ByteVector d0,
+                                    final ByteVector d1,
+                                    final ByteVector d2,
+                                    final ByteVector d3,
+                                    final ByteVector d4) {
+        return switch (category) {
+            case ONES, TWOS, THREES, FOURS, FIVES, SIXES, SEVENS, EIGHTS ->
+                    singleTypeScore(MATCHING_FACES[category.ordinal()], d0, d1, d2, d3, d4);
+            case THREE_OF_A_KIND -> ZERO.blend(sum(d0, d1, d2, d3, d4), highestCount(d0, d1, d2, d3, d4)
+                    .compare(VectorOperators.GE, (byte) Category.THREE_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED));
+            case FOUR_OF_A_KIND -> ZERO.blend(sum(d0, d1, d2, d3, d4), highestCount(d0, d1, d2, d3, d4)
+                    .compare(VectorOperators.GE, (byte) Category.FOUR_OF_A_KIND_NUMBER_OF_OCCURRENCES_REQUIRED));
+            case FULL_HOUSE -> ZERO.blend(FULL_HOUSE_SCORE,
+                    highestCount(d0, d1, d2, d3, d4).eq((byte) FULL_HOUSE_HIGHEST_COUNT)
+                            .and(lowestCount(d0, d1, d2, d3, d4).eq((byte) FULL_HOUSE_LOWEST_COUNT)));
+            case SMALL_STRAIGHT -> ZERO.blend(SMALL_STRAIGHT_SCORE,
+                    containsRun(presenceMask(d0, d1, d2, d3, d4), SMALL_STRAIGHT_MASKS));
+            case ALL_DIFFERENT -> ZERO.blend(ALL_DIFFERENT_SCORE, highestCount(d0, d1, d2, d3, d4).eq((byte) 1));
+            case LARGE_STRAIGHT -> ZERO.blend(LARGE_STRAIGHT_SCORE,
+                    containsRun(presenceMask(d0, d1, d2, d3, d4), LARGE_STRAIGHT_MASKS));
+            case SCHOONER -> ZERO.blend(SCHOONER_SCORE,
+                    highestCount(d0, d1, d2, d3, d4).eq((byte) Category.NUMBER_OF_DICE));
+            case CHANCE -> sum(d0, d1, d2, d3, d4);
+        };
+    }
+
+    private static ByteVector singleTypeScore(final int face,
+                                              final ByteVector d0,
+                                              final ByteVector d1,
+                                              final ByteVector d2,
+                                              final ByteVector d3,
+                                              final ByteVector d4) {
+        final byte faceValue = (byte) face;
+        return ZERO.blend(faceValue, d0.eq(faceValue))
+                .add(ZERO.blend(faceValue, d1.eq(faceValue)))
+                .add(ZERO.blend(faceValue, d2.eq(faceValue)))
+                .add(ZERO.blend(faceValue, d3.eq(faceValue)))
+                .add(ZERO.blend(faceValue, d4.eq(faceValue)));
+    }
+
+    private static ByteVector sum(final ByteVector d0,
+                                  final ByteVector d1,
+                                  final ByteVector d2,
+                                  final ByteVector d3,
+                                  final ByteVector d4) {
+        return d0.add(d1).add(d2).add(d3).add(d4);
+    }
+
+    /**
+     * @return Highest number of dice showing the same face
+     */
+    private static ByteVector highestCount(final ByteVector d0,
+                                           final ByteVector d1,
+                                           final ByteVector d2,
+                                           final ByteVector d3,
+                                           final ByteVector d4) {
+        final ByteVector e01 = equal(d0, d1);
+        final ByteVector e02 = equal(d0, d2);
+        final ByteVector e03 = equal(d0, d3);
+        final ByteVector e04 = equal(d0, d4);
+        final ByteVector e12 = equal(d1, d2);
+        final ByteVector e13 = equal(d1, d3);
+        final ByteVector e14 = equal(d1, d4);
+        final ByteVector e23 = equal(d2, d3);
+        final ByteVector e24 = equal(d2, d4);
+        final ByteVector e34 = equal(d3, d4);
+        return ONE.add(e01).add(e02).add(e03).add(e04)
+                .max(ONE.add(e01).add(e12).add(e13).add(e14))
+                .max(ONE.add(e02).add(e12).add(e23).add(e24))
+                .max(ONE.add(e03).add(e13).add(e23).add(e34))
+                .max(ONE.add(e04).add(e14).add(e24).add(e34));
+    }
+
+    /**
+     * @return Lowest number of dice showing the same face, among the faces that any die shows
+     */
+    private static ByteVector lowestCount(final ByteVector d0,
+                                          final ByteVector d1,
+                                          final ByteVector d2,
+                                          final ByteVector d3,
+                                          final ByteVector d4) {
+        final ByteVector e01 = equal(d0, d1);
+        final ByteVector e02 = equal(d0, d2);
+        final ByteVector e03 = equal(d0, d3);
+        final ByteVector e04 = equal(d0, d4);
+        final ByteVector e12 = equal(d1, d2);
+        final ByteVector e13 = equal(d1, d3);
+        final ByteVector e14 = equal(d1, d4);
+        final ByteVector e23 = equal(d2, d3);
+        final ByteVector e24 = equal(d2, d4);
+        final ByteVector e34 = equal(d3, d4);
+        return ONE.add(e01).add(e02).add(e03).add(e04)
+                .min(ONE.add(e01).add(e12).add(e13).add(e14))
+                .min(ONE.add(e02).add(e12).add(e23).add(e24))
+                .min(ONE.add(e03).add(e13).add(e23).add(e34))
+                .min(ONE.add(e04).add(e14).add(e24).add(e34));
+    }
+
+    /**
+     * @return One where the dice are equal, and zero elsewhere
+     */
+    private static ByteVector equal(final ByteVector first,
+                                    final ByteVector second) {
+        return ZERO.blend(ONE, first.eq(second));
+    }
+
+    /**
+     * @return Mask where the bit {face - 1} is set if any die shows the face
+     */
+    private static ByteVector presenceMask(final ByteVector d0,
+                                           final ByteVector d1,
+                                           final ByteVector d2,
+                                           final ByteVector d3,
+                                           final ByteVector d4) {
+        return ONE.lanewise(VectorOperators.LSHL, d0.sub((byte) 1))
+                .or(ONE.lanewise(VectorOperators.LSHL, d1.sub((byte) 1)))
+                .or(ONE.lanewise(VectorOperators.LSHL, d2.sub((byte) 1)))
+                .or(ONE.lanewise(VectorOperators.LSHL, d3.sub((byte) 1)))
+                .or(ONE.lanewise(VectorOperators.LSHL, d4.sub((byte) 1)));
+    }
+
+    private static VectorMask<Byte> containsRun(final ByteVector presenceMask,
+                                                final int[] runMasks) {
+        VectorMask<Byte> containsRun = SPECIES.maskAll(false);
+        for (int runMask : runMasks) {
+            final byte run = (byte) runMask;
+            containsRun = containsRun.or(presenceMask.and(run).eq(run));
+        }
+        return containsRun;
+    }
+
+    /**
+     * @return Masks of every run of sequential faces of the given length, i.e. 0b1111 for 1, 2, 3 and 4
+     */
+    private static int[] runMasks(final int runLength) {
+        final int[] runMasks = new int[Category.NUMBER_OF_FACES - runLength + 1];
+        for (int i = 0; i < runMasks.length; i++) {
+            runMasks[i] = ((1 << runLength) - 1) << i;
+        }
+        return runMasks;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.dvinnik.io;
+
+import dev.dvinnik.core.CategoryMask;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a roll log file, shared by {RollLogWriter} and {RollLogReader}
+ *
+ * Every number is little-endian. The file starts with a header:
+ *  1) Magic number and format version.
+ *  2) Flags, where {FLAG_SUMMARIES} marks blocks with category summaries.
+ *  3) Number of rolls in a full block.
+ *  4) Fingerprint of the order of {Category}, since summaries are indexed by ordinal.
+ *
+ * The header is followed by blocks, where every block but the last one is full:
+ *  1) Number of rolls in the block.
+ *  2) With summaries, the number of rolls that hit each category, and the number of rolls where each category is
+ *  a top category, in the order of {Category#values()}.
+ *  3) Rolls encoded with {PackedRoll} in 16 bits each, padded to a multiple of 4 bytes.
+ */
+final class RollLogFormat {
+
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int MAGIC = 0x5344_524C;
+    static final int VERSION = 1;
+    static final int FLAG_SUMMARIES = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    static final int BYTES_PER_ROLL = Short.BYTES;
+    static final int SUMMARY_SIZE = 2 * CategoryMask.NUMBER_OF_CATEGORIES * Integer.BYTES;
+
+    private RollLogFormat() {
+    }
+
+    static int blockHeaderSize(final boolean summaries) {
+        return Integer.BYTES + (summaries ? SUMMARY_SIZE : 0);
+    }
+
+    /**
+     * @return Size of a block with the given number of rolls, including its header and padding
+     */
+    static int blockSize(final int numberOfRolls,
+                         final boolean summaries) {
+        final int rollsSize = numberOfRolls * BYTES_PER_ROLL;
+        return blockHeaderSize(summaries) + (rollsSize + Integer.BYTES - 1) / Integer.BYTES * Integer.BYTES;
+    }
+}
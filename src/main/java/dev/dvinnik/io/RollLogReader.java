@@ -0,0 +1,212 @@
+package dev.dvinnik.io;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.RollBatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads a binary roll log written by {RollLogWriter}, see {RollLogFormat}
+ *
+ * The file is mapped into memory in windows of whole blocks, since a single mapping can't exceed 2 GiB, and rolls
+ * of a block are copied straight from the mapping into the lanes of a {RollBatch}, so reading creates no object
+ * per roll and a batch can be passed to the batch methods of a {DiceApi} as it is.
+ *
+ * Blocks are read with absolute positions, so several threads can read different blocks at the same time.
+ */
+public final class RollLogReader implements AutoCloseable {
+
+    private static final String INVALID_FILE_EXCEPTION = "File isn't a roll log of this version";
+    private static final String NO_SUMMARIES_EXCEPTION = "Roll log was written without summaries";
+    private static final String INVALID_BLOCK_EXCEPTION = "Block is out of the bounds of the roll log";
+
+    private static final long MAX_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final boolean summaries;
+    private final int fullBlockSize;
+    private final int blocksPerWindow;
+    private final int numberOfBlocks;
+    private final MappedByteBuffer[] windows;
+
+    private RollLogReader(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        final long fileSize = channel.size();
+        if (fileSize < RollLogFormat.HEADER_SIZE) {
+            throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+        }
+        final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, RollLogFormat.HEADER_SIZE)
+                .order(RollLogFormat.BYTE_ORDER);
+        if (header.getInt() != RollLogFormat.MAGIC || header.getInt() != RollLogFormat.VERSION) {
+            throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+        }
+        summaries = (header.getInt() & RollLogFormat.FLAG_SUMMARIES) != 0;
+        blockSize = header.getInt();
+        if (blockSize <= 0 || header.getInt() != CategoryMask.fingerprint()) {
+            throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+        }
+
+        fullBlockSize = RollLogFormat.blockSize(blockSize, summaries);
+        blocksPerWindow = (int) Math.max(1, MAX_WINDOW_SIZE / fullBlockSize);
+        final long blocksSize = fileSize - RollLogFormat.HEADER_SIZE;
+        numberOfBlocks = (int) ((blocksSize + fullBlockSize - 1) / fullBlockSize);
+        windows = new MappedByteBuffer[(numberOfBlocks + blocksPerWindow - 1) / blocksPerWindow];
+        for (int window = 0; window < windows.length; window++) {
+            final long windowStart = RollLogFormat.HEADER_SIZE + (long) window * blocksPerWindow * fullBlockSize;
+            final long windowSize = Math.min((long) blocksPerWindow * fullBlockSize, fileSize - windowStart);
+            windows[window] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            windows[window].order(RollLogFormat.BYTE_ORDER);
+        }
+
+        // Only the last block may be partial, and it has to hold exactly its rolls
+        if (numberOfBlocks > 0) {
+            final int lastBlockRolls = getNumberOfRolls(numberOfBlocks - 1);
+            final long lastBlockSize = blocksSize - (long) (numberOfBlocks - 1) * fullBlockSize;
+            if (lastBlockRolls <= 0 || lastBlockRolls > blockSize
+                    || RollLogFormat.blockSize(lastBlockRolls, summaries) != lastBlockSize) {
+                throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the file isn't a roll log, or was written for another order of categories
+     */
+    public static RollLogReader open(final Path path) {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            return new RollLogReader(channel);
+        } catch (final IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException(e);
+        } catch (final RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of rolls in a full block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public boolean hasSummaries() {
+        return summaries;
+    }
+
+    public int getNumberOfBlocks() {
+        return numberOfBlocks;
+    }
+
+    public long getNumberOfRolls() {
+        if (numberOfBlocks == 0) {
+            return 0;
+        }
+        return (long) (numberOfBlocks - 1) * blockSize + getNumberOfRolls(numberOfBlocks - 1);
+    }
+
+    public int getNumberOfRolls(final int block) {
+        return window(block).getInt(blockOffset(block));
+    }
+
+    /**
+     * @return Number of rolls of the block that scored more than {Category#DEFAULT_SCORE} for the category
+     * @throws IllegalStateException If the log was written without summaries
+     */
+    public int getHitCount(final int block,
+                           final Category category) {
+        return summary(block, category.ordinal());
+    }
+
+    /**
+     * @return Number of rolls of the block where the category is one of the top categories
+     * @throws IllegalStateException If the log was written without summaries
+     */
+    public int getTopCategoryCount(final int block,
+                                   final Category category) {
+        return summary(block, Category.values().length + category.ordinal());
+    }
+
+    /**
+     * Replaces the rolls of the batch with the rolls of the block
+     *
+     * @param rollBatch Batch with a capacity of at least {#getBlockSize()} rolls
+     * @return Number of rolls read
+     * @throws IllegalArgumentException If the block holds a value that is not a packed roll
+     */
+    public int readBlock(final int block,
+                         final RollBatch rollBatch) {
+        final int numberOfRolls = getNumberOfRolls(block);
+        final int rollsStart = blockOffset(block) + RollLogFormat.blockHeaderSize(summaries);
+        final ShortBuffer packedRolls = window(block).slice(rollsStart, numberOfRolls * RollLogFormat.BYTES_PER_ROLL)
+                .order(RollLogFormat.BYTE_ORDER).asShortBuffer();
+        rollBatch.clear();
+        rollBatch.addPackedRolls(packedRolls);
+        return numberOfRolls;
+    }
+
+    /**
+     * Reads every block in order into the same batch, i.e. to score a whole log with {DiceApi#scoreAll}
+     *
+     * @param consumer Called with the batch holding the rolls of every block, which is reused for the next block
+     */
+    public void forEachBlock(final Consumer<RollBatch> consumer) {
+        final RollBatch rollBatch = new RollBatch(blockSize);
+        for (int block = 0; block < numberOfBlocks; block++) {
+            readBlock(block, rollBatch);
+            consumer.accept(rollBatch);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private int summary(final int block,
+                        final int index) {
+        if (!summaries) {
+            throw new IllegalStateException(NO_SUMMARIES_EXCEPTION);
+        }
+        return window(block).getInt(blockOffset(block) + Integer.BYTES + index * Integer.BYTES);
+    }
+
+    private ByteBuffer window(final int block) {
+        if (block < 0 || block >= numberOfBlocks) {
+            throw new IndexOutOfBoundsException(INVALID_BLOCK_EXCEPTION);
+        }
+        return windows[block / blocksPerWindow];
+    }
+
+    private int blockOffset(final int block) {
+        return block % blocksPerWindow * fullBlockSize;
+    }
+
+    private static void closeQuietly(final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            // The exception that failed opening the log is more relevant
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package dev.dvinnik.io;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes rolls into a binary roll log, see {RollLogFormat}
+ *
+ * A roll takes 2 bytes instead of a line of text, and rolls are written a block at a time. With a {DiceApi},
+ * every block also gets category summaries, computed with the batch methods when the block is full,
+ * so a reader can aggregate categories without scoring the rolls again.
+ *
+ * A writer isn't safe to use from several threads.
+ */
+public final class RollLogWriter implements AutoCloseable {
+
+    private static final String INVALID_BLOCK_SIZE_EXCEPTION = "Block size should be positive";
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final DiceApi summaryDiceApi;
+    private final short[] blockRolls;
+    private final ByteBuffer blockBuffer;
+    private final RollBatch summaryBatch;
+    private final int[] summaryScores;
+    private int numberOfBlockRolls;
+    private long numberOfRolls;
+
+    /**
+     * Default constructor that writes blocks of {#DEFAULT_BLOCK_SIZE} rolls without summaries
+     */
+    public RollLogWriter(final Path path) {
+        this(path, DEFAULT_BLOCK_SIZE, null);
+    }
+
+    /**
+     * @param path File to write, replaced if it exists
+     * @param blockSize Number of rolls in a full block
+     * @param summaryDiceApi Implementation used to summarise every block, or {null} to write blocks without summaries
+     */
+    public RollLogWriter(final Path path,
+                         final int blockSize,
+                         final DiceApi summaryDiceApi) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(INVALID_BLOCK_SIZE_EXCEPTION);
+        }
+        this.blockSize = blockSize;
+        this.summaryDiceApi = summaryDiceApi;
+        this.blockRolls = new short[blockSize];
+        this.blockBuffer = ByteBuffer.allocateDirect(RollLogFormat.blockSize(blockSize, summaryDiceApi != null))
+                .order(RollLogFormat.BYTE_ORDER);
+        this.summaryBatch = summaryDiceApi != null ? new RollBatch(blockSize) : null;
+        this.summaryScores = summaryDiceApi != null ? new int[blockSize] : null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(RollLogFormat.HEADER_SIZE).order(RollLogFormat.BYTE_ORDER);
+            header.putInt(RollLogFormat.MAGIC).putInt(RollLogFormat.VERSION)
+                    .putInt(summaryDiceApi != null ? RollLogFormat.FLAG_SUMMARIES : 0).putInt(blockSize)
+                    .putInt(CategoryMask.fingerprint());
+            write(header.flip());
+        } catch (final IOException e) {
+            // The writer is never returned, so nobody else could close the channel
+            try {
+                channel.close();
+            } catch (final IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param diceRoll List of {Category#NUMBER_OF_DICE} dice throws
+     * @throws IllegalArgumentException If the list is not a valid Schooner Dice roll
+     */
+    public void write(final List<Integer> diceRoll) {
+        writePackedRoll(PackedRoll.pack(diceRoll));
+    }
+
+    /**
+     * @param diceRoll Array holding {Category#NUMBER_OF_DICE} dice throws
+     * @param offset Position of the first die in the array
+     */
+    public void write(final int[] diceRoll,
+                      final int offset) {
+        writePackedRoll(PackedRoll.pack(diceRoll, offset));
+    }
+
+    /**
+     * Writes every roll of the batch
+     */
+    public void write(final RollBatch rollBatch) {
+        for (int i = 0; i < rollBatch.size(); i++) {
+            writePackedRoll(rollBatch.getPackedRoll(i));
+        }
+    }
+
+    /**
+     * @param packedRoll Roll encoded with {PackedRoll}
+     * @throws IllegalArgumentException If the value is not a packed roll
+     */
+    public void writePackedRoll(final int packedRoll) {
+        blockRolls[numberOfBlockRolls++] = (short) PackedRoll.validate(packedRoll);
+        numberOfRolls++;
+        if (numberOfBlockRolls == blockSize) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * @return Number of rolls written so far
+     */
+    public long getNumberOfRolls() {
+        return numberOfRolls;
+    }
+
+    /**
+     * Writes the last block, even if it isn't full, and closes the file
+     */
+    @Override
+    public void close() {
+        try (channel) {
+            if (numberOfBlockRolls > 0) {
+                writeBlock();
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeBlock() {
+        final boolean summaries = summaryDiceApi != null;
+        blockBuffer.clear();
+        blockBuffer.putInt(numberOfBlockRolls);
+        if (summaries) {
+            summaryBatch.clear();
+            for (int i = 0; i < numberOfBlockRolls; i++) {
+                summaryBatch.addPackedRoll(blockRolls[i]);
+            }
+            for (Category category : CATEGORIES) {
+                summaryDiceApi.score(category, summaryBatch, summaryScores);
+                int hitCount = 0;
+                for (int i = 0; i < numberOfBlockRolls; i++) {
+                    hitCount += summaryScores[i] > Category.DEFAULT_SCORE ? 1 : 0;
+                }
+                blockBuffer.putInt(hitCount);
+            }
+            summaryDiceApi.topCategories(summaryBatch, summaryScores);
+            for (Category category : CATEGORIES) {
+                int topCategoryCount = 0;
+                for (int i = 0; i < numberOfBlockRolls; i++) {
+                    topCategoryCount += CategoryMask.contains(summaryScores[i], category) ? 1 : 0;
+                }
+                blockBuffer.putInt(topCategoryCount);
+            }
+        }
+        for (int i = 0; i < numberOfBlockRolls; i++) {
+            blockBuffer.putShort(blockRolls[i]);
+        }
+        // Pads an odd number of rolls to a multiple of 4 bytes
+        if ((numberOfBlockRolls & 1) != 0) {
+            blockBuffer.putShort((short) 0);
+        }
+        numberOfBlockRolls = 0;
+        try {
+            write(blockBuffer.flip());
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package dev.dvinnik.leaderboard;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.Roll;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent leaderboard of game totals, which ranks players, lists the top players and the players around a player
+ *
+ * Every player has a single total, and players with the same total share a rank, i.e. the rank is one plus the number
+ * of players with a higher total. Totals are bounded by the maximum game total, so the number of players per total
+ * is kept in a {ScoreHistogram}, and a rank is {O(log maxTotalScore)} counter reads whatever the number of players.
+ * The players themselves are kept in a skip list ordered by total, for the top and the neighbours of a player.
+ *
+ * Decisions explained:
+ *  1) Updates of a player go through {ConcurrentHashMap#compute}, so updates of the same player are serialised,
+ *  and the skip list and the histogram always get the removal of the old total before the addition of the new one,
+ *  while updates of different players don't wait for each other.
+ *
+ *  2) Snapshots (see {#writeSnapshot}) list the players in leaderboard order, so a total is stored as the drop from
+ *  the previous total and an identifier as the difference from the previous identifier of the same total, both as
+ *  variable-length integers. With dense identifiers most players then take a few bytes, and reading a snapshot
+ *  back inserts the players in order without any sorting.
+ *
+ * Note: queries aren't atomic with updates of other players, so a query running alongside the update of a player
+ * may briefly miss them or count them under both totals. Snapshots are written without stopping updates either,
+ * so players updated during a snapshot may be missing from it or be in it at their old or new total. The writer
+ * skips entries that were already replaced, and the reader keeps the first total of a player that slipped in twice,
+ * so a snapshot written during updates always reads back.
+ */
+public class Leaderboard {
+
+    private static final String INVALID_MAX_TOTAL_SCORE_EXCEPTION = "Maximum total score shouldn't be negative";
+    private static final String INVALID_TOTAL_SCORE_EXCEPTION = "Total score should be between zero and the maximum";
+    private static final String INVALID_NUMBER_OF_PLAYERS_EXCEPTION = "Number of players shouldn't be negative";
+    private static final String INVALID_SNAPSHOT_EXCEPTION = "File isn't a leaderboard snapshot of this version";
+
+    public static final int NO_SCORE = -1;
+    public static final long NO_RANK = -1;
+
+    private static final int MAGIC = 0x5343_4C42;
+    private static final int VERSION = 1;
+    // Magic, version and maximum total score
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int SNAPSHOT_BUFFER_SIZE = 64 * 1024;
+    // Two variable-length longs of up to 10 bytes each
+    private static final int MAX_ENTRY_SIZE = 20;
+    private static final int END_OF_ENTRIES = 0;
+
+    // Highest total first, then the lowest identifier, so ties are listed in a stable order
+    private static final Comparator<PlayerScore> LEADERBOARD_ORDER = Comparator
+            .comparingInt((PlayerScore playerScore) -> -playerScore.score)
+            .thenComparingLong(playerScore -> playerScore.playerId);
+
+    private final int maxTotalScore;
+    private final ConcurrentHashMap<Long, PlayerScore> playerScores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<PlayerScore> leaderboard = new ConcurrentSkipListSet<>(LEADERBOARD_ORDER);
+    private final ScoreHistogram histogram;
+
+    /**
+     * @param diceApi Implementation that scores every possible roll once, to find the maximum game total
+     */
+    public Leaderboard(final DiceApi diceApi) {
+        this(maxTotalScore(diceApi));
+    }
+
+    /**
+     * @param maxTotalScore Highest total a player can have
+     */
+    public Leaderboard(final int maxTotalScore) {
+        if (maxTotalScore < 0) {
+            throw new IllegalArgumentException(INVALID_MAX_TOTAL_SCORE_EXCEPTION);
+        }
+        this.maxTotalScore = maxTotalScore;
+        this.histogram = new ScoreHistogram(maxTotalScore);
+    }
+
+    /**
+     * @return Highest total of a game, i.e. the sum of the highest score of every category
+     */
+    public static int maxTotalScore(final DiceApi diceApi) {
+        int maxTotalScore = 0;
+        for (Category category : Category.values()) {
+            int maxScore = Category.DEFAULT_SCORE;
+            for (int rollIndex = 0; rollIndex < Roll.NUMBER_OF_ROLLS; rollIndex++) {
+                maxScore = Math.max(maxScore, diceApi.score(category, Roll.ofIndex(rollIndex)));
+            }
+            maxTotalScore += maxScore;
+        }
+        return maxTotalScore;
+    }
+
+    public int getMaxTotalScore() {
+        return maxTotalScore;
+    }
+
+    /**
+     * Sets the total of the player, adding the player if they aren't on the leaderboard
+     *
+     * @throws IllegalArgumentException If the total is negative or higher than {#getMaxTotalScore()}
+     */
+    public void update(final long playerId,
+                       final int totalScore) {
+        validateTotalScore(totalScore);
+        playerScores.compute(playerId, (id, current) -> move(current, new PlayerScore(id, totalScore)));
+    }
+
+    /**
+     * Sets the total of the player unless they already have a higher or the same total, e.g. to keep the best game
+     *
+     * @return Whether the total was set
+     * @throws IllegalArgumentException If the total is negative or higher than {#getMaxTotalScore()}
+     */
+    public boolean updateIfHigher(final long playerId,
+                                  final int totalScore) {
+        validateTotalScore(totalScore);
+        final boolean[] updated = new boolean[1];
+        playerScores.compute(playerId, (id, current) -> {
+            if (current != null && current.score >= totalScore) {
+                return current;
+            }
+            updated[0] = true;
+            return move(current, new PlayerScore(id, totalScore));
+        });
+        return updated[0];
+    }
+
+    /**
+     * @return Whether the player was on the leaderboard
+     */
+    public boolean remove(final long playerId) {
+        final boolean[] removed = new boolean[1];
+        playerScores.computeIfPresent(playerId, (id, current) -> {
+            removed[0] = true;
+            return move(current, null);
+        });
+        return removed[0];
+    }
+
+    /**
+     * @return Total of the player, or {#NO_SCORE} if they aren't on the leaderboard
+     */
+    public int getScore(final long playerId) {
+        final PlayerScore playerScore = playerScores.get(playerId);
+        return playerScore == null ? NO_SCORE : playerScore.score;
+    }
+
+    /**
+     * @return Rank of the player, from 1 for the highest total, or {#NO_RANK} if they aren't on the leaderboard
+     */
+    public long getRank(final long playerId) {
+        final PlayerScore playerScore = playerScores.get(playerId);
+        return playerScore == null ? NO_RANK : getRankOfScore(playerScore.score);
+    }
+
+    /**
+     * @return Rank that a player with the total would have, i.e. one plus the number of players with a higher total
+     */
+    public long getRankOfScore(final int totalScore) {
+        return histogram.countAbove(totalScore) + 1;
+    }
+
+    /**
+     * @return Number of players on the leaderboard
+     */
+    public int size() {
+        return playerScores.size();
+    }
+
+    /**
+     * @return Up to {numberOfPlayers} players with the highest totals, from the highest
+     * @throws IllegalArgumentException If the number of players is negative
+     */
+    public List<LeaderboardEntry> top(final int numberOfPlayers) {
+        validateNumberOfPlayers(numberOfPlayers);
+        return entries(leaderboard.iterator(), numberOfPlayers);
+    }
+
+    /**
+     * @param numberOfPlayersAbove Number of players ranked above the player to include, if there are that many
+     * @param numberOfPlayersBelow Number of players ranked below the player to include, if there are that many
+     * @return Players around the player and the player themselves, in leaderboard order, or an empty list
+     * if the player isn't on the leaderboard
+     * @throws IllegalArgumentException If a number of players is negative
+     */
+    public List<LeaderboardEntry> around(final long playerId,
+                                         final int numberOfPlayersAbove,
+                                         final int numberOfPlayersBelow) {
+        validateNumberOfPlayers(numberOfPlayersAbove);
+        validateNumberOfPlayers(numberOfPlayersBelow);
+        final PlayerScore playerScore = playerScores.get(playerId);
+        if (playerScore == null) {
+            return Collections.emptyList();
+        }
+        final List<LeaderboardEntry> entries = entries(
+                leaderboard.headSet(playerScore, false).descendingIterator(), numberOfPlayersAbove);
+        Collections.reverse(entries);
+        entries.add(entry(playerScore));
+        entries.addAll(entries(leaderboard.tailSet(playerScore, false).iterator(), numberOfPlayersBelow));
+        return entries;
+    }
+
+    /**
+     * Writes every player to a snapshot file, which {#readSnapshot} reads back
+     *
+     * The snapshot is written to a temporary file next to the target, which then replaces the target, so a crash
+     * during the write leaves the previous snapshot in place.
+     */
+    public void writeSnapshot(final Path path) {
+        final Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(maxTotalScore);
+            int previousScore = maxTotalScore;
+            long previousPlayerId = 0;
+            for (PlayerScore playerScore : leaderboard) {
+                // The iterator may still see the entry a player was moved away from during the write
+                if (playerScores.get(playerScore.playerId) != playerScore) {
+                    continue;
+                }
+                if (buffer.remaining() < MAX_ENTRY_SIZE) {
+                    writeFully(channel, buffer);
+                }
+                final int scoreDrop = previousScore - playerScore.score;
+                if (scoreDrop > 0) {
+                    previousPlayerId = 0;
+                }
+                // The drop is shifted by one, so zero is left for the end of the entries
+                putVarLong(buffer, scoreDrop + 1);
+                putVarLong(buffer, zigZag(playerScore.playerId - previousPlayerId));
+                previousScore = playerScore.score;
+                previousPlayerId = playerScore.playerId;
+            }
+            if (buffer.remaining() < 1) {
+                writeFully(channel, buffer);
+            }
+            buffer.put((byte) END_OF_ENTRIES);
+            writeFully(channel, buffer);
+            channel.force(true);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return Leaderboard with every player of the snapshot file
+     * @throws IllegalArgumentException If the file isn't a snapshot of this version
+     */
+    public static Leaderboard readSnapshot(final Path path) {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+            }
+            final int maxTotalScore = buffer.getInt();
+            if (maxTotalScore < 0) {
+                throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+            }
+            final Leaderboard leaderboard = new Leaderboard(maxTotalScore);
+            final long[] countByScore = new long[maxTotalScore + 1];
+            long previousScore = maxTotalScore;
+            long previousPlayerId = 0;
+            for (long shiftedScoreDrop = getVarLong(buffer); shiftedScoreDrop != END_OF_ENTRIES;
+                 shiftedScoreDrop = getVarLong(buffer)) {
+                final long score = previousScore - (shiftedScoreDrop - 1);
+                if (score < 0 || score > maxTotalScore) {
+                    throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+                }
+                if (score != previousScore) {
+                    previousPlayerId = 0;
+                }
+                final PlayerScore playerScore = new PlayerScore(previousPlayerId + unZigZag(getVarLong(buffer)),
+                        (int) score);
+                // A player moved while the snapshot was written may be listed twice, and keeps the first total
+                if (leaderboard.playerScores.putIfAbsent(playerScore.playerId, playerScore) == null) {
+                    leaderboard.leaderboard.add(playerScore);
+                    countByScore[playerScore.score]++;
+                }
+                previousScore = score;
+                previousPlayerId = playerScore.playerId;
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+            }
+            for (int score = 0; score <= maxTotalScore; score++) {
+                if (countByScore[score] > 0) {
+                    leaderboard.histogram.add(score, countByScore[score]);
+                }
+            }
+            return leaderboard;
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot (see {#writeSnapshot}) every period on the scheduler, until the returned future is cancelled
+     */
+    public ScheduledFuture<?> scheduleSnapshots(final ScheduledExecutorService scheduler,
+                                                final Path path,
+                                                final Duration period) {
+        final long periodNanos = period.toNanos();
+        return scheduler.scheduleAtFixedRate(() -> writeSnapshot(path), periodNanos, periodNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Replaces the current entry of a player with the next one in the skip list and the histogram
+     *
+     * @return Next entry, so it's what {ConcurrentHashMap#compute} keeps for the player
+     */
+    private PlayerScore move(final PlayerScore current,
+                             final PlayerScore next) {
+        if (current != null) {
+            leaderboard.remove(current);
+            histogram.add(current.score, -1);
+        }
+        if (next != null) {
+            leaderboard.add(next);
+            histogram.add(next.score, 1);
+        }
+        return next;
+    }
+
+    private List<LeaderboardEntry> entries(final Iterator<PlayerScore> iterator,
+                                           final int numberOfPlayers) {
+        final List<LeaderboardEntry> entries = new ArrayList<>(Math.min(numberOfPlayers, 1024));
+        while (entries.size() < numberOfPlayers && iterator.hasNext()) {
+            entries.add(entry(iterator.next()));
+        }
+        return entries;
+    }
+
+    private LeaderboardEntry entry(final PlayerScore playerScore) {
+        return new LeaderboardEntry(playerScore.playerId, playerScore.score, getRankOfScore(playerScore.score));
+    }
+
+    private void validateTotalScore(final int totalScore) {
+        if (totalScore < 0 || totalScore > maxTotalScore) {
+            throw new IllegalArgumentException(INVALID_TOTAL_SCORE_EXCEPTION);
+        }
+    }
+
+    private static void validateNumberOfPlayers(final int numberOfPlayers) {
+        if (numberOfPlayers < 0) {
+            throw new IllegalArgumentException(INVALID_NUMBER_OF_PLAYERS_EXCEPTION);
+        }
+    }
+
+    private static void writeFully(final FileChannel channel,
+                                   final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putVarLong(final ByteBuffer buffer,
+                                   final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static long getVarLong(final ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(INVALID_SNAPSHOT_EXCEPTION);
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Player with their total, as kept in the skip list
+     */
+    private static final class PlayerScore {
+        private final long playerId;
+        private final int score;
+
+        PlayerScore(final long playerId,
+                    final int score) {
+            this.playerId = playerId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.dvinnik.leaderboard;
+
+/**
+ * Player on a {Leaderboard} with their total score and rank at the time of the query
+ */
+public final class LeaderboardEntry {
+
+    private final long playerId;
+    private final int score;
+    private final long rank;
+
+    LeaderboardEntry(final long playerId,
+                     final int score,
+                     final long rank) {
+        this.playerId = playerId;
+        this.score = score;
+        this.rank = rank;
+    }
+
+    public long getPlayerId() {
+        return playerId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return One plus the number of players with a higher score, so players with the same score share a rank
+     */
+    public long getRank() {
+        return rank;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaderboardEntry{playerId=" + playerId + ", score=" + score + ", rank=" + rank + "}";
+    }
+}
@@ -0,0 +1,47 @@
+package dev.dvinnik.leaderboard;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Number of players per total score, kept as a Fenwick tree so the number of players above a score is a prefix sum
+ * of {O(log maxScore)} reads
+ *
+ * Every node of the tree is an atomic counter, and additions commute, so concurrent updates never lose a count.
+ * A query running alongside updates may see some of their nodes but not others, so it's exact once updates settle.
+ */
+final class ScoreHistogram {
+
+    private final int maxScore;
+    // Fenwick tree over scores shifted by one, i.e. the score {s} is at index {s + 1}
+    private final AtomicLongArray tree;
+
+    ScoreHistogram(final int maxScore) {
+        this.maxScore = maxScore;
+        this.tree = new AtomicLongArray(maxScore + 2);
+    }
+
+    void add(final int score,
+             final long delta) {
+        for (int index = score + 1; index < tree.length(); index += index & -index) {
+            tree.getAndAdd(index, delta);
+        }
+    }
+
+    /**
+     * @return Number of players with a score of at most {score}
+     */
+    long countAtOrBelow(final int score) {
+        long count = 0;
+        for (int index = Math.min(score, maxScore) + 1; index > 0; index -= index & -index) {
+            count += tree.get(index);
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of players with a score higher than {score}
+     */
+    long countAbove(final int score) {
+        return countAtOrBelow(maxScore) - countAtOrBelow(score);
+    }
+}
@@ -0,0 +1,225 @@
+package dev.dvinnik.metrics;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RollBatch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Dice API decorator that records call counts, errors and latencies of another implementation
+ *
+ * Single-roll score calls are recorded per category, top categories calls and batch calls on their own.
+ * Metrics are pulled with {#snapshot}, and calls slower than the threshold are also emitted as a
+ * {SlowDiceCallEvent} to the Flight Recorder, if it's recording them.
+ *
+ * Decisions explained:
+ *  1) The steady state only reads the clock twice and increments striped counters (see {LatencyRecorder}),
+ *  so instrumentation doesn't allocate. Only slow calls create an event.
+ *
+ *  2) Exceptions of the decorated implementation are counted and rethrown as they are, so callers see the same
+ *  behaviour with and without instrumentation.
+ */
+public class InstrumentedDiceApi implements DiceApi {
+
+    public static final Duration DEFAULT_SLOW_CALL_THRESHOLD = Duration.ofNanos(100_000);
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private static final String SCORE_OPERATION = "score";
+    private static final String TOP_CATEGORIES_OPERATION = "topCategories";
+    private static final String SCORE_BATCH_OPERATION = "scoreBatch";
+    private static final String SCORE_ALL_OPERATION = "scoreAll";
+    private static final String TOP_CATEGORIES_BATCH_OPERATION = "topCategoriesBatch";
+
+    private final DiceApi delegate;
+    private final long slowCallThresholdNanos;
+    private final LatencyRecorder[] scoreRecorders = new LatencyRecorder[CategoryMask.NUMBER_OF_CATEGORIES];
+    private final LatencyRecorder topCategoriesRecorder = new LatencyRecorder();
+    private final LatencyRecorder batchRecorder = new LatencyRecorder();
+
+    /**
+     * Default constructor that treats calls over {#DEFAULT_SLOW_CALL_THRESHOLD} as slow
+     */
+    public InstrumentedDiceApi(final DiceApi delegate) {
+        this(delegate, DEFAULT_SLOW_CALL_THRESHOLD);
+    }
+
+    /**
+     * @param delegate Implementation that is instrumented
+     * @param slowCallThreshold Latency from which a call is emitted as a {SlowDiceCallEvent}
+     */
+    public InstrumentedDiceApi(final DiceApi delegate,
+                               final Duration slowCallThreshold) {
+        this.delegate = delegate;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        for (int categoryIndex = 0; categoryIndex < scoreRecorders.length; categoryIndex++) {
+            scoreRecorders[categoryIndex] = new LatencyRecorder();
+        }
+    }
+
+    @Override
+    public int getNumberOfDice() {
+        return delegate.getNumberOfDice();
+    }
+
+    @Override
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        final long startNanos = System.nanoTime();
+        final int score;
+        try {
+            score = delegate.score(category, diceRoll);
+        } catch (final RuntimeException e) {
+            scoreRecorders[category.ordinal()].recordError();
+            throw e;
+        }
+        record(scoreRecorders[category.ordinal()], startNanos, SCORE_OPERATION, category);
+        return score;
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int[] diceRoll,
+                     final int offset) {
+        final long startNanos = System.nanoTime();
+        final int score;
+        try {
+            score = delegate.score(category, diceRoll, offset);
+        } catch (final RuntimeException e) {
+            scoreRecorders[category.ordinal()].recordError();
+            throw e;
+        }
+        record(scoreRecorders[category.ordinal()], startNanos, SCORE_OPERATION, category);
+        return score;
+    }
+
+    @Override
+    public int score(final Category category,
+                     final int packedRoll) {
+        final long startNanos = System.nanoTime();
+        final int score;
+        try {
+            score = delegate.score(category, packedRoll);
+        } catch (final RuntimeException e) {
+            scoreRecorders[category.ordinal()].recordError();
+            throw e;
+        }
+        record(scoreRecorders[category.ordinal()], startNanos, SCORE_OPERATION, category);
+        return score;
+    }
+
+    @Override
+    public int score(final Category category,
+                     final Roll roll) {
+        final long startNanos = System.nanoTime();
+        final int score;
+        try {
+            score = delegate.score(category, roll);
+        } catch (final RuntimeException e) {
+            scoreRecorders[category.ordinal()].recordError();
+            throw e;
+        }
+        record(scoreRecorders[category.ordinal()], startNanos, SCORE_OPERATION, category);
+        return score;
+    }
+
+    @Override
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        final long startNanos = System.nanoTime();
+        final List<Category> topCategories;
+        try {
+            topCategories = delegate.topCategories(diceRoll);
+        } catch (final RuntimeException e) {
+            topCategoriesRecorder.recordError();
+            throw e;
+        }
+        record(topCategoriesRecorder, startNanos, TOP_CATEGORIES_OPERATION, null);
+        return topCategories;
+    }
+
+    @Override
+    public List<Category> topCategories(final Roll roll) {
+        final long startNanos = System.nanoTime();
+        final List<Category> topCategories;
+        try {
+            topCategories = delegate.topCategories(roll);
+        } catch (final RuntimeException e) {
+            topCategoriesRecorder.recordError();
+            throw e;
+        }
+        record(topCategoriesRecorder, startNanos, TOP_CATEGORIES_OPERATION, null);
+        return topCategories;
+    }
+
+    @Override
+    public void score(final Category category,
+                      final RollBatch rollBatch,
+                      final int[] scores) {
+        final long startNanos = System.nanoTime();
+        try {
+            delegate.score(category, rollBatch, scores);
+        } catch (final RuntimeException e) {
+            batchRecorder.recordError();
+            throw e;
+        }
+        record(batchRecorder, startNanos, SCORE_BATCH_OPERATION, category);
+    }
+
+    @Override
+    public void scoreAll(final RollBatch rollBatch,
+                         final int[] scores) {
+        final long startNanos = System.nanoTime();
+        try {
+            delegate.scoreAll(rollBatch, scores);
+        } catch (final RuntimeException e) {
+            batchRecorder.recordError();
+            throw e;
+        }
+        record(batchRecorder, startNanos, SCORE_ALL_OPERATION, null);
+    }
+
+    @Override
+    public void topCategories(final RollBatch rollBatch,
+                              final int[] topCategoryMasks) {
+        final long startNanos = System.nanoTime();
+        try {
+            delegate.topCategories(rollBatch, topCategoryMasks);
+        } catch (final RuntimeException e) {
+            batchRecorder.recordError();
+            throw e;
+        }
+        record(batchRecorder, startNanos, TOP_CATEGORIES_BATCH_OPERATION, null);
+    }
+
+    /**
+     * @return Metrics recorded since the decorator was created
+     */
+    public MetricsSnapshot snapshot() {
+        final LatencySnapshot[] scoreSnapshots = new LatencySnapshot[CATEGORIES.length];
+        for (int categoryIndex = 0; categoryIndex < CATEGORIES.length; categoryIndex++) {
+            scoreSnapshots[categoryIndex] = scoreRecorders[categoryIndex].snapshot();
+        }
+        return new MetricsSnapshot(scoreSnapshots, topCategoriesRecorder.snapshot(), batchRecorder.snapshot());
+    }
+
+    private void record(final LatencyRecorder recorder,
+                        final long startNanos,
+                        final String operation,
+                        final Category category) {
+        final long nanos = System.nanoTime() - startNanos;
+        recorder.record(nanos);
+        if (nanos >= slowCallThresholdNanos) {
+            final SlowDiceCallEvent event = new SlowDiceCallEvent();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.category = category == null ? null : category.name();
+                event.latency = nanos;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev.dvinnik.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free recorder of call latencies into a log-linear histogram, in the spirit of HdrHistogram
+ *
+ * Latencies below {SUB_BUCKETS} nanoseconds get a bucket each, and every higher power of two is split into
+ * {SUB_BUCKETS} equal buckets, so a bucket is never wider than 1/8 of its lower bound. Counts are striped by thread,
+ * where every stripe is its own row of buckets, so threads recording at the same time rarely touch the same counter.
+ *
+ * Recording never allocates: stripes are created with the recorder, and {LongAdder} only grows under contention.
+ */
+final class LatencyRecorder {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Latencies from 2^40 nanoseconds, i.e. about 18 minutes, go into the last bucket
+    private static final int MAX_EXPONENT = 40;
+    static final int NUMBER_OF_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final int NUMBER_OF_STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(NUMBER_OF_STRIPES * NUMBER_OF_BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    void record(final long nanos) {
+        final int stripe = (int) (Thread.currentThread().getId() & (NUMBER_OF_STRIPES - 1));
+        bucketCounts.getAndIncrement(stripe * NUMBER_OF_BUCKETS + bucket(nanos));
+        totalNanos.add(nanos);
+    }
+
+    void recordError() {
+        errorCount.increment();
+    }
+
+    /**
+     * Sums every stripe into a snapshot. Calls recorded meanwhile may or may not be part of it.
+     */
+    LatencySnapshot snapshot() {
+        final long[] counts = new long[NUMBER_OF_BUCKETS];
+        for (int stripe = 0; stripe < NUMBER_OF_STRIPES; stripe++) {
+            for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+                counts[bucket] += bucketCounts.get(stripe * NUMBER_OF_BUCKETS + bucket);
+            }
+        }
+        return new LatencySnapshot(counts, totalNanos.sum(), errorCount.sum());
+    }
+
+    static int bucket(final long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        final int exponent = Math.min(Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT) {
+            return NUMBER_OF_BUCKETS - 1;
+        }
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return Highest latency that falls into the bucket
+     */
+    static long bucketUpperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
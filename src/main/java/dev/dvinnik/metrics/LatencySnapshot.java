@@ -0,0 +1,69 @@
+package dev.dvinnik.metrics;
+
+/**
+ * Call count, error count and latency distribution of one kind of call at the time of {InstrumentedDiceApi#snapshot}
+ *
+ * Percentiles are the upper bound of the bucket they fall into, so they overestimate latencies by less than 1/8.
+ */
+public final class LatencySnapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long errorCount;
+
+    LatencySnapshot(final long[] bucketCounts,
+                    final long totalNanos,
+                    final long errorCount) {
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.errorCount = errorCount;
+    }
+
+    /**
+     * @return Number of calls that returned, i.e. without the calls that threw
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Number of calls that threw an exception
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * @param percentile Percentile in [0, 100]
+     * @return Latency that at least {percentile} percent of the calls didn't exceed, or zero if there were no calls
+     */
+    public long getPercentileNanos(final double percentile) {
+        final double rankOfPercentile = percentile / 100 * count;
+        long callsSoFar = 0;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            callsSoFar += bucketCounts[bucket];
+            if (callsSoFar >= rankOfPercentile && callsSoFar > 0) {
+                return LatencyRecorder.bucketUpperBound(bucket);
+            }
+        }
+        return 0;
+    }
+
+    public long getMaxNanos() {
+        return getPercentileNanos(100);
+    }
+}
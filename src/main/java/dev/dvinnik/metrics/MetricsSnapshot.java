@@ -0,0 +1,53 @@
+package dev.dvinnik.metrics;
+
+import dev.dvinnik.core.Category;
+
+/**
+ * Point-in-time view of every metric of an {InstrumentedDiceApi}, meant to be pulled by an exporter
+ */
+public final class MetricsSnapshot {
+
+    private final LatencySnapshot[] scoreSnapshots;
+    private final LatencySnapshot topCategoriesSnapshot;
+    private final LatencySnapshot batchSnapshot;
+
+    MetricsSnapshot(final LatencySnapshot[] scoreSnapshots,
+                    final LatencySnapshot topCategoriesSnapshot,
+                    final LatencySnapshot batchSnapshot) {
+        this.scoreSnapshots = scoreSnapshots;
+        this.topCategoriesSnapshot = topCategoriesSnapshot;
+        this.batchSnapshot = batchSnapshot;
+    }
+
+    /**
+     * @return Metrics of scoring a single roll for the category, with any of the {DiceApi#score} overloads
+     */
+    public LatencySnapshot getScore(final Category category) {
+        return scoreSnapshots[category.ordinal()];
+    }
+
+    /**
+     * @return Metrics of finding the top categories of a single roll
+     */
+    public LatencySnapshot getTopCategories() {
+        return topCategoriesSnapshot;
+    }
+
+    /**
+     * @return Metrics of the batch methods, where a call covers a whole {RollBatch}
+     */
+    public LatencySnapshot getBatch() {
+        return batchSnapshot;
+    }
+
+    /**
+     * @return Number of single-roll score calls that returned, over every category
+     */
+    public long getTotalScoreCount() {
+        long totalScoreCount = 0;
+        for (LatencySnapshot scoreSnapshot : scoreSnapshots) {
+            totalScoreCount += scoreSnapshot.getCount();
+        }
+        return totalScoreCount;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.dvinnik.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a call of an {InstrumentedDiceApi} that took longer than its slow call threshold
+ *
+ * Note: {jdk.jfr.Category} is spelled out, since it would clash with the dice {Category}.
+ */
+@Name("dev.dvinnik.SlowDiceCall")
+@Label("Slow Dice Call")
+@Description("Dice API call that exceeded the slow call threshold")
+@jdk.jfr.Category("Schooner Dice")
+final class SlowDiceCallEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Category")
+    String category;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,60 @@
+package dev.dvinnik.server;
+
+/**
+ * Throughput and latency distribution of a run of {ScoringLoadGenerator}
+ *
+ * Latencies are measured per pipelined batch, i.e. from sending the first request of a batch to reading its last
+ * response.
+ */
+public final class LoadReport {
+
+    private final long numberOfRequests;
+    private final long elapsedNanos;
+    // Sorted latency of every batch
+    private final long[] batchLatencyNanos;
+
+    LoadReport(final long numberOfRequests,
+               final long elapsedNanos,
+               final long[] batchLatencyNanos) {
+        this.numberOfRequests = numberOfRequests;
+        this.elapsedNanos = elapsedNanos;
+        this.batchLatencyNanos = batchLatencyNanos;
+    }
+
+    public long getNumberOfRequests() {
+        return numberOfRequests;
+    }
+
+    public long getNumberOfBatches() {
+        return batchLatencyNanos.length;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRequestsPerSecond() {
+        return elapsedNanos == 0 ? 0 : numberOfRequests * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @param percentile Percentile in [0, 100]
+     * @return Batch latency that at least {percentile} percent of the batches didn't exceed, or zero without batches
+     */
+    public long getBatchLatencyPercentileNanos(final double percentile) {
+        if (batchLatencyNanos.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * batchLatencyNanos.length) - 1;
+        return batchLatencyNanos[Math.max(0, Math.min(index, batchLatencyNanos.length - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests in %.3f s: %.0f requests/s, batch latency p50 %d us, p99 %d us, "
+                        + "p99.9 %d us, max %d us",
+                numberOfRequests, elapsedNanos / 1e9, getRequestsPerSecond(),
+                getBatchLatencyPercentileNanos(50) / 1000, getBatchLatencyPercentileNanos(99) / 1000,
+                getBatchLatencyPercentileNanos(99.9) / 1000, getBatchLatencyPercentileNanos(100) / 1000);
+    }
+}
@@ -0,0 +1,221 @@
+package dev.dvinnik.server;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+/**
+ * Blocking client of {ScoringServer}
+ *
+ * Besides the one-request methods, {#score(Category[], int[], int[], int)} and {#topCategories(int[], int[], int)}
+ * pipeline a whole batch of requests: they're sent in windows of up to {#MAX_REQUESTS_IN_FLIGHT} requests, each with
+ * a single write, and the responses of a window are read back before the next one is sent, so a batch costs one round
+ * trip per window instead of one per request.
+ *
+ * Note: the server only reads requests while it isn't blocked writing responses, so a client that sent a whole batch
+ * before reading would deadlock with it once the responses overflow the socket buffers. A window is bounded so its
+ * requests fit a single read of the server and its responses fit the socket buffers, so batches of any size are safe.
+ *
+ * A client holds a single connection and isn't safe to use from several threads.
+ */
+public class ScoringClient implements AutoCloseable {
+
+    private static final String INVALID_REQUEST_EXCEPTION = "Server rejected the request as invalid";
+    private static final String INVALID_RESPONSE_EXCEPTION = "Server sent a malformed response";
+    private static final String INVALID_DICE_ROLL_EXCEPTION = "Dice roll should have " + Category.NUMBER_OF_DICE
+            + " dice";
+    private static final String INVALID_NUMBER_OF_REQUESTS_EXCEPTION = "Number of requests shouldn't be negative";
+
+    /**
+     * Number of requests sent before their responses are read, i.e. about 45 KiB of requests and 36 KiB of responses
+     */
+    public static final int MAX_REQUESTS_IN_FLIGHT = 4096;
+
+    private static final int INITIAL_BATCH_SIZE = 64;
+
+    private final SocketChannel channel;
+    private ByteBuffer requestBuffer = ByteBuffer.allocate(INITIAL_BATCH_SIZE
+            * (ScoringProtocol.LENGTH_SIZE + ScoringProtocol.MAX_REQUEST_LENGTH));
+    private ByteBuffer responseBuffer = ByteBuffer.allocate(INITIAL_BATCH_SIZE * ScoringProtocol.RESPONSE_SIZE);
+    private final int[] singleDiceRoll = new int[Category.NUMBER_OF_DICE];
+    private final int[] singleResult = new int[1];
+
+    private ScoringClient(final SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @param address {InetSocketAddress} or {UnixDomainSocketAddress} the server listens on
+     */
+    public static ScoringClient connect(final SocketAddress address) {
+        try {
+            final SocketChannel channel = SocketChannel.open(address);
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            return new ScoringClient(channel);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the server rejects the roll
+     */
+    public int score(final Category category,
+                     final List<Integer> diceRoll) {
+        copyDice(diceRoll);
+        score(new Category[]{category}, singleDiceRoll, singleResult, 1);
+        return singleResult[0];
+    }
+
+    /**
+     * @throws IllegalArgumentException If the server rejects the roll
+     */
+    public List<Category> topCategories(final List<Integer> diceRoll) {
+        copyDice(diceRoll);
+        topCategories(singleDiceRoll, singleResult, 1);
+        return CategoryMask.toList(singleResult[0]);
+    }
+
+    /**
+     * Scores a batch of rolls with pipelined requests
+     *
+     * @param categories Category of every request
+     * @param diceRolls Dice of every request, laid out {Category#NUMBER_OF_DICE} dice per request
+     * @param scores Receives the score of every request
+     * @param numberOfRequests Number of requests in the batch, of any size
+     * @throws IllegalArgumentException If the server rejects any of the requests, once every response is read
+     */
+    public void score(final Category[] categories,
+                      final int[] diceRolls,
+                      final int[] scores,
+                      final int numberOfRequests) {
+        validateNumberOfRequests(numberOfRequests);
+        boolean rejected = false;
+        for (int from = 0; from < numberOfRequests; from += MAX_REQUESTS_IN_FLIGHT) {
+            final int to = Math.min(numberOfRequests, from + MAX_REQUESTS_IN_FLIGHT);
+            final ByteBuffer requests = requestBuffer(to - from);
+            for (int i = from; i < to; i++) {
+                ScoringProtocol.putScoreRequest(requests, categories[i], diceRolls, i * Category.NUMBER_OF_DICE);
+            }
+            rejected |= exchange(requests, scores, from, to - from);
+        }
+        if (rejected) {
+            throw new IllegalArgumentException(INVALID_REQUEST_EXCEPTION);
+        }
+    }
+
+    /**
+     * Finds top categories of a batch of rolls with pipelined requests
+     *
+     * @param diceRolls Dice of every request, laid out {Category#NUMBER_OF_DICE} dice per request
+     * @param topCategoryMasks Receives the {CategoryMask} of the top categories of every request
+     * @param numberOfRequests Number of requests in the batch, of any size
+     * @throws IllegalArgumentException If the server rejects any of the requests, once every response is read
+     */
+    public void topCategories(final int[] diceRolls,
+                              final int[] topCategoryMasks,
+                              final int numberOfRequests) {
+        validateNumberOfRequests(numberOfRequests);
+        boolean rejected = false;
+        for (int from = 0; from < numberOfRequests; from += MAX_REQUESTS_IN_FLIGHT) {
+            final int to = Math.min(numberOfRequests, from + MAX_REQUESTS_IN_FLIGHT);
+            final ByteBuffer requests = requestBuffer(to - from);
+            for (int i = from; i < to; i++) {
+                ScoringProtocol.putTopCategoriesRequest(requests, diceRolls, i * Category.NUMBER_OF_DICE);
+            }
+            rejected |= exchange(requests, topCategoryMasks, from, to - from);
+        }
+        if (rejected) {
+            throw new IllegalArgumentException(INVALID_REQUEST_EXCEPTION);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sends a window of requests and reads their responses into {values} from {offset}
+     *
+     * @return Whether the server rejected any of the requests
+     */
+    private boolean exchange(final ByteBuffer requests,
+                             final int[] values,
+                             final int offset,
+                             final int numberOfRequests) {
+        boolean rejected = false;
+        try {
+            requests.flip();
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+
+            final ByteBuffer responses = responseBuffer(numberOfRequests);
+            while (responses.hasRemaining()) {
+                if (channel.read(responses) < 0) {
+                    throw new EOFException();
+                }
+            }
+            responses.flip();
+            for (int i = 0; i < numberOfRequests; i++) {
+                if (responses.getInt() != ScoringProtocol.RESPONSE_LENGTH) {
+                    throw new IllegalStateException(INVALID_RESPONSE_EXCEPTION);
+                }
+                final byte status = responses.get();
+                values[offset + i] = responses.getInt();
+                rejected |= status != ScoringProtocol.STATUS_OK;
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        return rejected;
+    }
+
+    private static void validateNumberOfRequests(final int numberOfRequests) {
+        if (numberOfRequests < 0) {
+            throw new IllegalArgumentException(INVALID_NUMBER_OF_REQUESTS_EXCEPTION);
+        }
+    }
+
+    private ByteBuffer requestBuffer(final int numberOfRequests) {
+        final int size = numberOfRequests * (ScoringProtocol.LENGTH_SIZE + ScoringProtocol.MAX_REQUEST_LENGTH);
+        if (requestBuffer.capacity() < size) {
+            requestBuffer = ByteBuffer.allocate(size);
+        }
+        requestBuffer.clear();
+        return requestBuffer;
+    }
+
+    private ByteBuffer responseBuffer(final int numberOfRequests) {
+        final int size = numberOfRequests * ScoringProtocol.RESPONSE_SIZE;
+        if (responseBuffer.capacity() < size) {
+            responseBuffer = ByteBuffer.allocate(size);
+        }
+        responseBuffer.clear().limit(size);
+        return responseBuffer;
+    }
+
+    private void copyDice(final List<Integer> diceRoll) {
+        if (diceRoll.size() != Category.NUMBER_OF_DICE) {
+            throw new IllegalArgumentException(INVALID_DICE_ROLL_EXCEPTION);
+        }
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            singleDiceRoll[i] = diceRoll.get(i);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package dev.dvinnik.server;
+
+import dev.dvinnik.core.Category;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for {ScoringServer}, where every connection sends random score requests in pipelined batches
+ *
+ * Rolls and categories are drawn before the clock starts, so the run measures the protocol and the server rather
+ * than the random number generator.
+ */
+public class ScoringLoadGenerator {
+
+    private static final String INVALID_LOAD_EXCEPTION = "Connections, batches and pipeline depth should be positive";
+    private static final String USAGE = "Usage: ScoringLoadGenerator <host:port | unix socket path> "
+            + "[connections] [batches per connection] [pipeline depth]";
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ExecutorService executorService;
+    private final long seed;
+
+    /**
+     * @param executorService Executor running one task per connection. It is not shut down by the generator.
+     * @param seed Seed of the random rolls
+     */
+    public ScoringLoadGenerator(final ExecutorService executorService,
+                                final long seed) {
+        this.executorService = executorService;
+        this.seed = seed;
+    }
+
+    /**
+     * @param address Address the server listens on
+     * @param connections Number of concurrent connections
+     * @param batchesPerConnection Number of batches sent on every connection
+     * @param pipelineDepth Number of requests in a batch
+     */
+    public LoadReport run(final SocketAddress address,
+                          final int connections,
+                          final int batchesPerConnection,
+                          final int pipelineDepth) {
+        if (connections <= 0 || batchesPerConnection <= 0 || pipelineDepth <= 0) {
+            throw new IllegalArgumentException(INVALID_LOAD_EXCEPTION);
+        }
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            final SplittableRandom connectionRandom = random.split();
+            tasks.add(() -> runConnection(address, batchesPerConnection, pipelineDepth, connectionRandom));
+        }
+
+        final long start = System.nanoTime();
+        final long[] batchLatencyNanos = new long[connections * batchesPerConnection];
+        try {
+            int offset = 0;
+            for (Future<long[]> connectionResult : executorService.invokeAll(tasks)) {
+                final long[] connectionLatencies = connectionResult.get();
+                System.arraycopy(connectionLatencies, 0, batchLatencyNanos, offset, connectionLatencies.length);
+                offset += connectionLatencies.length;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+        Arrays.sort(batchLatencyNanos);
+        return new LoadReport((long) connections * batchesPerConnection * pipelineDepth, elapsedNanos,
+                batchLatencyNanos);
+    }
+
+    private static long[] runConnection(final SocketAddress address,
+                                        final int batches,
+                                        final int pipelineDepth,
+                                        final SplittableRandom random) {
+        final Category[] categories = new Category[pipelineDepth];
+        final int[] diceRolls = new int[pipelineDepth * Category.NUMBER_OF_DICE];
+        final int[] scores = new int[pipelineDepth];
+        for (int i = 0; i < pipelineDepth; i++) {
+            categories[i] = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        }
+        for (int i = 0; i < diceRolls.length; i++) {
+            diceRolls[i] = 1 + random.nextInt(Category.NUMBER_OF_FACES);
+        }
+
+        final long[] batchLatencyNanos = new long[batches];
+        try (ScoringClient client = ScoringClient.connect(address)) {
+            for (int batch = 0; batch < batches; batch++) {
+                final long batchStart = System.nanoTime();
+                client.score(categories, diceRolls, scores, pipelineDepth);
+                batchLatencyNanos[batch] = System.nanoTime() - batchStart;
+            }
+        }
+        return batchLatencyNanos;
+    }
+
+    public static void main(final String[] args) {
+        if (args.length < 1) {
+            System.err.println(USAGE);
+            return;
+        }
+        final SocketAddress address = parseAddress(args[0]);
+        final int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        final int batchesPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        final int pipelineDepth = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        final ExecutorService executorService = ScoringServer.newConnectionExecutor();
+        try {
+            final ScoringLoadGenerator loadGenerator = new ScoringLoadGenerator(executorService, System.nanoTime());
+            System.out.println(loadGenerator.run(address, connections, batchesPerConnection, pipelineDepth));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static SocketAddress parseAddress(final String address) {
+        final int portSeparator = address.lastIndexOf(':');
+        if (portSeparator < 0) {
+            return UnixDomainSocketAddress.of(Path.of(address));
+        }
+        return new InetSocketAddress(address.substring(0, portSeparator),
+                Integer.parseInt(address.substring(portSeparator + 1)));
+    }
+}
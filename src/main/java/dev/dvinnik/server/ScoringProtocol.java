@@ -0,0 +1,64 @@
+package dev.dvinnik.server;
+
+import dev.dvinnik.core.Category;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Length-prefixed binary protocol of {ScoringServer}, where every number is big-endian
+ *
+ * A request is {int length, byte operation, payload}, where the length counts the operation and the payload:
+ *  1) {OPERATION_SCORE}: {byte category ordinal, 5 bytes of dice}.
+ *  2) {OPERATION_TOP_CATEGORIES}: {5 bytes of dice}.
+ *
+ * A response is {int length, byte status, int value}, where the value is the score or the {CategoryMask} of the top
+ * categories, and zero if the status isn't {STATUS_OK}. Responses are sent in the order of the requests, so a client
+ * can pipeline requests without waiting for their responses.
+ */
+final class ScoringProtocol {
+
+    static final byte OPERATION_SCORE = 1;
+    static final byte OPERATION_TOP_CATEGORIES = 2;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_INVALID_REQUEST = 1;
+
+    static final int LENGTH_SIZE = Integer.BYTES;
+    static final int SCORE_REQUEST_LENGTH = 2 + Category.NUMBER_OF_DICE;
+    static final int TOP_CATEGORIES_REQUEST_LENGTH = 1 + Category.NUMBER_OF_DICE;
+    static final int MAX_REQUEST_LENGTH = SCORE_REQUEST_LENGTH;
+    static final int RESPONSE_LENGTH = 1 + Integer.BYTES;
+    static final int RESPONSE_SIZE = LENGTH_SIZE + RESPONSE_LENGTH;
+
+    private ScoringProtocol() {
+    }
+
+    static void putScoreRequest(final ByteBuffer buffer,
+                                final Category category,
+                                final int[] diceRoll,
+                                final int offset) {
+        buffer.putInt(SCORE_REQUEST_LENGTH).put(OPERATION_SCORE).put((byte) category.ordinal());
+        putDice(buffer, diceRoll, offset);
+    }
+
+    static void putTopCategoriesRequest(final ByteBuffer buffer,
+                                        final int[] diceRoll,
+                                        final int offset) {
+        buffer.putInt(TOP_CATEGORIES_REQUEST_LENGTH).put(OPERATION_TOP_CATEGORIES);
+        putDice(buffer, diceRoll, offset);
+    }
+
+    static void putResponse(final ByteBuffer buffer,
+                            final byte status,
+                            final int value) {
+        buffer.putInt(RESPONSE_LENGTH).put(status).putInt(value);
+    }
+
+    private static void putDice(final ByteBuffer buffer,
+                                final int[] diceRoll,
+                                final int offset) {
+        for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+            buffer.put((byte) diceRoll[offset + i]);
+        }
+    }
+}
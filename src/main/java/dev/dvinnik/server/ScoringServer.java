@@ -0,0 +1,277 @@
+package dev.dvinnik.server;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.RollBatch;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embeddable server that exposes a {DiceApi} over the length-prefixed protocol of {ScoringProtocol},
+ * on a TCP or a Unix domain socket
+ *
+ * Every connection is served by its own task on the connection executor, with blocking reads and writes.
+ * A read may bring in several pipelined requests, which are all answered into one buffer and sent back with a
+ * single write, so a client sending requests in batches pays one system call per batch on each side.
+ *
+ * Decisions explained:
+ *  1) One thread per connection keeps the serving code sequential, and with virtual threads it scales to tens of
+ *  thousands of connections. Virtual threads aren't available in every runtime the project targets, so the default
+ *  executor uses them when the runtime has them, and falls back to a cached pool of platform threads otherwise.
+ *
+ *  2) Buffers are allocated once per connection, and requests are scored through the primitive and batch methods,
+ *  so serving a request doesn't allocate.
+ *
+ *  3) A frame that doesn't follow the protocol closes the connection, since the stream can't be resynchronised,
+ *  while a well-formed request with an invalid roll or category only gets an error response.
+ */
+public class ScoringServer implements AutoCloseable {
+
+    private static final String ALREADY_STARTED_EXCEPTION = "Server is already started";
+
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+    // Every complete frame in a full input buffer gets a response, including the shortest invalid frames
+    private static final int OUTPUT_BUFFER_SIZE = (INPUT_BUFFER_SIZE / (ScoringProtocol.LENGTH_SIZE + 1) + 1)
+            * ScoringProtocol.RESPONSE_SIZE;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final DiceApi diceApi;
+    private final SocketAddress address;
+    private final ExecutorService connectionExecutor;
+    private final boolean ownsConnectionExecutor;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocketChannel serverChannel;
+    private volatile boolean closed;
+
+    /**
+     * Default constructor that serves connections on {#newConnectionExecutor()}
+     */
+    public ScoringServer(final DiceApi diceApi,
+                         final SocketAddress address) {
+        this(diceApi, address, newConnectionExecutor(), true);
+    }
+
+    /**
+     * @param diceApi Implementation used to score requests. It has to be safe to call from several threads.
+     * @param address {InetSocketAddress} or {UnixDomainSocketAddress} to listen on
+     * @param connectionExecutor Executor running one task per connection. It is not shut down by the server.
+     */
+    public ScoringServer(final DiceApi diceApi,
+                         final SocketAddress address,
+                         final ExecutorService connectionExecutor) {
+        this(diceApi, address, connectionExecutor, false);
+    }
+
+    private ScoringServer(final DiceApi diceApi,
+                          final SocketAddress address,
+                          final ExecutorService connectionExecutor,
+                          final boolean ownsConnectionExecutor) {
+        this.diceApi = diceApi;
+        this.address = address;
+        this.connectionExecutor = connectionExecutor;
+        this.ownsConnectionExecutor = ownsConnectionExecutor;
+    }
+
+    /**
+     * @return Executor with a virtual thread per task if the runtime supports it, or a cached pool of daemon threads
+     */
+    public static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            // Runtimes without virtual threads, or with virtual threads as a disabled preview
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "scoring-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Binds the socket and starts accepting connections on a dedicated thread
+     */
+    public void start() {
+        if (serverChannel != null) {
+            throw new IllegalStateException(ALREADY_STARTED_EXCEPTION);
+        }
+        try {
+            serverChannel = address instanceof UnixDomainSocketAddress
+                    ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+            serverChannel.bind(address);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        final Thread acceptor = new Thread(this::accept, "scoring-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return Address the server listens on, i.e. with the port picked by the system for port 0
+     */
+    public SocketAddress getLocalAddress() {
+        try {
+            return serverChannel.getLocalAddress();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return Number of open connections
+     */
+    public int getNumberOfConnections() {
+        return connections.size();
+    }
+
+    /**
+     * Stops accepting connections and closes every open connection
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+                if (address instanceof UnixDomainSocketAddress) {
+                    Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+                }
+            }
+            for (SocketChannel connection : connections) {
+                connection.close();
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (ownsConnectionExecutor) {
+                connectionExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            final SocketChannel connection;
+            try {
+                connection = serverChannel.accept();
+            } catch (final ClosedChannelException e) {
+                return;
+            } catch (final IOException e) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            connections.add(connection);
+            try {
+                connectionExecutor.execute(() -> serve(connection));
+            } catch (final RuntimeException e) {
+                // The executor was shut down or is saturated
+                closeConnection(connection);
+            }
+        }
+    }
+
+    private void serve(final SocketChannel connection) {
+        final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+        final ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+        final int[] diceRoll = new int[Category.NUMBER_OF_DICE];
+        final RollBatch rollBatch = new RollBatch(1);
+        final int[] topCategoryMask = new int[1];
+        try {
+            while (connection.read(input) >= 0) {
+                input.flip();
+                while (input.remaining() >= ScoringProtocol.LENGTH_SIZE) {
+                    final int length = input.getInt(input.position());
+                    if (length < 1 || length > ScoringProtocol.MAX_REQUEST_LENGTH) {
+                        return;
+                    }
+                    if (input.remaining() < ScoringProtocol.LENGTH_SIZE + length) {
+                        break;
+                    }
+                    input.position(input.position() + ScoringProtocol.LENGTH_SIZE);
+                    final int requestEnd = input.position() + length;
+                    respond(input, length, output, diceRoll, rollBatch, topCategoryMask);
+                    input.position(requestEnd);
+                }
+                input.compact();
+                output.flip();
+                while (output.hasRemaining()) {
+                    connection.write(output);
+                }
+                output.clear();
+            }
+        } catch (final IOException e) {
+            // The client went away, or the server is closing
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    private void respond(final ByteBuffer input,
+                         final int length,
+                         final ByteBuffer output,
+                         final int[] diceRoll,
+                         final RollBatch rollBatch,
+                         final int[] topCategoryMask) {
+        final byte operation = input.get();
+        if (operation == ScoringProtocol.OPERATION_SCORE && length == ScoringProtocol.SCORE_REQUEST_LENGTH) {
+            final int categoryIndex = input.get();
+            readDice(input, diceRoll);
+            if (categoryIndex < 0 || categoryIndex >= CATEGORIES.length) {
+                ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_INVALID_REQUEST, 0);
+                return;
+            }
+            try {
+                final int score = diceApi.score(CATEGORIES[categoryIndex], diceRoll, 0);
+                ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_OK, score);
+            } catch (final IllegalArgumentException e) {
+                ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_INVALID_REQUEST, 0);
+            }
+        } else if (operation == ScoringProtocol.OPERATION_TOP_CATEGORIES
+                && length == ScoringProtocol.TOP_CATEGORIES_REQUEST_LENGTH) {
+            readDice(input, diceRoll);
+            try {
+                rollBatch.clear();
+                rollBatch.add(diceRoll, 0);
+                diceApi.topCategories(rollBatch, topCategoryMask);
+                ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_OK, topCategoryMask[0]);
+            } catch (final IllegalArgumentException e) {
+                ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_INVALID_REQUEST, 0);
+            }
+        } else {
+            ScoringProtocol.putResponse(output, ScoringProtocol.STATUS_INVALID_REQUEST, 0);
+        }
+    }
+
+    private static void readDice(final ByteBuffer input,
+                                 final int[] diceRoll) {
+        for (int i = 0; i < diceRoll.length; i++) {
+            diceRoll[i] = input.get();
+        }
+    }
+
+    private void closeConnection(final SocketChannel connection) {
+        connections.remove(connection);
+        try {
+            connection.close();
+        } catch (final IOException e) {
+            // Nothing left to do with a connection that can't be closed
+        }
+    }
+}
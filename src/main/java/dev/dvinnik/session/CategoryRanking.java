@@ -0,0 +1,70 @@
+package dev.dvinnik.session;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+
+/**
+ * Scores of every packed roll, along with its categories sorted from the highest score to the lowest
+ *
+ * The sorted categories of a roll are packed into a {long}, four bits per category ordinal, so the best open category
+ * is the first one in that order whose bit is open. Ties are broken by the lowest {Category} ordinal, like
+ * {TopCategoryPolicy}.
+ */
+final class CategoryRanking {
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+    private static final int BITS_PER_CATEGORY = 4;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final int[] scores = new int[PackedRoll.NUMBER_OF_PACKED_ROLLS * NUMBER_OF_CATEGORIES];
+    private final long[] categoriesByScore = new long[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+
+    CategoryRanking(final DiceApi diceApi) {
+        final RollBatch rollBatch = new RollBatch(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            rollBatch.addPackedRoll(packedRoll);
+        }
+        diceApi.scoreAll(rollBatch, scores);
+
+        final int[] sortedCategoryIndexes = new int[NUMBER_OF_CATEGORIES];
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            // Insertion sort that keeps equal scores in ordinal order
+            for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                final int score = scores[packedRoll * NUMBER_OF_CATEGORIES + categoryIndex];
+                int position = categoryIndex;
+                while (position > 0
+                        && scores[packedRoll * NUMBER_OF_CATEGORIES + sortedCategoryIndexes[position - 1]] < score) {
+                    sortedCategoryIndexes[position] = sortedCategoryIndexes[position - 1];
+                    position--;
+                }
+                sortedCategoryIndexes[position] = categoryIndex;
+            }
+            long packedOrder = 0;
+            for (int position = 0; position < NUMBER_OF_CATEGORIES; position++) {
+                packedOrder |= (long) sortedCategoryIndexes[position] << (BITS_PER_CATEGORY * position);
+            }
+            categoriesByScore[packedRoll] = packedOrder;
+        }
+    }
+
+    int score(final Category category,
+              final int packedRoll) {
+        return scores[packedRoll * NUMBER_OF_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * @param openCategoryMask {CategoryMask} of the categories left, which has at least one category
+     * @return Open category with the highest score for the roll
+     */
+    Category bestOpenCategory(final int packedRoll,
+                              final int openCategoryMask) {
+        long packedOrder = categoriesByScore[packedRoll];
+        while ((openCategoryMask & (1 << (packedOrder & 0xF))) == 0) {
+            packedOrder >>>= BITS_PER_CATEGORY;
+        }
+        return CATEGORIES[(int) (packedOrder & 0xF)];
+    }
+}
@@ -0,0 +1,47 @@
+package dev.dvinnik.session;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+/**
+ * Mutable scorecard of a single game, guarded by the lock of the {SessionStripe} holding it
+ */
+final class GameSession {
+
+    private final int[] scores = new int[CategoryMask.NUMBER_OF_CATEGORIES];
+    private int filledCategoryMask = CategoryMask.NONE;
+    private int totalScore;
+    // Coarse clock of {GameSessionStore} when the session was last used
+    private long lastAccessNanos;
+
+    GameSession(final long lastAccessNanos) {
+        this.lastAccessNanos = lastAccessNanos;
+    }
+
+    int getOpenCategoryMask() {
+        return CategoryMask.ALL & ~filledCategoryMask;
+    }
+
+    boolean isFilled(final Category category) {
+        return CategoryMask.contains(filledCategoryMask, category);
+    }
+
+    void fill(final Category category,
+              final int score) {
+        scores[category.ordinal()] = score;
+        filledCategoryMask |= CategoryMask.of(category);
+        totalScore += score;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void setLastAccessNanos(final long lastAccessNanos) {
+        this.lastAccessNanos = lastAccessNanos;
+    }
+
+    Scorecard toScorecard() {
+        return new Scorecard(filledCategoryMask, totalScore, scores.clone());
+    }
+}
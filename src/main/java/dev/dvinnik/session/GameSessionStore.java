@@ -0,0 +1,231 @@
+package dev.dvinnik.session;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Concurrent store of live game sessions, where every session keeps the scorecard of one player
+ *
+ * A scorecard is a {CategoryMask} of the filled categories with the running total, so the best open category for
+ * a roll is answered without rescoring the categories that are already used: the categories of every roll are
+ * sorted by score once, when the store is created, and a query walks that order until it finds an open category.
+ *
+ * Decisions explained:
+ *  1) Sessions are spread over stripes, each guarded by its own lock, so operations on different sessions rarely
+ *  wait for each other, and a store can hold millions of sessions.
+ *
+ *  2) Idle sessions are evicted by a sweep (see {#evictIdleSessions}) rather than by keeping sessions in access order,
+ *  so the scoring path only stamps the session with a coarse clock, i.e. a volatile read of the time of the last
+ *  sweep instead of a system call or a reordering of a list. In exchange, a session is evicted once it wasn't used
+ *  for the idle timeout, give or take one sweep period.
+ */
+public class GameSessionStore {
+
+    private static final String UNKNOWN_SESSION_EXCEPTION = "Game session doesn't exist";
+    private static final String FILLED_CATEGORY_EXCEPTION = "Category is already filled";
+    private static final String COMPLETE_SCORECARD_EXCEPTION = "Scorecard has no open categories";
+    private static final String INVALID_NUMBER_OF_STRIPES_EXCEPTION = "Number of stripes should be a power of two";
+    private static final String INVALID_IDLE_TIMEOUT_EXCEPTION = "Idle timeout shouldn't be negative";
+
+    public static final int DEFAULT_NUMBER_OF_STRIPES = 256;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final CategoryRanking categoryRanking;
+    private final SessionStripe[] stripes;
+    private final long idleTimeoutNanos;
+    private final AtomicLong nextSessionId = new AtomicLong();
+    private volatile long clockNanos = System.nanoTime();
+
+    /**
+     * Default constructor with {#DEFAULT_NUMBER_OF_STRIPES} stripes and an idle timeout of {#DEFAULT_IDLE_TIMEOUT}
+     */
+    public GameSessionStore(final DiceApi diceApi) {
+        this(diceApi, DEFAULT_NUMBER_OF_STRIPES, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param diceApi Implementation that scores every possible roll once, when the store is created
+     * @param numberOfStripes Number of independently locked parts of the store, as a power of two
+     * @param idleTimeout Time after which an unused session is evicted by {#evictIdleSessions}
+     */
+    public GameSessionStore(final DiceApi diceApi,
+                            final int numberOfStripes,
+                            final Duration idleTimeout) {
+        if (numberOfStripes <= 0 || Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException(INVALID_NUMBER_OF_STRIPES_EXCEPTION);
+        }
+        if (idleTimeout.isNegative()) {
+            throw new IllegalArgumentException(INVALID_IDLE_TIMEOUT_EXCEPTION);
+        }
+        this.categoryRanking = new CategoryRanking(diceApi);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.stripes = new SessionStripe[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new SessionStripe();
+        }
+    }
+
+    /**
+     * @return Identifier of a new session with an empty scorecard
+     */
+    public long startSession() {
+        final long sessionId = nextSessionId.getAndIncrement();
+        final SessionStripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            stripe.sessions.put(sessionId, new GameSession(clockNanos));
+        } finally {
+            stripe.lock.unlock();
+        }
+        return sessionId;
+    }
+
+    /**
+     * @return Whether the session existed, i.e. wasn't already ended or evicted
+     */
+    public boolean endSession(final long sessionId) {
+        final SessionStripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            return stripe.sessions.remove(sessionId) != null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @param diceRoll Collection of dice throws
+     * @return Open category with the highest score for the roll, where ties go to the lowest {Category} ordinal
+     * @throws IllegalArgumentException If the session doesn't exist or the roll is invalid
+     * @throws IllegalStateException If every category is already filled
+     */
+    public Category bestOpenCategory(final long sessionId,
+                                     final List<Integer> diceRoll) {
+        return bestOpenCategory(sessionId, PackedRoll.pack(diceRoll));
+    }
+
+    /**
+     * @param packedRoll Roll packed with {PackedRoll}
+     */
+    public Category bestOpenCategory(final long sessionId,
+                                     final int packedRoll) {
+        PackedRoll.validate(packedRoll);
+        return withSession(sessionId, session -> {
+            final int openCategoryMask = session.getOpenCategoryMask();
+            if (openCategoryMask == CategoryMask.NONE) {
+                throw new IllegalStateException(COMPLETE_SCORECARD_EXCEPTION);
+            }
+            return categoryRanking.bestOpenCategory(packedRoll, openCategoryMask);
+        });
+    }
+
+    /**
+     * Scores the roll in the category, and adds the score to the running total
+     *
+     * @param diceRoll Collection of dice throws
+     * @return Score of the roll in the category
+     * @throws IllegalArgumentException If the session doesn't exist or the roll is invalid
+     * @throws IllegalStateException If the category is already filled
+     */
+    public int fill(final long sessionId,
+                    final Category category,
+                    final List<Integer> diceRoll) {
+        return fill(sessionId, category, PackedRoll.pack(diceRoll));
+    }
+
+    /**
+     * @param packedRoll Roll packed with {PackedRoll}
+     */
+    public int fill(final long sessionId,
+                    final Category category,
+                    final int packedRoll) {
+        PackedRoll.validate(packedRoll);
+        return withSession(sessionId, session -> {
+            if (session.isFilled(category)) {
+                throw new IllegalStateException(FILLED_CATEGORY_EXCEPTION);
+            }
+            final int score = categoryRanking.score(category, packedRoll);
+            session.fill(category, score);
+            return score;
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException If the session doesn't exist
+     */
+    public Scorecard getScorecard(final long sessionId) {
+        return withSession(sessionId, GameSession::toScorecard);
+    }
+
+    /**
+     * @return Number of live sessions
+     */
+    public int size() {
+        int size = 0;
+        for (SessionStripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Advances the coarse clock, and evicts the sessions that weren't used for the idle timeout,
+     * one stripe at a time so only one stripe is locked at once
+     *
+     * @return Number of evicted sessions
+     */
+    public int evictIdleSessions() {
+        final long now = System.nanoTime();
+        clockNanos = now;
+        int evicted = 0;
+        for (SessionStripe stripe : stripes) {
+            evicted += stripe.evictAccessedBefore(now - idleTimeoutNanos);
+        }
+        return evicted;
+    }
+
+    /**
+     * Sweeps idle sessions periodically, see {#evictIdleSessions}
+     *
+     * @param scheduler Executor running the sweeps. It is not shut down by the store.
+     * @param period Time between two sweeps, which is also the resolution of the idle timeout
+     * @return Future that stops the sweeps once cancelled
+     */
+    public ScheduledFuture<?> scheduleEviction(final ScheduledExecutorService scheduler,
+                                               final Duration period) {
+        final long periodNanos = period.toNanos();
+        return scheduler.scheduleAtFixedRate(this::evictIdleSessions, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private <T> T withSession(final long sessionId,
+                              final Function<GameSession, T> operation) {
+        final SessionStripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            final GameSession session = stripe.sessions.get(sessionId);
+            if (session == null) {
+                throw new IllegalArgumentException(UNKNOWN_SESSION_EXCEPTION);
+            }
+            session.setLastAccessNanos(clockNanos);
+            return operation.apply(session);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private SessionStripe stripe(final long sessionId) {
+        // Sequential identifiers are spread with the 64-bit golden ratio, whose high bits are well mixed
+        final long hash = sessionId * 0x9E37_79B9_7F4A_7C15L;
+        return stripes[(int) (hash >>> Integer.SIZE) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,294 @@
+package dev.dvinnik.session;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Store of game sessions kept in fixed-width off-heap records, so the heap doesn't grow with the number of games
+ *
+ * A session is a 64-byte record (see {SessionRecords}) holding:
+ *  1) A state word with the generation of the slot, the {CategoryMask} of the filled categories and the running total.
+ *  2) The last {#NUMBER_OF_RECENT_ROLLS} rolls, packed with {PackedRoll} into 16 bits each.
+ *  3) The score of every category, as an unsigned 16-bit number.
+ *
+ * A session is identified by its slot and the generation of the slot when it was started, so a session that was
+ * ended can't be confused with the next session in the same slot.
+ *
+ * Decisions explained:
+ *  1) Updates are lock-free: filling a category is a compare-and-set of the state word, which both checks that the
+ *  category is open and adds its score to the total, and recording a roll is a compare-and-set of the recent rolls.
+ *  The score of a category is written once the category is claimed, and readers retry until the scores add up to
+ *  the total, so a scorecard is never read half-filled.
+ *
+ *  2) Rolls are scored straight from the record through the primitive {DiceApi#score(Category, int)}, so no
+ *  {List} or boxed dice are created per turn.
+ *
+ *  3) Released slots go to a lock-free free list, and arenas are allocated on demand but never released.
+ *
+ * Note: the off-heap memory is taken from direct buffers. Ending a session while a roll is being recorded for it
+ * is a caller error, since the roll could land in the next session of the slot, but it can't corrupt the store,
+ * since the free list is only linked through state words (see {SessionRecords}).
+ */
+public class OffHeapSessionStore {
+
+    private static final String UNKNOWN_SESSION_EXCEPTION = "Game session doesn't exist";
+    private static final String FILLED_CATEGORY_EXCEPTION = "Category is already filled";
+    private static final String COMPLETE_SCORECARD_EXCEPTION = "Scorecard has no open categories";
+    private static final String NO_ROLL_EXCEPTION = "Game session has no recorded roll";
+    private static final String SCORE_OUT_OF_RANGE_EXCEPTION = "Score doesn't fit into an off-heap record";
+
+    public static final int DEFAULT_SLOTS_PER_ARENA = 1 << 16;
+    // Largest arena whose byte size and record offsets fit into an int
+    public static final int MAX_SLOTS_PER_ARENA = Integer.highestOneBit(Integer.MAX_VALUE / SessionRecords.RECORD_SIZE);
+    public static final int DEFAULT_MAX_ARENAS = 1 << 12;
+    public static final int NUMBER_OF_RECENT_ROLLS = Long.SIZE / Short.SIZE;
+
+    private static final String INVALID_ARENAS_EXCEPTION = "Slots per arena should be a power of two up to "
+            + MAX_SLOTS_PER_ARENA + ", and the number of arenas should be positive";
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+    private static final int FILLED_MASK_SHIFT = Integer.SIZE;
+    private static final long TOTAL_MASK = 0xFFFF_FFFFL;
+    private static final int MAX_SCORE = 0xFFFF;
+    // Recorded rolls have their top bit set, since zero is a valid packed roll
+    private static final int RECORDED_ROLL_BIT = 1 << (Short.SIZE - 1);
+    private static final int ROLL_MASK = 0xFFFF;
+
+    private final DiceApi diceApi;
+    private final CategoryRanking categoryRanking;
+    private final SessionRecords records;
+    private final LongAdder numberOfSessions = new LongAdder();
+
+    /**
+     * Default constructor with arenas of {#DEFAULT_SLOTS_PER_ARENA} sessions, up to {#DEFAULT_MAX_ARENAS} of them
+     */
+    public OffHeapSessionStore(final DiceApi diceApi) {
+        this(diceApi, DEFAULT_SLOTS_PER_ARENA, DEFAULT_MAX_ARENAS);
+    }
+
+    /**
+     * @param diceApi Implementation used to score rolls. It has to be safe to call from several threads.
+     * @param slotsPerArena Number of sessions in an arena, as a power of two up to {#MAX_SLOTS_PER_ARENA}
+     * @param maxArenas Highest number of arenas, which bounds the number of live sessions
+     */
+    public OffHeapSessionStore(final DiceApi diceApi,
+                               final int slotsPerArena,
+                               final int maxArenas) {
+        if (slotsPerArena <= 0 || Integer.bitCount(slotsPerArena) != 1 || slotsPerArena > MAX_SLOTS_PER_ARENA
+                || maxArenas <= 0) {
+            throw new IllegalArgumentException(INVALID_ARENAS_EXCEPTION);
+        }
+        this.diceApi = diceApi;
+        this.categoryRanking = new CategoryRanking(diceApi);
+        this.records = new SessionRecords(slotsPerArena, maxArenas);
+    }
+
+    /**
+     * @return Identifier of a new session with an empty scorecard
+     * @throws IllegalStateException If every slot of every arena is taken
+     */
+    public long startSession() {
+        final int slot = records.allocate();
+        numberOfSessions.increment();
+        final long state = (long) SessionRecords.LONGS.getVolatile(records.arena(slot),
+                records.offset(slot) + SessionRecords.STATE_OFFSET);
+        return SessionRecords.generation(state) << Integer.SIZE | slot;
+    }
+
+    /**
+     * @return Whether the session existed, i.e. wasn't already ended
+     */
+    public boolean endSession(final long sessionId) {
+        final int slot = slot(sessionId);
+        if (!records.isUsed(slot)) {
+            return false;
+        }
+        final ByteBuffer arena = records.arena(slot);
+        final int stateOffset = records.offset(slot) + SessionRecords.STATE_OFFSET;
+        while (true) {
+            final long state = (long) SessionRecords.LONGS.getVolatile(arena, stateOffset);
+            if (SessionRecords.generation(state) != generation(sessionId)) {
+                return false;
+            }
+            // The next generation is even, i.e. free
+            final long freeState = (SessionRecords.generation(state) + 1) << SessionRecords.GENERATION_SHIFT;
+            if (SessionRecords.LONGS.compareAndSet(arena, stateOffset, state, freeState)) {
+                numberOfSessions.decrement();
+                records.release(slot);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records the roll as the latest roll of the session, keeping the last {#NUMBER_OF_RECENT_ROLLS} rolls
+     *
+     * @param packedRoll Roll packed with {PackedRoll}
+     * @throws IllegalArgumentException If the session doesn't exist or the roll is invalid
+     */
+    public void recordRoll(final long sessionId,
+                           final int packedRoll) {
+        PackedRoll.validate(packedRoll);
+        final ByteBuffer arena = checkedArena(sessionId);
+        final int recentRollsOffset = records.offset(slot(sessionId)) + SessionRecords.RECENT_ROLLS_OFFSET;
+        while (true) {
+            final long recentRolls = (long) SessionRecords.LONGS.getVolatile(arena, recentRollsOffset);
+            final long newRecentRolls = recentRolls << Short.SIZE | RECORDED_ROLL_BIT | packedRoll;
+            if (SessionRecords.LONGS.compareAndSet(arena, recentRollsOffset, recentRolls, newRecentRolls)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Packed recent rolls of the session, from the latest one to the oldest one
+     * @throws IllegalArgumentException If the session doesn't exist
+     */
+    public int[] getRecentRolls(final long sessionId) {
+        final ByteBuffer arena = checkedArena(sessionId);
+        long recentRolls = (long) SessionRecords.LONGS.getVolatile(arena,
+                records.offset(slot(sessionId)) + SessionRecords.RECENT_ROLLS_OFFSET);
+        int numberOfRolls = 0;
+        final int[] rolls = new int[NUMBER_OF_RECENT_ROLLS];
+        while ((recentRolls & RECORDED_ROLL_BIT) != 0 && numberOfRolls < NUMBER_OF_RECENT_ROLLS) {
+            rolls[numberOfRolls++] = (int) (recentRolls & ROLL_MASK & ~RECORDED_ROLL_BIT);
+            recentRolls >>>= Short.SIZE;
+        }
+        return Arrays.copyOf(rolls, numberOfRolls);
+    }
+
+    /**
+     * @return Open category with the highest score for the latest roll, where ties go to the lowest {Category} ordinal
+     * @throws IllegalArgumentException If the session doesn't exist
+     * @throws IllegalStateException If no roll was recorded, or every category is already filled
+     */
+    public Category bestOpenCategory(final long sessionId) {
+        final ByteBuffer arena = checkedArena(sessionId);
+        final int offset = records.offset(slot(sessionId));
+        final int packedRoll = latestRoll(arena, offset);
+        final long state = (long) SessionRecords.LONGS.getVolatile(arena, offset + SessionRecords.STATE_OFFSET);
+        final int openCategoryMask = CategoryMask.ALL & ~filledCategoryMask(state);
+        if (openCategoryMask == CategoryMask.NONE) {
+            throw new IllegalStateException(COMPLETE_SCORECARD_EXCEPTION);
+        }
+        return categoryRanking.bestOpenCategory(packedRoll, openCategoryMask);
+    }
+
+    /**
+     * Scores the latest roll in the category, and adds the score to the running total
+     *
+     * @return Score of the latest roll in the category
+     * @throws IllegalArgumentException If the session doesn't exist
+     * @throws IllegalStateException If no roll was recorded, or the category is already filled
+     */
+    public int fill(final long sessionId,
+                    final Category category) {
+        final ByteBuffer arena = checkedArena(sessionId);
+        final int offset = records.offset(slot(sessionId));
+        final int score = diceApi.score(category, latestRoll(arena, offset));
+        if (score < 0 || score > MAX_SCORE) {
+            throw new IllegalStateException(SCORE_OUT_OF_RANGE_EXCEPTION);
+        }
+
+        final int stateOffset = offset + SessionRecords.STATE_OFFSET;
+        final long categoryBit = (long) CategoryMask.of(category) << FILLED_MASK_SHIFT;
+        while (true) {
+            final long state = (long) SessionRecords.LONGS.getVolatile(arena, stateOffset);
+            if (SessionRecords.generation(state) != generation(sessionId)) {
+                throw new IllegalArgumentException(UNKNOWN_SESSION_EXCEPTION);
+            }
+            if ((state & categoryBit) != 0) {
+                throw new IllegalStateException(FILLED_CATEGORY_EXCEPTION);
+            }
+            final long newState = (state & ~TOTAL_MASK) | categoryBit | ((state + score) & TOTAL_MASK);
+            if (SessionRecords.LONGS.compareAndSet(arena, stateOffset, state, newState)) {
+                SessionRecords.SHORTS.setRelease(arena, offset + SessionRecords.SCORES_OFFSET
+                        + category.ordinal() * Short.BYTES, (short) score);
+                return score;
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the session doesn't exist
+     */
+    public Scorecard getScorecard(final long sessionId) {
+        final ByteBuffer arena = checkedArena(sessionId);
+        final int offset = records.offset(slot(sessionId));
+        final int[] scores = new int[NUMBER_OF_CATEGORIES];
+        while (true) {
+            final long state = (long) SessionRecords.LONGS.getVolatile(arena, offset + SessionRecords.STATE_OFFSET);
+            if (SessionRecords.generation(state) != generation(sessionId)) {
+                throw new IllegalArgumentException(UNKNOWN_SESSION_EXCEPTION);
+            }
+            final int filledCategoryMask = filledCategoryMask(state);
+            long sum = 0;
+            for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                final short score = (short) SessionRecords.SHORTS.getAcquire(arena,
+                        offset + SessionRecords.SCORES_OFFSET + categoryIndex * Short.BYTES);
+                scores[categoryIndex] = (filledCategoryMask & (1 << categoryIndex)) != 0 ? score & MAX_SCORE : 0;
+                sum += scores[categoryIndex];
+            }
+            // Scores of categories that were just claimed may not be written yet
+            if (sum == (state & TOTAL_MASK)) {
+                return new Scorecard(filledCategoryMask, (int) sum, scores);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return Number of live sessions
+     */
+    public long size() {
+        return numberOfSessions.sum();
+    }
+
+    /**
+     * @return Bytes of off-heap memory taken by the arenas
+     */
+    public long getOffHeapBytes() {
+        return records.getOffHeapBytes();
+    }
+
+    private ByteBuffer checkedArena(final long sessionId) {
+        final int slot = slot(sessionId);
+        if (records.isUsed(slot)) {
+            final ByteBuffer arena = records.arena(slot);
+            final long state = (long) SessionRecords.LONGS.getVolatile(arena,
+                    records.offset(slot) + SessionRecords.STATE_OFFSET);
+            if (SessionRecords.generation(state) == generation(sessionId)) {
+                return arena;
+            }
+        }
+        throw new IllegalArgumentException(UNKNOWN_SESSION_EXCEPTION);
+    }
+
+    private static int latestRoll(final ByteBuffer arena,
+                                  final int offset) {
+        final long recentRolls = (long) SessionRecords.LONGS.getVolatile(arena,
+                offset + SessionRecords.RECENT_ROLLS_OFFSET);
+        if ((recentRolls & RECORDED_ROLL_BIT) == 0) {
+            throw new IllegalStateException(NO_ROLL_EXCEPTION);
+        }
+        return (int) (recentRolls & ROLL_MASK & ~RECORDED_ROLL_BIT);
+    }
+
+    private static int filledCategoryMask(final long state) {
+        return (int) (state >>> FILLED_MASK_SHIFT) & CategoryMask.ALL;
+    }
+
+    private static int slot(final long sessionId) {
+        return (int) sessionId;
+    }
+
+    private static long generation(final long sessionId) {
+        return sessionId >>> Integer.SIZE;
+    }
+}
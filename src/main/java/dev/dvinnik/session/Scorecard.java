@@ -0,0 +1,51 @@
+package dev.dvinnik.session;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+/**
+ * Snapshot of the scorecard of a game session, see {GameSessionStore#getScorecard}
+ */
+public final class Scorecard {
+
+    private final int filledCategoryMask;
+    private final int totalScore;
+    private final int[] scores;
+
+    Scorecard(final int filledCategoryMask,
+              final int totalScore,
+              final int[] scores) {
+        this.filledCategoryMask = filledCategoryMask;
+        this.totalScore = totalScore;
+        this.scores = scores;
+    }
+
+    /**
+     * @return {CategoryMask} of the categories already scored
+     */
+    public int getFilledCategoryMask() {
+        return filledCategoryMask;
+    }
+
+    /**
+     * @return {CategoryMask} of the categories left
+     */
+    public int getOpenCategoryMask() {
+        return CategoryMask.ALL & ~filledCategoryMask;
+    }
+
+    public boolean isComplete() {
+        return filledCategoryMask == CategoryMask.ALL;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * @return Score of the category, or {Category#DEFAULT_SCORE} if it's still open
+     */
+    public int getScore(final Category category) {
+        return scores[category.ordinal()];
+    }
+}
@@ -0,0 +1,177 @@
+package dev.dvinnik.session;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-width records in off-heap arenas, i.e. direct buffers of {#RECORD_SIZE} bytes per slot,
+ * with a lock-free free list of released slots
+ *
+ * Record layout, in native byte order:
+ *  1) {long} state at {#STATE_OFFSET}. Its top 16 bits are the generation of the slot, which is odd while the slot
+ *  is allocated, and the rest is owned by {OffHeapSessionStore}. While the slot is free, its low 32 bits link to the
+ *  next free slot.
+ *  2) Everything else from {#RECENT_ROLLS_OFFSET} up to {#RECORD_SIZE}, zeroed when the slot is allocated.
+ *
+ * The free list link lives in the state word because every update of a session compare-and-sets the state against
+ * an odd generation, or checks it first and only then writes another word. Neither can touch the link of a free slot,
+ * so a late update of an ended session can't corrupt the free list.
+ *
+ * Records are aligned to 64 bytes, so a record never shares a cache line with another one.
+ */
+final class SessionRecords {
+
+    private static final String STORE_FULL_EXCEPTION = "Off-heap store has no free slots left";
+
+    static final int RECORD_SIZE = 64;
+    static final int STATE_OFFSET = 0;
+    static final int RECENT_ROLLS_OFFSET = 8;
+    static final int SCORES_OFFSET = 16;
+
+    static final int GENERATION_SHIFT = 48;
+    private static final long GENERATION_MASK = 0xFFFFL;
+    // Free list links are slot index + 1, so zero ends the list
+    private static final long NO_SLOT = 0;
+    private static final long FREE_LINK_MASK = 0xFFFF_FFFFL;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle SHORTS = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.nativeOrder());
+
+    private final int slotsPerArenaShift;
+    private final int slotIndexMask;
+    private final int maxSlots;
+    private final AtomicReferenceArray<ByteBuffer> arenas;
+    private final AtomicInteger nextUnusedSlot = new AtomicInteger();
+    // Version in the high 32 bits, so a pop notices a slot that was taken and freed again meanwhile,
+    // and top slot + 1 in the low 32 bits
+    private final AtomicLong freeListHead = new AtomicLong();
+
+    SessionRecords(final int slotsPerArena,
+                   final int maxArenas) {
+        this.slotsPerArenaShift = Integer.numberOfTrailingZeros(slotsPerArena);
+        this.slotIndexMask = slotsPerArena - 1;
+        this.maxSlots = (int) Math.min(Integer.MAX_VALUE, (long) slotsPerArena * maxArenas);
+        this.arenas = new AtomicReferenceArray<>(maxArenas);
+    }
+
+    /**
+     * @return Arena holding the slot, which is allocated with the slot
+     */
+    ByteBuffer arena(final int slot) {
+        return arenas.get(slot >>> slotsPerArenaShift);
+    }
+
+    /**
+     * @return Offset of the record of the slot in its arena
+     */
+    int offset(final int slot) {
+        return (slot & slotIndexMask) * RECORD_SIZE;
+    }
+
+    /**
+     * @return Whether the slot was ever handed out by {#allocate}
+     */
+    boolean isUsed(final int slot) {
+        return slot >= 0 && slot < Math.min(nextUnusedSlot.get(), maxSlots) && arena(slot) != null;
+    }
+
+    /**
+     * Takes a free slot, zeroes its record and publishes its next odd generation
+     *
+     * @return Allocated slot
+     */
+    int allocate() {
+        int slot = pop();
+        if (slot < 0) {
+            slot = nextUnusedSlot.getAndIncrement();
+            if (slot < 0 || slot >= maxSlots) {
+                throw new IllegalStateException(STORE_FULL_EXCEPTION);
+            }
+            ensureArena(slot >>> slotsPerArenaShift);
+        }
+
+        final ByteBuffer arena = arena(slot);
+        final int offset = offset(slot);
+        for (int fieldOffset = RECENT_ROLLS_OFFSET; fieldOffset < RECORD_SIZE; fieldOffset += Long.BYTES) {
+            LONGS.set(arena, offset + fieldOffset, 0L);
+        }
+        final long state = (long) LONGS.getVolatile(arena, offset + STATE_OFFSET);
+        LONGS.setVolatile(arena, offset + STATE_OFFSET, (generation(state) + 1 & GENERATION_MASK) << GENERATION_SHIFT);
+        return slot;
+    }
+
+    /**
+     * Returns a slot whose generation was already made even, so that stale handles no longer match it
+     */
+    void release(final int slot) {
+        final ByteBuffer arena = arena(slot);
+        final int stateOffset = offset(slot) + STATE_OFFSET;
+        final long freeState = (long) LONGS.getVolatile(arena, stateOffset) & ~FREE_LINK_MASK;
+        while (true) {
+            final long head = freeListHead.get();
+            LONGS.setVolatile(arena, stateOffset, freeState | (head & FREE_LINK_MASK));
+            final long newHead = ((head >>> Integer.SIZE) + 1) << Integer.SIZE | (slot + 1L);
+            if (freeListHead.compareAndSet(head, newHead)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Generation of a record state, i.e. its top 16 bits
+     */
+    static long generation(final long state) {
+        return state >>> GENERATION_SHIFT;
+    }
+
+    /**
+     * @return Bytes of off-heap memory held by the arenas
+     */
+    long getOffHeapBytes() {
+        long bytes = 0;
+        for (int i = 0; i < arenas.length(); i++) {
+            final ByteBuffer arena = arenas.get(i);
+            bytes += arena != null ? arena.capacity() : 0;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Free slot, or -1 if the free list is empty
+     */
+    private int pop() {
+        while (true) {
+            final long head = freeListHead.get();
+            final long top = head & FREE_LINK_MASK;
+            if (top == NO_SLOT) {
+                return -1;
+            }
+            final int slot = (int) top - 1;
+            // A stale link is harmless, since the version of the head changed along with it
+            final long next = (long) LONGS.getVolatile(arena(slot), offset(slot) + STATE_OFFSET) & FREE_LINK_MASK;
+            final long newHead = ((head >>> Integer.SIZE) + 1) << Integer.SIZE | next;
+            if (freeListHead.compareAndSet(head, newHead)) {
+                return slot;
+            }
+        }
+    }
+
+    private void ensureArena(final int arenaIndex) {
+        if (arenas.get(arenaIndex) != null) {
+            return;
+        }
+        synchronized (arenas) {
+            if (arenas.get(arenaIndex) == null) {
+                final int size = (slotIndexMask + 1) * RECORD_SIZE;
+                // Direct buffers are only guaranteed to be aligned to 8 bytes
+                arenas.set(arenaIndex, ByteBuffer.allocateDirect(size + RECORD_SIZE).alignedSlice(RECORD_SIZE)
+                        .limit(size).slice().order(ByteOrder.nativeOrder()));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.dvinnik.session;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Part of a {GameSessionStore}, guarded by its own lock
+ */
+final class SessionStripe {
+
+    final ReentrantLock lock = new ReentrantLock();
+    // Only accessed while holding the lock
+    final Map<Long, GameSession> sessions = new HashMap<>();
+
+    /**
+     * @return Number of evicted sessions, i.e. the ones last accessed before the given time
+     */
+    int evictAccessedBefore(final long accessedBeforeNanos) {
+        int evicted = 0;
+        lock.lock();
+        try {
+            final Iterator<GameSession> iterator = sessions.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getLastAccessNanos() - accessedBeforeNanos < 0) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return evicted;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return sessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.dvinnik.simulation;
+
+import dev.dvinnik.core.Category;
+
+/**
+ * Decisions of a player during a simulated game, see {GameSimulator}
+ *
+ * Rolls are encoded with {PackedRoll} and sets of categories with {CategoryMask}, so a policy can answer with table
+ * lookups. A single policy is shared by every simulation thread, so it has to be safe to call concurrently.
+ */
+public interface ChoicePolicy {
+
+    int KEEP_ALL_DICE = (1 << Category.NUMBER_OF_DICE) - 1;
+
+    /**
+     * Decide which dice to keep before a reroll. Keeping every die ends the rerolls of the turn.
+     *
+     * @param packedRoll Current roll
+     * @param rerollsLeft Number of times the dice can still be rerolled in the turn, at least one
+     * @param openCategoryMask Categories that can still be scored
+     * @return Mask where the bit {i} is set if the die at index {i} of the roll is kept
+     */
+    default int keptDiceMask(final int packedRoll,
+                             final int rerollsLeft,
+                             final int openCategoryMask) {
+        return KEEP_ALL_DICE;
+    }
+
+    /**
+     * Decide which category the final roll of a turn is scored in
+     *
+     * @param packedRoll Final roll of the turn
+     * @param openCategoryMask Categories that can still be scored, never empty
+     * @return One of the open categories
+     */
+    Category chooseCategory(int packedRoll,
+                            int openCategoryMask);
+}
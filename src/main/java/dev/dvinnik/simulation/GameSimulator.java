@@ -0,0 +1,166 @@
+package dev.dvinnik.simulation;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo simulator of complete games, where every category is scored once over {Category#values()} turns
+ *
+ * Games are split into tasks that run on an executor, and every task plays its games with its own
+ * {SplittableRandom} into its own {ScoreAccumulator}. Accumulators are merged once every task is done,
+ * so nothing is shared between the tasks while they play.
+ *
+ * Decisions explained:
+ *  1) A roll of five eight-sided dice is a uniform {PackedRoll}, so a roll is a single random number, and rerolling
+ *  some of the dice replaces their bits with the bits of another random number.
+ *
+ *  2) Every task gets a generator split from the seed in order, so a seed always gives the same result,
+ *  no matter how tasks are scheduled.
+ */
+public class GameSimulator {
+
+    private static final String INVALID_GAMES_PER_TASK_EXCEPTION = "Number of games per task should be positive";
+    private static final String INVALID_REROLLS_EXCEPTION = "Number of rerolls per turn can't be negative";
+    private static final String INVALID_NUMBER_OF_GAMES_EXCEPTION = "Number of games should be positive";
+    private static final String CLOSED_CATEGORY_EXCEPTION = "Policy chose a category that isn't open: ";
+
+    public static final int DEFAULT_REROLLS_PER_TURN = 2;
+    public static final int DEFAULT_GAMES_PER_TASK = 1 << 14;
+
+    private static final int NUMBER_OF_TURNS = CategoryMask.NUMBER_OF_CATEGORIES;
+    // Bits of the kept dice of a packed roll for every kept dice mask
+    private static final int[] KEPT_DICE_BITS = new int[ChoicePolicy.KEEP_ALL_DICE + 1];
+
+    static {
+        for (int keptDiceMask = 0; keptDiceMask <= ChoicePolicy.KEEP_ALL_DICE; keptDiceMask++) {
+            for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+                if ((keptDiceMask & (1 << i)) != 0) {
+                    KEPT_DICE_BITS[keptDiceMask] |= 0x7 << (PackedRoll.BITS_PER_DIE * i);
+                }
+            }
+        }
+    }
+
+    private final DiceApi diceApi;
+    private final ChoicePolicy choicePolicy;
+    private final ExecutorService executorService;
+    private final int rerollsPerTurn;
+    private final int gamesPerTask;
+
+    /**
+     * Default constructor that plays with {TopCategoryPolicy} on the common {ForkJoinPool}
+     */
+    public GameSimulator(final DiceApi diceApi) {
+        this(diceApi, new TopCategoryPolicy(diceApi), ForkJoinPool.commonPool(), DEFAULT_REROLLS_PER_TURN,
+                DEFAULT_GAMES_PER_TASK);
+    }
+
+    /**
+     * @param diceApi Implementation used to score the final roll of every turn. It has to be safe to call from several
+     *                threads, and should implement {DiceApi#score(Category, int)} without allocating.
+     * @param choicePolicy Decisions of the player, shared by every task
+     * @param executorService Executor the tasks run on. It is not shut down by the simulator.
+     * @param rerollsPerTurn Number of times the dice can be rerolled in a turn
+     * @param gamesPerTask Number of games played by a single task
+     */
+    public GameSimulator(final DiceApi diceApi,
+                         final ChoicePolicy choicePolicy,
+                         final ExecutorService executorService,
+                         final int rerollsPerTurn,
+                         final int gamesPerTask) {
+        if (rerollsPerTurn < 0) {
+            throw new IllegalArgumentException(INVALID_REROLLS_EXCEPTION);
+        }
+        if (gamesPerTask <= 0) {
+            throw new IllegalArgumentException(INVALID_GAMES_PER_TASK_EXCEPTION);
+        }
+        this.diceApi = diceApi;
+        this.choicePolicy = choicePolicy;
+        this.executorService = executorService;
+        this.rerollsPerTurn = rerollsPerTurn;
+        this.gamesPerTask = gamesPerTask;
+    }
+
+    /**
+     * @param numberOfGames Number of games to play
+     * @param seed Seed of the random generators, the same seed always plays the same games
+     * @return Merged statistics of every game
+     */
+    public SimulationResult simulate(final long numberOfGames,
+                                     final long seed) {
+        if (numberOfGames <= 0) {
+            throw new IllegalArgumentException(INVALID_NUMBER_OF_GAMES_EXCEPTION);
+        }
+        final SplittableRandom seedRandom = new SplittableRandom(seed);
+        final List<Callable<ScoreAccumulator>> tasks = new ArrayList<>();
+        for (long from = 0; from < numberOfGames; from += gamesPerTask) {
+            final long gamesOfTask = Math.min(gamesPerTask, numberOfGames - from);
+            final SplittableRandom random = seedRandom.split();
+            tasks.add(() -> playGames(gamesOfTask, random));
+        }
+
+        final ScoreAccumulator scoreAccumulator = new ScoreAccumulator();
+        try {
+            for (Future<ScoreAccumulator> taskResult : executorService.invokeAll(tasks)) {
+                scoreAccumulator.merge(taskResult.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return scoreAccumulator.toResult();
+    }
+
+    private ScoreAccumulator playGames(final long numberOfGames,
+                                       final SplittableRandom random) {
+        final ScoreAccumulator scoreAccumulator = new ScoreAccumulator();
+        for (long game = 0; game < numberOfGames; game++) {
+            int openCategoryMask = CategoryMask.ALL;
+            int finalScore = 0;
+            for (int turn = 0; turn < NUMBER_OF_TURNS; turn++) {
+                final int packedRoll = playTurn(openCategoryMask, random);
+                final Category category = choicePolicy.chooseCategory(packedRoll, openCategoryMask);
+                if (!CategoryMask.contains(openCategoryMask, category)) {
+                    throw new IllegalStateException(CLOSED_CATEGORY_EXCEPTION + category);
+                }
+                final int score = diceApi.score(category, packedRoll);
+                scoreAccumulator.addTurn(category, score);
+                finalScore += score;
+                openCategoryMask &= ~CategoryMask.of(category);
+            }
+            scoreAccumulator.addGame(finalScore);
+        }
+        return scoreAccumulator;
+    }
+
+    /**
+     * @return Final roll of the turn
+     */
+    private int playTurn(final int openCategoryMask,
+                         final SplittableRandom random) {
+        int packedRoll = random.nextInt(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+        for (int rerollsLeft = rerollsPerTurn; rerollsLeft > 0; rerollsLeft--) {
+            final int keptDiceMask = choicePolicy.keptDiceMask(packedRoll, rerollsLeft, openCategoryMask);
+            if (keptDiceMask == ChoicePolicy.KEEP_ALL_DICE) {
+                break;
+            }
+            final int keptDiceBits = KEPT_DICE_BITS[keptDiceMask & ChoicePolicy.KEEP_ALL_DICE];
+            final int rerolledDice = random.nextInt(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+            packedRoll = (packedRoll & keptDiceBits) | (rerolledDice & ~keptDiceBits);
+        }
+        return packedRoll;
+    }
+}
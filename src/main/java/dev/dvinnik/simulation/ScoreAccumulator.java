@@ -0,0 +1,59 @@
+package dev.dvinnik.simulation;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+import java.util.Arrays;
+
+/**
+ * Scores of the games simulated by a single task, merged into a {SimulationResult} once every task is done
+ */
+final class ScoreAccumulator {
+
+    private static final int INITIAL_MAX_FINAL_SCORE = 511;
+
+    private long numberOfGames;
+    // Number of games per final score, grown when a game scores more than any before
+    private long[] finalScoreCounts = new long[INITIAL_MAX_FINAL_SCORE + 1];
+    private final long[] categoryScoreSums = new long[CategoryMask.NUMBER_OF_CATEGORIES];
+    private final long[] categoryHitCounts = new long[CategoryMask.NUMBER_OF_CATEGORIES];
+
+    void addTurn(final Category category,
+                 final int score) {
+        categoryScoreSums[category.ordinal()] += score;
+        if (score > Category.DEFAULT_SCORE) {
+            categoryHitCounts[category.ordinal()]++;
+        }
+    }
+
+    void addGame(final int finalScore) {
+        if (finalScore >= finalScoreCounts.length) {
+            finalScoreCounts = Arrays.copyOf(finalScoreCounts, Math.max(finalScore + 1, finalScoreCounts.length * 2));
+        }
+        finalScoreCounts[finalScore]++;
+        numberOfGames++;
+    }
+
+    void merge(final ScoreAccumulator other) {
+        if (other.finalScoreCounts.length > finalScoreCounts.length) {
+            finalScoreCounts = Arrays.copyOf(finalScoreCounts, other.finalScoreCounts.length);
+        }
+        for (int finalScore = 0; finalScore < other.finalScoreCounts.length; finalScore++) {
+            finalScoreCounts[finalScore] += other.finalScoreCounts[finalScore];
+        }
+        for (int categoryIndex = 0; categoryIndex < CategoryMask.NUMBER_OF_CATEGORIES; categoryIndex++) {
+            categoryScoreSums[categoryIndex] += other.categoryScoreSums[categoryIndex];
+            categoryHitCounts[categoryIndex] += other.categoryHitCounts[categoryIndex];
+        }
+        numberOfGames += other.numberOfGames;
+    }
+
+    SimulationResult toResult() {
+        int maxFinalScore = finalScoreCounts.length - 1;
+        while (maxFinalScore > 0 && finalScoreCounts[maxFinalScore] == 0) {
+            maxFinalScore--;
+        }
+        return new SimulationResult(numberOfGames, Arrays.copyOf(finalScoreCounts, maxFinalScore + 1),
+                categoryScoreSums.clone(), categoryHitCounts.clone());
+    }
+}
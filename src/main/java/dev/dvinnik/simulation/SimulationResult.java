@@ -0,0 +1,89 @@
+package dev.dvinnik.simulation;
+
+import dev.dvinnik.core.Category;
+
+/**
+ * Distribution of final scores and per-category statistics of the games simulated by {GameSimulator}
+ */
+public final class SimulationResult {
+
+    private final long numberOfGames;
+    private final long[] finalScoreCounts;
+    private final long[] categoryScoreSums;
+    private final long[] categoryHitCounts;
+
+    SimulationResult(final long numberOfGames,
+                     final long[] finalScoreCounts,
+                     final long[] categoryScoreSums,
+                     final long[] categoryHitCounts) {
+        this.numberOfGames = numberOfGames;
+        this.finalScoreCounts = finalScoreCounts;
+        this.categoryScoreSums = categoryScoreSums;
+        this.categoryHitCounts = categoryHitCounts;
+    }
+
+    public long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * @return Highest final score of any game
+     */
+    public int getMaxFinalScore() {
+        return finalScoreCounts.length - 1;
+    }
+
+    /**
+     * @return Number of games that ended with the given final score
+     */
+    public long getFinalScoreCount(final int finalScore) {
+        return finalScore >= 0 && finalScore < finalScoreCounts.length ? finalScoreCounts[finalScore] : 0;
+    }
+
+    public double getMeanFinalScore() {
+        double sum = 0;
+        for (int finalScore = 0; finalScore < finalScoreCounts.length; finalScore++) {
+            sum += (double) finalScore * finalScoreCounts[finalScore];
+        }
+        return sum / numberOfGames;
+    }
+
+    public double getFinalScoreStandardDeviation() {
+        final double mean = getMeanFinalScore();
+        double sumOfSquares = 0;
+        for (int finalScore = 0; finalScore < finalScoreCounts.length; finalScore++) {
+            sumOfSquares += (finalScore - mean) * (finalScore - mean) * finalScoreCounts[finalScore];
+        }
+        return Math.sqrt(sumOfSquares / numberOfGames);
+    }
+
+    /**
+     * @param percentile Percentile in [0, 100]
+     * @return Lowest final score such that at least {percentile} percent of the games scored at most that much
+     */
+    public int getFinalScorePercentile(final double percentile) {
+        final double rankOfPercentile = percentile / 100 * numberOfGames;
+        long gamesSoFar = 0;
+        for (int finalScore = 0; finalScore < finalScoreCounts.length; finalScore++) {
+            gamesSoFar += finalScoreCounts[finalScore];
+            if (gamesSoFar >= rankOfPercentile && gamesSoFar > 0) {
+                return finalScore;
+            }
+        }
+        return getMaxFinalScore();
+    }
+
+    /**
+     * @return Average score of the category per game
+     */
+    public double getMeanCategoryScore(final Category category) {
+        return (double) categoryScoreSums[category.ordinal()] / numberOfGames;
+    }
+
+    /**
+     * @return Share of games where the category scored more than {Category#DEFAULT_SCORE}
+     */
+    public double getCategoryHitRate(final Category category) {
+        return (double) categoryHitCounts[category.ordinal()] / numberOfGames;
+    }
+}
@@ -0,0 +1,51 @@
+package dev.dvinnik.simulation;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+
+/**
+ * Policy that never rerolls, and scores a roll in one of its top categories if any of them is open,
+ * or otherwise in the open category with the highest score
+ *
+ * Scores and top categories of every packed roll are computed once with the batch methods of the {DiceApi},
+ * so choosing a category is a couple of table reads. Ties are broken by the lowest {Category} ordinal.
+ */
+public class TopCategoryPolicy implements ChoicePolicy {
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private final int[] scores = new int[PackedRoll.NUMBER_OF_PACKED_ROLLS * NUMBER_OF_CATEGORIES];
+    private final int[] topCategoryMasks = new int[PackedRoll.NUMBER_OF_PACKED_ROLLS];
+
+    public TopCategoryPolicy(final DiceApi diceApi) {
+        final RollBatch rollBatch = new RollBatch(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            rollBatch.addPackedRoll(packedRoll);
+        }
+        diceApi.scoreAll(rollBatch, scores);
+        diceApi.topCategories(rollBatch, topCategoryMasks);
+    }
+
+    @Override
+    public Category chooseCategory(final int packedRoll,
+                                   final int openCategoryMask) {
+        final int openTopCategoryMask = topCategoryMasks[packedRoll] & openCategoryMask;
+        if (openTopCategoryMask != CategoryMask.NONE) {
+            return CATEGORIES[Integer.numberOfTrailingZeros(openTopCategoryMask)];
+        }
+
+        int bestCategoryIndex = -1;
+        for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+            if ((openCategoryMask & (1 << categoryIndex)) != 0 && (bestCategoryIndex < 0
+                    || scores[packedRoll * NUMBER_OF_CATEGORIES + categoryIndex]
+                    > scores[packedRoll * NUMBER_OF_CATEGORIES + bestCategoryIndex])) {
+                bestCategoryIndex = categoryIndex;
+            }
+        }
+        return CATEGORIES[bestCategoryIndex];
+    }
+}
@@ -0,0 +1,48 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.Category;
+
+import java.util.List;
+
+/**
+ * Exact odds of every category once the dice that aren't held are rolled, see {CategoryOddsCalculator}
+ */
+public final class CategoryOdds {
+
+    private final List<Integer> heldDice;
+    private final int rolledDice;
+    private final double[] hitProbabilities;
+    private final double[] expectedScores;
+
+    CategoryOdds(final List<Integer> heldDice,
+                 final int rolledDice,
+                 final double[] hitProbabilities,
+                 final double[] expectedScores) {
+        this.heldDice = heldDice;
+        this.rolledDice = rolledDice;
+        this.hitProbabilities = hitProbabilities;
+        this.expectedScores = expectedScores;
+    }
+
+    public List<Integer> getHeldDice() {
+        return heldDice;
+    }
+
+    /**
+     * @return Number of dice that are rolled
+     */
+    public int getRolledDice() {
+        return rolledDice;
+    }
+
+    /**
+     * @return Probability that the category scores more than {Category#DEFAULT_SCORE}
+     */
+    public double getProbability(final Category category) {
+        return hitProbabilities[category.ordinal()];
+    }
+
+    public double getExpectedScore(final Category category) {
+        return expectedScores[category.ordinal()];
+    }
+}
@@ -0,0 +1,107 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.FaceCounts;
+import dev.dvinnik.core.MultisetRanking;
+import dev.dvinnik.core.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computes exact odds of every category for the dice that are held, once the rest of the dice are rolled
+ *
+ * Rolling {k} dice with {f} faces gives {C(k + f - 1, f - 1)} different multisets of faces, and a multiset with
+ * face counts {c1, c2, ..., cf} comes up with probability {k! / (c1! * ... * cf!) / f^k}. Scores only depend on the
+ * face counts of the held and rolled dice together, so the odds are a weighted sum over those multisets rather than
+ * over the {f^k} ordered outcomes, e.g. 19,448 multisets instead of over a billion outcomes for ten eight-sided dice.
+ *
+ * Decisions explained:
+ *  1) Multisets of every number of rolled dice and their probabilities are generated once, when the calculator
+ *  is created, so a query only adds up table reads.
+ *
+ *  2) Scores are read from a {CompiledRuleSet}, so odds follow the number of dice, faces and scoring of any {RuleSet}.
+ */
+public class CategoryOddsCalculator {
+
+    private static final String INVALID_HELD_DICE_EXCEPTION = "Held dice don't match the rule set";
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final CompiledRuleSet compiledRuleSet;
+    private final int numberOfDice;
+    private final int numberOfFaces;
+    // Face counts and probabilities of every multiset of {k} rolled dice, at index {k}
+    private final long[][] rolledFaceCounts;
+    private final double[][] rolledProbabilities;
+
+    /**
+     * Default constructor for the standard rules, see {RuleSet#STANDARD}
+     */
+    public CategoryOddsCalculator() {
+        this(RuleSet.STANDARD.compile());
+    }
+
+    public CategoryOddsCalculator(final CompiledRuleSet compiledRuleSet) {
+        this.compiledRuleSet = compiledRuleSet;
+        this.numberOfDice = compiledRuleSet.getRuleSet().getNumberOfDice();
+        this.numberOfFaces = compiledRuleSet.getRuleSet().getNumberOfFaces();
+
+        final MultisetRanking multisetRanking = compiledRuleSet.getMultisetRanking();
+        rolledFaceCounts = new long[numberOfDice + 1][];
+        rolledProbabilities = new double[numberOfDice + 1][];
+        for (int rolledDice = 0; rolledDice <= numberOfDice; rolledDice++) {
+            final int size = (int) multisetRanking.numberOfMultisets(rolledDice);
+            final long[] faceCountsOfSize = new long[size];
+            final double[] probabilitiesOfSize = new double[size];
+            final int diceOfSize = rolledDice;
+            final int[] next = new int[]{0};
+            multisetRanking.forEach(rolledDice, faceCounts -> {
+                faceCountsOfSize[next[0]] = faceCounts;
+                probabilitiesOfSize[next[0]++] = TurnTransitions.probability(faceCounts, diceOfSize, numberOfFaces);
+            });
+            rolledFaceCounts[rolledDice] = faceCountsOfSize;
+            rolledProbabilities[rolledDice] = probabilitiesOfSize;
+        }
+    }
+
+    /**
+     * @param heldDice Faces of the held dice, at most as many as the dice of the rule set. The rest of the dice
+     *                 are rolled.
+     * @return Probability and expected score of every category
+     * @throws IllegalArgumentException If there are too many held dice, or any of them isn't a face of the rule set
+     */
+    public CategoryOdds of(final List<Integer> heldDice) {
+        if (heldDice.size() > numberOfDice) {
+            throw new IllegalArgumentException(INVALID_HELD_DICE_EXCEPTION);
+        }
+        long heldFaceCounts = 0;
+        for (int diceValue : heldDice) {
+            if (diceValue < 1 || diceValue > numberOfFaces) {
+                throw new IllegalArgumentException(INVALID_HELD_DICE_EXCEPTION);
+            }
+            heldFaceCounts += 1L << (FaceCounts.BITS_PER_FACE * (diceValue - 1));
+        }
+
+        final int rolledDice = numberOfDice - heldDice.size();
+        final long[] faceCountsOfSize = rolledFaceCounts[rolledDice];
+        final double[] probabilitiesOfSize = rolledProbabilities[rolledDice];
+        final double[] hitProbabilities = new double[CATEGORIES.length];
+        final double[] expectedScores = new double[CATEGORIES.length];
+        for (int i = 0; i < faceCountsOfSize.length; i++) {
+            // Counts never carry into the next face, since there are at most {numberOfDice} dice in total
+            final int rank = compiledRuleSet.rank(heldFaceCounts + faceCountsOfSize[i]);
+            for (Category category : CATEGORIES) {
+                final int score = compiledRuleSet.scoreOfRank(category, rank);
+                if (score > Category.DEFAULT_SCORE) {
+                    hitProbabilities[category.ordinal()] += probabilitiesOfSize[i];
+                    expectedScores[category.ordinal()] += probabilitiesOfSize[i] * score;
+                }
+            }
+        }
+        return new CategoryOdds(Collections.unmodifiableList(new ArrayList<>(heldDice)), rolledDice, hitProbabilities,
+                expectedScores);
+    }
+}
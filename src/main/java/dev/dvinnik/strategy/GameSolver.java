@@ -0,0 +1,209 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.RuleSet;
+
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the optimal expected final score of a game for every scorecard, see {GameValueTable}
+ *
+ * A turn starts by rolling every die, and the dice can then be rerolled {rerollsPerTurn} times before the roll is
+ * scored in one of the open categories. The value of a scorecard is therefore the expected value of a turn, where a
+ * roll is finally worth the best {score + value of the scorecard with the category filled}. Scorecards are solved by
+ * dynamic programming, from the full scorecard down to the empty one.
+ *
+ * Decisions explained:
+ *  1) Scorecards with the same number of filled categories only depend on scorecards with more filled categories,
+ *  so every such level is solved in parallel, in chunks of scorecards.
+ *
+ *  2) Turns are evaluated over multisets with {TurnTransitions}, and every chunk reuses the same three arrays for all
+ *  of its scorecards, so the evaluation core neither allocates nor calls a {DiceApi}.
+ *
+ *  3) A game can be played on a subset of categories, which is mostly useful to solve small games.
+ */
+public class GameSolver {
+
+    private static final String INVALID_REROLLS_EXCEPTION = "Number of rerolls per turn can't be negative";
+    private static final String INVALID_CHUNK_SIZE_EXCEPTION = "Chunk size should be positive";
+
+    public static final int DEFAULT_REROLLS_PER_TURN = 2;
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private final CompiledRuleSet compiledRuleSet;
+    private final TurnTransitions turnTransitions;
+    private final ExecutorService executorService;
+    private final int chunkSize;
+    // Scores of every category for every roll, i.e. {scores[rank * NUMBER_OF_CATEGORIES + category.ordinal()]}
+    private final int[] scores;
+
+    /**
+     * Default constructor that solves the standard rules on the common {ForkJoinPool}
+     */
+    public GameSolver() {
+        this(RuleSet.STANDARD.compile(), ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param compiledRuleSet Rules the game is played with
+     * @param executorService Executor the chunks of scorecards are solved on. It is not shut down by the solver.
+     * @param chunkSize Number of scorecards solved by a single task
+     */
+    public GameSolver(final CompiledRuleSet compiledRuleSet,
+                      final ExecutorService executorService,
+                      final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(INVALID_CHUNK_SIZE_EXCEPTION);
+        }
+        this.compiledRuleSet = compiledRuleSet;
+        this.turnTransitions = new TurnTransitions(compiledRuleSet);
+        this.executorService = executorService;
+        this.chunkSize = chunkSize;
+
+        scores = new int[turnTransitions.getNumberOfRolls() * NUMBER_OF_CATEGORIES];
+        for (int rank = 0; rank < turnTransitions.getNumberOfRolls(); rank++) {
+            for (Category category : CATEGORIES) {
+                scores[rank * NUMBER_OF_CATEGORIES + category.ordinal()] = compiledRuleSet.scoreOfRank(category, rank);
+            }
+        }
+    }
+
+    /**
+     * Solves a game with every category and {#DEFAULT_REROLLS_PER_TURN} rerolls per turn
+     */
+    public GameValueTable solve() {
+        return solve(CategoryMask.ALL, DEFAULT_REROLLS_PER_TURN);
+    }
+
+    /**
+     * @param categoryMask {CategoryMask} of the categories played in the game
+     * @param rerollsPerTurn Number of times the dice can be rerolled in a turn
+     * @return Expected score of the rest of the game for every scorecard that is a subset of the categories.
+     * Values of other scorecards are zero.
+     */
+    public GameValueTable solve(final int categoryMask,
+                                final int rerollsPerTurn) {
+        if (rerollsPerTurn < 0) {
+            throw new IllegalArgumentException(INVALID_REROLLS_EXCEPTION);
+        }
+        final int gameCategoryMask = categoryMask & CategoryMask.ALL;
+        final double[] values = new double[GameValueTable.NUMBER_OF_SCORECARDS];
+
+        // The full scorecard is worth nothing, so solving starts one category below it
+        for (int filledCategories = Integer.bitCount(gameCategoryMask) - 1; filledCategories >= 0; filledCategories--) {
+            final List<Callable<Void>> chunks = new ArrayList<>();
+            final int[] scorecards = scorecardsOfLevel(gameCategoryMask, filledCategories);
+            for (int from = 0; from < scorecards.length; from += chunkSize) {
+                final int chunkStart = from;
+                final int chunkEnd = Math.min(from + chunkSize, scorecards.length);
+                chunks.add(() -> {
+                    solveChunk(scorecards, chunkStart, chunkEnd, gameCategoryMask, rerollsPerTurn, values);
+                    return null;
+                });
+            }
+            try {
+                // Waiting for every chunk also publishes the level to the chunks of the next one
+                for (Future<Void> chunkResult : executorService.invokeAll(chunks)) {
+                    chunkResult.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (final ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        // Values are only narrowed once solved, so rounding errors don't add up over the levels
+        final FloatBuffer tableValues = FloatBuffer.allocate(values.length);
+        for (double value : values) {
+            tableValues.put((float) value);
+        }
+        final RuleSet ruleSet = compiledRuleSet.getRuleSet();
+        return new GameValueTable(ruleSet.fingerprint(), ruleSet.getNumberOfDice(), ruleSet.getNumberOfFaces(),
+                gameCategoryMask, rerollsPerTurn, tableValues.flip());
+    }
+
+    private void solveChunk(final int[] scorecards,
+                            final int chunkStart,
+                            final int chunkEnd,
+                            final int gameCategoryMask,
+                            final int rerollsPerTurn,
+                            final double[] values) {
+        final double[] rollValues = new double[turnTransitions.getNumberOfRolls()];
+        final double[] keepValues = new double[turnTransitions.getNumberOfKeeps()];
+        final int[] openCategories = new int[NUMBER_OF_CATEGORIES];
+        final double[] valuesAfterScoring = new double[NUMBER_OF_CATEGORIES];
+        final int emptyKeep = turnTransitions.keep(0L, 0);
+
+        for (int i = chunkStart; i < chunkEnd; i++) {
+            final int scorecard = scorecards[i];
+            int numberOfOpenCategories = 0;
+            for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                final int categoryBit = 1 << categoryIndex;
+                if ((gameCategoryMask & ~scorecard & categoryBit) != 0) {
+                    openCategories[numberOfOpenCategories] = categoryIndex;
+                    valuesAfterScoring[numberOfOpenCategories++] = values[scorecard | categoryBit];
+                }
+            }
+
+            for (int rank = 0; rank < rollValues.length; rank++) {
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < numberOfOpenCategories; j++) {
+                    bestValue = Math.max(bestValue,
+                            scores[rank * NUMBER_OF_CATEGORIES + openCategories[j]] + valuesAfterScoring[j]);
+                }
+                rollValues[rank] = bestValue;
+            }
+            for (int reroll = 0; reroll < rerollsPerTurn; reroll++) {
+                turnTransitions.expectedValuesOfKeeps(rollValues, keepValues);
+                turnTransitions.bestValuesOfRolls(keepValues, rollValues);
+            }
+            // The first roll of a turn is a reroll of every die
+            values[scorecard] = turnTransitions.expectedValueOfKeep(emptyKeep, rollValues);
+        }
+    }
+
+    /**
+     * @return Every subset of the categories with the given number of filled categories
+     */
+    private static int[] scorecardsOfLevel(final int gameCategoryMask,
+                                           final int filledCategories) {
+        final List<Integer> scorecards = new ArrayList<>();
+        // Walks every subset of the game categories, from the full set down to the empty one
+        for (int scorecard = gameCategoryMask; ; scorecard = (scorecard - 1) & gameCategoryMask) {
+            if (Integer.bitCount(scorecard) == filledCategories) {
+                scorecards.add(scorecard);
+            }
+            if (scorecard == 0) {
+                break;
+            }
+        }
+        return scorecards.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Solves the standard game and writes its value table, i.e. {@code GameSolver build/schooner/game-values.bin}
+     * as run by the {solveGame} task
+     */
+    public static void main(final String[] args) {
+        final long start = System.nanoTime();
+        final GameValueTable gameValueTable = new GameSolver().solve();
+        gameValueTable.write(Path.of(args[0]));
+        System.out.printf("Expected final score %.4f, solved in %d ms%n", gameValueTable.getExpectedFinalScore(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,168 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.RuleSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Expected score of the rest of a game for every scorecard, as computed by {GameSolver}
+ *
+ * A scorecard is the {CategoryMask} of the categories that are already filled, so the table holds a value for each of
+ * the {2^16} masks, and the expected final score of a game is the value of the empty scorecard.
+ *
+ * The table is persisted as a little-endian binary file: a header followed by one {float} per scorecard, i.e. 256 KiB.
+ * Loading maps the file into memory, so values are read straight from the page cache without being parsed.
+ *
+ * Decisions explained:
+ *  1) Values are stored as {float}, since expected scores don't need more than 7 significant digits.
+ *
+ *  2) Masks depend on the order of {Category}, so the header holds a fingerprint of that order, and files written
+ *  with another order are rejected instead of being silently misread.
+ *
+ *  3) Values depend on every rule of the game, so the header also holds {RuleSet#fingerprint()}, and a table solved
+ *  for one variant can't be loaded for another variant with the same number of dice and faces.
+ */
+public final class GameValueTable {
+
+    private static final String INVALID_FILE_EXCEPTION = "File isn't a value table of this version of the game";
+    private static final String OTHER_RULE_SET_EXCEPTION = "Value table was solved for another rule set";
+
+    static final int NUMBER_OF_SCORECARDS = 1 << CategoryMask.NUMBER_OF_CATEGORIES;
+
+    private static final int MAGIC = 0x5343_4856;
+    private static final int VERSION = 2;
+    // Magic, version, category fingerprint, rule set fingerprint, number of dice, number of faces, category mask and
+    // rerolls per turn
+    private static final int HEADER_SIZE = 8 * Integer.BYTES;
+    private static final int FILE_SIZE = HEADER_SIZE + NUMBER_OF_SCORECARDS * Float.BYTES;
+
+    private final int ruleSetFingerprint;
+    private final int numberOfDice;
+    private final int numberOfFaces;
+    private final int categoryMask;
+    private final int rerollsPerTurn;
+    private final FloatBuffer values;
+
+    GameValueTable(final int ruleSetFingerprint,
+                   final int numberOfDice,
+                   final int numberOfFaces,
+                   final int categoryMask,
+                   final int rerollsPerTurn,
+                   final FloatBuffer values) {
+        this.ruleSetFingerprint = ruleSetFingerprint;
+        this.numberOfDice = numberOfDice;
+        this.numberOfFaces = numberOfFaces;
+        this.categoryMask = categoryMask;
+        this.rerollsPerTurn = rerollsPerTurn;
+        this.values = values;
+    }
+
+    public int getNumberOfDice() {
+        return numberOfDice;
+    }
+
+    public int getNumberOfFaces() {
+        return numberOfFaces;
+    }
+
+    /**
+     * @return {CategoryMask} of the categories played in the game
+     */
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+
+    public int getRerollsPerTurn() {
+        return rerollsPerTurn;
+    }
+
+    /**
+     * @param filledCategoryMask {CategoryMask} of the categories that are already filled
+     * @return Expected score of the remaining turns when every turn is played optimally
+     */
+    public float getExpectedScore(final int filledCategoryMask) {
+        return values.get(filledCategoryMask & CategoryMask.ALL);
+    }
+
+    /**
+     * @return Expected final score of a game that is played optimally from the start
+     */
+    public float getExpectedFinalScore() {
+        return getExpectedScore(CategoryMask.NONE);
+    }
+
+    /**
+     * Writes the table into a file, replacing the file if it exists
+     */
+    public void write(final Path path) {
+        final ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(CategoryMask.fingerprint()).putInt(ruleSetFingerprint)
+                .putInt(numberOfDice).putInt(numberOfFaces).putInt(categoryMask).putInt(rerollsPerTurn);
+        for (int scorecard = 0; scorecard < NUMBER_OF_SCORECARDS; scorecard++) {
+            buffer.putFloat(values.get(scorecard));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Maps a table of the {RuleSet#STANDARD} rules written with {#write} into memory
+     *
+     * @throws IllegalArgumentException If the file isn't a value table of the standard rules, or was written for
+     * another order of categories
+     */
+    public static GameValueTable load(final Path path) {
+        return load(path, RuleSet.STANDARD);
+    }
+
+    /**
+     * Maps a table written with {#write} into memory
+     *
+     * @param ruleSet Rules the table was solved for
+     * @throws IllegalArgumentException If the file isn't a value table, or was written for another order of categories
+     * or another rule set
+     */
+    public static GameValueTable load(final Path path,
+                                      final RuleSet ruleSet) {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+            }
+            // The mapping stays valid once the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != CategoryMask.fingerprint()) {
+            throw new IllegalArgumentException(INVALID_FILE_EXCEPTION);
+        }
+        final int ruleSetFingerprint = buffer.getInt();
+        if (ruleSetFingerprint != ruleSet.fingerprint()) {
+            throw new IllegalArgumentException(OTHER_RULE_SET_EXCEPTION);
+        }
+        final int numberOfDice = buffer.getInt();
+        final int numberOfFaces = buffer.getInt();
+        final int categoryMask = buffer.getInt();
+        final int rerollsPerTurn = buffer.getInt();
+        final FloatBuffer values = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        return new GameValueTable(ruleSetFingerprint, numberOfDice, numberOfFaces, categoryMask, rerollsPerTurn,
+                values);
+    }
+}
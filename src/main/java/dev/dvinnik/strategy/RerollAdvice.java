@@ -0,0 +1,44 @@
+package dev.dvinnik.strategy;
+
+import java.util.List;
+
+/**
+ * Dice to keep from a roll, along with the expected score of keeping them and playing the rest of the turn optimally
+ */
+public final class RerollAdvice {
+
+    private final int keptDiceMask;
+    private final List<Integer> keptDice;
+    private final double expectedScore;
+
+    RerollAdvice(final int keptDiceMask,
+                 final List<Integer> keptDice,
+                 final double expectedScore) {
+        this.keptDiceMask = keptDiceMask;
+        this.keptDice = keptDice;
+        this.expectedScore = expectedScore;
+    }
+
+    /**
+     * @return Mask where the bit {i} is set if the die at index {i} of the roll should be kept
+     */
+    public int getKeptDiceMask() {
+        return keptDiceMask;
+    }
+
+    /**
+     * @return Faces of the kept dice, in the order of the roll
+     */
+    public List<Integer> getKeptDice() {
+        return keptDice;
+    }
+
+    public double getExpectedScore() {
+        return expectedScore;
+    }
+
+    @Override
+    public String toString() {
+        return "RerollAdvice{keptDice=" + keptDice + ", expectedScore=" + expectedScore + "}";
+    }
+}
@@ -0,0 +1,156 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.FaceCounts;
+import dev.dvinnik.core.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Advises which dice to keep from a roll, so that the expected score of the turn is the highest
+ *
+ * Once no rerolls are left, a roll is worth the best score among the open categories. With rerolls left, it's worth
+ * the best expected value among the subsets of its dice, where the expected value of a subset is the probability
+ * weighted value of every roll it can turn into. Both steps are evaluated over multisets with the shared
+ * {TurnTransitions}, so a query never enumerates individual outcomes or calls a {DiceApi}.
+ *
+ * Decisions explained:
+ *  1) Scores are read from a {CompiledRuleSet}, so the advisor works for any {RuleSet}.
+ *
+ *  2) Only the subsets of the queried roll are evaluated for the last reroll, since they're the only ones needed,
+ *  while earlier rerolls evaluate every kept multiset once.
+ *
+ *  3) Subsets are compared from keeping every die to keeping none, so ties favour keeping more dice.
+ */
+public class RerollAdvisor {
+
+    private static final String INVALID_ROLL_EXCEPTION = "Dice roll doesn't match the rule set";
+    private static final String INVALID_REROLLS_EXCEPTION = "Number of rerolls left can't be negative";
+    private static final String NO_OPEN_CATEGORIES_EXCEPTION = "At least one category should be open";
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final CompiledRuleSet compiledRuleSet;
+    private final TurnTransitions turnTransitions;
+    private final int numberOfDice;
+    private final int numberOfFaces;
+
+    /**
+     * Default constructor that advises on the standard rules, see {RuleSet#STANDARD}
+     */
+    public RerollAdvisor() {
+        this(RuleSet.STANDARD.compile());
+    }
+
+    public RerollAdvisor(final CompiledRuleSet compiledRuleSet) {
+        this.compiledRuleSet = compiledRuleSet;
+        this.turnTransitions = new TurnTransitions(compiledRuleSet);
+        this.numberOfDice = compiledRuleSet.getRuleSet().getNumberOfDice();
+        this.numberOfFaces = compiledRuleSet.getRuleSet().getNumberOfFaces();
+    }
+
+    /**
+     * @param diceRoll Collection of dice throws
+     * @param rerollsLeft Number of times the dice can still be rerolled in the turn
+     * @param openCategories Categories that can still be scored
+     * @return Dice to keep along with the expected score
+     */
+    public RerollAdvice advise(final List<Integer> diceRoll,
+                               final int rerollsLeft,
+                               final Collection<Category> openCategories) {
+        return advise(diceRoll, rerollsLeft, CategoryMask.of(openCategories));
+    }
+
+    /**
+     * @param diceRoll Collection of dice throws
+     * @param rerollsLeft Number of times the dice can still be rerolled in the turn
+     * @param openCategoryMask {CategoryMask} of the categories that can still be scored
+     * @return Dice to keep along with the expected score
+     * @throws IllegalArgumentException If the dice roll doesn't match the rule set, the number of rerolls is negative,
+     *                                  or no category is open
+     */
+    public RerollAdvice advise(final List<Integer> diceRoll,
+                               final int rerollsLeft,
+                               final int openCategoryMask) {
+        if (diceRoll.size() != numberOfDice) {
+            throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+        }
+        for (int diceValue : diceRoll) {
+            if (diceValue < 1 || diceValue > numberOfFaces) {
+                throw new IllegalArgumentException(INVALID_ROLL_EXCEPTION);
+            }
+        }
+        if (rerollsLeft < 0) {
+            throw new IllegalArgumentException(INVALID_REROLLS_EXCEPTION);
+        }
+        if ((openCategoryMask & CategoryMask.ALL) == CategoryMask.NONE) {
+            throw new IllegalArgumentException(NO_OPEN_CATEGORIES_EXCEPTION);
+        }
+
+        final int allDiceMask = (1 << numberOfDice) - 1;
+        final double[] finalValues = finalValues(openCategoryMask);
+        if (rerollsLeft == 0) {
+            final long faceCounts = keptFaceCounts(diceRoll, allDiceMask);
+            return new RerollAdvice(allDiceMask, Collections.unmodifiableList(new ArrayList<>(diceRoll)),
+                    finalValues[compiledRuleSet.rank(faceCounts)]);
+        }
+
+        final double[] rollValues = turnTransitions.valuesOfRolls(finalValues, rerollsLeft - 1);
+        int bestKeptDiceMask = allDiceMask;
+        double bestExpectedScore = Double.NEGATIVE_INFINITY;
+        for (int keptDiceMask = allDiceMask; keptDiceMask >= 0; keptDiceMask--) {
+            final int keep = turnTransitions.keep(keptFaceCounts(diceRoll, keptDiceMask),
+                    Integer.bitCount(keptDiceMask));
+            final double expectedScore = turnTransitions.expectedValueOfKeep(keep, rollValues);
+            if (expectedScore > bestExpectedScore) {
+                bestExpectedScore = expectedScore;
+                bestKeptDiceMask = keptDiceMask;
+            }
+        }
+        return new RerollAdvice(bestKeptDiceMask, keptDice(diceRoll, bestKeptDiceMask), bestExpectedScore);
+    }
+
+    /**
+     * @return Best score among the open categories for every roll, indexed by rank
+     */
+    private double[] finalValues(final int openCategoryMask) {
+        final double[] finalValues = new double[turnTransitions.getNumberOfRolls()];
+        for (int rank = 0; rank < finalValues.length; rank++) {
+            int bestScore = Integer.MIN_VALUE;
+            for (Category category : CATEGORIES) {
+                if (CategoryMask.contains(openCategoryMask, category)) {
+                    bestScore = Math.max(bestScore, compiledRuleSet.scoreOfRank(category, rank));
+                }
+            }
+            finalValues[rank] = bestScore;
+        }
+        return finalValues;
+    }
+
+    private static long keptFaceCounts(final List<Integer> diceRoll,
+                                       final int keptDiceMask) {
+        long faceCounts = 0;
+        for (int i = 0; i < diceRoll.size(); i++) {
+            if ((keptDiceMask & (1 << i)) != 0) {
+                faceCounts += 1L << (FaceCounts.BITS_PER_FACE * (diceRoll.get(i) - 1));
+            }
+        }
+        return faceCounts;
+    }
+
+    private static List<Integer> keptDice(final List<Integer> diceRoll,
+                                          final int keptDiceMask) {
+        final List<Integer> keptDice = new ArrayList<>();
+        for (int i = 0; i < diceRoll.size(); i++) {
+            if ((keptDiceMask & (1 << i)) != 0) {
+                keptDice.add(diceRoll.get(i));
+            }
+        }
+        return Collections.unmodifiableList(keptDice);
+    }
+}
@@ -0,0 +1,221 @@
+package dev.dvinnik.strategy;
+
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.FaceCounts;
+import dev.dvinnik.core.MultisetRanking;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Transitions between rolls within a single turn, computed once per rule set and shared by every query
+ *
+ * A turn moves from a roll to a kept subset of its dice, and from the kept dice to a new roll once the rest are
+ * rerolled. Both steps only depend on multisets of dice, so with five eight-sided dice there are 792 rolls and
+ * 1,287 kept multisets of 0 to 5 dice in total, and every roll has at most 32 of them.
+ *
+ * Decisions explained:
+ *  1) Kept multisets are identified by {keepOffset[numberOfDice] + rank}, so they are looked up without hashing.
+ *
+ *  2) Outcomes of a reroll are multisets with their multinomial probability, instead of every ordered outcome,
+ *  so computing the expected value of a kept multiset of {k} dice walks {C(n - k + f - 1, f - 1)} outcomes.
+ */
+final class TurnTransitions {
+
+    private final int numberOfDice;
+    private final int numberOfFaces;
+    private final int numberOfRolls;
+    private final MultisetRanking multisetRanking;
+    private final long[] rollFaceCounts;
+    // Identifier of the first kept multiset of each number of dice
+    private final int[] keepOffset;
+    private final int numberOfKeeps;
+    // Outcomes of every kept multiset, at [outcomeStart[keep], outcomeStart[keep + 1])
+    private final int[] outcomeStart;
+    private final int[] outcomeRanks;
+    private final double[] outcomeProbabilities;
+    // Distinct kept multisets of every roll
+    private final int[][] keepsOfRoll;
+
+    TurnTransitions(final CompiledRuleSet compiledRuleSet) {
+        numberOfDice = compiledRuleSet.getRuleSet().getNumberOfDice();
+        numberOfFaces = compiledRuleSet.getRuleSet().getNumberOfFaces();
+        numberOfRolls = compiledRuleSet.getNumberOfMultisets();
+        multisetRanking = compiledRuleSet.getMultisetRanking();
+
+        rollFaceCounts = new long[numberOfRolls];
+        final int[] nextRank = new int[]{0};
+        multisetRanking.forEach(numberOfDice, faceCounts -> rollFaceCounts[nextRank[0]++] = faceCounts);
+
+        keepOffset = new int[numberOfDice + 2];
+        for (int keptDice = 0; keptDice <= numberOfDice; keptDice++) {
+            keepOffset[keptDice + 1] = keepOffset[keptDice] + (int) multisetRanking.numberOfMultisets(keptDice);
+        }
+        numberOfKeeps = keepOffset[numberOfDice + 1];
+
+        // Outcomes of rerolling every number of dice, with their probabilities
+        final long[][] rerollFaceCounts = new long[numberOfDice + 1][];
+        final double[][] rerollProbabilities = new double[numberOfDice + 1][];
+        for (int rerolledDice = 0; rerolledDice <= numberOfDice; rerolledDice++) {
+            final int size = (int) multisetRanking.numberOfMultisets(rerolledDice);
+            final long[] faceCountsOfSize = new long[size];
+            final double[] probabilitiesOfSize = new double[size];
+            final int rolledDice = rerolledDice;
+            final int[] next = new int[]{0};
+            multisetRanking.forEach(rerolledDice, faceCounts -> {
+                faceCountsOfSize[next[0]] = faceCounts;
+                probabilitiesOfSize[next[0]++] = probability(faceCounts, rolledDice, numberOfFaces);
+            });
+            rerollFaceCounts[rerolledDice] = faceCountsOfSize;
+            rerollProbabilities[rerolledDice] = probabilitiesOfSize;
+        }
+
+        int numberOfOutcomes = 0;
+        for (int keptDice = 0; keptDice <= numberOfDice; keptDice++) {
+            numberOfOutcomes += (keepOffset[keptDice + 1] - keepOffset[keptDice])
+                    * rerollFaceCounts[numberOfDice - keptDice].length;
+        }
+        outcomeStart = new int[numberOfKeeps + 1];
+        outcomeRanks = new int[numberOfOutcomes];
+        outcomeProbabilities = new double[numberOfOutcomes];
+        final int[] nextOutcome = new int[]{0};
+        for (int keptDice = 0; keptDice <= numberOfDice; keptDice++) {
+            final long[] outcomes = rerollFaceCounts[numberOfDice - keptDice];
+            final double[] probabilities = rerollProbabilities[numberOfDice - keptDice];
+            final int[] nextKeep = new int[]{keepOffset[keptDice]};
+            multisetRanking.forEach(keptDice, keptFaceCounts -> {
+                outcomeStart[nextKeep[0]++] = nextOutcome[0];
+                for (int i = 0; i < outcomes.length; i++) {
+                    // Counts never carry into the next face, since there are at most {numberOfDice} dice in total
+                    outcomeRanks[nextOutcome[0]] = compiledRuleSet.rank(keptFaceCounts + outcomes[i]);
+                    outcomeProbabilities[nextOutcome[0]++] = probabilities[i];
+                }
+            });
+        }
+        outcomeStart[numberOfKeeps] = numberOfOutcomes;
+
+        keepsOfRoll = new int[numberOfRolls][];
+        for (int rank = 0; rank < numberOfRolls; rank++) {
+            final Set<Integer> keeps = new LinkedHashSet<>();
+            collectKeeps(rollFaceCounts[rank], 1, 0L, 0, keeps);
+            keepsOfRoll[rank] = keeps.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    int getNumberOfRolls() {
+        return numberOfRolls;
+    }
+
+    int getNumberOfKeeps() {
+        return numberOfKeeps;
+    }
+
+    long getRollFaceCounts(final int rank) {
+        return rollFaceCounts[rank];
+    }
+
+    /**
+     * @param faceCounts Face counts of the kept dice, see {FaceCounts}
+     * @param keptDice Number of kept dice
+     * @return Identifier of the kept multiset
+     */
+    int keep(final long faceCounts,
+             final int keptDice) {
+        return keepOffset[keptDice] + multisetRanking.rank(faceCounts, keptDice);
+    }
+
+    /**
+     * @param rollValues Value of every roll, indexed by rank
+     * @param keepValues Output array, where the expected value of rerolling the rest of the dice is written for every
+     *                   kept multiset
+     */
+    void expectedValuesOfKeeps(final double[] rollValues,
+                               final double[] keepValues) {
+        for (int keep = 0; keep < numberOfKeeps; keep++) {
+            keepValues[keep] = expectedValueOfKeep(keep, rollValues);
+        }
+    }
+
+    /**
+     * @param keep Identifier of the kept multiset, see {#keep}
+     * @param rollValues Value of every roll, indexed by rank
+     * @return Expected value of rerolling the rest of the dice
+     */
+    double expectedValueOfKeep(final int keep,
+                               final double[] rollValues) {
+        double expectedValue = 0;
+        for (int outcome = outcomeStart[keep]; outcome < outcomeStart[keep + 1]; outcome++) {
+            expectedValue += outcomeProbabilities[outcome] * rollValues[outcomeRanks[outcome]];
+        }
+        return expectedValue;
+    }
+
+    /**
+     * @param keepValues Expected value of every kept multiset
+     * @param rollValues Output array, where the value of keeping the best subset is written for every roll
+     */
+    void bestValuesOfRolls(final double[] keepValues,
+                           final double[] rollValues) {
+        for (int rank = 0; rank < numberOfRolls; rank++) {
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int keep : keepsOfRoll[rank]) {
+                bestValue = Math.max(bestValue, keepValues[keep]);
+            }
+            rollValues[rank] = bestValue;
+        }
+    }
+
+    /**
+     * @param finalValues Value of every roll once no rerolls are left
+     * @param rerolls Number of rerolls left
+     * @return Value of every roll with the given number of rerolls left, when the best subset is always kept
+     */
+    double[] valuesOfRolls(final double[] finalValues,
+                           final int rerolls) {
+        double[] rollValues = finalValues;
+        final double[] keepValues = new double[numberOfKeeps];
+        for (int reroll = 0; reroll < rerolls; reroll++) {
+            expectedValuesOfKeeps(rollValues, keepValues);
+            rollValues = new double[numberOfRolls];
+            bestValuesOfRolls(keepValues, rollValues);
+        }
+        return rollValues == finalValues ? Arrays.copyOf(finalValues, numberOfRolls) : rollValues;
+    }
+
+    private void collectKeeps(final long rollFaceCounts,
+                              final int face,
+                              final long keptFaceCounts,
+                              final int keptDice,
+                              final Set<Integer> keeps) {
+        if (face > numberOfFaces) {
+            keeps.add(keep(keptFaceCounts, keptDice));
+            return;
+        }
+        for (int count = 0; count <= FaceCounts.count(rollFaceCounts, face); count++) {
+            final long faceCountsWithFace = keptFaceCounts + ((long) count << (FaceCounts.BITS_PER_FACE * (face - 1)));
+            collectKeeps(rollFaceCounts, face + 1, faceCountsWithFace, keptDice + count, keeps);
+        }
+    }
+
+    /**
+     * @return Probability of rolling the multiset with {rolledDice} dice, i.e. {n! / (c1! * ... * cf!) / f^n}
+     */
+    static double probability(final long faceCounts,
+                              final int rolledDice,
+                              final int numberOfFaces) {
+        double probability = factorial(rolledDice) / Math.pow(numberOfFaces, rolledDice);
+        for (int face = 1; face <= numberOfFaces; face++) {
+            probability /= factorial(FaceCounts.count(faceCounts, face));
+        }
+        return probability;
+    }
+
+    private static double factorial(final int n) {
+        double factorial = 1;
+        for (int i = 2; i <= n; i++) {
+            factorial *= i;
+        }
+        return factorial;
+    }
+}
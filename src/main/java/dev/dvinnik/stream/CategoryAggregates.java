@@ -0,0 +1,46 @@
+package dev.dvinnik.stream;
+
+import dev.dvinnik.core.Category;
+
+/**
+ * Running per-category totals of every roll scored by a {ScoringProcessor} so far
+ */
+public final class CategoryAggregates {
+
+    private final long numberOfRolls;
+    private final long[] hitCounts;
+    private final long[] topCategoryCounts;
+    private final long[] scoreSums;
+
+    CategoryAggregates(final long numberOfRolls,
+                       final long[] hitCounts,
+                       final long[] topCategoryCounts,
+                       final long[] scoreSums) {
+        this.numberOfRolls = numberOfRolls;
+        this.hitCounts = hitCounts;
+        this.topCategoryCounts = topCategoryCounts;
+        this.scoreSums = scoreSums;
+    }
+
+    public long getNumberOfRolls() {
+        return numberOfRolls;
+    }
+
+    /**
+     * @return Number of rolls that scored more than {Category#DEFAULT_SCORE} for the category
+     */
+    public long getHitCount(final Category category) {
+        return hitCounts[category.ordinal()];
+    }
+
+    /**
+     * @return Number of rolls where the category is one of the top categories
+     */
+    public long getTopCategoryCount(final Category category) {
+        return topCategoryCounts[category.ordinal()];
+    }
+
+    public double getMeanScore(final Category category) {
+        return numberOfRolls == 0 ? 0 : (double) scoreSums[category.ordinal()] / numberOfRolls;
+    }
+}
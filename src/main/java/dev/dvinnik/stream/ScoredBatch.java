@@ -0,0 +1,55 @@
+package dev.dvinnik.stream;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+
+/**
+ * Micro-batch of rolls published by a {ScoringProcessor}, with the scores of every roll and the running aggregates
+ * once the batch was scored
+ *
+ * Rolls are encoded with {PackedRoll}, and scores are laid out the same way as in {DiceApi#scoreAll}.
+ */
+public final class ScoredBatch {
+
+    private final int[] packedRolls;
+    private final int[] scores;
+    private final int[] topCategoryMasks;
+    private final CategoryAggregates aggregates;
+
+    ScoredBatch(final int[] packedRolls,
+                final int[] scores,
+                final int[] topCategoryMasks,
+                final CategoryAggregates aggregates) {
+        this.packedRolls = packedRolls;
+        this.scores = scores;
+        this.topCategoryMasks = topCategoryMasks;
+        this.aggregates = aggregates;
+    }
+
+    public int size() {
+        return packedRolls.length;
+    }
+
+    public int getPackedRoll(final int rollIndex) {
+        return packedRolls[rollIndex];
+    }
+
+    public int getScore(final int rollIndex,
+                        final Category category) {
+        return scores[rollIndex * CategoryMask.NUMBER_OF_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * @return {CategoryMask} of the top categories of the roll
+     */
+    public int getTopCategoryMask(final int rollIndex) {
+        return topCategoryMasks[rollIndex];
+    }
+
+    /**
+     * @return Totals of every roll scored up to and including this batch
+     */
+    public CategoryAggregates getAggregates() {
+        return aggregates;
+    }
+}
@@ -0,0 +1,276 @@
+package dev.dvinnik.stream;
+
+import dev.dvinnik.core.CategoryCounts;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streaming stage that scores rolls in micro-batches, and publishes every batch with its scores and the running
+ * per-category aggregates
+ *
+ * Rolls are collected into a {RollBatch} until it holds {maxBatchSize} rolls, or its first roll has waited
+ * {maxBatchDelay}, and the batch is then scored with the batch methods of the {DiceApi} and published.
+ *
+ * Decisions explained:
+ *  1) Backpressure is bounded on both sides: at most {maxBatchSize} rolls are requested from upstream before
+ *  a batch is published, and publishing blocks once a subscriber has {maxBufferCapacity} batches it hasn't consumed,
+ *  which in turn stops requesting rolls from upstream.
+ *
+ *  2) Batches are delivered to subscribers, and delayed batches are flushed, on the executor, so the stage never
+ *  creates threads of its own.
+ *
+ *  3) A roll that isn't valid fails the stage: the upstream subscription is cancelled and subscribers get the error.
+ *
+ *  4) Batches are scored under the lock, but handed to the publisher after it's released, through a queue drained
+ *  by one thread at a time. Publishing can then block on a full buffer without holding the lock, so a subscriber
+ *  may call {#getAggregates} from {onNext}, and batches are still delivered in the order they were scored.
+ */
+public class ScoringProcessor implements Flow.Processor<List<Integer>, ScoredBatch> {
+
+    private static final String INVALID_BATCH_SIZE_EXCEPTION = "Maximum batch size should be positive";
+    private static final String ALREADY_SUBSCRIBED_EXCEPTION = "Processor is already subscribed to a publisher";
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    public static final Duration DEFAULT_MAX_BATCH_DELAY = Duration.ofMillis(10);
+
+    private static final int NUMBER_OF_CATEGORIES = CategoryMask.NUMBER_OF_CATEGORIES;
+    // Packed rolls are never negative
+    private static final int INVALID_ROLL = -1;
+
+    private final DiceApi diceApi;
+    private final int maxBatchSize;
+    private final Executor delayedFlushExecutor;
+    private final SubmissionPublisher<ScoredBatch> publisher;
+
+    // Guards the pending batch and the running totals, since delayed flushes race with incoming rolls
+    private final ReentrantLock lock = new ReentrantLock();
+    private final RollBatch pendingBatch;
+    private final int[] pendingScores;
+    private final int[] pendingTopCategoryMasks;
+    // Incremented on every flush, so a delayed flush of an already flushed batch does nothing
+    private long batchGeneration;
+    private long numberOfRolls;
+    private final CategoryCounts categoryCounts = new CategoryCounts();
+    private final long[] scoreSums = new long[NUMBER_OF_CATEGORIES];
+    private Flow.Subscription subscription;
+    private volatile boolean done;
+    // Scored batches and the closing of the publisher, in order, see {#deliver}
+    private final Queue<Runnable> deliveries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deliveryWork = new AtomicInteger();
+
+    /**
+     * Default constructor that publishes batches of up to {#DEFAULT_MAX_BATCH_SIZE} rolls on the common
+     * {ForkJoinPool}
+     */
+    public ScoringProcessor(final DiceApi diceApi) {
+        this(diceApi, ForkJoinPool.commonPool(), DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_DELAY,
+                Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param diceApi Implementation used to score the batches
+     * @param executor Executor delivering batches to subscribers and flushing delayed batches. A delayed flush may
+     *                 block its thread while a subscriber's buffer is full, so it needs more than one thread.
+     * @param maxBatchSize Number of rolls from which a batch is scored right away
+     * @param maxBatchDelay Longest time a roll waits for its batch to fill up
+     * @param maxBufferCapacity Number of batches buffered per subscriber before publishing blocks
+     */
+    public ScoringProcessor(final DiceApi diceApi,
+                            final Executor executor,
+                            final int maxBatchSize,
+                            final Duration maxBatchDelay,
+                            final int maxBufferCapacity) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(INVALID_BATCH_SIZE_EXCEPTION);
+        }
+        this.diceApi = diceApi;
+        this.maxBatchSize = maxBatchSize;
+        this.delayedFlushExecutor = CompletableFuture.delayedExecutor(maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS,
+                executor);
+        this.publisher = new SubmissionPublisher<>(executor, maxBufferCapacity);
+        this.pendingBatch = new RollBatch(maxBatchSize);
+        this.pendingScores = new int[maxBatchSize * NUMBER_OF_CATEGORIES];
+        this.pendingTopCategoryMasks = new int[maxBatchSize];
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ScoredBatch> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        lock.lock();
+        try {
+            if (this.subscription != null) {
+                subscription.cancel();
+                throw new IllegalStateException(ALREADY_SUBSCRIBED_EXCEPTION);
+            }
+            this.subscription = subscription;
+        } finally {
+            lock.unlock();
+        }
+        subscription.request(maxBatchSize);
+    }
+
+    @Override
+    public void onNext(final List<Integer> diceRoll) {
+        lock.lock();
+        try {
+            if (done) {
+                return;
+            }
+            int packedRoll;
+            try {
+                packedRoll = PackedRoll.pack(diceRoll);
+            } catch (final IllegalArgumentException e) {
+                done = true;
+                subscription.cancel();
+                deliveries.add(() -> publisher.closeExceptionally(e));
+                packedRoll = INVALID_ROLL;
+            }
+            if (packedRoll != INVALID_ROLL) {
+                if (pendingBatch.size() == 0) {
+                    final long generation = batchGeneration;
+                    delayedFlushExecutor.execute(() -> flushDelayed(generation));
+                }
+                pendingBatch.addPackedRoll(packedRoll);
+                if (pendingBatch.size() == maxBatchSize) {
+                    flush();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        lock.lock();
+        try {
+            if (!done) {
+                done = true;
+                flush();
+                deliveries.add(() -> publisher.closeExceptionally(throwable));
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver();
+    }
+
+    @Override
+    public void onComplete() {
+        lock.lock();
+        try {
+            if (!done) {
+                done = true;
+                flush();
+                deliveries.add(publisher::close);
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver();
+    }
+
+    /**
+     * @return Running totals of every roll scored so far, including batches that are still being delivered
+     */
+    public CategoryAggregates getAggregates() {
+        lock.lock();
+        try {
+            return aggregates();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushDelayed(final long generation) {
+        // The lock is never held while publishing, so waiting for it doesn't stretch the delay past scoring a batch
+        lock.lock();
+        try {
+            if (generation == batchGeneration && !done) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver();
+    }
+
+    /**
+     * Scores the pending batch and queues it for {#deliver}, which has to be called once the lock is released
+     */
+    private void flush() {
+        final int batchSize = pendingBatch.size();
+        batchGeneration++;
+        if (batchSize == 0) {
+            return;
+        }
+        diceApi.scoreAll(pendingBatch, pendingScores);
+        diceApi.topCategories(pendingBatch, pendingTopCategoryMasks);
+
+        categoryCounts.add(pendingScores, pendingTopCategoryMasks, batchSize);
+        final int[] packedRolls = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            packedRolls[i] = pendingBatch.getPackedRoll(i);
+            for (int categoryIndex = 0; categoryIndex < NUMBER_OF_CATEGORIES; categoryIndex++) {
+                scoreSums[categoryIndex] += pendingScores[i * NUMBER_OF_CATEGORIES + categoryIndex];
+            }
+        }
+        numberOfRolls += batchSize;
+        final ScoredBatch scoredBatch = new ScoredBatch(packedRolls,
+                Arrays.copyOf(pendingScores, batchSize * NUMBER_OF_CATEGORIES),
+                Arrays.copyOf(pendingTopCategoryMasks, batchSize), aggregates());
+        pendingBatch.clear();
+        deliveries.add(() -> {
+            // Blocks while a subscriber's buffer is full, which holds back requesting more rolls
+            publisher.submit(scoredBatch);
+            if (!done) {
+                subscription.request(batchSize);
+            }
+        });
+    }
+
+    /**
+     * Runs queued deliveries in order, unless another thread is already running them, in which case that thread
+     * also runs the deliveries queued meanwhile
+     */
+    private void deliver() {
+        if (deliveryWork.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            for (Runnable delivery = deliveries.poll(); delivery != null; delivery = deliveries.poll()) {
+                delivery.run();
+            }
+            missed = deliveryWork.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private CategoryAggregates aggregates() {
+        final long[] hitCounts = new long[NUMBER_OF_CATEGORIES];
+        final long[] topCategoryCounts = new long[NUMBER_OF_CATEGORIES];
+        categoryCounts.addTo(hitCounts, topCategoryCounts);
+        return new CategoryAggregates(numberOfRolls, hitCounts, topCategoryCounts, scoreSums.clone());
+    }
+}
@@ -0,0 +1,158 @@
+package dev.dvinnik;
+
+import dev.dvinnik.async.AsyncDiceApi;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for the asynchronous, coalescing and micro-batching facade
+ */
+public class AsyncDiceApiTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect async result";
+    private static final Duration NO_DELAYED_FLUSH = Duration.ofHours(1);
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testResultsMatchReferenceImplementation() throws Exception {
+        final DiceApi referenceDiceApi = new SchoonerDiceApi();
+        try (AsyncDiceApi asyncDiceApi = new AsyncDiceApi(new TabulatedDiceApi(), executorService, 64,
+                Duration.ofMillis(1))) {
+            final List<CompletableFuture<Integer>> scores = new ArrayList<>();
+            final List<CompletableFuture<List<Category>>> topCategories = new ArrayList<>();
+            for (int index = 0; index < Roll.NUMBER_OF_ROLLS; index++) {
+                final List<Integer> diceRoll = Roll.ofIndex(index).getDice();
+                for (Category category : Category.values()) {
+                    scores.add(asyncDiceApi.score(category, diceRoll));
+                }
+                topCategories.add(asyncDiceApi.topCategories(diceRoll));
+            }
+
+            for (int index = 0; index < Roll.NUMBER_OF_ROLLS; index++) {
+                final List<Integer> diceRoll = Roll.ofIndex(index).getDice();
+                for (Category category : Category.values()) {
+                    Assertions.assertEquals(referenceDiceApi.score(category, diceRoll),
+                            scores.get(index * Category.values().length + category.ordinal()).get(5, TimeUnit.SECONDS),
+                            GENERIC_ERROR_MESSAGE);
+                }
+                Assertions.assertEquals(referenceDiceApi.topCategories(diceRoll),
+                        topCategories.get(index).get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    @Test
+    void testDuplicateRequestsAreCoalesced() throws Exception {
+        try (AsyncDiceApi asyncDiceApi = new AsyncDiceApi(new TabulatedDiceApi(), executorService, 2,
+                NO_DELAYED_FLUSH)) {
+            final List<CompletableFuture<Integer>> chanceScores = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                chanceScores.add(asyncDiceApi.score(Category.CHANCE, List.of(6, 1, 2, 3, 4)));
+            }
+            final CompletableFuture<List<Category>> topCategories =
+                    asyncDiceApi.topCategories(List.of(1, 2, 3, 4, 6));
+            // The second distinct roll fills the batch
+            final CompletableFuture<Integer> schoonerScore =
+                    asyncDiceApi.score(Category.SCHOONER, List.of(8, 8, 8, 8, 8));
+
+            for (CompletableFuture<Integer> chanceScore : chanceScores) {
+                Assertions.assertEquals(16, chanceScore.get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+            }
+            Assertions.assertEquals(List.of(Category.ALL_DIFFERENT), topCategories.get(5, TimeUnit.SECONDS),
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(50, schoonerScore.get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(12, asyncDiceApi.getNumberOfRequests(), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(10, asyncDiceApi.getNumberOfCoalescedRequests(), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(1, asyncDiceApi.getNumberOfBatches(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterMaxWait() throws Exception {
+        try (AsyncDiceApi asyncDiceApi = new AsyncDiceApi(new TabulatedDiceApi(), executorService, 1024,
+                Duration.ofMillis(5))) {
+            Assertions.assertEquals(15, asyncDiceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 5))
+                    .get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(1, asyncDiceApi.getNumberOfBatches(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testRejectedDelayedFlushFailsPartialBatch() {
+        final Executor rejectingExecutor = runnable -> {
+            throw new RejectedExecutionException(GENERIC_ERROR_MESSAGE);
+        };
+        try (AsyncDiceApi asyncDiceApi = new AsyncDiceApi(new TabulatedDiceApi(), rejectingExecutor, 1024,
+                Duration.ofMillis(5))) {
+            final CompletableFuture<Integer> score = asyncDiceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 5));
+            final ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> score.get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+            Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testCloseFlushesPendingBatchAndRejectsRequests() throws Exception {
+        final AsyncDiceApi asyncDiceApi = new AsyncDiceApi(new TabulatedDiceApi(), executorService, 1024,
+                NO_DELAYED_FLUSH);
+        final CompletableFuture<Integer> score = asyncDiceApi.score(Category.FIVES, List.of(5, 5, 1, 2, 3));
+        asyncDiceApi.close();
+
+        Assertions.assertEquals(10, score.get(5, TimeUnit.SECONDS), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> asyncDiceApi.score(Category.FIVES, List.of(5, 5, 5, 2, 3)), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidRequestsAndFailures() {
+        final DiceApi failingDiceApi = new SchoonerDiceApi() {
+            @Override
+            public void scoreAll(final RollBatch rollBatch,
+                                 final int[] scores) {
+                throw new IllegalStateException(GENERIC_ERROR_MESSAGE);
+            }
+        };
+        try (AsyncDiceApi asyncDiceApi = new AsyncDiceApi(failingDiceApi, executorService, 1, NO_DELAYED_FLUSH)) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> asyncDiceApi.score(Category.CHANCE, List.of(1, 2, 3, 4)), GENERIC_ERROR_MESSAGE);
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> asyncDiceApi.topCategories(List.of(1, 2, 3, 4, 9)), GENERIC_ERROR_MESSAGE);
+
+            final ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> asyncDiceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 5)).get(5, TimeUnit.SECONDS),
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause(), GENERIC_ERROR_MESSAGE);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AsyncDiceApi(failingDiceApi, executorService, 0, NO_DELAYED_FLUSH), GENERIC_ERROR_MESSAGE);
+    }
+}
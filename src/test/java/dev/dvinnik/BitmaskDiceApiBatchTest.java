@@ -0,0 +1,15 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.DiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiBatchTest} against the bitmask evaluator
+ */
+public class BitmaskDiceApiBatchTest extends SchoonerDiceApiBatchTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new BitmaskDiceApi();
+    }
+}
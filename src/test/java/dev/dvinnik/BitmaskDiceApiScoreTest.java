@@ -0,0 +1,29 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.DiceApi;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bitmask Dice API test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} against the bitmask evaluator, and additionally compares
+ * all ordered rolls against the reference implementation.
+ */
+public class BitmaskDiceApiScoreTest extends SchoonerDiceApiScoreTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new BitmaskDiceApi();
+    }
+
+    @Test
+    void testScoreMatchesReferenceImplementationForAllRolls() {
+        assertMatchesReference(diceApi);
+    }
+
+    @Test
+    void testScoreWithInvalidRolls() {
+        assertRejectsInvalidRolls(diceApi);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.DiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiTopCategoriesTest} against the bitmask evaluator
+ */
+public class BitmaskDiceApiTopCategoriesTest extends SchoonerDiceApiTopCategoriesTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new BitmaskDiceApi();
+    }
+}
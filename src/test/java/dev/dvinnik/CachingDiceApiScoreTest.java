@@ -0,0 +1,20 @@
+package dev.dvinnik;
+
+import dev.dvinnik.cache.CachingDiceApi;
+import dev.dvinnik.cache.EvictionPolicy;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.SchoonerDiceApi;
+
+/**
+ * Caching Dice API test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} through a small cache, so results are served from
+ * cached and evicted rolls alike.
+ */
+public class CachingDiceApiScoreTest extends SchoonerDiceApiScoreTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new CachingDiceApi(new SchoonerDiceApi(), 8, EvictionPolicy.TINY_LFU);
+    }
+}
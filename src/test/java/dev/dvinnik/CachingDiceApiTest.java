@@ -0,0 +1,186 @@
+package dev.dvinnik;
+
+import dev.dvinnik.cache.CacheStatistics;
+import dev.dvinnik.cache.CachingDiceApi;
+import dev.dvinnik.cache.EvictionPolicy;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.metrics.InstrumentedDiceApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for caching behaviour of {CachingDiceApi}
+ */
+public class CachingDiceApiTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect caching of the dice rolls";
+
+    @Test
+    void testOrderOfDiceSharesEntry() {
+        final CountingDiceApi countingDiceApi = new CountingDiceApi();
+        final CachingDiceApi diceApi = new CachingDiceApi(countingDiceApi);
+
+        Assertions.assertEquals(30, diceApi.score(Category.SMALL_STRAIGHT, List.of(3, 1, 2, 4, 4)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(30, diceApi.score(Category.SMALL_STRAIGHT, List.of(1, 2, 3, 4, 4)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(8, diceApi.score(Category.FOURS, new int[]{4, 4, 1, 2, 3}, 0), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(8, diceApi.score(Category.FOURS, PackedRoll.pack(List.of(4, 3, 4, 2, 1))),
+                GENERIC_ERROR_MESSAGE);
+
+        // Only the first miss scores the roll, for every category at once
+        Assertions.assertEquals(Category.values().length, countingDiceApi.scoreCalls.get(), GENERIC_ERROR_MESSAGE);
+        final CacheStatistics statistics = diceApi.getStatistics();
+        Assertions.assertEquals(3, statistics.getHitCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, statistics.getMissCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0.75, statistics.getHitRate(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, statistics.getSize(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRollsAreForwardedAndShareEntries() {
+        final CountingDiceApi countingDiceApi = new CountingDiceApi();
+        final CachingDiceApi diceApi = new CachingDiceApi(countingDiceApi);
+        final Roll roll = Roll.of(5, 5, 5, 2, 2);
+
+        Assertions.assertEquals(List.of(Category.FULL_HOUSE), diceApi.topCategories(roll), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(25, diceApi.score(Category.FULL_HOUSE, roll), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(15, diceApi.score(Category.FIVES, List.of(2, 5, 2, 5, 5)), GENERIC_ERROR_MESSAGE);
+
+        // The miss hands the roll itself to the decorated implementation, so it isn't validated or listed again
+        Assertions.assertEquals(Category.values().length + 1, countingDiceApi.rollCalls.get(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, countingDiceApi.scoreCalls.get(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, countingDiceApi.topCategoriesCalls.get(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, diceApi.getStatistics().getSize(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testTopCategoriesAreCached() {
+        final CountingDiceApi countingDiceApi = new CountingDiceApi();
+        final CachingDiceApi diceApi = new CachingDiceApi(countingDiceApi);
+
+        Assertions.assertEquals(List.of(Category.SCHOONER), diceApi.topCategories(List.of(6, 6, 6, 6, 6)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(Category.SCHOONER), diceApi.topCategories(List.of(6, 6, 6, 6, 6)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, countingDiceApi.topCategoriesCalls.get(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> diceApi.topCategories(List.of(6, 6, 6, 6, 6)).clear());
+    }
+
+    @Test
+    void testLruEvictsLeastRecentlyUsedRoll() {
+        final CachingDiceApi diceApi = new CachingDiceApi(new SchoonerDiceApi(), 2, EvictionPolicy.LRU);
+        final List<Integer> firstRoll = List.of(1, 1, 1, 1, 1);
+        final List<Integer> secondRoll = List.of(2, 2, 2, 2, 2);
+
+        diceApi.score(Category.SCHOONER, firstRoll);
+        diceApi.score(Category.SCHOONER, secondRoll);
+        diceApi.score(Category.SCHOONER, firstRoll);
+        diceApi.score(Category.SCHOONER, List.of(3, 3, 3, 3, 3));
+        // The second roll was the least recently used one
+        diceApi.score(Category.SCHOONER, firstRoll);
+        diceApi.score(Category.SCHOONER, secondRoll);
+
+        final CacheStatistics statistics = diceApi.getStatistics();
+        Assertions.assertEquals(2, statistics.getSize(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, statistics.getHitCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, statistics.getEvictionCount(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testTinyLfuKeepsFrequentRollsThroughScan() {
+        final CachingDiceApi diceApi = new CachingDiceApi(new SchoonerDiceApi(), 64, EvictionPolicy.TINY_LFU);
+        final List<List<Integer>> allRolls = DiceApiTest.allRolls();
+        final List<Integer> frequentRoll = List.of(8, 8, 8, 8, 8);
+
+        // Every other lookup is the frequent roll, the rest scans every roll once
+        for (List<Integer> diceRoll : allRolls.subList(0, 5000)) {
+            diceApi.score(Category.CHANCE, frequentRoll);
+            diceApi.score(Category.CHANCE, diceRoll);
+        }
+
+        final CacheStatistics statistics = diceApi.getStatistics();
+        Assertions.assertTrue(statistics.getHitRate() >= 0.5, GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(statistics.getSize() <= 64, GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(statistics.getEvictionCount() > 0, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidRollsAreNotCached() {
+        final CachingDiceApi diceApi = new CachingDiceApi(new SchoonerDiceApi());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 9)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 20)));
+        Assertions.assertEquals(0, diceApi.getStatistics().getSize(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testArrayRollsOfRuleSetWithMoreDiceAreKeyedByEveryDie() {
+        final CompiledRuleSet sixDice = RuleSet.builder()
+                .numberOfDice(6)
+                .fullHouse(4, 2)
+                .build()
+                .compile();
+        final CachingDiceApi diceApi = new CachingDiceApi(new InstrumentedDiceApi(sixDice));
+
+        Assertions.assertEquals(6, diceApi.getNumberOfDice(), GENERIC_ERROR_MESSAGE);
+        // Rolls only differ in the sixth die
+        final int[] firstRoll = new int[]{1, 1, 1, 1, 1, 2};
+        final int[] secondRoll = new int[]{1, 1, 1, 1, 1, 3};
+        for (Category category : Category.values()) {
+            Assertions.assertEquals(sixDice.score(category, firstRoll, 0), diceApi.score(category, firstRoll, 0),
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(sixDice.score(category, secondRoll, 0), diceApi.score(category, secondRoll, 0),
+                    GENERIC_ERROR_MESSAGE);
+        }
+        Assertions.assertEquals(8, diceApi.score(Category.CHANCE, List.of(3, 1, 1, 1, 1, 1)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, diceApi.getStatistics().getSize(), GENERIC_ERROR_MESSAGE);
+        // A roll of the first five dice isn't a roll of the rule set, rather than a hit on the six dice entries
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 1, 1, 1, 1)));
+    }
+
+    private static final class CountingDiceApi implements DiceApi {
+        private final DiceApi delegate = new SchoonerDiceApi();
+        private final AtomicInteger scoreCalls = new AtomicInteger();
+        private final AtomicInteger topCategoriesCalls = new AtomicInteger();
+        private final AtomicInteger rollCalls = new AtomicInteger();
+
+        @Override
+        public int score(final Category category,
+                         final List<Integer> diceRoll) {
+            scoreCalls.incrementAndGet();
+            return delegate.score(category, diceRoll);
+        }
+
+        @Override
+        public List<Category> topCategories(final List<Integer> diceRoll) {
+            topCategoriesCalls.incrementAndGet();
+            return delegate.topCategories(diceRoll);
+        }
+
+        @Override
+        public int score(final Category category,
+                         final Roll roll) {
+            rollCalls.incrementAndGet();
+            return delegate.score(category, roll);
+        }
+
+        @Override
+        public List<Category> topCategories(final Roll roll) {
+            rollCalls.incrementAndGet();
+            return delegate.topCategories(roll);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dvinnik;
+
+import dev.dvinnik.cache.CachingDiceApi;
+import dev.dvinnik.cache.EvictionPolicy;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.SchoonerDiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiTopCategoriesTest} through the caching decorator
+ */
+public class CachingDiceApiTopCategoriesTest extends SchoonerDiceApiTopCategoriesTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new CachingDiceApi(new SchoonerDiceApi(), 8, EvictionPolicy.LRU);
+    }
+}
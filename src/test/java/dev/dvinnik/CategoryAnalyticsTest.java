@@ -0,0 +1,220 @@
+package dev.dvinnik;
+
+import dev.dvinnik.analytics.AnalyticsSnapshot;
+import dev.dvinnik.analytics.CategoryAnalytics;
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for the mergeable category analytics
+ */
+public class CategoryAnalyticsTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect analytics";
+
+    private final DiceApi diceApi = new BitmaskDiceApi();
+
+    @Test
+    void testCountsMatchScoresOfEveryRoll() {
+        final RollBatch rollBatch = allRolls();
+        final CategoryAnalytics analytics = new CategoryAnalytics();
+        analytics.record(diceApi, rollBatch);
+        final AnalyticsSnapshot snapshot = analytics.snapshot();
+
+        Assertions.assertEquals(PackedRoll.NUMBER_OF_PACKED_ROLLS, snapshot.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+        for (Category category : Category.values()) {
+            long topCategoryCount = 0;
+            long hitCount = 0;
+            long scoreSum = 0;
+            long chanceOfFifteen = 0;
+            for (int i = 0; i < rollBatch.size(); i++) {
+                final int packedRoll = rollBatch.getPackedRoll(i);
+                final int score = diceApi.score(category, packedRoll);
+                topCategoryCount += diceApi.topCategories(PackedRoll.toList(packedRoll)).contains(category) ? 1 : 0;
+                hitCount += score > Category.DEFAULT_SCORE ? 1 : 0;
+                scoreSum += score;
+                chanceOfFifteen += score == 15 ? 1 : 0;
+            }
+            Assertions.assertEquals(topCategoryCount, snapshot.getTopCategoryCount(category), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(hitCount, snapshot.getHitCount(category), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals((double) scoreSum / rollBatch.size(), snapshot.getMeanScore(category), 1e-9,
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(chanceOfFifteen, snapshot.getScoreCount(category, 15), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals((double) hitCount / rollBatch.size(), snapshot.getWindowHitRate(category), 1e-9,
+                    GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testConcurrentRecording() throws Exception {
+        final CategoryAnalytics analytics = new CategoryAnalytics();
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        analytics.record(diceApi, allRolls());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        final AnalyticsSnapshot snapshot = analytics.snapshot();
+        Assertions.assertEquals(40L * PackedRoll.NUMBER_OF_PACKED_ROLLS, snapshot.getNumberOfRolls(),
+                GENERIC_ERROR_MESSAGE);
+        // Every roll scores for Chance
+        Assertions.assertEquals(40L * PackedRoll.NUMBER_OF_PACKED_ROLLS, snapshot.getHitCount(Category.CHANCE),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSlidingWindow() {
+        final ManualClock clock = new ManualClock();
+        final CategoryAnalytics analytics = new CategoryAnalytics(clock, Duration.ofSeconds(1), 3);
+        final int[] schooner = scores(List.of(8, 8, 8, 8, 8));
+        final int[] noSchooner = scores(List.of(1, 2, 3, 4, 6));
+
+        analytics.record(schooner, 0, CategoryMask.of(Category.SCHOONER));
+        clock.advance(Duration.ofSeconds(1));
+        analytics.record(noSchooner, 0, CategoryMask.of(Category.ALL_DIFFERENT));
+        analytics.record(noSchooner, 0, CategoryMask.of(Category.ALL_DIFFERENT));
+
+        AnalyticsSnapshot snapshot = analytics.snapshot();
+        Assertions.assertEquals(List.of(0L, 1L, 2L), windowNumberOfRolls(snapshot), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, snapshot.getWindowHitCount(Category.SCHOONER, 1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1.0 / 3, snapshot.getWindowHitRate(Category.SCHOONER), 1e-9, GENERIC_ERROR_MESSAGE);
+
+        // The first bucket falls out of the window, and its slot is reused
+        clock.advance(Duration.ofSeconds(2));
+        analytics.record(noSchooner, 0, CategoryMask.of(Category.ALL_DIFFERENT));
+        snapshot = analytics.snapshot();
+        Assertions.assertEquals(List.of(2L, 0L, 1L), windowNumberOfRolls(snapshot), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, snapshot.getWindowHitRate(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(4, snapshot.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, snapshot.getTopCategoryCount(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSerialisedSnapshotsAreMerged() {
+        final ManualClock clock = new ManualClock();
+        final CategoryAnalytics firstNode = new CategoryAnalytics(clock, Duration.ofSeconds(1), 3);
+        final CategoryAnalytics secondNode = new CategoryAnalytics(clock, Duration.ofSeconds(1), 3);
+        final int[] fullHouse = scores(List.of(2, 2, 3, 3, 3));
+
+        firstNode.record(fullHouse, 0, CategoryMask.of(Category.FULL_HOUSE));
+        final byte[] firstBytes = firstNode.snapshot().toBytes();
+        clock.advance(Duration.ofSeconds(1));
+        secondNode.record(fullHouse, 0, CategoryMask.of(Category.FULL_HOUSE));
+        secondNode.record(fullHouse, 0, CategoryMask.of(Category.FULL_HOUSE));
+        final byte[] secondBytes = secondNode.snapshot().toBytes();
+
+        final AnalyticsSnapshot merged = AnalyticsSnapshot.fromBytes(firstBytes)
+                .merge(AnalyticsSnapshot.fromBytes(secondBytes));
+        Assertions.assertEquals(3, merged.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(3, merged.getTopCategoryCount(Category.FULL_HOUSE), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(3, merged.getScoreCount(Category.FULL_HOUSE, 25), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(13, merged.getMeanScore(Category.CHANCE), 1e-9, GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(0L, 1L, 2L), windowNumberOfRolls(merged), GENERIC_ERROR_MESSAGE);
+        final AnalyticsSnapshot mergedInReverse = AnalyticsSnapshot.fromBytes(secondBytes)
+                .merge(AnalyticsSnapshot.fromBytes(firstBytes));
+        Assertions.assertEquals(windowNumberOfRolls(merged), windowNumberOfRolls(mergedInReverse),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidSnapshotsAreRejected() {
+        final AnalyticsSnapshot snapshot = new CategoryAnalytics().snapshot();
+        final AnalyticsSnapshot shorterWindow = new CategoryAnalytics(Clock.systemUTC(), Duration.ofSeconds(1), 3)
+                .snapshot();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> snapshot.merge(shorterWindow),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AnalyticsSnapshot.fromBytes(new byte[]{1, 2}),
+                GENERIC_ERROR_MESSAGE);
+        final byte[] bytes = snapshot.toBytes();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AnalyticsSnapshot.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CategoryAnalytics(Clock.systemUTC(), Duration.ZERO, 3), GENERIC_ERROR_MESSAGE);
+    }
+
+    private static RollBatch allRolls() {
+        final RollBatch rollBatch = new RollBatch(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            rollBatch.addPackedRoll(packedRoll);
+        }
+        return rollBatch;
+    }
+
+    private int[] scores(final List<Integer> diceRoll) {
+        final int[] scores = new int[CategoryMask.NUMBER_OF_CATEGORIES];
+        for (Category category : Category.values()) {
+            scores[category.ordinal()] = diceApi.score(category, diceRoll);
+        }
+        return scores;
+    }
+
+    private static List<Long> windowNumberOfRolls(final AnalyticsSnapshot snapshot) {
+        final List<Long> windowNumberOfRolls = new ArrayList<>();
+        for (int bucketIndex = 0; bucketIndex < snapshot.getNumberOfWindowBuckets(); bucketIndex++) {
+            windowNumberOfRolls.add(snapshot.getWindowNumberOfRolls(bucketIndex));
+        }
+        return windowNumberOfRolls;
+    }
+
+    /**
+     * Clock that only moves when it's advanced
+     */
+    private static final class ManualClock extends Clock {
+        private final AtomicLong millis = new AtomicLong(1_000_000);
+
+        void advance(final Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.strategy.CategoryOdds;
+import dev.dvinnik.strategy.CategoryOddsCalculator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Test class for exact category odds
+ */
+public class CategoryOddsCalculatorTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect odds for the held dice";
+    private static final double EPSILON = 1e-12;
+
+    private static CategoryOddsCalculator categoryOddsCalculator;
+
+    @BeforeAll
+    static void init() {
+        categoryOddsCalculator = new CategoryOddsCalculator();
+    }
+
+    @Test
+    void testNoHeldDice() {
+        final CategoryOdds categoryOdds = categoryOddsCalculator.of(List.of());
+
+        Assertions.assertEquals(5, categoryOdds.getRolledDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(8.0 / 32768, categoryOdds.getProbability(Category.SCHOONER), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(22.5, categoryOdds.getExpectedScore(Category.CHANCE), EPSILON, GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1.0, categoryOdds.getProbability(Category.CHANCE), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testFourHeldDice() {
+        final CategoryOdds categoryOdds = categoryOddsCalculator.of(List.of(8, 8, 8, 8));
+
+        Assertions.assertEquals(1.0 / 8, categoryOdds.getProbability(Category.SCHOONER), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(33, categoryOdds.getExpectedScore(Category.EIGHTS), EPSILON, GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, categoryOdds.getProbability(Category.FULL_HOUSE), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testOddsMatchEnumerationOfOutcomes() {
+        final DiceApi referenceApi = new SchoonerDiceApi();
+        final CategoryOdds categoryOdds = categoryOddsCalculator.of(List.of(3, 4));
+
+        // Every ordered outcome of the three rolled dice, scored with the reference implementation
+        for (Category category : Category.values()) {
+            int hits = 0;
+            long totalScore = 0;
+            for (int outcome = 0; outcome < 512; outcome++) {
+                final int score = referenceApi.score(category,
+                        new int[]{3, 4, (outcome & 0x7) + 1, ((outcome >>> 3) & 0x7) + 1, (outcome >>> 6) + 1}, 0);
+                hits += score > Category.DEFAULT_SCORE ? 1 : 0;
+                totalScore += score;
+            }
+            Assertions.assertEquals(hits / 512.0, categoryOdds.getProbability(category), EPSILON,
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(totalScore / 512.0, categoryOdds.getExpectedScore(category), EPSILON,
+                    GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testEveryDieHeld() {
+        final CategoryOdds categoryOdds = categoryOddsCalculator.of(List.of(2, 3, 4, 5, 6));
+
+        Assertions.assertEquals(0, categoryOdds.getRolledDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1.0, categoryOdds.getProbability(Category.LARGE_STRAIGHT), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(40, categoryOdds.getExpectedScore(Category.LARGE_STRAIGHT), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, categoryOdds.getProbability(Category.SCHOONER), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testTenDiceVariant() {
+        final CategoryOddsCalculator tenDiceCalculator = new CategoryOddsCalculator(
+                RuleSet.builder().numberOfDice(10).fullHouse(6, 4).build().compile());
+        final CategoryOdds categoryOdds = tenDiceCalculator.of(List.of(1));
+
+        Assertions.assertEquals(9, categoryOdds.getRolledDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Math.pow(1.0 / 8, 9), categoryOdds.getProbability(Category.SCHOONER), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1 + 9 * 4.5, categoryOdds.getExpectedScore(Category.CHANCE), 1e-9,
+                GENERIC_ERROR_MESSAGE);
+        // Ones score one per die, and every rolled die is a one with probability 1/8
+        Assertions.assertEquals(1 + 9.0 / 8, categoryOdds.getExpectedScore(Category.ONES), 1e-9, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidHeldDice() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> categoryOddsCalculator.of(List.of(1, 2, 3, 4, 5, 6)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> categoryOddsCalculator.of(List.of(9)));
+    }
+}
@@ -0,0 +1,29 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.RuleSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compiled standard rule set test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} against the standard rule set, and additionally compares
+ * all ordered rolls against the reference implementation.
+ */
+public class CompiledRuleSetScoreTest extends SchoonerDiceApiScoreTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return RuleSet.STANDARD.compile();
+    }
+
+    @Test
+    void testScoreMatchesReferenceImplementationForAllRolls() {
+        assertMatchesReference(diceApi);
+    }
+
+    @Test
+    void testScoreWithInvalidRolls() {
+        assertRejectsInvalidRolls(diceApi);
+    }
+}
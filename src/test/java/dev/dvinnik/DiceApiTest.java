@@ -1,8 +1,15 @@
 package dev.dvinnik;
 
 import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.SchoonerDiceApi;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Base class for Dice API tests
  */
@@ -14,4 +21,54 @@ public abstract class DiceApiTest {
     }
 
     abstract DiceApi initializeTestService();
+
+    /**
+     * @return Every ordered roll of the Schooner Dice game
+     */
+    static List<List<Integer>> allRolls() {
+        final List<List<Integer>> rolls = new ArrayList<>();
+        for (int a = 1; a <= Category.NUMBER_OF_FACES; a++) {
+            for (int b = 1; b <= Category.NUMBER_OF_FACES; b++) {
+                for (int c = 1; c <= Category.NUMBER_OF_FACES; c++) {
+                    for (int d = 1; d <= Category.NUMBER_OF_FACES; d++) {
+                        for (int e = 1; e <= Category.NUMBER_OF_FACES; e++) {
+                            rolls.add(List.of(a, b, c, d, e));
+                        }
+                    }
+                }
+            }
+        }
+        return rolls;
+    }
+
+    /**
+     * Compares the score of every category and the top categories of every ordered roll against the reference
+     * implementation
+     */
+    static void assertMatchesReference(final DiceApi diceApi) {
+        final DiceApi referenceDiceApi = new SchoonerDiceApi();
+        for (List<Integer> diceRoll : allRolls()) {
+            for (Category category : Category.values()) {
+                Assertions.assertEquals(referenceDiceApi.score(category, diceRoll), diceApi.score(category, diceRoll),
+                        "Incorrect score for the category " + category + " and dice rolls " + diceRoll);
+            }
+            final List<Category> topCategories = referenceDiceApi.topCategories(diceRoll);
+            Assertions.assertEquals(topCategories, diceApi.topCategories(diceRoll),
+                    "Incorrect top categories for the dice rolls " + diceRoll);
+            Assertions.assertEquals(topCategories, diceApi.topCategories(Roll.of(diceRoll)),
+                    "Incorrect top categories for the roll " + diceRoll);
+        }
+    }
+
+    /**
+     * Checks that rolls with a missing die or an invalid face are rejected
+     */
+    static void assertRejectsInvalidRolls(final DiceApi diceApi) {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 2, 3, 4)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 2, 3, 4, 9)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.topCategories(List.of(0, 2, 3, 4, 5)));
+    }
 }
@@ -0,0 +1,144 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.session.GameSessionStore;
+import dev.dvinnik.session.Scorecard;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for the game session store
+ */
+public class GameSessionStoreTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect scorecard of the game session";
+
+    private static final DiceApi REFERENCE_DICE_API = new SchoonerDiceApi();
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Test
+    void testBestOpenCategoryMatchesEveryOpenCategory() {
+        final GameSessionStore store = new GameSessionStore(new TabulatedDiceApi());
+        final long sessionId = store.startSession();
+        final SplittableRandom random = new SplittableRandom(7);
+
+        for (int turn = 0; turn < CATEGORIES.length; turn++) {
+            final int openCategoryMask = store.getScorecard(sessionId).getOpenCategoryMask();
+            for (List<Integer> diceRoll : DiceApiTest.allRolls()) {
+                Assertions.assertEquals(bestOpenCategory(diceRoll, openCategoryMask),
+                        store.bestOpenCategory(sessionId, diceRoll), GENERIC_ERROR_MESSAGE);
+            }
+            // Fill a random open category, so the open categories aren't always the lowest scoring ones
+            final List<Category> openCategories = CategoryMask.toList(openCategoryMask);
+            store.fill(sessionId, openCategories.get(random.nextInt(openCategories.size())),
+                    random.nextInt(PackedRoll.NUMBER_OF_PACKED_ROLLS));
+        }
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> store.bestOpenCategory(sessionId, List.of(1, 2, 3, 4, 5)), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testFillKeepsRunningTotal() {
+        final GameSessionStore store = new GameSessionStore(new TabulatedDiceApi());
+        final long sessionId = store.startSession();
+
+        Assertions.assertEquals(40, store.fill(sessionId, Category.LARGE_STRAIGHT, List.of(5, 4, 3, 2, 1)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(24, store.fill(sessionId, Category.EIGHTS, List.of(8, 8, 8, 1, 2)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> store.fill(sessionId, Category.EIGHTS, List.of(8, 8, 8, 8, 8)), GENERIC_ERROR_MESSAGE);
+
+        final Scorecard scorecard = store.getScorecard(sessionId);
+        Assertions.assertEquals(64, scorecard.getTotalScore(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(24, scorecard.getScore(Category.EIGHTS), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(CategoryMask.of(List.of(Category.EIGHTS, Category.LARGE_STRAIGHT)),
+                scorecard.getFilledCategoryMask(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(scorecard.isComplete(), GENERIC_ERROR_MESSAGE);
+        // The best open category skips the filled Large Straight
+        Assertions.assertEquals(Category.ALL_DIFFERENT, store.bestOpenCategory(sessionId, List.of(1, 2, 3, 4, 5)),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testUnknownAndEndedSessions() {
+        final GameSessionStore store = new GameSessionStore(new TabulatedDiceApi());
+        final long sessionId = store.startSession();
+
+        Assertions.assertTrue(store.endSession(sessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(store.endSession(sessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.getScorecard(sessionId),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> store.fill(store.startSession(), Category.CHANCE, List.of(1, 2, 3, 4, 9)), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testIdleSessionsAreEvicted() {
+        final GameSessionStore store = new GameSessionStore(new TabulatedDiceApi(), 4, Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            store.startSession();
+        }
+        Assertions.assertEquals(100, store.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(100, store.evictIdleSessions(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, store.size(), GENERIC_ERROR_MESSAGE);
+
+        final GameSessionStore longLivedStore = new GameSessionStore(new TabulatedDiceApi(), 4, Duration.ofHours(1));
+        final long sessionId = longLivedStore.startSession();
+        Assertions.assertEquals(0, longLivedStore.evictIdleSessions(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, longLivedStore.getScorecard(sessionId).getTotalScore(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testConcurrentSessions() throws Exception {
+        final GameSessionStore store = new GameSessionStore(new TabulatedDiceApi());
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Integer>> games = new ArrayList<>();
+            for (int game = 0; game < 1000; game++) {
+                games.add(() -> {
+                    final long sessionId = store.startSession();
+                    for (Category category : CATEGORIES) {
+                        store.fill(sessionId, category, List.of(1, 1, 1, 1, 1));
+                    }
+                    return store.getScorecard(sessionId).getTotalScore();
+                });
+            }
+            int expectedTotal = 0;
+            for (Category category : CATEGORIES) {
+                expectedTotal += REFERENCE_DICE_API.score(category, List.of(1, 1, 1, 1, 1));
+            }
+            for (Future<Integer> game : executorService.invokeAll(games)) {
+                Assertions.assertEquals(expectedTotal, game.get(), GENERIC_ERROR_MESSAGE);
+            }
+            Assertions.assertEquals(1000, store.size(), GENERIC_ERROR_MESSAGE);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static Category bestOpenCategory(final List<Integer> diceRoll,
+                                             final int openCategoryMask) {
+        Category bestCategory = null;
+        for (Category category : CategoryMask.toList(openCategoryMask)) {
+            if (bestCategory == null || REFERENCE_DICE_API.score(category, diceRoll)
+                    > REFERENCE_DICE_API.score(bestCategory, diceRoll)) {
+                bestCategory = category;
+            }
+        }
+        return bestCategory;
+    }
+}
@@ -0,0 +1,120 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.simulation.ChoicePolicy;
+import dev.dvinnik.simulation.GameSimulator;
+import dev.dvinnik.simulation.SimulationResult;
+import dev.dvinnik.simulation.TopCategoryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test class for game simulation
+ */
+public class GameSimulatorTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect result of the simulated games";
+
+    private static final DiceApi DICE_API = new TabulatedDiceApi();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    void testSameSeedPlaysSameGames() {
+        final ChoicePolicy choicePolicy = new TopCategoryPolicy(DICE_API);
+        final SimulationResult parallelResult = new GameSimulator(DICE_API, choicePolicy, executorService,
+                GameSimulator.DEFAULT_REROLLS_PER_TURN, 1000).simulate(20_000, 42);
+        final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+        final SimulationResult sequentialResult = new GameSimulator(DICE_API, choicePolicy, singleThreadExecutor,
+                GameSimulator.DEFAULT_REROLLS_PER_TURN, 1000).simulate(20_000, 42);
+        singleThreadExecutor.shutdown();
+
+        Assertions.assertEquals(20_000, parallelResult.getNumberOfGames(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(sequentialResult.getMaxFinalScore(), parallelResult.getMaxFinalScore(),
+                GENERIC_ERROR_MESSAGE);
+        for (int finalScore = 0; finalScore <= parallelResult.getMaxFinalScore(); finalScore++) {
+            Assertions.assertEquals(sequentialResult.getFinalScoreCount(finalScore),
+                    parallelResult.getFinalScoreCount(finalScore), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testFinalScoreIsSumOfCategories() {
+        final SimulationResult result = new GameSimulator(DICE_API, new TopCategoryPolicy(DICE_API), executorService,
+                0, 1000).simulate(10_000, 7);
+
+        double sumOfCategoryMeans = 0;
+        for (Category category : Category.values()) {
+            sumOfCategoryMeans += result.getMeanCategoryScore(category);
+        }
+        Assertions.assertEquals(result.getMeanFinalScore(), sumOfCategoryMeans, 1e-9, GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(result.getFinalScorePercentile(50) <= result.getFinalScorePercentile(99),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(result.getFinalScoreStandardDeviation() > 0, GENERIC_ERROR_MESSAGE);
+        // Every game scores Chance with the sum of the dice
+        Assertions.assertEquals(1.0, result.getCategoryHitRate(Category.CHANCE), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRerollsFollowPolicy() {
+        // Keeps every eight, and scores categories in order, so EIGHTS is scored after chasing eights for the turn
+        final ChoicePolicy chaseEightsPolicy = new ChoicePolicy() {
+            @Override
+            public int keptDiceMask(final int packedRoll,
+                                    final int rerollsLeft,
+                                    final int openCategoryMask) {
+                int keptDiceMask = 0;
+                for (int i = 0; i < Category.NUMBER_OF_DICE; i++) {
+                    keptDiceMask |= PackedRoll.face(packedRoll, i) == 8 ? 1 << i : 0;
+                }
+                return keptDiceMask;
+            }
+
+            @Override
+            public Category chooseCategory(final int packedRoll,
+                                           final int openCategoryMask) {
+                return CategoryMask.toList(openCategoryMask).get(0);
+            }
+        };
+        final SimulationResult result = new GameSimulator(DICE_API, chaseEightsPolicy, executorService, 2, 10_000)
+                .simulate(200_000, 11);
+
+        final double eightProbability = 1 - Math.pow(7.0 / 8, 3);
+        Assertions.assertEquals(5 * 8 * eightProbability, result.getMeanCategoryScore(Category.EIGHTS), 0.2,
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testTopCategoryPolicy() {
+        final TopCategoryPolicy choicePolicy = new TopCategoryPolicy(DICE_API);
+        final int schooner = PackedRoll.pack(List.of(8, 8, 8, 8, 8));
+
+        Assertions.assertEquals(Category.SCHOONER, choicePolicy.chooseCategory(schooner, CategoryMask.ALL),
+                GENERIC_ERROR_MESSAGE);
+        // Eights, Three of a Kind, Four of a Kind and Chance all score 40, and the lowest ordinal wins
+        Assertions.assertEquals(Category.EIGHTS,
+                choicePolicy.chooseCategory(schooner, CategoryMask.ALL & ~CategoryMask.of(Category.SCHOONER)),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testPolicyChoosingClosedCategory() {
+        final ChoicePolicy chanceOnlyPolicy = (packedRoll, openCategoryMask) -> Category.CHANCE;
+
+        Assertions.assertThrows(RuntimeException.class, () -> new GameSimulator(DICE_API, chanceOnlyPolicy,
+                executorService, 0, 10).simulate(10, 1));
+    }
+}
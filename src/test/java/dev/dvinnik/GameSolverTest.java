@@ -0,0 +1,119 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.strategy.GameSolver;
+import dev.dvinnik.strategy.GameValueTable;
+import dev.dvinnik.strategy.RerollAdvisor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test class for {GameSolver} and {GameValueTable}, solved on small games to keep it fast
+ */
+public class GameSolverTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect expected score of the game";
+    private static final double EPSILON = 1e-4;
+
+    private static ExecutorService executorService;
+    private static GameSolver gameSolver;
+
+    @BeforeAll
+    static void init() {
+        executorService = Executors.newFixedThreadPool(4);
+        gameSolver = new GameSolver(RuleSet.STANDARD.compile(), executorService, 1);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    void testSingleCategoryWithoutRerolls() {
+        Assertions.assertEquals(5 * 4.5, gameSolver.solve(CategoryMask.of(Category.CHANCE), 0)
+                .getExpectedFinalScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+        // Eight of the 8^5 rolls are a Schooner
+        Assertions.assertEquals(50.0 * 8 / 32768, gameSolver.solve(CategoryMask.of(Category.SCHOONER), 0)
+                .getExpectedFinalScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSingleCategoryMatchesRerollAdvisor() {
+        final RerollAdvisor rerollAdvisor = new RerollAdvisor();
+        // The first roll is scored with every die rerolled, so averaging the advice over all rolls gives the turn value
+        double expectedScore = 0;
+        for (List<Integer> diceRoll : DiceApiTest.allRolls()) {
+            expectedScore += rerollAdvisor.advise(diceRoll, 1, EnumSet.of(Category.SMALL_STRAIGHT)).getExpectedScore();
+        }
+        expectedScore /= 32768;
+
+        Assertions.assertEquals(expectedScore, gameSolver.solve(CategoryMask.of(Category.SMALL_STRAIGHT), 1)
+                .getExpectedFinalScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testScorecardsMatchSmallerGames() {
+        final int categoryMask = CategoryMask.of(EnumSet.of(Category.FIVES, Category.FULL_HOUSE, Category.SCHOONER));
+        final GameValueTable gameValueTable = gameSolver.solve(categoryMask, 2);
+
+        // Once FIVES is filled, the rest of the game is the game without FIVES
+        Assertions.assertEquals(gameSolver.solve(CategoryMask.of(EnumSet.of(Category.FULL_HOUSE, Category.SCHOONER)), 2)
+                        .getExpectedFinalScore(),
+                gameValueTable.getExpectedScore(CategoryMask.of(Category.FIVES)), EPSILON, GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, gameValueTable.getExpectedScore(categoryMask), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(gameValueTable.getExpectedFinalScore()
+                > gameValueTable.getExpectedScore(CategoryMask.of(Category.SCHOONER)), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testValueTableRoundTrip(@TempDir final Path directory) {
+        final GameValueTable gameValueTable = gameSolver.solve(
+                CategoryMask.of(EnumSet.of(Category.ONES, Category.LARGE_STRAIGHT, Category.CHANCE)), 1);
+        final Path path = directory.resolve("game-values.bin");
+        gameValueTable.write(path);
+
+        final GameValueTable loadedTable = GameValueTable.load(path);
+        Assertions.assertEquals(gameValueTable.getCategoryMask(), loadedTable.getCategoryMask(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, loadedTable.getRerollsPerTurn(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(5, loadedTable.getNumberOfDice(), GENERIC_ERROR_MESSAGE);
+        for (int scorecard = 0; scorecard <= CategoryMask.ALL; scorecard++) {
+            Assertions.assertEquals(gameValueTable.getExpectedScore(scorecard), loadedTable.getExpectedScore(scorecard),
+                    GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testValueTableOfAnotherRuleSetIsRejected(@TempDir final Path directory) {
+        // Same number of dice and faces as the standard rules, so only the rule set fingerprint tells them apart
+        final RuleSet ruleSet = RuleSet.builder().constantScore(Category.SCHOONER, 100).build();
+        final GameSolver variantSolver = new GameSolver(ruleSet.compile(), executorService, 1);
+        final Path path = directory.resolve("game-values.bin");
+        variantSolver.solve(CategoryMask.of(Category.SCHOONER), 0).write(path);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameValueTable.load(path),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(100.0 * 8 / 32768, GameValueTable.load(path, ruleSet).getExpectedFinalScore(), EPSILON,
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidValueTableFile(@TempDir final Path directory) throws IOException {
+        final Path path = directory.resolve("game-values.bin");
+        Files.write(path, new byte[]{1, 2, 3});
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameValueTable.load(path));
+    }
+}
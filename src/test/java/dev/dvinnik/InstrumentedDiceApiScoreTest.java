@@ -0,0 +1,18 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.metrics.InstrumentedDiceApi;
+
+/**
+ * Instrumented Dice API test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} through the decorator, which should not change any result.
+ */
+public class InstrumentedDiceApiScoreTest extends SchoonerDiceApiScoreTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new InstrumentedDiceApi(new SchoonerDiceApi());
+    }
+}
@@ -0,0 +1,101 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.metrics.InstrumentedDiceApi;
+import dev.dvinnik.metrics.LatencySnapshot;
+import dev.dvinnik.metrics.MetricsSnapshot;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the metrics recorded by {InstrumentedDiceApi}
+ */
+public class InstrumentedDiceApiTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect metrics of the instrumented calls";
+
+    @Test
+    void testCallsAreCountedPerCategory() {
+        final InstrumentedDiceApi diceApi = new InstrumentedDiceApi(new SchoonerDiceApi());
+        for (int i = 0; i < 10; i++) {
+            diceApi.score(Category.SCHOONER, List.of(1, 1, 1, 1, 1));
+        }
+        diceApi.score(Category.CHANCE, new int[]{1, 2, 3, 4, 5}, 0);
+        diceApi.score(Category.CHANCE, Roll.of(1, 2, 3, 4, 5));
+        diceApi.topCategories(List.of(1, 2, 3, 4, 5));
+        diceApi.topCategories(Roll.of(1, 2, 3, 4, 5));
+        final RollBatch rollBatch = new RollBatch(1);
+        rollBatch.add(List.of(1, 2, 3, 4, 5));
+        diceApi.scoreAll(rollBatch, new int[16]);
+
+        final MetricsSnapshot snapshot = diceApi.snapshot();
+        Assertions.assertEquals(10, snapshot.getScore(Category.SCHOONER).getCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, snapshot.getScore(Category.CHANCE).getCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, snapshot.getScore(Category.ONES).getCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(12, snapshot.getTotalScoreCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, snapshot.getTopCategories().getCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, snapshot.getBatch().getCount(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testLatencyPercentiles() {
+        final InstrumentedDiceApi diceApi = new InstrumentedDiceApi(new SchoonerDiceApi());
+        for (int i = 0; i < 1000; i++) {
+            diceApi.score(Category.FULL_HOUSE, List.of(2, 2, 3, 3, 3));
+        }
+
+        final LatencySnapshot snapshot = diceApi.snapshot().getScore(Category.FULL_HOUSE);
+        Assertions.assertTrue(snapshot.getPercentileNanos(50) <= snapshot.getPercentileNanos(99),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(snapshot.getPercentileNanos(99) <= snapshot.getMaxNanos(), GENERIC_ERROR_MESSAGE);
+        // The max is the upper bound of the highest bucket, so it's never below the mean
+        Assertions.assertTrue(snapshot.getMeanNanos() <= snapshot.getMaxNanos(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(snapshot.getTotalNanos() > 0, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testErrorsAreCountedAndRethrown() {
+        final InstrumentedDiceApi diceApi = new InstrumentedDiceApi(new SchoonerDiceApi());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.SIXES, new int[]{1, 2, 3, 4, 9}, 0));
+        final LatencySnapshot snapshot = diceApi.snapshot().getScore(Category.SIXES);
+        Assertions.assertEquals(1, snapshot.getErrorCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, snapshot.getCount(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSlowCallsAreRecordedByFlightRecorder(@TempDir final Path directory) throws IOException {
+        // Every call is slow with a zero threshold
+        final InstrumentedDiceApi diceApi = new InstrumentedDiceApi(new SchoonerDiceApi(), Duration.ZERO);
+        final Path recordingPath = directory.resolve("slow-calls.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("dev.dvinnik.SlowDiceCall");
+            recording.start();
+            diceApi.score(Category.LARGE_STRAIGHT, List.of(4, 5, 6, 7, 8));
+            diceApi.topCategories(List.of(4, 5, 6, 7, 8));
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath).stream()
+                .filter(event -> event.getEventType().getName().equals("dev.dvinnik.SlowDiceCall"))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(2, events.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals("score", events.get(0).getString("operation"), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals("LARGE_STRAIGHT", events.get(0).getString("category"), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals("topCategories", events.get(1).getString("operation"), GENERIC_ERROR_MESSAGE);
+    }
+}
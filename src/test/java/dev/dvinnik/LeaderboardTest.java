@@ -0,0 +1,229 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.leaderboard.Leaderboard;
+import dev.dvinnik.leaderboard.LeaderboardEntry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test class for the concurrent leaderboard
+ */
+public class LeaderboardTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect leaderboard";
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void testMaxTotalScore() {
+        Assertions.assertEquals(480, Leaderboard.maxTotalScore(new SchoonerDiceApi()), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(480, new Leaderboard(new SchoonerDiceApi()).getMaxTotalScore(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRanksAndTies() {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        leaderboard.update(1, 200);
+        leaderboard.update(2, 300);
+        leaderboard.update(3, 200);
+        leaderboard.update(4, 100);
+
+        Assertions.assertEquals(1, leaderboard.getRank(2), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, leaderboard.getRank(1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, leaderboard.getRank(3), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(4, leaderboard.getRank(4), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Leaderboard.NO_RANK, leaderboard.getRank(5), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Leaderboard.NO_SCORE, leaderboard.getScore(5), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(4, leaderboard.getRankOfScore(150), GENERIC_ERROR_MESSAGE);
+
+        // A lower total moves the player down, and a removed player frees their rank
+        leaderboard.update(2, 50);
+        Assertions.assertEquals(4, leaderboard.getRank(2), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(leaderboard.updateIfHigher(1, 150), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(leaderboard.updateIfHigher(4, 250), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, leaderboard.getRank(4), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(leaderboard.remove(4), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(leaderboard.remove(4), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(1, leaderboard.getRank(1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(3, leaderboard.size(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testTopAndAround() {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        for (int playerId = 0; playerId < 10; playerId++) {
+            leaderboard.update(playerId, playerId * 10);
+        }
+        leaderboard.update(10, 50);
+
+        Assertions.assertEquals(List.of(9L, 8L, 7L), playerIds(leaderboard.top(3)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(11, leaderboard.top(100).size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(6L, 5L, 10L, 4L), playerIds(leaderboard.around(5, 1, 2)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(5L, 5L, 7L, 8L), ranks(leaderboard.around(10, 1, 2)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(9L, 8L), playerIds(leaderboard.around(9, 5, 1)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(1L, 0L), playerIds(leaderboard.around(1, 0, 5)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(leaderboard.around(11, 1, 1).isEmpty(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testConcurrentUpdates() throws Exception {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        final int numberOfPlayers = 1000;
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final Random random = new Random(thread);
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        leaderboard.update(random.nextInt(numberOfPlayers), random.nextInt(481));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Once updates settle, the histogram and the skip list agree with the totals of every player
+        final List<LeaderboardEntry> entries = leaderboard.top(Integer.MAX_VALUE);
+        Assertions.assertEquals(leaderboard.size(), entries.size(), GENERIC_ERROR_MESSAGE);
+        for (int i = 0; i < entries.size(); i++) {
+            final LeaderboardEntry entry = entries.get(i);
+            Assertions.assertEquals(leaderboard.getScore(entry.getPlayerId()), entry.getScore(), GENERIC_ERROR_MESSAGE);
+            final long expectedRank = i > 0 && entries.get(i - 1).getScore() == entry.getScore()
+                    ? entries.get(i - 1).getRank() : i + 1;
+            Assertions.assertEquals(expectedRank, entry.getRank(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testSnapshotIsReadBack() {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            leaderboard.update(random.nextInt(10_000) - 5000, random.nextInt(481));
+        }
+        leaderboard.update(Long.MAX_VALUE, 480);
+        leaderboard.update(Long.MIN_VALUE, 480);
+        leaderboard.update(7, 0);
+        final Path path = temporaryDirectory.resolve("leaderboard.bin");
+        leaderboard.writeSnapshot(path);
+        leaderboard.writeSnapshot(path);
+
+        final Leaderboard readLeaderboard = Leaderboard.readSnapshot(path);
+        Assertions.assertEquals(480, readLeaderboard.getMaxTotalScore(), GENERIC_ERROR_MESSAGE);
+        final List<LeaderboardEntry> expectedEntries = leaderboard.top(Integer.MAX_VALUE);
+        final List<LeaderboardEntry> entries = readLeaderboard.top(Integer.MAX_VALUE);
+        Assertions.assertEquals(playerIds(expectedEntries), playerIds(entries), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(ranks(expectedEntries), ranks(entries), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(leaderboard.getScore(7), readLeaderboard.getScore(7), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(Files.exists(temporaryDirectory.resolve("leaderboard.bin.tmp")), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSnapshotsDuringConcurrentUpdatesAreReadBack() throws Exception {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        final int numberOfPlayers = 500;
+        for (int playerId = 0; playerId < numberOfPlayers; playerId++) {
+            leaderboard.update(playerId, playerId % 481);
+        }
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final Path path = temporaryDirectory.resolve("leaderboard.bin");
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final Random random = new Random(thread);
+                futures.add(executorService.submit(() -> {
+                    // Totals move both up and down, so players are passed by the snapshot iterator
+                    while (running.get()) {
+                        leaderboard.update(random.nextInt(numberOfPlayers), random.nextInt(481));
+                    }
+                }));
+            }
+            for (int snapshot = 0; snapshot < 200; snapshot++) {
+                leaderboard.writeSnapshot(path);
+                final Leaderboard readLeaderboard = Leaderboard.readSnapshot(path);
+                Assertions.assertTrue(readLeaderboard.size() <= numberOfPlayers, GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(readLeaderboard.size(), readLeaderboard.top(Integer.MAX_VALUE).size(),
+                        GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(readLeaderboard.size() + 1, readLeaderboard.getRankOfScore(-1),
+                        GENERIC_ERROR_MESSAGE);
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            running.set(false);
+            executorService.shutdownNow();
+        }
+
+        // Once updates settle, a snapshot holds every player at their current total
+        leaderboard.writeSnapshot(path);
+        final Leaderboard readLeaderboard = Leaderboard.readSnapshot(path);
+        Assertions.assertEquals(numberOfPlayers, readLeaderboard.size(), GENERIC_ERROR_MESSAGE);
+        for (int playerId = 0; playerId < numberOfPlayers; playerId++) {
+            Assertions.assertEquals(leaderboard.getScore(playerId), readLeaderboard.getScore(playerId),
+                    GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testInvalidInputIsRejected() throws IOException {
+        final Leaderboard leaderboard = new Leaderboard(480);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leaderboard.update(1, 481),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leaderboard.update(1, -1),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leaderboard.top(-1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Leaderboard(-1), GENERIC_ERROR_MESSAGE);
+
+        leaderboard.update(1, 100);
+        final Path path = temporaryDirectory.resolve("leaderboard.bin");
+        leaderboard.writeSnapshot(path);
+        final byte[] bytes = Files.readAllBytes(path);
+        final Path truncatedPath = temporaryDirectory.resolve("truncated.bin");
+        Files.write(truncatedPath, Arrays.copyOf(bytes, bytes.length - 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Leaderboard.readSnapshot(truncatedPath),
+                GENERIC_ERROR_MESSAGE);
+        final Path invalidPath = temporaryDirectory.resolve("invalid.bin");
+        Files.write(invalidPath, new byte[]{1, 2, 3});
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Leaderboard.readSnapshot(invalidPath),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    private static List<Long> playerIds(final List<LeaderboardEntry> entries) {
+        final List<Long> playerIds = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            playerIds.add(entry.getPlayerId());
+        }
+        return playerIds;
+    }
+
+    private static List<Long> ranks(final List<LeaderboardEntry> entries) {
+        final List<Long> ranks = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            ranks.add(entry.getRank());
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,210 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.session.OffHeapSessionStore;
+import dev.dvinnik.session.Scorecard;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Test class for the off-heap game session store
+ */
+public class OffHeapSessionStoreTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect off-heap game session";
+
+    private static final DiceApi REFERENCE_DICE_API = new SchoonerDiceApi();
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Test
+    void testFillScoresLatestRoll() {
+        final OffHeapSessionStore store = new OffHeapSessionStore(new TabulatedDiceApi(), 16, 4);
+        final long sessionId = store.startSession();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> store.fill(sessionId, Category.CHANCE),
+                GENERIC_ERROR_MESSAGE);
+        store.recordRoll(sessionId, PackedRoll.pack(List.of(1, 2, 3, 4, 5)));
+        Assertions.assertEquals(Category.LARGE_STRAIGHT, store.bestOpenCategory(sessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(40, store.fill(sessionId, Category.LARGE_STRAIGHT), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Category.ALL_DIFFERENT, store.bestOpenCategory(sessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class, () -> store.fill(sessionId, Category.LARGE_STRAIGHT),
+                GENERIC_ERROR_MESSAGE);
+
+        store.recordRoll(sessionId, PackedRoll.pack(List.of(8, 8, 8, 8, 8)));
+        Assertions.assertEquals(50, store.fill(sessionId, Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+
+        final Scorecard scorecard = store.getScorecard(sessionId);
+        Assertions.assertEquals(90, scorecard.getTotalScore(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(40, scorecard.getScore(Category.LARGE_STRAIGHT), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(50, scorecard.getScore(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(CategoryMask.of(List.of(Category.LARGE_STRAIGHT, Category.SCHOONER)),
+                scorecard.getFilledCategoryMask(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRecentRolls() {
+        final OffHeapSessionStore store = new OffHeapSessionStore(new TabulatedDiceApi(), 16, 4);
+        final long sessionId = store.startSession();
+        Assertions.assertEquals(0, store.getRecentRolls(sessionId).length, GENERIC_ERROR_MESSAGE);
+
+        // The roll of five ones packs to zero, which is still recorded
+        for (int packedRoll = 0; packedRoll < 6; packedRoll++) {
+            store.recordRoll(sessionId, packedRoll);
+        }
+        Assertions.assertArrayEquals(new int[]{5, 4, 3, 2}, store.getRecentRolls(sessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> store.recordRoll(sessionId, PackedRoll.NUMBER_OF_PACKED_ROLLS), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidArenasAreRejected() {
+        final TabulatedDiceApi diceApi = new TabulatedDiceApi();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapSessionStore(diceApi, 12, 4),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapSessionStore(diceApi, 16, 0),
+                GENERIC_ERROR_MESSAGE);
+        // Larger arenas would overflow the int byte offsets of their records
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapSessionStore(diceApi, OffHeapSessionStore.MAX_SLOTS_PER_ARENA << 1, 4),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, new OffHeapSessionStore(diceApi, OffHeapSessionStore.MAX_SLOTS_PER_ARENA, 4).size(),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testEndedSlotsAreReusedWithoutMatchingStaleSessions() {
+        final OffHeapSessionStore store = new OffHeapSessionStore(new TabulatedDiceApi(), 16, 4);
+        final Set<Long> sessionIds = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            sessionIds.add(store.startSession());
+        }
+        Assertions.assertEquals(64, store.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(64 * 64, store.getOffHeapBytes(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class, store::startSession, GENERIC_ERROR_MESSAGE);
+
+        final long endedSessionId = sessionIds.iterator().next();
+        store.recordRoll(endedSessionId, PackedRoll.pack(List.of(6, 6, 6, 6, 6)));
+        store.fill(endedSessionId, Category.SIXES);
+        Assertions.assertTrue(store.endSession(endedSessionId), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(store.endSession(endedSessionId), GENERIC_ERROR_MESSAGE);
+
+        final long reusedSessionId = store.startSession();
+        Assertions.assertEquals((int) endedSessionId, (int) reusedSessionId, GENERIC_ERROR_MESSAGE);
+        Assertions.assertNotEquals(endedSessionId, reusedSessionId, GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.getScorecard(endedSessionId),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, store.getScorecard(reusedSessionId).getTotalScore(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, store.getRecentRolls(reusedSessionId).length, GENERIC_ERROR_MESSAGE);
+        // Arenas aren't allocated again for reused slots
+        Assertions.assertEquals(64 * 64, store.getOffHeapBytes(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRollsRecordedWhileSessionsEndKeepTheFreeListIntact() throws Exception {
+        final OffHeapSessionStore store = new OffHeapSessionStore(new TabulatedDiceApi(), 16, 4);
+        final AtomicLongArray liveSessionIds = new AtomicLongArray(8);
+        final int packedRoll = PackedRoll.pack(List.of(6, 6, 6, 6, 6));
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                final int firstIndex = thread * liveSessionIds.length() / 2;
+                tasks.add(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        final int index = firstIndex + i % (liveSessionIds.length() / 2);
+                        final long sessionId = store.startSession();
+                        liveSessionIds.set(index, sessionId);
+                        store.endSession(sessionId);
+                    }
+                    return null;
+                });
+                // Rolls are recorded for sessions that may be ended at the same time
+                tasks.add(() -> {
+                    for (int i = 0; i < 200_000; i++) {
+                        try {
+                            store.recordRoll(liveSessionIds.get(ThreadLocalRandom.current()
+                                    .nextInt(liveSessionIds.length())), packedRoll);
+                        } catch (final IllegalArgumentException e) {
+                            // The session was already ended
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> task : executorService.invokeAll(tasks)) {
+                task.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // Every slot is handed out exactly once before the store is full
+        Assertions.assertEquals(0, store.size(), GENERIC_ERROR_MESSAGE);
+        final Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 16 * 4; i++) {
+            Assertions.assertTrue(slots.add((int) store.startSession()), GENERIC_ERROR_MESSAGE);
+        }
+        Assertions.assertThrows(IllegalStateException.class, store::startSession, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testConcurrentFillsOfOneSession() throws Exception {
+        final OffHeapSessionStore store = new OffHeapSessionStore(new TabulatedDiceApi(), 1024, 4);
+        final List<Integer> diceRoll = List.of(3, 3, 3, 4, 4);
+        int expectedTotal = 0;
+        for (Category category : CATEGORIES) {
+            expectedTotal += REFERENCE_DICE_API.score(category, diceRoll);
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(CATEGORIES.length);
+        try {
+            for (int game = 0; game < 200; game++) {
+                final long sessionId = store.startSession();
+                store.recordRoll(sessionId, PackedRoll.pack(diceRoll));
+                final List<Callable<Integer>> fills = new ArrayList<>();
+                for (Category category : CATEGORIES) {
+                    fills.add(() -> store.fill(sessionId, category));
+                    // Every category is also claimed by a second thread, which has to lose
+                    fills.add(() -> {
+                        try {
+                            return store.fill(sessionId, category);
+                        } catch (final IllegalStateException e) {
+                            return 0;
+                        }
+                    });
+                }
+                int filledTotal = 0;
+                for (Future<Integer> fill : executorService.invokeAll(fills)) {
+                    try {
+                        filledTotal += fill.get();
+                    } catch (final Exception e) {
+                        // The first claim of a category lost to the second one
+                    }
+                }
+                final Scorecard scorecard = store.getScorecard(sessionId);
+                Assertions.assertTrue(scorecard.isComplete(), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(expectedTotal, scorecard.getTotalScore(), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(expectedTotal, filledTotal, GENERIC_ERROR_MESSAGE);
+                Assertions.assertTrue(store.endSession(sessionId), GENERIC_ERROR_MESSAGE);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assertions.assertEquals(0, store.size(), GENERIC_ERROR_MESSAGE);
+    }
+}
@@ -0,0 +1,86 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.BatchScoringResult;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.ParallelDiceScorer;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.TabulatedDiceApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test class for parallel scoring, which should agree with scoring the whole batch on a single thread
+ */
+public class ParallelDiceScorerTest extends DiceApiTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect parallel result for the dice rolls";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @Override
+    DiceApi initializeTestService() {
+        return new TabulatedDiceApi();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testScoreAllMatchesSingleThreadedBatch() {
+        final RollBatch rollBatch = SchoonerDiceApiBatchTest.allRollsBatch();
+        // Chunk size that doesn't divide the batch, so the last chunk is shorter
+        final ParallelDiceScorer parallelDiceScorer = new ParallelDiceScorer(diceApi, executorService, 1000);
+
+        final BatchScoringResult result = parallelDiceScorer.scoreAll(rollBatch);
+
+        final int[] expectedScores = new int[rollBatch.size() * CategoryMask.NUMBER_OF_CATEGORIES];
+        final int[] expectedTopCategoryMasks = new int[rollBatch.size()];
+        diceApi.scoreAll(rollBatch, expectedScores);
+        diceApi.topCategories(rollBatch, expectedTopCategoryMasks);
+        Assertions.assertEquals(rollBatch.size(), result.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertArrayEquals(expectedScores, result.getScores(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertArrayEquals(expectedTopCategoryMasks, result.getTopCategoryMasks(), GENERIC_ERROR_MESSAGE);
+
+        for (Category category : Category.values()) {
+            long expectedHitCount = 0;
+            long expectedTopCategoryCount = 0;
+            for (int i = 0; i < rollBatch.size(); i++) {
+                if (expectedScores[i * CategoryMask.NUMBER_OF_CATEGORIES + category.ordinal()] > Category.DEFAULT_SCORE) {
+                    expectedHitCount++;
+                }
+                if (CategoryMask.contains(expectedTopCategoryMasks[i], category)) {
+                    expectedTopCategoryCount++;
+                }
+            }
+            Assertions.assertEquals(expectedHitCount, result.getHitCount(category), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(expectedTopCategoryCount, result.getTopCategoryCount(category), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testSummarizeOnlyKeepsCounts() {
+        final RollBatch rollBatch = SchoonerDiceApiBatchTest.allRollsBatch();
+        final BatchScoringResult result = new ParallelDiceScorer(diceApi).summarize(rollBatch);
+
+        Assertions.assertNull(result.getScores(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertNull(result.getTopCategoryMasks(), GENERIC_ERROR_MESSAGE);
+        // Every roll scores for Chance, and only 8 of them are a Schooner
+        Assertions.assertEquals(rollBatch.size(), result.getHitCount(Category.CHANCE), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Category.NUMBER_OF_FACES, result.getHitCount(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testChunksTooLargeForPerRollScoresAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelDiceScorer(diceApi, executorService,
+                ParallelDiceScorer.MAX_ROLLS_WITH_PER_ROLL_RESULTS + 1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ParallelDiceScorer(diceApi, executorService, 0), GENERIC_ERROR_MESSAGE);
+    }
+}
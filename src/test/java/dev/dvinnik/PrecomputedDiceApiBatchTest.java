@@ -0,0 +1,15 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PrecomputedDiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiBatchTest} against the tables generated by the build
+ */
+public class PrecomputedDiceApiBatchTest extends SchoonerDiceApiBatchTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new PrecomputedDiceApi();
+    }
+}
@@ -0,0 +1,63 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PrecomputedDiceApi;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.SchoonerDiceApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Precomputed Dice API test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} against the tables generated by the build, and additionally
+ * compares all ordered rolls against the reference implementation.
+ */
+public class PrecomputedDiceApiScoreTest extends SchoonerDiceApiScoreTest {
+    private static final String TABLES_ERROR_MESSAGE = "Incorrect precomputed score";
+
+    @Override
+    DiceApi initializeTestService() {
+        return new PrecomputedDiceApi();
+    }
+
+    @Test
+    void testScoreMatchesReferenceImplementationForAllRolls() {
+        assertMatchesReference(diceApi);
+    }
+
+    @Test
+    void testScoreWithInvalidRolls() {
+        assertRejectsInvalidRolls(diceApi);
+    }
+
+    @Test
+    void testWrittenTablesAreLoaded(@TempDir final Path directory) throws IOException {
+        final Path path = directory.resolve(PrecomputedDiceApi.SCORE_TABLES_RESOURCE);
+        PrecomputedDiceApi.write(new SchoonerDiceApi(), path);
+
+        final DiceApi loadedDiceApi;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            loadedDiceApi = new PrecomputedDiceApi(inputStream);
+        }
+        final Roll roll = Roll.of(4, 4, 4, 2, 2);
+        Assertions.assertEquals(25, loadedDiceApi.score(Category.FULL_HOUSE, roll), TABLES_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(Category.FULL_HOUSE), loadedDiceApi.topCategories(roll),
+                TABLES_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidTablesAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new PrecomputedDiceApi(new ByteArrayInputStream(new byte[]{1, 2, 3})), TABLES_ERROR_MESSAGE);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.strategy.RerollAdvice;
+import dev.dvinnik.strategy.RerollAdvisor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test class for {RerollAdvisor}
+ */
+public class RerollAdvisorTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect reroll advice";
+    private static final double EPSILON = 1e-9;
+
+    private static RerollAdvisor rerollAdvisor;
+
+    @BeforeAll
+    static void init() {
+        rerollAdvisor = new RerollAdvisor();
+    }
+
+    @Test
+    void testNoRerollsKeepsEveryDie() {
+        final RerollAdvice advice = rerollAdvisor.advise(List.of(1, 2, 3, 4, 5), 0, EnumSet.allOf(Category.class));
+
+        Assertions.assertEquals(List.of(1, 2, 3, 4, 5), advice.getKeptDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0b11111, advice.getKeptDiceMask(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(40, advice.getExpectedScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSchoonerIsKept() {
+        final RerollAdvice advice = rerollAdvisor.advise(List.of(7, 7, 7, 7, 7), 2, EnumSet.allOf(Category.class));
+
+        Assertions.assertEquals(List.of(7, 7, 7, 7, 7), advice.getKeptDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(50, advice.getExpectedScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testFourOfAKindChasesSchooner() {
+        final RerollAdvice advice = rerollAdvisor.advise(List.of(6, 1, 6, 6, 6), 1, Set.of(Category.SCHOONER));
+
+        Assertions.assertEquals(0b11101, advice.getKeptDiceMask(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(50.0 / 8, advice.getExpectedScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testChanceRerollsLowDice() {
+        // A rerolled die is worth 4.5 on average, so only dice above that are kept
+        final RerollAdvice advice = rerollAdvisor.advise(List.of(1, 8, 4, 5, 8), 1, Set.of(Category.CHANCE));
+
+        Assertions.assertEquals(List.of(8, 5, 8), advice.getKeptDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(21 + 2 * 4.5, advice.getExpectedScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testMoreRerollsNeverLowerExpectedScore() {
+        final List<Integer> diceRoll = List.of(2, 3, 3, 7, 8);
+        final Set<Category> openCategories = EnumSet.of(Category.LARGE_STRAIGHT, Category.THREES, Category.FULL_HOUSE);
+
+        double previousExpectedScore = Double.NEGATIVE_INFINITY;
+        for (int rerollsLeft = 0; rerollsLeft <= 3; rerollsLeft++) {
+            final double expectedScore = rerollAdvisor.advise(diceRoll, rerollsLeft, openCategories).getExpectedScore();
+            Assertions.assertTrue(expectedScore >= previousExpectedScore - EPSILON, GENERIC_ERROR_MESSAGE);
+            previousExpectedScore = expectedScore;
+        }
+    }
+
+    @Test
+    void testExpectedScoreMatchesEnumerationOfOutcomes() {
+        final DiceApi referenceApi = new SchoonerDiceApi();
+        final int[] diceRoll = new int[]{2, 3, 4, 4, 8};
+        final int openCategoryMask = CategoryMask.of(EnumSet.of(Category.SMALL_STRAIGHT, Category.FOURS,
+                Category.THREE_OF_A_KIND, Category.ALL_DIFFERENT));
+
+        // Every keep mask, every ordered outcome of the rerolled dice, scored with the reference implementation
+        double bestExpectedScore = Double.NEGATIVE_INFINITY;
+        for (int keptDiceMask = 0; keptDiceMask < 1 << 5; keptDiceMask++) {
+            final int rerolledDice = 5 - Integer.bitCount(keptDiceMask);
+            final int numberOfOutcomes = 1 << (3 * rerolledDice);
+            long totalScore = 0;
+            for (int outcome = 0; outcome < numberOfOutcomes; outcome++) {
+                final int[] newRoll = new int[5];
+                int nextRerolledDie = 0;
+                for (int i = 0; i < 5; i++) {
+                    newRoll[i] = (keptDiceMask & (1 << i)) != 0
+                            ? diceRoll[i] : ((outcome >>> (3 * nextRerolledDie++)) & 0x7) + 1;
+                }
+                int bestScore = 0;
+                for (Category category : CategoryMask.toList(openCategoryMask)) {
+                    bestScore = Math.max(bestScore, referenceApi.score(category, newRoll, 0));
+                }
+                totalScore += bestScore;
+            }
+            bestExpectedScore = Math.max(bestExpectedScore, (double) totalScore / numberOfOutcomes);
+        }
+
+        Assertions.assertEquals(bestExpectedScore,
+                rerollAdvisor.advise(List.of(2, 3, 4, 4, 8), 1, openCategoryMask).getExpectedScore(),
+                EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSmallerRuleSet() {
+        final RerollAdvisor advisor = new RerollAdvisor(RuleSet.builder().numberOfDice(3).numberOfFaces(6)
+                .fullHouse(2, 1).build().compile());
+
+        // Keeping nothing rerolls three six-sided dice, 3.5 each
+        final RerollAdvice advice = advisor.advise(List.of(1, 2, 3), 1, Set.of(Category.CHANCE));
+        Assertions.assertEquals(List.of(), advice.getKeptDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(10.5, advice.getExpectedScore(), EPSILON, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidQueries() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rerollAdvisor.advise(List.of(1, 2, 3, 4), 1, EnumSet.allOf(Category.class)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rerollAdvisor.advise(List.of(1, 2, 3, 4, 9), 1, EnumSet.allOf(Category.class)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rerollAdvisor.advise(List.of(1, 2, 3, 4, 5), -1, EnumSet.allOf(Category.class)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> rerollAdvisor.advise(List.of(1, 2, 3, 4, 5), 1, CategoryMask.NONE));
+    }
+}
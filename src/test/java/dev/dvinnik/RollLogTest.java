@@ -0,0 +1,126 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.io.RollLogReader;
+import dev.dvinnik.io.RollLogWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for writing and reading binary roll logs
+ */
+public class RollLogTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect rolls read from the roll log";
+
+    private static final DiceApi DICE_API = new TabulatedDiceApi();
+
+    @Test
+    void testRollsRoundTrip(@TempDir final Path directory) throws IOException {
+        final Path path = directory.resolve("rolls.log");
+        try (RollLogWriter writer = new RollLogWriter(path, 1000, null)) {
+            for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+                writer.writePackedRoll(packedRoll);
+            }
+            writer.write(List.of(1, 2, 3, 4, 5));
+        }
+
+        // A header, 32 full blocks and a partial block of 769 rolls, padded to 1540 bytes
+        Assertions.assertEquals(20 + 32 * (4 + 2000) + 4 + 1540, Files.size(path), GENERIC_ERROR_MESSAGE);
+        try (RollLogReader reader = RollLogReader.open(path)) {
+            Assertions.assertEquals(33, reader.getNumberOfBlocks(), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(PackedRoll.NUMBER_OF_PACKED_ROLLS + 1, reader.getNumberOfRolls(),
+                    GENERIC_ERROR_MESSAGE);
+            Assertions.assertFalse(reader.hasSummaries(), GENERIC_ERROR_MESSAGE);
+
+            final int[] nextRoll = new int[]{0};
+            reader.forEachBlock(rollBatch -> {
+                for (int i = 0; i < rollBatch.size(); i++) {
+                    final int expectedRoll = nextRoll[0] < PackedRoll.NUMBER_OF_PACKED_ROLLS
+                            ? nextRoll[0] : PackedRoll.pack(List.of(1, 2, 3, 4, 5));
+                    Assertions.assertEquals(expectedRoll, rollBatch.getPackedRoll(i), GENERIC_ERROR_MESSAGE);
+                    nextRoll[0]++;
+                }
+            });
+            Assertions.assertEquals(PackedRoll.NUMBER_OF_PACKED_ROLLS + 1, nextRoll[0], GENERIC_ERROR_MESSAGE);
+            Assertions.assertThrows(IllegalStateException.class, () -> reader.getHitCount(0, Category.CHANCE));
+        }
+    }
+
+    @Test
+    void testSummariesMatchBatchScoring(@TempDir final Path directory) {
+        final Path path = directory.resolve("rolls.log");
+        final RollBatch allRolls = SchoonerDiceApiBatchTest.allRollsBatch();
+        try (RollLogWriter writer = new RollLogWriter(path, 4096, DICE_API)) {
+            writer.write(allRolls);
+        }
+
+        try (RollLogReader reader = RollLogReader.open(path)) {
+            Assertions.assertTrue(reader.hasSummaries(), GENERIC_ERROR_MESSAGE);
+            final RollBatch rollBatch = new RollBatch(reader.getBlockSize());
+            final int[] scores = new int[reader.getBlockSize()];
+            final int[] topCategoryMasks = new int[reader.getBlockSize()];
+            for (int block = 0; block < reader.getNumberOfBlocks(); block++) {
+                final int numberOfRolls = reader.readBlock(block, rollBatch);
+                DICE_API.topCategories(rollBatch, topCategoryMasks);
+                for (Category category : Category.values()) {
+                    DICE_API.score(category, rollBatch, scores);
+                    int hitCount = 0;
+                    int topCategoryCount = 0;
+                    for (int i = 0; i < numberOfRolls; i++) {
+                        hitCount += scores[i] > Category.DEFAULT_SCORE ? 1 : 0;
+                        topCategoryCount += CategoryMask.contains(topCategoryMasks[i], category) ? 1 : 0;
+                    }
+                    Assertions.assertEquals(hitCount, reader.getHitCount(block, category), GENERIC_ERROR_MESSAGE);
+                    Assertions.assertEquals(topCategoryCount, reader.getTopCategoryCount(block, category),
+                            GENERIC_ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEmptyLog(@TempDir final Path directory) {
+        final Path path = directory.resolve("rolls.log");
+        new RollLogWriter(path).close();
+
+        try (RollLogReader reader = RollLogReader.open(path)) {
+            Assertions.assertEquals(0, reader.getNumberOfBlocks(), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(0, reader.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> reader.getNumberOfRolls(0));
+        }
+    }
+
+    @Test
+    void testInvalidLogs(@TempDir final Path directory) throws IOException {
+        final Path textPath = directory.resolve("rolls.txt");
+        Files.writeString(textPath, "1,2,3,4,5\n2,3,4,5,6\n");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollLogReader.open(textPath));
+
+        // A log cut in the middle of its last block
+        final Path truncatedPath = directory.resolve("truncated.log");
+        try (RollLogWriter writer = new RollLogWriter(truncatedPath)) {
+            for (int i = 0; i < 100; i++) {
+                writer.write(List.of(1, 2, 3, 4, 5));
+            }
+        }
+        final byte[] bytes = Files.readAllBytes(truncatedPath);
+        Files.write(truncatedPath, Arrays.copyOf(bytes, bytes.length - 8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollLogReader.open(truncatedPath));
+
+        try (RollLogWriter writer = new RollLogWriter(directory.resolve("invalid.log"))) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write(List.of(1, 2, 3, 4, 9)));
+        }
+    }
+}
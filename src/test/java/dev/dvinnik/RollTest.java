@@ -0,0 +1,123 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.BitmaskDiceApi;
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.FaceCounts;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.Roll;
+import dev.dvinnik.core.RuleSet;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for the validated, interned roll
+ */
+public class RollTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect roll";
+
+    @Test
+    void testRollsOfTheSameDiceAreTheSameInstance() {
+        final Roll roll = Roll.of(3, 1, 2, 4, 5);
+
+        Assertions.assertSame(roll, Roll.of(5, 4, 3, 2, 1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertSame(roll, Roll.of(List.of(2, 4, 1, 5, 3)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertSame(roll, Roll.ofPackedRoll(PackedRoll.pack(List.of(5, 3, 1, 2, 4))), GENERIC_ERROR_MESSAGE);
+        Assertions.assertSame(roll, Roll.ofFaceCounts(roll.getFaceCounts()), GENERIC_ERROR_MESSAGE);
+        Assertions.assertSame(roll, Roll.ofIndex(roll.getIndex()), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testEveryMultisetHasOneRoll() {
+        final Map<Roll, Boolean> rolls = new IdentityHashMap<>();
+        for (List<Integer> diceRoll : DiceApiTest.allRolls()) {
+            rolls.put(Roll.of(diceRoll), true);
+        }
+
+        Assertions.assertEquals(792, rolls.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Roll.NUMBER_OF_ROLLS, rolls.size(), GENERIC_ERROR_MESSAGE);
+        for (int index = 0; index < Roll.NUMBER_OF_ROLLS; index++) {
+            Assertions.assertEquals(index, Roll.ofIndex(index).getIndex(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testDerivedFacts() {
+        final Roll roll = Roll.of(6, 2, 6, 3, 4);
+
+        Assertions.assertEquals(List.of(2, 3, 4, 6, 6), roll.getDice(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(PackedRoll.pack(List.of(2, 3, 4, 6, 6)), roll.getPackedRoll(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(FaceCounts.ofPackedRoll(roll.getPackedRoll()), roll.getFaceCounts(),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0b101110, roll.getPresenceMask(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, roll.getCount(6), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(0, roll.getCount(1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(21, roll.getSum(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(2, roll.getMaxCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(4, roll.getDistinctCount(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(3, roll.getLongestRun(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> roll.getDice().set(0, 1),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidRollsAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.of(1, 2, 3, 4), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.of(1, 2, 3, 4, 5, 6), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.of(List.of(1, 2, 3, 4)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.of(0, 2, 3, 4, 5), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.of(1, 2, 3, 4, 9), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Roll.ofPackedRoll(-1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Roll.ofFaceCounts(Roll.of(1, 1, 2, 2, 3).getFaceCounts() - 1), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Roll.ofFaceCounts(5L << (FaceCounts.BITS_PER_FACE * Category.NUMBER_OF_FACES)),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSchoonerDiceApiRejectsWrongNumberOfDice() {
+        final DiceApi diceApi = new SchoonerDiceApi();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, List.of(1, 2, 3, 4)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.topCategories(List.of(1, 2, 3, 4, 5, 6)), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testCategoryValuesOfOtherCategoriesAreRejected() {
+        Assertions.assertThrows(IllegalStateException.class, Category.CHANCE::getMatchingDiceScore,
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class, Category.ONES::getConstantDiceScore,
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRollScoresMatchListScores() {
+        final DiceApi referenceDiceApi = new SchoonerDiceApi();
+        for (DiceApi diceApi : List.of(referenceDiceApi, new BitmaskDiceApi(), new TabulatedDiceApi(),
+                RuleSet.STANDARD.compile())) {
+            for (int index = 0; index < Roll.NUMBER_OF_ROLLS; index++) {
+                final Roll roll = Roll.ofIndex(index);
+                final List<Integer> diceRoll = new ArrayList<>(roll.getDice());
+                Collections.reverse(diceRoll);
+                for (Category category : Category.values()) {
+                    Assertions.assertEquals(referenceDiceApi.score(category, diceRoll), diceApi.score(category, roll),
+                            GENERIC_ERROR_MESSAGE);
+                }
+                Assertions.assertEquals(referenceDiceApi.topCategories(diceRoll), diceApi.topCategories(roll),
+                        GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+}
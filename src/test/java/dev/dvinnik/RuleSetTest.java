@@ -0,0 +1,89 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CompiledRuleSet;
+import dev.dvinnik.core.RuleSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Test class for rule set variants
+ */
+public class RuleSetTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect score for the rule set variant";
+
+    @Test
+    void testStandardRuleSetHasEveryMultiset() {
+        Assertions.assertEquals(792, RuleSet.STANDARD.compile().getNumberOfMultisets(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSevenDiceVariant() {
+        final CompiledRuleSet diceApi = RuleSet.builder()
+                .numberOfDice(7)
+                .constantScore(Category.SCHOONER, 100)
+                .straightLength(Category.LARGE_STRAIGHT, 7)
+                .fullHouse(4, 3)
+                .build()
+                .compile();
+
+        Assertions.assertEquals(100, diceApi.score(Category.SCHOONER, List.of(2, 2, 2, 2, 2, 2, 2)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(14, diceApi.score(Category.TWOS, List.of(2, 2, 2, 2, 2, 2, 2)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(40, diceApi.score(Category.LARGE_STRAIGHT, List.of(7, 1, 2, 3, 4, 5, 6)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Category.DEFAULT_SCORE,
+                diceApi.score(Category.LARGE_STRAIGHT, List.of(1, 2, 3, 4, 5, 6, 6)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(25, diceApi.score(Category.FULL_HOUSE, List.of(5, 5, 5, 5, 1, 1, 1)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(Category.DEFAULT_SCORE,
+                diceApi.score(Category.FULL_HOUSE, List.of(5, 5, 5, 1, 1, 1, 2)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(35, diceApi.score(Category.ALL_DIFFERENT, new int[]{1, 2, 3, 4, 5, 6, 8}, 0),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(List.of(Category.SCHOONER), diceApi.topCategories(List.of(8, 8, 8, 8, 8, 8, 8)),
+                GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testRuleSetFromProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty("dice", "3");
+        properties.setProperty("faces", "6");
+        properties.setProperty("score.SCHOONER", "20");
+        properties.setProperty("length.SMALL_STRAIGHT", "3");
+        properties.setProperty("length.LARGE_STRAIGHT", "3");
+        properties.setProperty("fullHouse.triple", "2");
+        properties.setProperty("fullHouse.pair", "1");
+        final CompiledRuleSet diceApi = RuleSet.fromProperties(properties).compile();
+
+        // Six-sided dice never show a seven
+        Assertions.assertEquals(Category.DEFAULT_SCORE, diceApi.score(Category.SEVENS, List.of(1, 2, 3)),
+                GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(20, diceApi.score(Category.SCHOONER, List.of(6, 6, 6)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(30, diceApi.score(Category.SMALL_STRAIGHT, List.of(3, 1, 2)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(56, diceApi.getNumberOfMultisets(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(25, diceApi.score(Category.FULL_HOUSE, List.of(4, 1, 4)), GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> diceApi.score(Category.CHANCE, List.of(1, 2, 7)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> diceApi.score(Category.CHANCE, List.of(1, 2)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> diceApi.score(Category.CHANCE, 0));
+    }
+
+    @Test
+    void testInvalidRuleSets() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().numberOfDice(0).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().numberOfFaces(17).build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RuleSet.builder().constantScore(Category.CHANCE, 10));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RuleSet.builder().numberOfDice(15).numberOfFaces(16).fullHouse(8, 7).build().compile());
+        // The Full House has to cover every die, including when only the number of dice is overridden
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().fullHouse(3, 3).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().numberOfDice(6).build());
+        final Properties properties = new Properties();
+        properties.setProperty("dice", "6");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.fromProperties(properties));
+        properties.setProperty("dice", "many");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RuleSet.fromProperties(properties));
+    }
+}
@@ -0,0 +1,90 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.SchoonerDiceApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * Test class for batch scoring methods, which should agree with scoring the same rolls one by one
+ */
+public class SchoonerDiceApiBatchTest extends DiceApiTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect batch result for the dice rolls";
+
+    private final DiceApi referenceDiceApi = new SchoonerDiceApi();
+
+    @Override
+    DiceApi initializeTestService() {
+        return new SchoonerDiceApi();
+    }
+
+    @Test
+    void testScoreBatchForEveryCategory() {
+        final RollBatch rollBatch = allRollsBatch();
+        final int[] scores = new int[rollBatch.size()];
+        for (Category category : Category.values()) {
+            diceApi.score(category, rollBatch, scores);
+            for (int i = 0; i < rollBatch.size(); i++) {
+                Assertions.assertEquals(referenceDiceApi.score(category, PackedRoll.toList(rollBatch.getPackedRoll(i))),
+                        scores[i], GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    @Test
+    void testScoreAllBatch() {
+        final RollBatch rollBatch = allRollsBatch();
+        final int[] scores = new int[rollBatch.size() * CategoryMask.NUMBER_OF_CATEGORIES];
+        diceApi.scoreAll(rollBatch, scores);
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final List<Integer> diceRoll = PackedRoll.toList(rollBatch.getPackedRoll(i));
+            for (Category category : Category.values()) {
+                Assertions.assertEquals(referenceDiceApi.score(category, diceRoll),
+                        scores[i * CategoryMask.NUMBER_OF_CATEGORIES + category.ordinal()], GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    @Test
+    void testTopCategoriesBatch() {
+        final RollBatch rollBatch = allRollsBatch();
+        final int[] topCategoryMasks = new int[rollBatch.size()];
+        diceApi.topCategories(rollBatch, topCategoryMasks);
+        for (int i = 0; i < rollBatch.size(); i++) {
+            final List<Integer> diceRoll = PackedRoll.toList(rollBatch.getPackedRoll(i));
+            Assertions.assertEquals(referenceDiceApi.topCategories(diceRoll),
+                    CategoryMask.toList(topCategoryMasks[i]), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testScoreBatchView() {
+        final RollBatch rollBatch = new RollBatch(3);
+        rollBatch.add(List.of(1, 1, 1, 1, 1));
+        rollBatch.add(List.of(1, 2, 3, 4, 5));
+        rollBatch.add(List.of(8, 8, 8, 2, 2));
+        final int[] scores = new int[2];
+        diceApi.score(Category.CHANCE, rollBatch.view(1, 2), scores);
+        Assertions.assertArrayEquals(new int[]{15, 28}, scores, GENERIC_ERROR_MESSAGE);
+        Assertions.assertThrows(IllegalStateException.class, () -> rollBatch.add(List.of(1, 1, 1, 1, 1)));
+    }
+
+    /**
+     * Utilities
+     */
+
+    static RollBatch allRollsBatch() {
+        final IntBuffer packedRolls = IntBuffer.allocate(PackedRoll.NUMBER_OF_PACKED_ROLLS);
+        for (int packedRoll = 0; packedRoll < PackedRoll.NUMBER_OF_PACKED_ROLLS; packedRoll++) {
+            packedRolls.put(packedRoll);
+        }
+        return RollBatch.ofPackedRolls(packedRolls.flip());
+    }
+}
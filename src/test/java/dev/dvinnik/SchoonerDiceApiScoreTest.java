@@ -2,6 +2,7 @@ package dev.dvinnik;
 
 import dev.dvinnik.core.Category;
 import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
 import dev.dvinnik.core.SchoonerDiceApi;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -283,6 +284,14 @@ public class SchoonerDiceApiScoreTest extends DiceApiTest {
                 diceApi.score(testCategory, testDiceRolls), GENERIC_ERROR_MESSAGE);
     }
 
+    @Test
+    void testScoreForSmallStraightCategoryWithTwoSeparateRuns() {
+        final List<Integer> testDiceRolls = List.of(1, 2, 3, 5, 6);
+        final int expectedScore = Category.DEFAULT_SCORE;
+        Assertions.assertEquals(expectedScore,
+                diceApi.score(Category.SMALL_STRAIGHT, testDiceRolls), GENERIC_ERROR_MESSAGE);
+    }
+
     @Test
     void testScoreForSmallStraightCategoryWithNoOccurrence() {
         final List<Integer> testDiceRolls = List.of(7, 4, 1, 4, 3);
@@ -401,6 +410,34 @@ public class SchoonerDiceApiScoreTest extends DiceApiTest {
     }
 
 
+    /**
+     * Tests for primitive overloads
+     */
+    @Test
+    void testScoreWithPrimitiveOverloadsForAllRolls() {
+        final int[] diceRollArray = new int[Category.NUMBER_OF_DICE + 1];
+        for (List<Integer> diceRoll : allRolls()) {
+            // Shifting the roll by one, so we also check the offset
+            for (int i = 0; i < diceRoll.size(); i++) {
+                diceRollArray[i + 1] = diceRoll.get(i);
+            }
+            final int packedRoll = PackedRoll.pack(diceRoll);
+            for (Category category : Category.values()) {
+                final int expectedScore = diceApi.score(category, diceRoll);
+                Assertions.assertEquals(expectedScore, diceApi.score(category, diceRollArray, 1), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(expectedScore, diceApi.score(category, packedRoll), GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    @Test
+    void testScoreWithPrimitiveOverloadsAndInvalidRolls() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, new int[]{1, 2, 3, 4, 9}, 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> diceApi.score(Category.CHANCE, PackedRoll.NUMBER_OF_PACKED_ROLLS));
+    }
+
     /**
      * Utilities
      */
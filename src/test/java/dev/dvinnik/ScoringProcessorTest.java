@@ -0,0 +1,228 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.stream.CategoryAggregates;
+import dev.dvinnik.stream.ScoredBatch;
+import dev.dvinnik.stream.ScoringProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for the streaming scoring stage
+ */
+public class ScoringProcessorTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect batches published by the scoring stage";
+
+    private static final DiceApi DICE_API = new TabulatedDiceApi();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    void testEveryRollIsScoredInOrder() throws Exception {
+        final ScoringProcessor processor = new ScoringProcessor(DICE_API, executorService, 1000,
+                Duration.ofMillis(10), 4);
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        processor.subscribe(subscriber);
+        try (SubmissionPublisher<List<Integer>> upstream = new SubmissionPublisher<>(executorService, 256)) {
+            upstream.subscribe(processor);
+            for (List<Integer> diceRoll : DiceApiTest.allRolls()) {
+                upstream.submit(diceRoll);
+            }
+        }
+        subscriber.completion.get(30, TimeUnit.SECONDS);
+
+        final List<List<Integer>> allRolls = DiceApiTest.allRolls();
+        int rollIndex = 0;
+        for (ScoredBatch scoredBatch : subscriber.batches) {
+            Assertions.assertTrue(scoredBatch.size() <= 1000, GENERIC_ERROR_MESSAGE);
+            for (int i = 0; i < scoredBatch.size(); i++) {
+                final List<Integer> diceRoll = allRolls.get(rollIndex++);
+                Assertions.assertEquals(PackedRoll.pack(diceRoll), scoredBatch.getPackedRoll(i), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(DICE_API.score(Category.FULL_HOUSE, diceRoll),
+                        scoredBatch.getScore(i, Category.FULL_HOUSE), GENERIC_ERROR_MESSAGE);
+            }
+        }
+        Assertions.assertEquals(allRolls.size(), rollIndex, GENERIC_ERROR_MESSAGE);
+
+        final CategoryAggregates aggregates = subscriber.batches.get(subscriber.batches.size() - 1).getAggregates();
+        Assertions.assertEquals(allRolls.size(), aggregates.getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(32768, aggregates.getHitCount(Category.CHANCE), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(8, aggregates.getHitCount(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(8, aggregates.getTopCategoryCount(Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(22.5, aggregates.getMeanScore(Category.CHANCE), 1e-9, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterDelay() throws Exception {
+        final ScoringProcessor processor = new ScoringProcessor(DICE_API, executorService, 1000,
+                Duration.ofMillis(20), 4);
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        processor.subscribe(subscriber);
+        final SubmissionPublisher<List<Integer>> upstream = new SubmissionPublisher<>(executorService, 256);
+        upstream.subscribe(processor);
+        upstream.submit(List.of(1, 1, 1, 1, 1));
+        upstream.submit(List.of(1, 2, 3, 4, 5));
+
+        // Upstream stays open, so only the delay can flush the batch
+        final ScoredBatch scoredBatch = subscriber.firstBatch.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, scoredBatch.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(50, scoredBatch.getScore(0, Category.SCHOONER), GENERIC_ERROR_MESSAGE);
+        upstream.close();
+    }
+
+    @Test
+    void testDemandIsBoundedByBatchSize() {
+        final ScoringProcessor processor = new ScoringProcessor(DICE_API, executorService, 16,
+                Duration.ofSeconds(10), 4);
+        final AtomicLong requested = new AtomicLong();
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        Assertions.assertEquals(16, requested.get(), GENERIC_ERROR_MESSAGE);
+        for (int i = 0; i < 15; i++) {
+            processor.onNext(List.of(2, 2, 3, 3, 3));
+        }
+        Assertions.assertEquals(16, requested.get(), GENERIC_ERROR_MESSAGE);
+        processor.onNext(List.of(2, 2, 3, 3, 3));
+        // A full batch is published, and only then are as many rolls requested again
+        Assertions.assertEquals(32, requested.get(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(16, processor.getAggregates().getHitCount(Category.FULL_HOUSE), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testSubscriberReadingAggregatesDoesNotBlockPublishing() throws Exception {
+        final ScoringProcessor processor = new ScoringProcessor(DICE_API, executorService, 16,
+                Duration.ofSeconds(10), 1);
+        final List<Long> aggregatedRolls = Collections.synchronizedList(new ArrayList<>());
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final ScoredBatch scoredBatch) {
+                // A slow subscriber fills its buffer, while the upstream keeps publishing
+                aggregatedRolls.add(processor.getAggregates().getNumberOfRolls());
+                try {
+                    Thread.sleep(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                completion.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completion.complete(null);
+            }
+        });
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < 100 * 16; i++) {
+                processor.onNext(List.of(1, 2, 3, 4, 5));
+            }
+            processor.onComplete();
+            completion.get();
+        }, GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(100, aggregatedRolls.size(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(100 * 16, processor.getAggregates().getNumberOfRolls(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testInvalidRollFailsStage() throws Exception {
+        final ScoringProcessor processor = new ScoringProcessor(DICE_API, executorService, 16,
+                Duration.ofSeconds(10), 4);
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        processor.subscribe(subscriber);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        processor.onNext(List.of(1, 2, 3, 4, 9));
+
+        final CompletableFuture<Void> completion = subscriber.completion;
+        final Exception exception = Assertions.assertThrows(Exception.class,
+                () -> completion.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(exception.getCause() instanceof IllegalArgumentException, GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(cancelled.get(), GENERIC_ERROR_MESSAGE);
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<ScoredBatch> {
+        private final List<ScoredBatch> batches = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<ScoredBatch> firstBatch = new CompletableFuture<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final ScoredBatch scoredBatch) {
+            batches.add(scoredBatch);
+            firstBatch.complete(scoredBatch);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(null);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import dev.dvinnik.server.LoadReport;
+import dev.dvinnik.server.ScoringClient;
+import dev.dvinnik.server.ScoringLoadGenerator;
+import dev.dvinnik.server.ScoringServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for the scoring server, its client and its load generator
+ */
+public class ScoringServerTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect response of the scoring server";
+
+    private static final DiceApi REFERENCE_DICE_API = new SchoonerDiceApi();
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+    private ScoringServer server;
+
+    @AfterEach
+    void shutdown() {
+        if (server != null) {
+            server.close();
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    void testSingleRequestsOverTcp() {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try (ScoringClient client = ScoringClient.connect(address)) {
+            for (List<Integer> diceRoll : List.of(List.of(1, 1, 1, 1, 1), List.of(2, 3, 4, 5, 6),
+                    List.of(8, 8, 8, 7, 7))) {
+                for (Category category : CATEGORIES) {
+                    Assertions.assertEquals(REFERENCE_DICE_API.score(category, diceRoll),
+                            client.score(category, diceRoll), GENERIC_ERROR_MESSAGE);
+                }
+                Assertions.assertEquals(REFERENCE_DICE_API.topCategories(diceRoll), client.topCategories(diceRoll),
+                        GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    @Test
+    void testPipelinedRequestsOverUnixSocket(@TempDir final Path directory) {
+        final SocketAddress address = startServer(UnixDomainSocketAddress.of(directory.resolve("scoring.sock")));
+        final List<List<Integer>> allRolls = DiceApiTest.allRolls();
+        final int pipelineDepth = 1000;
+        final Category[] categories = new Category[pipelineDepth];
+        final int[] diceRolls = new int[pipelineDepth * Category.NUMBER_OF_DICE];
+        final int[] scores = new int[pipelineDepth];
+        final int[] topCategoryMasks = new int[pipelineDepth];
+
+        try (ScoringClient client = ScoringClient.connect(address)) {
+            for (int from = 0; from < allRolls.size(); from += pipelineDepth) {
+                final int numberOfRequests = Math.min(pipelineDepth, allRolls.size() - from);
+                for (int i = 0; i < numberOfRequests; i++) {
+                    categories[i] = CATEGORIES[(from + i) % CATEGORIES.length];
+                    for (int die = 0; die < Category.NUMBER_OF_DICE; die++) {
+                        diceRolls[i * Category.NUMBER_OF_DICE + die] = allRolls.get(from + i).get(die);
+                    }
+                }
+                client.score(categories, diceRolls, scores, numberOfRequests);
+                client.topCategories(diceRolls, topCategoryMasks, numberOfRequests);
+                for (int i = 0; i < numberOfRequests; i++) {
+                    final List<Integer> diceRoll = allRolls.get(from + i);
+                    Assertions.assertEquals(REFERENCE_DICE_API.score(categories[i], diceRoll), scores[i],
+                            GENERIC_ERROR_MESSAGE);
+                    Assertions.assertEquals(REFERENCE_DICE_API.topCategories(diceRoll),
+                            CategoryMask.toList(topCategoryMasks[i]), GENERIC_ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBatchLargerThanSocketBuffersDoesNotDeadlock() {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final List<List<Integer>> allRolls = DiceApiTest.allRolls();
+        final int numberOfRequests = 500_000;
+        final Category[] categories = new Category[numberOfRequests];
+        final int[] diceRolls = new int[numberOfRequests * Category.NUMBER_OF_DICE];
+        final int[] scores = new int[numberOfRequests];
+        for (int i = 0; i < numberOfRequests; i++) {
+            categories[i] = CATEGORIES[i % CATEGORIES.length];
+            final List<Integer> diceRoll = allRolls.get(i % allRolls.size());
+            for (int die = 0; die < Category.NUMBER_OF_DICE; die++) {
+                diceRolls[i * Category.NUMBER_OF_DICE + die] = diceRoll.get(die);
+            }
+        }
+        // A single invalid request in a later window fails the batch only once every response is read
+        final int invalidRequest = numberOfRequests - 1;
+        diceRolls[invalidRequest * Category.NUMBER_OF_DICE] = 0;
+
+        try (ScoringClient client = ScoringClient.connect(address)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Assertions.assertTimeoutPreemptively(
+                    Duration.ofSeconds(30), () -> client.score(categories, diceRolls, scores, numberOfRequests)),
+                    GENERIC_ERROR_MESSAGE);
+            for (int i = 0; i < invalidRequest; i++) {
+                Assertions.assertEquals(REFERENCE_DICE_API.score(categories[i], allRolls.get(i % allRolls.size())),
+                        scores[i], GENERIC_ERROR_MESSAGE);
+            }
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> client.score(categories, diceRolls, scores, -1), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testInvalidRollIsRejectedWithoutClosingTheConnection() {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try (ScoringClient client = ScoringClient.connect(address)) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> client.score(Category.CHANCE, List.of(0, 1, 2, 3, 4)), GENERIC_ERROR_MESSAGE);
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> client.topCategories(List.of(1, 2, 3, 4, 9)), GENERIC_ERROR_MESSAGE);
+            Assertions.assertEquals(40, client.score(Category.LARGE_STRAIGHT, List.of(1, 2, 3, 4, 5)),
+                    GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testPipelinedShortInvalidFramesAreAllRejected() throws Exception {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final int numberOfFrames = 50_000;
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            // Frames of a single byte are the shortest the server accepts, and each one still gets a full response
+            final ByteBuffer requests = ByteBuffer.allocate(numberOfFrames * (Integer.BYTES + 1));
+            for (int i = 0; i < numberOfFrames; i++) {
+                requests.putInt(1).put((byte) 2);
+            }
+            requests.flip();
+            final Future<?> writer = executorService.submit(() -> {
+                while (requests.hasRemaining()) {
+                    channel.write(requests);
+                }
+                return null;
+            });
+            final ByteBuffer responses = ByteBuffer.allocate(numberOfFrames * (Integer.BYTES + 1 + Integer.BYTES));
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                while (responses.hasRemaining()) {
+                    Assertions.assertNotEquals(-1, channel.read(responses), GENERIC_ERROR_MESSAGE);
+                }
+                writer.get();
+            }, GENERIC_ERROR_MESSAGE);
+            responses.flip();
+            for (int i = 0; i < numberOfFrames; i++) {
+                Assertions.assertEquals(Integer.BYTES + 1, responses.getInt(), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(1, responses.get(), GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(0, responses.getInt(), GENERIC_ERROR_MESSAGE);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void testMalformedFrameClosesTheConnection() throws Exception {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 1 << 20));
+            Assertions.assertEquals(-1, channel.read(ByteBuffer.allocate(16)), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testConcurrentConnections() throws Exception {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final List<Callable<Boolean>> connections = new ArrayList<>();
+        for (int connection = 0; connection < 32; connection++) {
+            final int face = 1 + connection % Category.NUMBER_OF_FACES;
+            connections.add(() -> {
+                try (ScoringClient client = ScoringClient.connect(address)) {
+                    for (int i = 0; i < 100; i++) {
+                        if (client.score(Category.CHANCE, List.of(face, face, face, face, face)) != 5 * face) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            });
+        }
+        for (Future<Boolean> connection : executorService.invokeAll(connections)) {
+            Assertions.assertTrue(connection.get(), GENERIC_ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    void testLoadGenerator() {
+        final SocketAddress address = startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final LoadReport report = new ScoringLoadGenerator(executorService, 42).run(address, 4, 50, 16);
+
+        Assertions.assertEquals(4 * 50 * 16, report.getNumberOfRequests(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertEquals(4 * 50, report.getNumberOfBatches(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(report.getRequestsPerSecond() > 0, GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(report.getBatchLatencyPercentileNanos(50)
+                <= report.getBatchLatencyPercentileNanos(99), GENERIC_ERROR_MESSAGE);
+    }
+
+    private SocketAddress startServer(final SocketAddress address) {
+        server = new ScoringServer(new TabulatedDiceApi(), address);
+        server.start();
+        return server.getLocalAddress();
+    }
+}
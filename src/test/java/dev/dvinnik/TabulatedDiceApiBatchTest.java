@@ -0,0 +1,15 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiBatchTest} against the tables
+ */
+public class TabulatedDiceApiBatchTest extends SchoonerDiceApiBatchTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new TabulatedDiceApi();
+    }
+}
@@ -0,0 +1,29 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tabulated Dice API test class for validating scoring method.
+ *
+ * Runs every scoring test of {SchoonerDiceApiScoreTest} against the tables, and additionally compares all ordered rolls
+ * against the reference implementation.
+ */
+public class TabulatedDiceApiScoreTest extends SchoonerDiceApiScoreTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new TabulatedDiceApi();
+    }
+
+    @Test
+    void testScoreMatchesReferenceImplementationForAllRolls() {
+        assertMatchesReference(diceApi);
+    }
+
+    @Test
+    void testScoreWithInvalidRolls() {
+        assertRejectsInvalidRolls(diceApi);
+    }
+}
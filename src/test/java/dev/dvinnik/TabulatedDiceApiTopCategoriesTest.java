@@ -0,0 +1,15 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.TabulatedDiceApi;
+
+/**
+ * Runs every test of {SchoonerDiceApiTopCategoriesTest} against the tables
+ */
+public class TabulatedDiceApiTopCategoriesTest extends SchoonerDiceApiTopCategoriesTest {
+
+    @Override
+    DiceApi initializeTestService() {
+        return new TabulatedDiceApi();
+    }
+}
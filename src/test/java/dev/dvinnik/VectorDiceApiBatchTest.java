@@ -0,0 +1,78 @@
+package dev.dvinnik;
+
+import dev.dvinnik.core.Category;
+import dev.dvinnik.core.CategoryMask;
+import dev.dvinnik.core.DiceApi;
+import dev.dvinnik.core.PackedRoll;
+import dev.dvinnik.core.RollBatch;
+import dev.dvinnik.core.SchoonerDiceApi;
+import dev.dvinnik.core.VectorDiceApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Runs every test of {SchoonerDiceApiBatchTest} against the Vector API scorer, and additionally compares it with its
+ * scalar fallback and on views that don't fill whole vectors
+ */
+public class VectorDiceApiBatchTest extends SchoonerDiceApiBatchTest {
+    private static final String GENERIC_ERROR_MESSAGE = "Incorrect vectorized result for the dice rolls";
+
+    private final DiceApi referenceDiceApi = new SchoonerDiceApi();
+
+    @Override
+    DiceApi initializeTestService() {
+        return new VectorDiceApi(true);
+    }
+
+    @Test
+    void testVectorApiIsUsed() {
+        // The build adds the incubator module to the test runtime
+        Assertions.assertTrue(VectorDiceApi.isVectorSupported(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertTrue(((VectorDiceApi) diceApi).isVectorized(), GENERIC_ERROR_MESSAGE);
+        Assertions.assertFalse(new VectorDiceApi(false).isVectorized(), GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testScalarFallbackMatchesVectorApi() {
+        final DiceApi scalarDiceApi = new VectorDiceApi(false);
+        final RollBatch rollBatch = allRollsBatch();
+        final int[] scores = new int[rollBatch.size() * CategoryMask.NUMBER_OF_CATEGORIES];
+        final int[] scalarScores = new int[scores.length];
+        diceApi.scoreAll(rollBatch, scores);
+        scalarDiceApi.scoreAll(rollBatch, scalarScores);
+        Assertions.assertArrayEquals(scalarScores, scores, GENERIC_ERROR_MESSAGE);
+
+        final int[] topCategoryMasks = new int[rollBatch.size()];
+        final int[] scalarTopCategoryMasks = new int[rollBatch.size()];
+        diceApi.topCategories(rollBatch, topCategoryMasks);
+        scalarDiceApi.topCategories(rollBatch, scalarTopCategoryMasks);
+        Assertions.assertArrayEquals(scalarTopCategoryMasks, topCategoryMasks, GENERIC_ERROR_MESSAGE);
+    }
+
+    @Test
+    void testViewsWithPartialVectors() {
+        final RollBatch rollBatch = allRollsBatch();
+        for (int from : new int[]{0, 1, 31, 33, 100}) {
+            final RollBatch view = rollBatch.view(from, 77);
+            final int[] scores = new int[view.size() * CategoryMask.NUMBER_OF_CATEGORIES];
+            final int[] chanceScores = new int[view.size()];
+            final int[] topCategoryMasks = new int[view.size()];
+            diceApi.scoreAll(view, scores);
+            diceApi.score(Category.CHANCE, view, chanceScores);
+            diceApi.topCategories(view, topCategoryMasks);
+            for (int i = 0; i < view.size(); i++) {
+                final List<Integer> diceRoll = PackedRoll.toList(view.getPackedRoll(i));
+                for (Category category : Category.values()) {
+                    Assertions.assertEquals(referenceDiceApi.score(category, diceRoll),
+                            scores[i * CategoryMask.NUMBER_OF_CATEGORIES + category.ordinal()], GENERIC_ERROR_MESSAGE);
+                }
+                Assertions.assertEquals(referenceDiceApi.score(Category.CHANCE, diceRoll), chanceScores[i],
+                        GENERIC_ERROR_MESSAGE);
+                Assertions.assertEquals(referenceDiceApi.topCategories(diceRoll),
+                        CategoryMask.toList(topCategoryMasks[i]), GENERIC_ERROR_MESSAGE);
+            }
+        }
+    }
+}